@@ -0,0 +1,107 @@
+package gameframe.vecmath;
+
+/*
+ * Microbenchmark for the vector core of Vec2D. It is kept out of src, so that it is not part of
+ * GameFrame itself; compile it together with (or against) the classes in src to run it.
+ */
+
+public class Vec2DBenchmark
+{
+	// Compares normalize(), changeMag() and addDir() with the angle based way they used to be done
+	// (setVec(getAngle(), ...)), checks that both give the same results, and prints the time taken
+	// for each. Run with: java gameframe.vecmath.Vec2DBenchmark [n]
+	public static void main(String[] args)
+	{
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+		
+		// Random test vectors, including some that lie on the axes.
+		java.util.Random random = new java.util.Random(1);
+		double[] xs = new double[1024];
+		double[] ys = new double[1024];
+		
+		for(int i = 0; i < xs.length; i++)
+		{
+			xs[i] = (random.nextDouble() - 0.5)*100.0;
+			ys[i] = (random.nextDouble() - 0.5)*100.0;
+			
+			if(i % 16 == 0)
+				xs[i] = 0.0;
+			if(i % 16 == 1)
+				ys[i] = 0.0;
+		}
+		
+		Vec2D v1 = new Vec2D();
+		Vec2D v2 = new Vec2D();
+		double maxError = 0.0;
+		
+		// Check that the results match.
+		for(int i = 0; i < xs.length; i++)
+		{
+			v1.set(xs[i], ys[i]);
+			v2.set(xs[i], ys[i]);
+			v1.setVec(v1.getAngle(), 3.0);
+			v2.changeMag(3.0);
+			maxError = Math.max(maxError, Math.abs(v1.getXComp() - v2.getXComp()));
+			maxError = Math.max(maxError, Math.abs(v1.getYComp() - v2.getYComp()));
+			
+			v1.set(xs[i], ys[i]);
+			v2.set(xs[i], ys[i]);
+			v1.changeDir(v1.getAngle() + 30.0);
+			v2.addDir(30.0);
+			maxError = Math.max(maxError, Math.abs(v1.getXComp() - v2.getXComp()));
+			maxError = Math.max(maxError, Math.abs(v1.getYComp() - v2.getYComp()));
+		}
+		
+		System.out.println("Largest difference with angle based results: " + maxError);
+		
+		// Run everything a few times so that the JIT compiler has done its work on the last run.
+		for(int run = 0; run < 3; run++)
+		{
+			double sum = 0.0;
+			
+			long start = System.nanoTime();
+			for(int i = 0; i < n; i++)
+			{
+				v1.set(xs[i & 1023], ys[i & 1023]);
+				v1.setVec(v1.getAngle(), 1.0);
+				sum += v1.getXComp();
+			}
+			long angleNormalize = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for(int i = 0; i < n; i++)
+			{
+				v1.set(xs[i & 1023], ys[i & 1023]);
+				v1.normalize();
+				sum += v1.getXComp();
+			}
+			long normalize = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for(int i = 0; i < n; i++)
+			{
+				v1.set(xs[i & 1023], ys[i & 1023]);
+				v1.changeDir(v1.getAngle() + 30.0);
+				sum += v1.getXComp();
+			}
+			long angleRotate = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			double cos = Math.cos(Math.toRadians(30.0));
+			double sin = Math.sin(Math.toRadians(30.0));
+			for(int i = 0; i < n; i++)
+			{
+				v1.set(xs[i & 1023], ys[i & 1023]);
+				v1.rotate(cos, sin);
+				sum += v1.getXComp();
+			}
+			long rotate = System.nanoTime() - start;
+			
+			System.out.println("Run " + run + " (" + n + " vectors, checksum " + (float)sum + "):");
+			System.out.println("  normalize, angle based: " + angleNormalize/1000000 + " ms");
+			System.out.println("  normalize:              " + normalize/1000000 + " ms");
+			System.out.println("  rotate, angle based:    " + angleRotate/1000000 + " ms");
+			System.out.println("  rotate:                 " + rotate/1000000 + " ms");
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package gameframe;
+
+import java.util.Arrays;
+
+import jgame.JGColor;
+import jgame.JGFont;
+import jgame.impl.JGEngineInterface;
+
+/*
+ * A FrameProfiler measures how long each phase of GameFrameLogic.doFrame() takes, so that one can
+ * see where the time of a frame goes before trying to make a game faster. Each frame, the time of
+ * every phase (updateButtons(), manageObjects(), the first moveObjects(), collideObjects(), etc) is
+ * measured with System.nanoTime(), together with how much the phase had to do (see getCount()).
+ * The times of the last window frames are kept for each phase, and from them the median (p50),
+ * the 99th percentile (p99) and the maximum are worked out, so the numbers always describe the
+ * recent frames of the game rather than all frames since it started.
+ *
+ * Turn profiling on by calling setProfiling(true) on the GameFrame or HeadlessGameFrame (for
+ * example in initGame()), and read the results through getProfiler(). A GameFrame can also draw
+ * them on the screen with setProfilerOverlay(true). Profiling is off by default, and costs nothing
+ * then.
+ *
+ * The times are recorded on the game thread but may be read from any thread (such as the one that
+ * paints the screen), since the results are only updated once a frame is done.
+ */
+
+public class FrameProfiler
+{
+	// The phases of a frame, in the order doFrame() runs them. Pass these to the get methods.
+	public static final int BUTTONS = 0; // updateButtons().
+	public static final int WORLD = 1; // Updating the World.
+	public static final int MANAGE = 2; // manageObjects().
+	public static final int WAKE = 3; // Waking sleeping RBObjects (RBObject.checkSleeping()).
+	public static final int FORCES = 4; // Calculating forces on several threads, if turned on.
+	public static final int MOVE_FORCES = 5; // The first moveObjects(), which applies forces.
+	public static final int COLLIDE_OBJECTS = 6; // collideObjects().
+	public static final int COLLIDE_BG = 7; // collideBG().
+	public static final int CONTACTS = 8; // Solving contacts with the ContactSolver.
+	public static final int MOVE = 9; // The second moveObjects(), which moves the objects.
+	public static final int PARTICLES = 10; // Updating the ParticleSystems.
+	public static final int FRAME = 11; // The whole frame.
+
+	public static final int NR_PHASES = 12;
+
+	private static final String[] NAMES = {"buttons", "world", "manage", "wake", "forces",
+		"move forces", "collide obj", "collide bg", "contacts", "move", "particles", "frame"};
+
+	private int window; // The number of frames the results are taken from.
+	private long[][] times; // The times of each phase in the last window frames, in nanoseconds.
+	private int[] counts = new int[NR_PHASES]; // The count of each phase, last frame.
+	private int next = 0; // The index in times of the next frame to record.
+	private int frames = 0; // The number of frames recorded in times (at most window).
+	private long totalFrames = 0; // The number of frames recorded since the last reset().
+
+	// The results, worked out from times when they are asked for after a new frame was recorded.
+	private long[] p50 = new long[NR_PHASES];
+	private long[] p99 = new long[NR_PHASES];
+	private long[] max = new long[NR_PHASES];
+	private boolean stale = false;
+	private long[] sorted; // Used to sort the times of one phase.
+
+	// The frame being recorded, only used on the game thread.
+	private long[] frameTimes = new long[NR_PHASES];
+	private int[] frameCounts = new int[NR_PHASES];
+	private long frameStart; // When the frame began.
+	private long phaseStart; // When the current phase began.
+	private long phaseWork; // The work count of the engine when the current phase began.
+
+	private JGFont font = new JGFont("Monospaced", JGFont.PLAIN, 11); // Used to draw the overlay.
+
+	// Creates a FrameProfiler that keeps the times of the last window frames (at least 1).
+	public FrameProfiler(int window)
+	{
+		this.window = Math.max(window, 1);
+
+		times = new long[NR_PHASES][this.window];
+		sorted = new long[this.window];
+	}
+
+	// Creates a FrameProfiler that keeps the times of the last 300 frames (5 seconds at 60 fps).
+	public FrameProfiler()
+	{
+		this(300);
+	}
+
+	// Called by doFrame() at the start of a frame, with the work count of the engine (see
+	// JGEngineInterface.getWorkCount()).
+	void startFrame(long work)
+	{
+		frameStart = System.nanoTime();
+		phaseStart = frameStart;
+		phaseWork = work;
+	}
+
+	// Called by doFrame() at the end of each phase, with the work count of the engine and the number
+	// of things the phase handled outside of the engine.
+	void endPhase(int phase, long work, int count)
+	{
+		long now = System.nanoTime();
+
+		frameTimes[phase] = now - phaseStart;
+		frameCounts[phase] = (int)(work - phaseWork) + count;
+
+		phaseStart = now;
+		phaseWork = work;
+	}
+
+	// Called by doFrame() at the end of a frame, adds the times of the frame to the results.
+	synchronized void endFrame()
+	{
+		frameTimes[FRAME] = System.nanoTime() - frameStart;
+		frameCounts[FRAME] = 0;
+
+		for(int i = 0; i < FRAME; i++)
+			frameCounts[FRAME] += frameCounts[i];
+
+		for(int i = 0; i < NR_PHASES; i++)
+			times[i][next] = frameTimes[i];
+
+		System.arraycopy(frameCounts, 0, counts, 0, NR_PHASES);
+
+		next = (next + 1) % window;
+		if(frames < window)
+			frames++;
+		totalFrames++;
+		stale = true;
+	}
+
+	// Works out p50, p99 and max from times if a frame was recorded since they last were.
+	private void update()
+	{
+		if(!stale)
+			return;
+
+		for(int i = 0; i < NR_PHASES; i++)
+		{
+			if(frames == 0)
+			{
+				p50[i] = p99[i] = max[i] = 0;
+				continue;
+			}
+
+			System.arraycopy(times[i], 0, sorted, 0, frames);
+			Arrays.sort(sorted, 0, frames);
+
+			p50[i] = sorted[(frames - 1) / 2];
+			p99[i] = sorted[(int)Math.ceil(frames * 0.99) - 1];
+			max[i] = sorted[frames - 1];
+		}
+
+		stale = false;
+	}
+
+	// Returns the median time of the phase over the last window frames, in nanoseconds.
+	public synchronized long getP50(int phase)
+	{
+		update();
+		return p50[phase];
+	}
+
+	// Returns the time that 99 percent of the last window frames took at most for the phase, in
+	// nanoseconds.
+	public synchronized long getP99(int phase)
+	{
+		update();
+		return p99[phase];
+	}
+
+	// Returns the longest time of the phase over the last window frames, in nanoseconds.
+	public synchronized long getMax(int phase)
+	{
+		update();
+		return max[phase];
+	}
+
+	// Returns how much the phase had to do in the last frame: the number of objects the engine
+	// moved in the moveObjects() phases, the number of object pairs tested in collideObjects(), the
+	// number of objects tested against the tiles in collideBG(), the number of sleeping RBObjects
+	// checked for waking, the number of RBObjects whose forces were calculated on several threads,
+	// the number of contacts solved, and the number of particles. The other phases count the work
+	// the engine did during them (if they move objects or check collisions themselves). For FRAME,
+	// this is the sum of all phases.
+	public synchronized int getCount(int phase)
+	{
+		return counts[phase];
+	}
+
+	// Returns the name of the phase, as used in the report.
+	public static String getName(int phase)
+	{
+		return NAMES[phase];
+	}
+
+	// Returns the number of frames the results are taken from (at most window).
+	public synchronized int getFrames()
+	{
+		return frames;
+	}
+
+	// Returns the number of frames recorded since the FrameProfiler was created or reset.
+	public synchronized long getTotalFrames()
+	{
+		return totalFrames;
+	}
+
+	// Returns the number of frames the results are taken from once enough frames were recorded.
+	public int getWindow()
+	{
+		return window;
+	}
+
+	// Forgets all recorded frames.
+	public synchronized void reset()
+	{
+		next = 0;
+		frames = 0;
+		totalFrames = 0;
+		Arrays.fill(counts, 0);
+		stale = true;
+	}
+
+	// Returns the results as lines of text, a header and one line for each phase with its p50, p99
+	// and max in milliseconds and its count (see getCount()).
+	public synchronized String[] getReport()
+	{
+		update();
+
+		String[] lines = new String[NR_PHASES + 1];
+
+		lines[0] = String.format("%-12s %7s %7s %7s %7s", "phase (ms)", "p50", "p99", "max",
+				"count");
+
+		for(int i = 0; i < NR_PHASES; i++)
+			lines[i + 1] = String.format("%-12s %7.3f %7.3f %7.3f %7d", NAMES[i], p50[i] / 1e6,
+					p99[i] / 1e6, max[i] / 1e6, counts[i]);
+
+		return lines;
+	}
+
+	// Returns the report as one string (see getReport()).
+	@Override
+	public String toString()
+	{
+		String[] lines = getReport();
+		StringBuilder text = new StringBuilder();
+
+		for(int i = 0; i < lines.length; i++)
+			text.append(lines[i]).append('\n');
+
+		return text.toString();
+	}
+
+	// Draws the report in the top left corner of the view, on a dark background. Called in
+	// GameFrame.paintFrame() when the overlay is turned on.
+	public void paint(JGEngineInterface eng)
+	{
+		String[] lines = getReport();
+		double lineHeight = font.getSize2D() + 2;
+
+		eng.setColor(JGColor.black);
+		eng.drawRect(0, 0, font.getSize2D() * 28, lineHeight * lines.length + 4, true, false, false);
+
+		for(int i = 0; i < lines.length; i++)
+			eng.drawString(lines[i], 4, 2 + i * lineHeight, -1, font, JGColor.yellow);
+	}
+}
@@ -0,0 +1,101 @@
+package gameframe;
+
+import gameframe.forcefields.ForceField;
+import gameframe.forcefields.ForceFieldIndex;
+import gameframe.rbs.ContactSolver;
+import gameframe.rbs.ParticleSystem;
+import gameframe.rbs.RBObject;
+import gameframe.surface.Surface;
+import gameframe.surface.SurfaceRegistry;
+import gameframe.vecmath.Coord;
+import gameframe.vecmath.Vec2D;
+
+import java.util.ArrayList;
+
+/*
+ * A GameContext holds the state of one game world that the classes of GameFrame share: the current
+ * frame, the lists of ActorManagers, ForceFields, Surfaces and ParticleSystems, the gravity
+ * settings, the World, ContactSolver and ForceFieldIndex in use, the limits and counts of the game
+ * objects, the sleep settings of RBObjects, and the Buttons being tracked. Having this in an object
+ * instead of in static fields makes it possible to run several independent worlds in one program,
+ * each on its own thread (see HeadlessGameFrame and WorldRunner).
+ *
+ * Each thread has a current GameContext, returned by current(), which is the one the classes of
+ * GameFrame use. It is the global GameContext unless another one is bound to the thread with
+ * bind(), so a game with a single GameFrame simply uses the global one and never has to bind
+ * anything. A HeadlessGameFrame has a GameContext of its own and binds it while it runs frames.
+ * RBObjects, ForceFields and ParticleSystems belong to the GameContext that was current when they
+ * were created.
+ *
+ * The settings (such as gravOn and maxActors) are set on the current GameContext, usually in
+ * initGame(), for example: GameContext.current().gravOn = true;
+ */
+
+public class GameContext
+{
+	private static final GameContext global = new GameContext(); // Used by threads with no bound
+																  // GameContext.
+
+	private static final ThreadLocal<GameContext> bound = new ThreadLocal<GameContext>();
+
+	// Returns the GameContext bound to the calling thread, or the global GameContext if none is.
+	public static GameContext current()
+	{
+		GameContext context = bound.get();
+
+		return context != null ? context : global;
+	}
+
+	// Returns the global GameContext, used by threads that have none bound to them.
+	public static GameContext global()
+	{
+		return global;
+	}
+
+	// Binds a GameContext to the calling thread, so that current() returns it. Returns the
+	// GameContext that was bound before (or null if none was), which should be bound again when the
+	// thread is done with this one. Pass null to unbind.
+	public static GameContext bind(GameContext context)
+	{
+		GameContext old = bound.get();
+
+		if(context != null)
+			bound.set(context);
+		else
+			bound.remove();
+
+		return old;
+	}
+
+
+	public long currentFrame = 0; // The number of frames that have passed (see GameFrame).
+
+	public ArrayList<ActorManager> managers = new ArrayList<ActorManager>(); // See ManagerList.
+	public ArrayList<ForceField> forceFields = new ArrayList<ForceField>(); // See ForceField.
+	public ArrayList<Surface> surfaces = new ArrayList<Surface>(); // See Surface.
+	public ArrayList<ParticleSystem> particleSystems = new ArrayList<ParticleSystem>();
+
+	public SurfaceRegistry surfaceRegistry = new SurfaceRegistry(surfaces); // Finds the Surfaces of
+																			// a tile.
+
+	public boolean gravOn = false; // Set to true for RBObjects to be affected by gravity (see
+								   // Gravity).
+	public Vec2D g = new Vec2D(new Coord(0.0, 1.0)); // The acceleration due to gravity.
+
+	public World world = null; // The World that GameFrame updates each frame, if any.
+	public ContactSolver contactSolver = null; // The ContactSolver that RBObjects add contacts to.
+	public ForceFieldIndex forceFieldIndex = null; // The ForceFieldIndex RBObjects use.
+
+	// The maximum numbers of game objects that may be created, and the current numbers of them (see
+	// RBObject, Actor, Particle, Pickup and Projectile).
+	public int maxRB, maxActors, maxParticles, maxPickups, maxProjectiles;
+	public int rbCount, actorCount, particleCount, pickupCount, projectileCount;
+
+	// The sleep settings of RBObjects (see RBObject.sleepFrames).
+	public int sleepFrames = 0; // Frames at rest before an RBObject sleeps. 0 turns sleeping off.
+	public double sleepSpeed = 0.02; // Speed below which an RBObject counts as at rest.
+	public int sleepCheckFrames = 15; // How often sleeping RBObjects check their forces.
+	public ArrayList<RBObject> sleeping = new ArrayList<RBObject>(); // The sleeping RBObjects.
+
+	GameFrameLogic.Button[] buttonList; // The Buttons being tracked (see GameFrameLogic).
+}
@@ -1,5 +1,7 @@
 package gameframe;
 
+import gameframe.rbs.ParticleSystem;
+
 import jgame.*;
 import jgame.impl.*;
 import jgame.platform.*;
@@ -40,18 +42,14 @@ import jgame.platform.*;
  */
 
 @SuppressWarnings({ "serial", "unused" }) // Suppresses unnecessary warnings. 
-public abstract class GameFrame extends JGEngine
+public abstract class GameFrame extends JGEngine implements GameFrameLogic.Game
 {
-	protected static long currentFrame = 0; // Used to keep track of how many frames have passed 
-											// since the game has started running or since it was
-											// last reset. Static so that it can be accessed by 
-											// other classes in framework.
-	
 	// Getter method used by other classes or objects in order to get the current number of frames
-	// the game has been running. 
+	// the game has been running. The number is kept in the current GameContext (see GameContext), 
+	// so that it can be accessed by other classes in framework. 
 	public static long getCurrFrame()
 	{
-		return currentFrame;
+		return GameContext.current().currentFrame;
 	}
 	
 	// Method used to reset currentFrame to zero. May be called in situations where the game resets,
@@ -59,7 +57,7 @@ public abstract class GameFrame extends JGEngine
 	// level in the game. 
 	public static void resetFrame()
 	{
-		currentFrame = 0;
+		GameContext.current().currentFrame = 0;
 	}
 	
 	// Constructor if your game is being launched as an application. Call this super constructor in
@@ -77,22 +75,18 @@ public abstract class GameFrame extends JGEngine
 		initEngineApplet();
 	}
 	
+	private GameFrameLogic logic = new GameFrameLogic(); // Does the work of doFrame(), and is 
+														 // shared with HeadlessGameFrame. 
+	
 	// The doFrame() method is a method that's used to update your game each frame. It is overridden
 	// in GameFrame in order to have currentFrame increment at the end of each frame. Call the super
 	// doFrame() method at the end of your class's doFrame() method in order to have it properly 
-	// keep track of the number of frames that have passed. 
+	// keep track of the number of frames that have passed. See GameFrameLogic.doFrame() for what it
+	// does each frame. 
 	@Override
 	public void doFrame()
 	{
-		updateButtons(); // Update status of buttons to read new user input this frame.
-		
-		manageObjects(); // Manage game objects (mainly Actor objects).
-		moveObjects(); // Move game objects, used to implement gravity and force fields.
-		collideObjects(); // Process object-object collisions.
-		collideBG(); // Process object-tile collisions.
-		moveObjects(); // Move game objects again, used to actually move game objects this time. 
-		
-		currentFrame++; // Update the current number of frames that have passed.
+		logic.doFrame(this);
 	}
 	
 	// The following methods, manageObjects(), collideObjects(), and collideBG(), are exceptions to
@@ -131,22 +125,63 @@ public abstract class GameFrame extends JGEngine
 		
 	}
 	
-	// Override this to print things other than environment and game objects to screen. 
+	// Override this to print things other than environment and game objects to screen. Draws the
+	// particles of all ParticleSystems, so call the super method (at the start, so that the particles
+	// are drawn underneath what you draw) if you use ParticleSystems. Also draws the profiler 
+	// overlay if it is turned on (see setProfilerOverlay()). 
 	@Override
 	public void paintFrame()
 	{
+		ParticleSystem.paintAll();
+		
+		FrameProfiler profiler = logic.getProfiler();
 		
+		if(profilerOverlay && profiler != null)
+			profiler.paint(this);
+	}
+	
+	// Sets the number of threads to calculate the forces of gravity and ForceFields on. Pass a 
+	// number of 1 or less to turn calculating on several threads off. Pass the number of processors
+	// (Runtime.getRuntime().availableProcessors()) to use all of them. See GameFrameLogic for how
+	// the forces are calculated on several threads. 
+	public void setParallelForces(int threads)
+	{
+		logic.setParallelForces(threads);
+	}
+	
+	// Returns the number of threads forces are calculated on, or zero if it is turned off.
+	public int getParallelForces()
+	{
+		return logic.getParallelForces();
+	}
+	
+	private boolean profilerOverlay = false; // Whether paintFrame() draws the profiler results.
+	
+	// Turns timing each phase of doFrame() on or off (see FrameProfiler). Read the results with 
+	// getProfiler(). 
+	public void setProfiling(boolean on)
+	{
+		logic.setProfiling(on);
+	}
+	
+	// Returns the FrameProfiler with the times of the phases of doFrame(), or null if profiling is
+	// turned off. 
+	public FrameProfiler getProfiler()
+	{
+		return logic.getProfiler();
+	}
+	
+	// Turns drawing the results of the FrameProfiler in the top left corner of the screen on or off.
+	// Profiling must be turned on with setProfiling() for anything to be drawn. 
+	public void setProfilerOverlay(boolean on)
+	{
+		profilerOverlay = on;
 	}
 	
 	
 	/*
-	 * The GameFrame class can check input from a user/player. It can read input from both
-	 * the keyboard and mouse. (Note: if application is for a mobile or android device, then the input
-	 * may correspond to different things, ex: a left mouse click would be a tap on an android 
-	 * device's screen. GameFrame is not designed yet to check input for android or mobile phone 
-	 * devices yet (might be a thing to add in later) so I am not sure if all input from those kinds 
-	 * of devices is properly supported yet.) Use the trackAll() or trackThese() methods to tell   
-	 * GameFrame what new set of Buttons it should track. 
+	 * The GameFrame class can check input from a user/player. The Buttons that track it are kept by
+	 * GameFrameLogic (see there for more), these methods pass calls on to it. 
 	 */
 	
 	public static final int PRESS = 1; // Pass this as the state to checkButton() to see if the button
@@ -157,260 +192,51 @@ public abstract class GameFrame extends JGEngine
 
 	public static final int RELEASE = 3; // Pass this as the state to checkButton() to see if the 
 		                          		 // Button has just been released. 
-
-	private static Button[] buttonList; // An array containing all the Button objects for input that
-                                 		// the Input class is tracking. 
-
-	// Sets up the Input class so that it tracks all possible input (on a computer). 
+	
+	// Sets up GameFrame so that it tracks all possible input (on a computer). 
 	public void trackAll()
-	{	
-		buttonList = new Button[62]; // Set buttonList to a new array that will hold Button objects
-									 // for each key on the keyboard and buttons on the mouse. 
-
-		// Create Button objects for all possible keyboard and mouse buttons, add them to buttonList. 
-		buttonList[0] = new Button(GameFrame.KeyAlt);
-		buttonList[1] = new Button(GameFrame.KeyBackspace);
-		buttonList[2] = new Button(GameFrame.KeyCtrl);
-		buttonList[3] = new Button(GameFrame.KeyUp);
-		buttonList[4] = new Button(GameFrame.KeyDown);
-		buttonList[5] = new Button(GameFrame.KeyLeft);
-		buttonList[6] = new Button(GameFrame.KeyRight);
-		buttonList[7] = new Button(GameFrame.KeyEsc);
-		buttonList[8] = new Button(GameFrame.KeyShift);
-		buttonList[9] = new Button(GameFrame.KeyTab);
-		buttonList[10] = new Button(GameFrame.KeyMouse1);
-		buttonList[11] = new Button(GameFrame.KeyMouse2);
-		buttonList[12] = new Button(GameFrame.KeyMouse3);
-		buttonList[13] = new Button('1');
-		buttonList[14] = new Button('2');
-		buttonList[15] = new Button('3');
-		buttonList[16] = new Button('4');
-		buttonList[17] = new Button('5');
-		buttonList[18] = new Button('6');
-		buttonList[19] = new Button('7');
-		buttonList[20] = new Button('8');
-		buttonList[21] = new Button('9');
-		buttonList[22] = new Button('0');
-		buttonList[23] = new Button('`');
-		buttonList[24] = new Button('-');
-		buttonList[25] = new Button('=');
-		buttonList[26] = new Button(GameFrame.KeyEnter);
-		buttonList[27] = new Button('q');
-		buttonList[28] = new Button('w');
-		buttonList[29] = new Button('e');
-		buttonList[30] = new Button('r');
-		buttonList[31] = new Button('t');
-		buttonList[32] = new Button('y');
-		buttonList[33] = new Button('u');
-		buttonList[34] = new Button('i');
-		buttonList[35] = new Button('o');
-		buttonList[36] = new Button('p');
-		buttonList[37] = new Button('a');
-		buttonList[38] = new Button('s');
-		buttonList[39] = new Button('d');
-		buttonList[40] = new Button('f');
-		buttonList[41] = new Button('g');
-		buttonList[42] = new Button('h');
-		buttonList[43] = new Button('j');
-		buttonList[44] = new Button('k');
-		buttonList[45] = new Button('l');
-		buttonList[46] = new Button('z');
-		buttonList[47] = new Button('x');
-		buttonList[48] = new Button('c');
-		buttonList[49] = new Button('v');
-		buttonList[50] = new Button('b');
-		buttonList[51] = new Button('n');
-		buttonList[52] = new Button('m');
-		buttonList[53] = new Button('[');
-		buttonList[54] = new Button(']');
-		buttonList[55] = new Button('\\');
-		buttonList[56] = new Button(';');
-		buttonList[57] = new Button('\'');
-		buttonList[58] = new Button(',');
-		buttonList[59] = new Button('.');
-		buttonList[60] = new Button('/');
-		buttonList[61] = new Button(' ');
+	{
+		GameFrameLogic.trackAll();
 	}
-
-	// Sets Input class to track the buttons whose key code or character symbol is in either array. 
+	
+	// Sets GameFrame to track the buttons whose key code or character symbol is in either array. 
 	public void trackThese(int[] intIDs, char[] charIDs)
 	{
-		buttonList = new Button[intIDs.length + charIDs.length]; // Set buttonList to a new array of
-								 // appropriate size.
-
-		// Add all the Button objects for buttons specified by their key code to buttonList.
-		for(int i = 0; i < intIDs.length; i++)
-		{
-			buttonList[i] = new Button(intIDs[i]);
-		}
-
-		// Add all the Button objects for buttons specified by their character symbol to buttonList.
-		for(int i = intIDs.length; i < intIDs.length + charIDs.length; i++)
-		{
-			buttonList[i] = new Button(charIDs[i - intIDs.length]);
-		}
+		GameFrameLogic.trackThese(intIDs, charIDs);
 	}
-
-	// Sets Input class to track the buttons whose key code is in the intIDs array. 
+	
+	// Sets GameFrame to track the buttons whose key code is in the intIDs array. 
 	public void trackThese(int[] intIDs)
 	{
-		buttonList = new Button[intIDs.length]; // Set buttonList to a new array of appropriate size.
-
-		// Add all the Button objects for buttons specified by their key code to buttonList.
-		for(int i = 0; i < intIDs.length; i++)
-		{
-			buttonList[i] = new Button(intIDs[i]);
-		}
+		GameFrameLogic.trackThese(intIDs);
 	}
-
-	// Sets Input class to track the buttons whose character symbol is in the charIDs array. 
+	
+	// Sets GameFrame to track the buttons whose character symbol is in the charIDs array. 
 	public void trackThese(char[] charIDs)
 	{
-		buttonList = new Button[charIDs.length]; // Set buttonList to a new array of appropriate size.
-
-		// Add all the Button objects for buttons specified by their character symbol to buttonList.
-		for(int i = 0; i < charIDs.length; i++)
-		{
-			buttonList[i] = new Button(charIDs[i]);
-		}
+		GameFrameLogic.trackThese(charIDs);
 	}
-
+	
 	// Checks the state of the button given by the key code passed through id for the given state 
 	// passed through state (either PRESS, HOLD, or RELEASE). Returns true if button is in given state
 	// and false if not. 
 	public static boolean checkButton(int id, int state)
 	{
-		// Find Button object for button with key code id.
-		for(Button b : buttonList)
-		{
-			if(b.getIntID() == id)
-				return b.checkState(state); // Return whether or not it's in the requested state.
-		}
-		return false; // Return false if Input is not tracking the input from the button with key code
-					  // id.
+		return GameFrameLogic.checkButton(id, state);
 	}
-
+	
 	// Checks the state of the button given by the character passed through id for the given state 
 	// passed through state (either PRESS, HOLD, or RELEASE). Returns true if button is in given state
 	// and false if not. 
 	public static boolean checkButton(char id, int state)
 	{
-		// Find Button object for button represented by character id.
-		for(Button b : buttonList)
-		{
-			if(b.getCharID() == id)
-				return b.checkState(state); // Return whether or not it's in the requested state.
-		}
-		return false; // Return false if Input is not tracking the input from the button representing 
-		              // the given character id.
+		return GameFrameLogic.checkButton(id, state);
 	}
-
-	// Calls the updateButton() method for all Buttons in buttonList so that they know whether the
-	// button they are tracking is PRESS, HOLD, RELEASE, or none of those conditions. 
+	
+	// Updates the state of all tracked Buttons from the keys of this engine. Called at the start of
+	// doFrame(). 
 	public void updateButtons()
 	{
-		for(Button b : buttonList)
-		{
-			b.updateButton();
-		}
-	}
-
-	// Objects of this class track the current state of a single source of input from either the
-	// keyboard or mouse (tracks the input from a button). The class is nested in GameFrame because
-	// it doesn't make sense for other classes to be able to instantiate the Button class at all. 
-	class Button
-	{
-		private boolean prevState; // Stores whether or not the button being tracked was pressed down
-								   // last frame or not. 
-
-		private boolean press; // Set to true when the PRESS condition is true for the button being 
-							   // tracked. 
-		private boolean hold; // Set to true when the HOLD condition is true for the button being 
-                              // tracked.
-		private boolean release; // Set to true when the RELEASE condition is true for the button  
-								 // being tracked.
-
-		private int intID; // Stores the key code of the button to be tracked. If Button is using a
-						   // character to identify the button it is tracking, this is set to -1.
-		private char charID; // Stores the character of the button to be tracked. If Button is using a
-							 // key code to identify the button it is tracking, this is set to '\n'.
-
-		// Constructor that sets Button to track input for the button represented by the character id.
-		public Button(char id)
-		{
-			charID = id;
-			intID = -1;
-			
-			prevState = false; // button has never been pressed yet.
-		}
-
-		// Constructor that sets Button to track input for the button with key code id.
-		public Button(int id)
-		{
-			intID = id;
-			charID = '\n';
-			
-			prevState = false; // button has never been pressed yet.
-		}
-		
-		// Updates whether the button being tracked is in the PRESS, HOLD, or RELEASE state. 
-		public void updateButton()
-		{
-			// Reset states.
-			press = false;
-			hold = false;
-			release = false;
-			
-			boolean current; // Holds whether button is being held down this frame or not.
-			
-			// Determine if button is being held down this frame.
-			if(intID == -1)
-				current = getKey(charID);
-			else
-				current = getKey(intID);
-			
-			// Set the state of the button based on whether or not it's being held down this frame and
-			// whether or not it was held down last frame. 
-			if(current == true && prevState == false)
-				press = true;
-			if(current == true && prevState == true)
-				hold = true;
-			if(current == false && prevState == true)
-				release = true;
-			
-			prevState = current; // The condition of the button this frame will be the condition of
-								 // the button last frame the next time this method is called. 
-		}
-
-		// Returns whether or not the button that this Button object is tracking input for is in the
-		// requested state (either PRESS, HOLD, or RELEASE).
-		public boolean checkState(int state)
-		{
-			if(state == PRESS) 
-				return press;
-			else if(state == HOLD)
-				return hold;
-			else if(state == RELEASE)
-				return release;
-			else
-				return false; // Returns false if something non-sensical was passed through state. 
-		}
-
-		// Returns the key code of the button being tracked or -1 if Button is not using a key code to
-		// track the button.
-		public int getIntID()
-		{
-			return intID;
-		}
-
-		// Returns the character symbol of the button being tracked or '\n' if Button is not using a
-		// character symbol to track the button. 
-		public char getCharID()
-		{
-			return charID;
-		}
+		GameFrameLogic.updateButtons(this);
 	}
 }
-
-
-
@@ -0,0 +1,613 @@
+package gameframe;
+
+import gameframe.rbs.ParticleSystem;
+import gameframe.rbs.RBObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import jgame.JGObject;
+import jgame.JGRectangle;
+import jgame.impl.JGEngineInterface;
+
+/*
+ * GameFrameLogic is the part of GameFrame that does not depend on which engine the game runs on,
+ * much like JGame's EngineLogic. GameFrame runs on a JGEngine, which draws the game in a window or
+ * applet, and HeadlessGameFrame runs on a JGHeadlessEngine, which runs the game without a display.
+ * Both have a GameFrameLogic, call its doFrame() from their own doFrame(), and pass their other
+ * methods (such as setParallelForces() and trackAll()) on to it, so that a game behaves the same
+ * on both. The Buttons that track input are static, like checkButton(). 
+ */
+
+public class GameFrameLogic
+{
+	// The methods of GameFrame and HeadlessGameFrame that doFrame() calls. The first four can be 
+	// overridden by games, the others are those of JGEngineInterface that GameFrameLogic uses. It 
+	// does not extend JGEngineInterface, so that the key constants of GameFrame (GameFrame.KeyTab
+	// etc) are not inherited twice. 
+	public interface Game
+	{
+		public void updateButtons();
+		public void manageObjects();
+		public void collideObjects();
+		public void collideBG();
+		
+		public void moveObjects();
+		public int countObjects(String prefix, int cidmask);
+		public long getWorkCount();
+		public int getObjects(String prefix, int cidmask, boolean suspended_obj, JGRectangle bbox,
+				JGObject[] dest);
+		public void exitEngine(String msg);
+		public String dbgExceptionToString(Throwable e);
+		public void dbgShowException(String source, Throwable e);
+	}
+	
+	// Does what GameFrame does each frame, calling the methods of game that can be overridden. 
+	public void doFrame(Game game)
+	{
+		GameContext context = GameContext.current();
+		
+		if(profiler != null) // Time the phases of this frame (see FrameProfiler).
+			profiler.startFrame(game.getWorkCount());
+		
+		game.updateButtons(); // Update status of buttons to read new user input this frame.
+		endPhase(game, FrameProfiler.BUTTONS, 0);
+		
+		if(context.world != null) // Load and unload Rooms around the view.
+			context.world.update();
+		endPhase(game, FrameProfiler.WORLD, 0);
+		
+		game.manageObjects(); // Manage game objects (mainly Actor objects).
+		endPhase(game, FrameProfiler.MANAGE, 0);
+		int nrSleeping = context.sleeping.size(); // The sleeping RBObjects checkSleeping() checks.
+		RBObject.checkSleeping(); // Wake sleeping RBObjects whose forces have changed.
+		endPhase(game, FrameProfiler.WAKE, nrSleeping);
+		int nrForces = 0; // The RBObjects whose forces were calculated on several threads.
+		if(forceThreads > 1) // Calculate gravity and ForceField forces on several threads.
+			nrForces = calcForcesParallel(game);
+		endPhase(game, FrameProfiler.FORCES, nrForces);
+		game.moveObjects(); // Move game objects, used to implement gravity and force fields.
+		endPhase(game, FrameProfiler.MOVE_FORCES, 0);
+		game.collideObjects(); // Process object-object collisions.
+		endPhase(game, FrameProfiler.COLLIDE_OBJECTS, 0);
+		game.collideBG(); // Process object-tile collisions.
+		endPhase(game, FrameProfiler.COLLIDE_BG, 0);
+		int nrContacts = 0; // The contacts solved.
+		if(context.contactSolver != null) // Resolve the contacts between RBObjects all at once.
+		{
+			context.contactSolver.solve();
+			nrContacts = context.contactSolver.getNrContacts();
+		}
+		endPhase(game, FrameProfiler.CONTACTS, nrContacts);
+		game.moveObjects(); // Move game objects again, used to actually move game objects this time. 
+		endPhase(game, FrameProfiler.MOVE, 0);
+		ParticleSystem.updateAll(); // Move the particles of all ParticleSystems.
+		endPhase(game, FrameProfiler.PARTICLES, profiler != null ? countParticles(context) : 0);
+		
+		context.currentFrame++; // Update the current number of frames that have passed.
+		
+		if(profiler != null)
+			profiler.endFrame();
+	}
+	
+	
+	/*
+	 * GameFrameLogic can measure how long each phase of doFrame() takes with a FrameProfiler (see 
+	 * there for more). It is turned on with setProfiling(), and the times are read through 
+	 * getProfiler(). 
+	 */
+	
+	private FrameProfiler profiler = null; // Times the phases of doFrame(), null if turned off.
+	
+	// Records the end of a phase of doFrame() if profiling is turned on. count is the number of
+	// things the phase handled outside of the engine (see FrameProfiler.getCount()). 
+	private void endPhase(Game game, int phase, int count)
+	{
+		if(profiler != null)
+			profiler.endPhase(phase, game.getWorkCount(), count);
+	}
+	
+	// Returns the number of particles in all ParticleSystems of context. 
+	private int countParticles(GameContext context)
+	{
+		int count = 0;
+		
+		for(int i = 0; i < context.particleSystems.size(); i++)
+			count += context.particleSystems.get(i).getSize();
+		
+		return count;
+	}
+	
+	// Turns timing the phases of doFrame() on or off. Turning it on again starts with a new 
+	// FrameProfiler. 
+	public void setProfiling(boolean on)
+	{
+		if(on && profiler == null)
+			profiler = new FrameProfiler();
+		else if(!on)
+			profiler = null;
+	}
+	
+	// Returns the FrameProfiler with the times of the phases of doFrame(), or null if profiling is
+	// turned off. 
+	public FrameProfiler getProfiler()
+	{
+		return profiler;
+	}
+	
+	
+	/*
+	 * GameFrameLogic can calculate the forces of gravity and ForceFields on RBObjects on several threads
+	 * at once, which helps when there are many RBObjects and ForceFields. Turn this on by calling
+	 * setParallelForces() (for example in initGame()). Each frame, the RBObjects are then split into
+	 * as many chunks as there are threads, and each thread calls precomputeForces() for the 
+	 * RBObjects in its chunk before the first call to moveObjects(). Each RBObject only adds up its
+	 * own forces, in the order of ForceField.list, so the result is the same as when they are 
+	 * calculated on one thread. The onEnter() and whileIn() methods of ForceFields are not called
+	 * by the threads, but afterwards on the game thread, in the same order as moveObjects() would 
+	 * call them. This does mean they are called after the forces of all ForceFields have been 
+	 * calculated for that frame, so changes they make to an RBObject (such as to its charge) only
+	 * affect the forces on it from the next frame on. 
+	 * 
+	 * The inField() and calcForce() methods of all ForceFields in ForceField.list should only read
+	 * shared state when this is turned on (see ForceField.getForceNoCallback()). 
+	 */
+	
+	private static final int MIN_PARALLEL_RB = 64; // Below this number of RBObjects, the forces are 
+												   // calculated in moveObjects() as usual. 
+	
+	private int forceThreads = 0; // The number of threads to calculate forces on, or zero if off.
+	private ExecutorService forcePool = null; // The threads that calculate the forces.
+	private ArrayList<ForceTask> forceTasks = new ArrayList<ForceTask>(); // One for each thread.
+	private JGObject[] forceObjects = new JGObject[MIN_PARALLEL_RB]; // The objects of this frame.
+	private RBObject[] forceRBs = new RBObject[MIN_PARALLEL_RB]; // The RBObjects of this frame.
+	private int nrForceRBs = 0;
+	
+	// Calculates the forces of part of forceRBs. Also catches any exception, so that it can be
+	// shown on the game thread. 
+	private class ForceTask implements Callable<Object>
+	{
+		int first; // The first index in forceRBs of the chunk.
+		int last; // One past the last index in forceRBs of the chunk.
+		RBObject failed; // The RBObject for which an exception was thrown, if any.
+		Exception exception;
+		GameContext context; // The GameContext of the game, bound to the thread while it runs.
+		
+		public Object call()
+		{
+			failed = null;
+			exception = null;
+			
+			GameContext old = GameContext.bind(context);
+			
+			for(int i = first; i < last; i++)
+			{
+				try
+				{
+					forceRBs[i].precomputeForces();
+				}
+				catch(Exception ex)
+				{
+					if(failed == null)
+					{
+						failed = forceRBs[i];
+						exception = ex;
+					}
+				}
+			}
+			
+			GameContext.bind(old);
+			
+			return null;
+		}
+	}
+	
+	// Sets the number of threads to calculate the forces of gravity and ForceFields on. Pass a 
+	// number of 1 or less to turn calculating on several threads off. Pass the number of processors
+	// (Runtime.getRuntime().availableProcessors()) to use all of them. 
+	public void setParallelForces(int threads)
+	{
+		if(forcePool != null)
+		{
+			forcePool.shutdown();
+			forcePool = null;
+		}
+		
+		forceTasks.clear();
+		forceThreads = threads > 1 ? threads : 0;
+		
+		if(forceThreads > 0)
+		{
+			// Daemon threads, so that they do not keep the game from exiting.
+			forcePool = Executors.newFixedThreadPool(forceThreads, new ThreadFactory()
+			{
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "GameFrame forces");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			
+			for(int i = 0; i < forceThreads; i++)
+				forceTasks.add(new ForceTask());
+		}
+	}
+	
+	// Returns the number of threads forces are calculated on, or zero if it is turned off.
+	public int getParallelForces()
+	{
+		return forceThreads;
+	}
+	
+	// Calculates the forces on all RBObjects that will be moved this frame on the threads set with
+	// setParallelForces(), and then delivers the ForceField callbacks. Called by doFrame() before 
+	// the first call to moveObjects(). Returns the number of RBObjects whose forces were calculated
+	// (0 if there were too few, and moveObjects() calculates them as usual). 
+	private int calcForcesParallel(Game game)
+	{
+		// Gather the RBObjects in the same order moveObjects() will move them in, into an array
+		// that is kept from frame to frame. 
+		int nrObjects = game.getObjects(null, 0, false, null, forceObjects);
+		
+		if(nrObjects > forceObjects.length)
+		{
+			forceObjects = new JGObject[nrObjects + nrObjects/2];
+			nrObjects = game.getObjects(null, 0, false, null, forceObjects);
+		}
+		
+		nrForceRBs = 0;
+		
+		for(int i = 0; i < nrObjects; i++)
+		{
+			JGObject obj = forceObjects[i];
+			forceObjects[i] = null; // Do not keep removed objects from being garbage collected.
+			
+			if(obj instanceof RBObject && !((RBObject)obj).is_asleep) // Sleeping ones are not moved.
+			{
+				if(nrForceRBs == forceRBs.length)
+				{
+					RBObject[] newRBs = new RBObject[forceRBs.length*2];
+					System.arraycopy(forceRBs, 0, newRBs, 0, nrForceRBs);
+					forceRBs = newRBs;
+				}
+				
+				forceRBs[nrForceRBs++] = (RBObject)obj;
+			}
+		}
+		
+		// With few RBObjects, starting the threads costs more than it saves. 
+		if(nrForceRBs < MIN_PARALLEL_RB)
+			return 0;
+		
+		// Split the RBObjects into one chunk per thread.
+		for(int i = 0; i < forceThreads; i++)
+		{
+			ForceTask task = forceTasks.get(i);
+			task.context = GameContext.current();
+			task.first = (int)((long)nrForceRBs*i/forceThreads);
+			task.last = (int)((long)nrForceRBs*(i+1)/forceThreads);
+		}
+		
+		try
+		{
+			List<Future<Object>> results = forcePool.invokeAll(forceTasks);
+			
+			for(int i = 0; i < results.size(); i++)
+				results.get(i).get();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException ex)
+		{
+			game.exitEngine(game.dbgExceptionToString(ex.getCause()));
+		}
+		
+		// Show exceptions thrown for single RBObjects, like moveObjects() does.
+		for(int i = 0; i < forceThreads; i++)
+		{
+			ForceTask task = forceTasks.get(i);
+			
+			if(task.failed != null)
+				game.dbgShowException(task.failed.getName(), task.exception);
+		}
+		
+		// Deliver the ForceField callbacks on this thread, in the order of the RBObjects. 
+		for(int i = 0; i < nrForceRBs; i++)
+		{
+			try
+			{
+				forceRBs[i].deliverFieldCallbacks();
+			}
+			catch(Exception ex)
+			{
+				game.dbgShowException(forceRBs[i].getName(), ex);
+			}
+			
+			forceRBs[i] = null;
+		}
+		
+		return nrForceRBs;
+	}
+	
+	
+	/*
+	 * GameFrameLogic can check input from a user/player. It can read input from both
+	 * the keyboard and mouse. (Note: if application is for a mobile or android device, then the input
+	 * may correspond to different things, ex: a left mouse click would be a tap on an android 
+	 * device's screen. GameFrame is not designed yet to check input for android or mobile phone 
+	 * devices yet (might be a thing to add in later) so I am not sure if all input from those kinds 
+	 * of devices is properly supported yet.) Use the trackAll() or trackThese() methods to tell   
+	 * GameFrame what new set of Buttons it should track. The Buttons are kept in the current 
+	 * GameContext. 
+	 */
+	
+
+	// Sets up the Input class so that it tracks all possible input (on a computer). 
+	public static void trackAll()
+	{	
+		Button[] buttonList = new Button[62]; // A new array that will hold Button objects for each
+											  // key on the keyboard and buttons on the mouse. 
+
+		// Create Button objects for all possible keyboard and mouse buttons, add them to buttonList. 
+		buttonList[0] = new Button(JGEngineInterface.KeyAlt);
+		buttonList[1] = new Button(JGEngineInterface.KeyBackspace);
+		buttonList[2] = new Button(JGEngineInterface.KeyCtrl);
+		buttonList[3] = new Button(JGEngineInterface.KeyUp);
+		buttonList[4] = new Button(JGEngineInterface.KeyDown);
+		buttonList[5] = new Button(JGEngineInterface.KeyLeft);
+		buttonList[6] = new Button(JGEngineInterface.KeyRight);
+		buttonList[7] = new Button(JGEngineInterface.KeyEsc);
+		buttonList[8] = new Button(JGEngineInterface.KeyShift);
+		buttonList[9] = new Button(JGEngineInterface.KeyTab);
+		buttonList[10] = new Button(JGEngineInterface.KeyMouse1);
+		buttonList[11] = new Button(JGEngineInterface.KeyMouse2);
+		buttonList[12] = new Button(JGEngineInterface.KeyMouse3);
+		buttonList[13] = new Button('1');
+		buttonList[14] = new Button('2');
+		buttonList[15] = new Button('3');
+		buttonList[16] = new Button('4');
+		buttonList[17] = new Button('5');
+		buttonList[18] = new Button('6');
+		buttonList[19] = new Button('7');
+		buttonList[20] = new Button('8');
+		buttonList[21] = new Button('9');
+		buttonList[22] = new Button('0');
+		buttonList[23] = new Button('`');
+		buttonList[24] = new Button('-');
+		buttonList[25] = new Button('=');
+		buttonList[26] = new Button(JGEngineInterface.KeyEnter);
+		buttonList[27] = new Button('q');
+		buttonList[28] = new Button('w');
+		buttonList[29] = new Button('e');
+		buttonList[30] = new Button('r');
+		buttonList[31] = new Button('t');
+		buttonList[32] = new Button('y');
+		buttonList[33] = new Button('u');
+		buttonList[34] = new Button('i');
+		buttonList[35] = new Button('o');
+		buttonList[36] = new Button('p');
+		buttonList[37] = new Button('a');
+		buttonList[38] = new Button('s');
+		buttonList[39] = new Button('d');
+		buttonList[40] = new Button('f');
+		buttonList[41] = new Button('g');
+		buttonList[42] = new Button('h');
+		buttonList[43] = new Button('j');
+		buttonList[44] = new Button('k');
+		buttonList[45] = new Button('l');
+		buttonList[46] = new Button('z');
+		buttonList[47] = new Button('x');
+		buttonList[48] = new Button('c');
+		buttonList[49] = new Button('v');
+		buttonList[50] = new Button('b');
+		buttonList[51] = new Button('n');
+		buttonList[52] = new Button('m');
+		buttonList[53] = new Button('[');
+		buttonList[54] = new Button(']');
+		buttonList[55] = new Button('\\');
+		buttonList[56] = new Button(';');
+		buttonList[57] = new Button('\'');
+		buttonList[58] = new Button(',');
+		buttonList[59] = new Button('.');
+		buttonList[60] = new Button('/');
+		buttonList[61] = new Button(' ');
+		
+		GameContext.current().buttonList = buttonList; // Track these Buttons from now on.
+	}
+
+	// Sets Input class to track the buttons whose key code or character symbol is in either array. 
+	public static void trackThese(int[] intIDs, char[] charIDs)
+	{
+		Button[] buttonList = new Button[intIDs.length + charIDs.length]; // A new array of 
+																		  // appropriate size.
+
+		// Add all the Button objects for buttons specified by their key code to buttonList.
+		for(int i = 0; i < intIDs.length; i++)
+		{
+			buttonList[i] = new Button(intIDs[i]);
+		}
+
+		// Add all the Button objects for buttons specified by their character symbol to buttonList.
+		for(int i = intIDs.length; i < intIDs.length + charIDs.length; i++)
+		{
+			buttonList[i] = new Button(charIDs[i - intIDs.length]);
+		}
+		
+		GameContext.current().buttonList = buttonList; // Track these Buttons from now on.
+	}
+
+	// Sets Input class to track the buttons whose key code is in the intIDs array. 
+	public static void trackThese(int[] intIDs)
+	{
+		Button[] buttonList = new Button[intIDs.length]; // A new array of appropriate size.
+
+		// Add all the Button objects for buttons specified by their key code to buttonList.
+		for(int i = 0; i < intIDs.length; i++)
+		{
+			buttonList[i] = new Button(intIDs[i]);
+		}
+		
+		GameContext.current().buttonList = buttonList; // Track these Buttons from now on.
+	}
+
+	// Sets Input class to track the buttons whose character symbol is in the charIDs array. 
+	public static void trackThese(char[] charIDs)
+	{
+		Button[] buttonList = new Button[charIDs.length]; // A new array of appropriate size.
+
+		// Add all the Button objects for buttons specified by their character symbol to buttonList.
+		for(int i = 0; i < charIDs.length; i++)
+		{
+			buttonList[i] = new Button(charIDs[i]);
+		}
+		
+		GameContext.current().buttonList = buttonList; // Track these Buttons from now on.
+	}
+
+	// Checks the state of the button given by the key code passed through id for the given state 
+	// passed through state (either PRESS, HOLD, or RELEASE). Returns true if button is in given state
+	// and false if not. 
+	public static boolean checkButton(int id, int state)
+	{
+		// Find Button object for button with key code id.
+		for(Button b : GameContext.current().buttonList)
+		{
+			if(b.getIntID() == id)
+				return b.checkState(state); // Return whether or not it's in the requested state.
+		}
+		return false; // Return false if Input is not tracking the input from the button with key code
+					  // id.
+	}
+
+	// Checks the state of the button given by the character passed through id for the given state 
+	// passed through state (either PRESS, HOLD, or RELEASE). Returns true if button is in given state
+	// and false if not. 
+	public static boolean checkButton(char id, int state)
+	{
+		// Find Button object for button represented by character id.
+		for(Button b : GameContext.current().buttonList)
+		{
+			if(b.getCharID() == id)
+				return b.checkState(state); // Return whether or not it's in the requested state.
+		}
+		return false; // Return false if Input is not tracking the input from the button representing 
+		              // the given character id.
+	}
+
+	// Calls the updateButton() method for all Buttons in buttonList so that they know whether the
+	// button they are tracking is PRESS, HOLD, RELEASE, or none of those conditions. The keys are
+	// read from the given engine.
+	public static void updateButtons(JGEngineInterface eng)
+	{
+		for(Button b : GameContext.current().buttonList)
+		{
+			b.updateButton(eng);
+		}
+	}
+
+	// Objects of this class track the current state of a single source of input from either the
+	// keyboard or mouse (tracks the input from a button). The class is nested in GameFrameLogic
+	// because it doesn't make sense for other classes to be able to instantiate the Button class at
+	// all. 
+	static class Button
+	{
+		private boolean prevState; // Stores whether or not the button being tracked was pressed down
+								   // last frame or not. 
+
+		private boolean press; // Set to true when the PRESS condition is true for the button being 
+							   // tracked. 
+		private boolean hold; // Set to true when the HOLD condition is true for the button being 
+                              // tracked.
+		private boolean release; // Set to true when the RELEASE condition is true for the button  
+								 // being tracked.
+
+		private int intID; // Stores the key code of the button to be tracked. If Button is using a
+						   // character to identify the button it is tracking, this is set to -1.
+		private char charID; // Stores the character of the button to be tracked. If Button is using a
+							 // key code to identify the button it is tracking, this is set to '\n'.
+
+		// Constructor that sets Button to track input for the button represented by the character id.
+		public Button(char id)
+		{
+			charID = id;
+			intID = -1;
+			
+			prevState = false; // button has never been pressed yet.
+		}
+
+		// Constructor that sets Button to track input for the button with key code id.
+		public Button(int id)
+		{
+			intID = id;
+			charID = '\n';
+			
+			prevState = false; // button has never been pressed yet.
+		}
+		
+		// Updates whether the button being tracked is in the PRESS, HOLD, or RELEASE state. 
+		public void updateButton(JGEngineInterface eng)
+		{
+			// Reset states.
+			press = false;
+			hold = false;
+			release = false;
+			
+			boolean current; // Holds whether button is being held down this frame or not.
+			
+			// Determine if button is being held down this frame.
+			if(intID == -1)
+				current = eng.getKey(charID);
+			else
+				current = eng.getKey(intID);
+			
+			// Set the state of the button based on whether or not it's being held down this frame and
+			// whether or not it was held down last frame. 
+			if(current == true && prevState == false)
+				press = true;
+			if(current == true && prevState == true)
+				hold = true;
+			if(current == false && prevState == true)
+				release = true;
+			
+			prevState = current; // The condition of the button this frame will be the condition of
+								 // the button last frame the next time this method is called. 
+		}
+
+		// Returns whether or not the button that this Button object is tracking input for is in the
+		// requested state (either PRESS, HOLD, or RELEASE).
+		public boolean checkState(int state)
+		{
+			if(state == GameFrame.PRESS) 
+				return press;
+			else if(state == GameFrame.HOLD)
+				return hold;
+			else if(state == GameFrame.RELEASE)
+				return release;
+			else
+				return false; // Returns false if something non-sensical was passed through state. 
+		}
+
+		// Returns the key code of the button being tracked or -1 if Button is not using a key code to
+		// track the button.
+		public int getIntID()
+		{
+			return intID;
+		}
+
+		// Returns the character symbol of the button being tracked or '\n' if Button is not using a
+		// character symbol to track the button. 
+		public char getCharID()
+		{
+			return charID;
+		}
+	}
+}
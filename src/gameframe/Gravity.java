@@ -1,6 +1,5 @@
 package gameframe;
 
-import gameframe.vecmath.Coord;
 import gameframe.vecmath.Vec2D;
 
 
@@ -14,23 +13,34 @@ import gameframe.vecmath.Vec2D;
 
 public abstract class Gravity 
 {
-	public static boolean gravOn = false; // Set to true for RBObjects to be affected by gravity.
-	                                      // Set to false to turn off gravity. 
+	// The settings are kept in the current GameContext (gravOn and g), so that each game world can
+	// have its own gravity. gravOn is false and g points down with a magnitude of 1.0 by default.
 	
-	public static Vec2D g = new Vec2D(new Coord(0.0, 1.0)); // Vector representing magnitude and 
-	                                                     // direction of g. 
+	// Used to turn gravity on (true) or off (false) for RBObjects. 
+	public static void setGravOn(boolean on)
+	{
+		GameContext.current().gravOn = on;
+	}
+	
+	// Returns true if RBObjects are affected by gravity.
+	public static boolean isGravOn()
+	{
+		return GameContext.current().gravOn;
+	}
 	
 	// Used to set g to another vector.
 	public static void set_g(Vec2D vec)
 	{
-		g = vec;
+		GameContext.current().g = vec;
 	}
 	
 	// Used to get the acceleration vector g. 
 	public static Vec2D get_g()
 	{
-		if(gravOn) // Return g if gravity is on.
-			return g;
+		GameContext context = GameContext.current();
+		
+		if(context.gravOn) // Return g if gravity is on.
+			return context.g;
 		else // Return a zero vector if gravity is off. 
 			return new Vec2D(0.0, 0.0);
 	}
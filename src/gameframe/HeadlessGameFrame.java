@@ -0,0 +1,157 @@
+package gameframe;
+
+import gameframe.rbs.ParticleSystem;
+
+import jgame.*;
+import jgame.impl.*;
+import jgame.platform.*;
+
+/*
+ * HeadlessGameFrame is GameFrame without a display. It runs on a JGHeadlessEngine instead of a
+ * JGEngine, so nothing is drawn and no window is opened, which makes it possible to run a game on a
+ * machine without a screen, for example to test it or to run many frames of it as fast as possible
+ * to see what a change does to the physics. Everything else works the same as in GameFrame, since
+ * both do their frames with a GameFrameLogic: Actors, ActorManagers, ForceFields, RBObjects, the
+ * ContactSolver, ParticleSystems, Worlds, and Buttons (whose keys can be pressed with setKey()). 
+ * 
+ * To use HeadlessGameFrame, extend it instead of GameFrame and implement initCanvas() and 
+ * initGame() the same way. Then call runFrames() with the number of frames to run; initGame() is
+ * called before the first one. Frames are run on the thread that calls runFrames(), one after the 
+ * other, and not at the frame rate set with setFrameRate(). 
+ * 
+ * Each HeadlessGameFrame has a GameContext of its own, which is bound to the thread while it runs
+ * frames, so several HeadlessGameFrames can run at the same time on different threads without
+ * sharing any game objects or settings (see WorldRunner). The static methods of the framework 
+ * (such as GameFrame.getCurrFrame() and checkButton()) act on the GameContext of the game when 
+ * they are called while it runs frames. Outside of runFrames(), use getContext() instead. 
+ */
+
+@SuppressWarnings({ "unused" }) // Suppresses unnecessary warnings. 
+public abstract class HeadlessGameFrame extends JGHeadlessEngine implements GameFrameLogic.Game
+{
+	private GameFrameLogic logic = new GameFrameLogic(); // Does the work of doFrame(). 
+	private GameContext context = new GameContext(); // The state of this game world. 
+	
+	// Call this super constructor in your class's constructor. There is no screen, so the game is 
+	// the size of the view set in initCanvas(). 
+	public HeadlessGameFrame()
+	{
+		GameContext old = GameContext.bind(context);
+		
+		try
+		{
+			initEngine(0, 0);
+		}
+		finally
+		{
+			GameContext.bind(old);
+		}
+	}
+	
+	// Returns the GameContext of this game, which holds its settings, current frame, ForceFields,
+	// etc. 
+	public GameContext getContext()
+	{
+		return context;
+	}
+	
+	// Runs the given number of frames with the GameContext of this game bound to the calling 
+	// thread. Returns the number of frames actually run (see JGHeadlessEngine.runFrames()). 
+	@Override
+	public long runFrames(long nrFrames)
+	{
+		GameContext old = GameContext.bind(context);
+		
+		try
+		{
+			return super.runFrames(nrFrames);
+		}
+		finally
+		{
+			GameContext.bind(old);
+		}
+	}
+	
+	// The same as GameFrame.doFrame(). Call the super doFrame() method at the end of your class's
+	// doFrame() method. 
+	@Override
+	public void doFrame()
+	{
+		logic.doFrame(this);
+	}
+	
+	// The same as GameFrame.manageObjects(). 
+	public void manageObjects()
+	{
+		ManagerList.destroyAll();
+		ManagerList.spawnAll();
+		ManagerList.routinesAll();
+	}
+	
+	// The same as GameFrame.collideObjects(). 
+	public void collideObjects()
+	{
+		
+	}
+	
+	// The same as GameFrame.collideBG(). 
+	public void collideBG()
+	{
+		
+	}
+	
+	// The same as GameFrame.setParallelForces(). 
+	public void setParallelForces(int threads)
+	{
+		logic.setParallelForces(threads);
+	}
+	
+	// The same as GameFrame.getParallelForces(). 
+	public int getParallelForces()
+	{
+		return logic.getParallelForces();
+	}
+	
+	// The same as GameFrame.setProfiling(). There is no screen, so there is no overlay. 
+	public void setProfiling(boolean on)
+	{
+		logic.setProfiling(on);
+	}
+	
+	// The same as GameFrame.getProfiler(). 
+	public FrameProfiler getProfiler()
+	{
+		return logic.getProfiler();
+	}
+	
+	// The same as GameFrame.trackAll(). 
+	public void trackAll()
+	{
+		GameFrameLogic.trackAll();
+	}
+	
+	// The same as GameFrame.trackThese(). 
+	public void trackThese(int[] intIDs, char[] charIDs)
+	{
+		GameFrameLogic.trackThese(intIDs, charIDs);
+	}
+	
+	// The same as GameFrame.trackThese(). 
+	public void trackThese(int[] intIDs)
+	{
+		GameFrameLogic.trackThese(intIDs);
+	}
+	
+	// The same as GameFrame.trackThese(). 
+	public void trackThese(char[] charIDs)
+	{
+		GameFrameLogic.trackThese(charIDs);
+	}
+	
+	// Updates the state of all tracked Buttons from the keys of this engine (see setKey()). Called
+	// at the start of doFrame(). Use GameFrame.checkButton() to check them. 
+	public void updateButtons()
+	{
+		GameFrameLogic.updateButtons(this);
+	}
+}
@@ -8,24 +8,24 @@ import java.util.ArrayList;
  * typically called each frame) for all ActorManager objects at once or for all ActorManager objects
  * sharing the same string ID (ActorManager IDs need not be unique unlike IDs for other classes). 
  * For ManagerList to be able to act as a mediator between GameFrame and an ActorManager object, the
- * ActorManager object must be added to ManagerList.list. ManagerList is declared abstract because it
- * is an entirely static class and should never actually be instantiated as an object. 
+ * ActorManager object must be added to ManagerList with add(). The ActorManagers are kept in the
+ * list of the current GameContext. ManagerList is declared abstract because it is an entirely static
+ * class and should never actually be instantiated as an object. 
  */
 
 public abstract class ManagerList 
 {
-	// ArrayList which holds the ActorManager objects which ManagerList manages. 
-	private static ArrayList<ActorManager> list = new ArrayList<ActorManager>();
-	
 	// Method used to add an ActorManager object to list. 
 	public static void add(ActorManager manager)
 	{
-		list.add(manager);
+		GameContext.current().managers.add(manager);
 	}
 	
 	// Removes all ActorManagers in list, getting rid of their actors along with them. 
 	public static void removeAll()
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		// First make each ActorManager (and the game engine) let go of its Actors, removing them from
 		// the game by the next frame and offering them up for garbage collection. 
 		for(ActorManager am : list)
@@ -44,6 +44,8 @@ public abstract class ManagerList
 	// in common. 
 	public static void removeID(String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		                                                       // with String ID id. 
 		
@@ -68,6 +70,8 @@ public abstract class ManagerList
 	// Sets the refFrame for all ActorManagers with the passed String ID to a new reference frame. 
 	public static void setRef(long newRef, String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
         													   // with String ID id.
 		
@@ -90,6 +94,8 @@ public abstract class ManagerList
 	// Sets the maxPop for all ActorManagers with the passed String ID to a new maximum population. 
 	public static void setPop(int newPop, String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 			   												   // with String ID id.
 			
@@ -112,6 +118,8 @@ public abstract class ManagerList
 	// Sets the spawnMode for all ActorManagers with the passed String ID to a new spawning mode. 
 	public static void setMode(int newMode, String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		   													   // with String ID id.
 		
@@ -135,6 +143,8 @@ public abstract class ManagerList
 	// set of spawning instructions.
 	public static void setInstruct(int[] newInstruct, String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		   													   // with String ID id.
 		
@@ -157,6 +167,8 @@ public abstract class ManagerList
 	// Calls the spawn() method for every ActorManager in list. 
 	public static void spawnAll()
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		for(ActorManager am : list)
 		{
 			am.spawn();
@@ -167,6 +179,8 @@ public abstract class ManagerList
 	// in common.
 	public static void spawnID(String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		   													   // with String ID id.
 		
@@ -189,6 +203,8 @@ public abstract class ManagerList
 	// Calls the destroy method for every ActorManager in list.
 	public static void destroyAll()
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		for(ActorManager am : list)
 		{
 			am.destroy();
@@ -199,6 +215,8 @@ public abstract class ManagerList
 	// in common.
 	public static void destroyID(String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		   													   // with String ID id.
 		
@@ -221,6 +239,8 @@ public abstract class ManagerList
 	// Calls the routines() method for every ActorManager in list. 
 	public static void routinesAll()
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		for(ActorManager am : list)
 		{
 			am.routines();
@@ -231,6 +251,8 @@ public abstract class ManagerList
 	// in common.
 	public static void routinesID(String id)
 	{
+		ArrayList<ActorManager> list = GameContext.current().managers; // The ActorManagers.
+		
 		ArrayList<Integer> matches = new ArrayList<Integer>(); // Stores indexes of ActorManagers
 		   													   // with String ID id.
 		
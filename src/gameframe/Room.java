@@ -1,6 +1,72 @@
 package gameframe;
 
-public class Room 
-{
+import java.util.ArrayList;
+
+import jgame.JGObject;
 
+/*
+ * A Room is one chunk of a World: a square block of World.CHUNK_SIZE by World.CHUNK_SIZE tiles, along
+ * with the game objects that were spawned in it. Rooms are created by a RoomLoader on the loader
+ * thread of the World, which fills in the tiles (and anything else it needs to spawn objects later,
+ * such as a spawn list, by extending Room). The World then writes the tiles into the playfield on the
+ * game thread and calls RoomLoader.enter() to spawn the objects of the Room.
+ *
+ * Objects added with addObject() belong to the Room and are removed when the Room is unloaded
+ * (after RoomLoader.leave() has been called), even if they have moved into another Room.
+ */
+
+public class Room
+{
+	public final int chunkX; // Position of the Room in chunks. Tile (0, 0) of the Room is tile
+	public final int chunkY; // (chunkX*World.CHUNK_SIZE, chunkY*World.CHUNK_SIZE) of the World.
+	
+	public String[] tiles; // The tiles of the Room, one String per row and one character per tile
+						   // (as in JGEngine.setTiles()). Missing rows and characters, or a null
+						   // array, are filled with the empty tile of the World.
+	
+	private ArrayList<JGObject> objects = new ArrayList<JGObject>(); // Objects spawned in the Room.
+	
+	int nrWritten = 0; // Used by World: the number of tiles written into the playfield so far.
+	boolean entered = false; // Used by World: true once RoomLoader.enter() has been called.
+	
+	public Room(int chunkX, int chunkY)
+	{
+		this.chunkX = chunkX;
+		this.chunkY = chunkY;
+	}
+	
+	// Makes obj belong to the Room, so that it is removed when the Room is unloaded.
+	public void addObject(JGObject obj)
+	{
+		objects.add(obj);
+	}
+	
+	// Returns the objects that belong to the Room. Objects that have been removed may still be in it.
+	public ArrayList<JGObject> getObjects()
+	{
+		return objects;
+	}
+	
+	// Removes every object that belongs to the Room and is still alive. Called by World on unload.
+	void removeObjects()
+	{
+		for(int i = 0; i < objects.size(); i++)
+		{
+			JGObject obj = objects.get(i);
+			
+			if(obj.isAlive())
+				obj.remove();
+		}
+		
+		objects.clear();
+	}
+	
+	// Returns the character of tile (x, y) of the Room, or 0 if it is not given.
+	char getTile(int x, int y)
+	{
+		if(tiles == null || y >= tiles.length || tiles[y] == null || x >= tiles[y].length())
+			return 0;
+		
+		return tiles[y].charAt(x);
+	}
 }
@@ -0,0 +1,23 @@
+package gameframe;
+
+/*
+ * RoomLoader is implemented to supply the Rooms of a World, for example by reading them from files
+ * or generating them. load() is called on the loader thread of the World, so it may be slow (read
+ * from disk and so on), but it must not touch the engine or game objects. enter() and leave() are
+ * called on the game thread and are where game objects are spawned and saved.
+ */
+
+public interface RoomLoader
+{
+	// Returns the Room at chunk (chunkX, chunkY), or null if it is empty. Called on the loader
+	// thread, so it should only read data and create the Room.
+	public Room load(int chunkX, int chunkY);
+	
+	// Called on the game thread after the tiles of room are in the playfield. Spawn the objects of
+	// the Room here and add them to it with Room.addObject().
+	public void enter(World world, Room room);
+	
+	// Called on the game thread just before the objects of room are removed, so that their state can
+	// be saved for the next time the Room is loaded.
+	public void leave(World world, Room room);
+}
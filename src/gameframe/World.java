@@ -1,6 +1,402 @@
 package gameframe;
 
-public class World 
-{
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import jgame.impl.JGEngineInterface;
+import jgame.impl.JGameError;
+import jgame.impl.TileStore;
 
+/*
+ * World is a level that can be much larger than the playfield, split into square Rooms of CHUNK_SIZE
+ * by CHUNK_SIZE tiles. Only the Rooms around the view are kept in the playfield: the playfield is
+ * made just large enough to hold the Rooms covering the view plus the given prefetch radius (in
+ * Rooms) on every side, and is set to wrap, so that the tile (x, y) of the World is kept at tile
+ * (x mod width, y mod height) of the playfield. The view offset and the positions of game objects
+ * can therefore simply be in World coordinates, as with any wrapping playfield.
+ *
+ * Rooms are read by a RoomLoader on a background loader thread, starting with the Rooms in view.
+ * Each frame, update() writes the tiles of loaded Rooms into the playfield (at most tilesPerFrame
+ * tiles per frame, continuing the next frame if a Room is not done), calls RoomLoader.enter() for
+ * every Room that has been written completely, and unloads the Rooms that are now further from the
+ * view than the prefetch radius (calling RoomLoader.leave() and removing their objects). The work
+ * done in a frame therefore only depends on the size of the view and the radius, not on the size of
+ * the World.
+ *
+ * A World is used by creating it in initGame() (after the tiles have been defined, since it sets the
+ * size of the playfield) and setting the world of the GameContext, after which GameFrame calls 
+ * update() at the start of each frame. Call stop() when the World is no longer used.
+ */
+
+public class World
+{
+	public static final int CHUNK_SIZE = TileStore.CHUNK_SIZE; // Width and height of a Room in tiles.
+															   // The same as the chunks in which
+															   // the playfield stores its tiles.
+	private static final int ROOM_TILES = CHUNK_SIZE*CHUNK_SIZE;
+	
+	private static final String[] CHARS = new String[128]; // Tile strings of single characters.
+	
+	static
+	{
+		for(int i = 0; i < CHARS.length; i++)
+			CHARS[i] = String.valueOf((char)i);
+	}
+	
+	public int tilesPerFrame = 2048; // The maximum number of tiles written into the playfield each
+									 // frame.
+	public String emptyTile = ""; // The tile used where a Room does not give one.
+	
+	private JGEngineInterface eng;
+	private GameContext context = GameContext.current(); // The game world this World is used in.
+	private RoomLoader loader;
+	private int radius; // Prefetch radius in Rooms.
+	private int windowWidth; // Size of the playfield in Rooms.
+	private int windowHeight;
+	
+	// Range of Rooms that are wanted (in view or within the prefetch radius).
+	private int minX = 0, minY = 0, maxX = -1, maxY = -1;
+	
+	private HashMap<Long, Room> rooms = new HashMap<Long, Room>(); // Rooms that have been loaded.
+	private ArrayList<Room> toWrite = new ArrayList<Room>(); // Rooms whose tiles are being written.
+	private boolean[] slotEmpty; // True for each Room sized block of the playfield that only has
+								 // empty tiles.
+	
+	// Shared with the loader thread.
+	private ConcurrentHashMap<Long, Boolean> requested = new ConcurrentHashMap<Long, Boolean>();
+	private LinkedBlockingQueue<Long> requests = new LinkedBlockingQueue<Long>();
+	private ConcurrentLinkedQueue<Room> loaded = new ConcurrentLinkedQueue<Room>();
+	private volatile Throwable loadError = null;
+	private volatile boolean stopped = false;
+	private Thread loaderThread;
+	
+	// Creates a World whose Rooms are read by loader, keeping the Rooms that are within radius Rooms
+	// of the view loaded. Sets the size of the playfield and makes it wrap, and starts the loader
+	// thread.
+	public World(JGEngineInterface eng, RoomLoader loader, int radius)
+	{
+		this.eng = eng;
+		this.loader = loader;
+		this.radius = Math.max(radius, 0);
+		
+		// The view covers at most one Room more than its size in Rooms, the wanted Rooms add the
+		// radius on both sides, and one more Room keeps the wanted Rooms within half a playfield of
+		// the center of the view, where a wrapping playfield keeps game objects.
+		int viewTilesX = (eng.viewWidth() + eng.tileWidth() - 1)/eng.tileWidth();
+		int viewTilesY = (eng.viewHeight() + eng.tileHeight() - 1)/eng.tileHeight();
+		windowWidth = (viewTilesX + CHUNK_SIZE - 1)/CHUNK_SIZE + 2 + 2*this.radius;
+		windowHeight = (viewTilesY + CHUNK_SIZE - 1)/CHUNK_SIZE + 2 + 2*this.radius;
+		
+		slotEmpty = new boolean[windowWidth*windowHeight];
+		for(int i = 0; i < slotEmpty.length; i++)
+			slotEmpty[i] = true; // setPFSize() fills the playfield with the empty tile.
+		
+		eng.setPFSize(windowWidth*CHUNK_SIZE, windowHeight*CHUNK_SIZE);
+		eng.setPFWrap(true, true, 0, 0);
+		
+		loaderThread = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				loadRooms();
+			}
+		}, "World loader");
+		loaderThread.setDaemon(true);
+		loaderThread.start();
+	}
+	
+	// Returns the Room at chunk (chunkX, chunkY) if it has been loaded and entered, else null.
+	public Room getRoom(int chunkX, int chunkY)
+	{
+		Room room = rooms.get(key(chunkX, chunkY));
+		
+		return room != null && room.entered ? room : null;
+	}
+	
+	// Returns the number of Rooms that are loaded.
+	public int getNrRooms()
+	{
+		return rooms.size();
+	}
+	
+	// Loads and unloads Rooms for the current view offset and writes loaded Rooms into the
+	// playfield. Called by GameFrame at the start of each frame while this World is current.
+	public void update()
+	{
+		if(loadError != null)
+		{
+			Throwable error = loadError;
+			loadError = null;
+			eng.exitEngine(eng.dbgExceptionToString(error));
+			return;
+		}
+		
+		// Find the Rooms covered by the view. The pending view offset is used, since that is the one
+		// the next frame is drawn with.
+		int roomWidth = CHUNK_SIZE*eng.tileWidth();
+		int roomHeight = CHUNK_SIZE*eng.tileHeight();
+		int x1 = floorDiv(eng.viewXOfs(), roomWidth);
+		int y1 = floorDiv(eng.viewYOfs(), roomHeight);
+		int x2 = floorDiv(eng.viewXOfs() + eng.viewWidth() - 1, roomWidth);
+		int y2 = floorDiv(eng.viewYOfs() + eng.viewHeight() - 1, roomHeight);
+		
+		if(x1-radius != minX || y1-radius != minY || x2+radius != maxX || y2+radius != maxY)
+			setWanted(x1, y1, x2, y2);
+		
+		// Take the Rooms the loader thread has finished. Rooms that are no longer wanted are dropped.
+		Room room;
+		
+		while((room = loaded.poll()) != null)
+		{
+			Long key = key(room.chunkX, room.chunkY);
+			
+			if(requested.remove(key) == null || rooms.containsKey(key))
+				continue;
+			
+			rooms.put(key, room);
+			toWrite.add(room);
+		}
+		
+		writeTiles();
+	}
+	
+	// Stops the loader thread and unloads every Room. The tiles are left in the playfield.
+	public void stop()
+	{
+		stopped = true;
+		loaderThread.interrupt();
+		
+		requested.clear();
+		requests.clear();
+		loaded.clear();
+		toWrite.clear();
+		
+		Iterator<Room> it = rooms.values().iterator();
+		
+		while(it.hasNext())
+		{
+			Room room = it.next();
+			it.remove();
+			leave(room);
+		}
+		
+		if(context.world == this)
+			context.world = null;
+	}
+	
+	// Makes the Rooms covering the view (x1, y1) - (x2, y2) plus the prefetch radius the wanted
+	// Rooms: unloads the Rooms outside of them and requests the missing ones.
+	private void setWanted(int x1, int y1, int x2, int y2)
+	{
+		minX = x1-radius;
+		minY = y1-radius;
+		maxX = x2+radius;
+		maxY = y2+radius;
+		
+		Iterator<Room> it = rooms.values().iterator();
+		
+		while(it.hasNext())
+		{
+			Room room = it.next();
+			
+			if(!isWanted(room.chunkX, room.chunkY))
+			{
+				it.remove();
+				unload(room);
+			}
+		}
+		
+		Iterator<Long> keys = requested.keySet().iterator();
+		
+		while(keys.hasNext())
+		{
+			long key = keys.next();
+			
+			if(!isWanted((int)(key >> 32), (int)key))
+				keys.remove(); // The loader thread skips requests that have been removed.
+		}
+		
+		// Request the Rooms in view first, then the ones around them.
+		request(x1, y1, x2, y2);
+		request(minX, minY, maxX, maxY);
+	}
+	
+	private void request(int x1, int y1, int x2, int y2)
+	{
+		for(int y = y1; y <= y2; y++)
+		{
+			for(int x = x1; x <= x2; x++)
+			{
+				Long key = key(x, y);
+				
+				if(!rooms.containsKey(key) && requested.putIfAbsent(key, Boolean.TRUE) == null)
+					requests.add(key);
+			}
+		}
+	}
+	
+	private boolean isWanted(int chunkX, int chunkY)
+	{
+		return chunkX >= minX && chunkX <= maxX && chunkY >= minY && chunkY <= maxY;
+	}
+	
+	// Removes the objects of a Room that is no longer wanted and has its tiles cleared if any were
+	// written, so that they do not show up before the Room that takes its place is written.
+	private void unload(Room room)
+	{
+		toWrite.remove(room);
+		
+		if(room.tiles != null && room.nrWritten > 0)
+		{
+			Room clear = new Room(room.chunkX, room.chunkY);
+			clear.entered = true; // Only write it.
+			toWrite.add(clear);
+		}
+		
+		leave(room);
+	}
+	
+	private void leave(Room room)
+	{
+		if(!room.entered)
+			return;
+		
+		try
+		{
+			loader.leave(this, room);
+		}
+		catch(JGameError ex)
+		{
+			eng.exitEngine(eng.dbgExceptionToString(ex));
+		}
+		catch(Exception ex)
+		{
+			eng.dbgShowException("World", ex);
+		}
+		
+		room.removeObjects();
+	}
+	
+	// Writes at most tilesPerFrame tiles of the Rooms in toWrite into the playfield, and enters the
+	// Rooms that have been written completely.
+	private void writeTiles()
+	{
+		int budget = tilesPerFrame;
+		
+		while(budget > 0 && !toWrite.isEmpty())
+		{
+			Room room = toWrite.get(0);
+			int slot = floorMod(room.chunkX, windowWidth)
+					+ floorMod(room.chunkY, windowHeight)*windowWidth;
+			
+			if(room.nrWritten == 0)
+			{
+				if(room.tiles == null && slotEmpty[slot])
+					room.nrWritten = ROOM_TILES; // Nothing to write.
+				else
+					slotEmpty[slot] = room.tiles == null;
+			}
+			
+			int end = Math.min(ROOM_TILES, room.nrWritten + budget);
+			int tileX = room.chunkX*CHUNK_SIZE;
+			int tileY = room.chunkY*CHUNK_SIZE;
+			
+			for(int i = room.nrWritten; i < end; i++)
+			{
+				int x = i & (CHUNK_SIZE-1);
+				int y = i >> TileStore.CHUNK_SHIFT;
+				char c = room.getTile(x, y);
+				
+				eng.setTile(tileX + x, tileY + y, c == 0 ? emptyTile : c < CHARS.length ? CHARS[c]
+						: String.valueOf(c));
+			}
+			
+			budget -= end - room.nrWritten;
+			room.nrWritten = end;
+			
+			if(end < ROOM_TILES)
+				break;
+			
+			toWrite.remove(0);
+			
+			if(!room.entered)
+			{
+				room.entered = true;
+				
+				try
+				{
+					loader.enter(this, room);
+				}
+				catch(JGameError ex)
+				{
+					eng.exitEngine(eng.dbgExceptionToString(ex));
+				}
+				catch(Exception ex)
+				{
+					eng.dbgShowException("World", ex);
+				}
+			}
+		}
+	}
+	
+	// Runs on the loader thread: loads requested Rooms until stop() is called.
+	private void loadRooms()
+	{
+		while(!stopped)
+		{
+			Long key;
+			
+			try
+			{
+				key = requests.take();
+			}
+			catch(InterruptedException ex)
+			{
+				return;
+			}
+			
+			if(!requested.containsKey(key)) // No longer wanted.
+				continue;
+			
+			int chunkX = (int)(key.longValue() >> 32);
+			int chunkY = (int)key.longValue();
+			
+			try
+			{
+				Room room = loader.load(chunkX, chunkY);
+				
+				if(room == null) // An empty Room.
+					room = new Room(chunkX, chunkY);
+				else if(room.chunkX != chunkX || room.chunkY != chunkY)
+					throw new JGameError("RoomLoader returned Room (" + room.chunkX + ", "
+							+ room.chunkY + ") for (" + chunkX + ", " + chunkY + ").");
+				
+				loaded.add(room);
+			}
+			catch(Throwable ex)
+			{
+				loadError = ex;
+				return;
+			}
+		}
+	}
+	
+	private static Long key(int chunkX, int chunkY)
+	{
+		return Long.valueOf(((long)chunkX << 32) | (chunkY & 0xffffffffL));
+	}
+	
+	private static int floorDiv(int a, int b)
+	{
+		return a >= 0 ? a/b : (a-b+1)/b;
+	}
+	
+	private static int floorMod(int a, int b)
+	{
+		return a - floorDiv(a, b)*b;
+	}
 }
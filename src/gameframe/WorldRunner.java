@@ -0,0 +1,134 @@
+package gameframe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import jgame.impl.JGameError;
+
+/*
+ * WorldRunner runs many independent games side by side in one program, for example to try out
+ * many settings of a game at once, to train an AI on many games at the same time, or to run a game
+ * with many random inputs. Each game is a HeadlessGameFrame, which has a GameContext of its own, so
+ * the games do not share any game objects or settings and can run at the same time on different
+ * threads.
+ *
+ * Create a WorldRunner with the number of threads to use (usually the number of processors), add
+ * the games to it with add(), and call runFrames() to run the same number of frames of every game.
+ * runFrames() returns once all games have run their frames, so it can be called again and again to
+ * run the games in steps, with the games being looked at or changed in between (for example to set
+ * the keys of an AI player with setKey()). Each game runs all its frames of a step on one thread,
+ * and the threads take the next game that has not run yet as soon as they are done with one, so
+ * the work is spread over the threads even if some games are slower than others. Call stop() when
+ * the WorldRunner is no longer needed.
+ */
+
+public class WorldRunner
+{
+	private ArrayList<HeadlessGameFrame> worlds = new ArrayList<HeadlessGameFrame>(); // The games.
+	private ArrayList<WorldTask> tasks = new ArrayList<WorldTask>(); // One for each game.
+	private ExecutorService pool; // The threads that run the games.
+	private int threads; // The number of threads.
+
+	// Runs frames of one game.
+	private class WorldTask implements Callable<Object>
+	{
+		HeadlessGameFrame world;
+		long frames; // The number of frames to run.
+
+		public Object call()
+		{
+			world.runFrames(frames);
+
+			return null;
+		}
+	}
+
+	// Creates a WorldRunner that runs the games on the given number of threads. Pass the number of
+	// processors (Runtime.getRuntime().availableProcessors()) to use all of them.
+	public WorldRunner(int threads)
+	{
+		this.threads = Math.max(threads, 1);
+
+		// Daemon threads, so that they do not keep the program from exiting.
+		pool = Executors.newFixedThreadPool(this.threads, new ThreadFactory()
+		{
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "GameFrame world");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	// Adds a game to run.
+	public void add(HeadlessGameFrame world)
+	{
+		WorldTask task = new WorldTask();
+		task.world = world;
+
+		worlds.add(world);
+		tasks.add(task);
+	}
+
+	// Removes a game, so that it no longer runs.
+	public void remove(HeadlessGameFrame world)
+	{
+		int i = worlds.indexOf(world);
+
+		if(i >= 0)
+		{
+			worlds.remove(i);
+			tasks.remove(i);
+		}
+	}
+
+	// Returns the games, in the order they were added.
+	public List<HeadlessGameFrame> getWorlds()
+	{
+		return worlds;
+	}
+
+	// Returns the number of threads the games are run on.
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	// Runs the given number of frames of every game, spread over the threads, and returns when all
+	// of them are done. Games that have exited do not run (see JGHeadlessEngine.getExitMessage()).
+	// Throws a JGameError if a game threw an exception that was not caught by its engine.
+	public void runFrames(long frames)
+	{
+		for(int i = 0; i < tasks.size(); i++)
+			tasks.get(i).frames = frames;
+
+		try
+		{
+			List<Future<Object>> results = pool.invokeAll(tasks);
+
+			for(int i = 0; i < results.size(); i++)
+				results.get(i).get();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException ex)
+		{
+			throw new JGameError("Exception while running a world: " + ex.getCause());
+		}
+	}
+
+	// Stops the threads. The WorldRunner can not be used after this.
+	public void stop()
+	{
+		pool.shutdown();
+	}
+}
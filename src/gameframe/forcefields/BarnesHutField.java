@@ -0,0 +1,556 @@
+package gameframe.forcefields;
+
+import gameframe.GameContext;
+import gameframe.GameFrame;
+import gameframe.rbs.RBObject;
+import gameframe.vecmath.Vec2D;
+
+import java.util.ArrayList;
+
+/*
+ * A BarnesHutField combines many point source ForceFields (GravityFields or ElectricFields with an
+ * infinite range, see PointSource) into a single ForceField. Normally every RBObject works out the
+ * force of every ForceField in ForceField.list, so if a ForceField is attached to each of n objects,
+ * that is n*n calculations each frame. A BarnesHutField instead puts the sources into a quadtree
+ * once per frame, where each square of the tree knows the total strength and the centre of the
+ * sources inside it. When working out the force on an RBObject, a square that is far away compared
+ * to its size is treated as a single source at its centre, so only the nearby sources are
+ * calculated one by one. This makes it about n*log(n) calculations each frame.
+ *
+ * How far away a square has to be is set with the opening angle: a square is treated as one source
+ * if its size divided by its distance is less than the opening angle. An opening angle of zero
+ * calculates every source separately (the same result as without a BarnesHutField), larger angles
+ * are faster but less accurate. 0.5 is the default, and usually looks the same as the exact forces.
+ * Positive and negative sources (such as opposite charges) are kept apart in each square, so that
+ * they do not cancel out into a centre that is nowhere near either of them.
+ *
+ * ForceFields added to a BarnesHutField are taken out of ForceField.list, so that they are not
+ * applied twice. Their onEnter() and whileIn() methods are not called; those of the BarnesHutField
+ * are called instead. The sources may move, as the tree is built again each frame.
+ * ForceField.removeID() and ForceField.removeGroup() also remove matching sources from every
+ * BarnesHutField in ForceField.list.
+ */
+
+public class BarnesHutField extends ForceField
+{
+	public static final int MASS = 0; // Pass as type for the sources to act on the mass of RBObjects.
+	public static final int CHARGE = 1; // Pass as type for the sources to act on the charge.
+	
+	private static final int MAX_DEPTH = 32; // Sources in the same square this deep are kept together
+											 // in a list instead of splitting the square further.
+	
+	private int type; // MASS or CHARGE.
+	private double theta; // The opening angle.
+	private ArrayList<ForceField> sources = new ArrayList<ForceField>(); // Each one is a PointSource.
+	
+	// The location and strength of each source, copied in when the tree is built.
+	private double[] srcX = new double[16];
+	private double[] srcY = new double[16];
+	private double[] srcS = new double[16];
+	private int[] nextSrc = new int[16]; // The next source in the same square, or -1.
+	private int nrSrc = 0;
+	
+	// The squares of the quadtree, indexed by node. Node 0 is the root. The four children of a node
+	// are stored next to each other, starting at child[node].
+	private int[] child = new int[64]; // -1 if the node has no children.
+	private int[] firstSrc = new int[64]; // The first source in a node without children, or -1.
+	private double[] nodeX = new double[64]; // Top left corner of the square.
+	private double[] nodeY = new double[64];
+	private double[] nodeSize = new double[64]; // Width and height of the square.
+	private double[] posS = new double[64]; // Total strength of the positive sources in the square.
+	private double[] posX = new double[64]; // Centre of the positive sources.
+	private double[] posY = new double[64];
+	private double[] negS = new double[64]; // Total strength of the negative sources (negative).
+	private double[] negX = new double[64]; // Centre of the negative sources.
+	private double[] negY = new double[64];
+	private double[] cenX = new double[64]; // Centre of all sources, weighted by their strength
+	private double[] cenY = new double[64]; // without sign. Used to decide whether to open a square.
+	private int nrNodes = 0;
+	
+	private volatile long builtFrame = -1; // The frame in which the tree was last built.
+	
+	// Creates an empty BarnesHutField with the given opening angle. type is MASS if its sources
+	// are GravityFields and CHARGE if they are ElectricFields.
+	public BarnesHutField(String grp, int type, double openingAngle)
+	{
+		super(grp);
+		
+		this.type = type;
+		theta = openingAngle;
+	}
+	
+	// Creates an empty BarnesHutField with the default opening angle of 0.5.
+	public BarnesHutField(String grp, int type)
+	{
+		this(grp, type, 0.5);
+	}
+	
+	// Sets the opening angle. See the description of the class above.
+	public void setOpeningAngle(double openingAngle)
+	{
+		theta = openingAngle;
+	}
+	
+	// Returns the opening angle.
+	public double getOpeningAngle()
+	{
+		return theta;
+	}
+	
+	// Adds a point source ForceField to the BarnesHutField and takes it out of ForceField.list.
+	// Returns false (and leaves the ForceField alone) if it is not a PointSource, or if its
+	// isPointSource() method returns false.
+	public boolean add(ForceField field)
+	{
+		if(!(field instanceof PointSource) || !((PointSource)field).isPointSource())
+			return false;
+		
+		if(field == this || sources.contains(field))
+			return true;
+		
+		GameContext.current().forceFields.remove(field);
+		sources.add(field);
+		builtFrame = -1;
+		
+		return true;
+	}
+	
+	// Adds every point source ForceField in ForceField.list that is in the group grp. Returns the
+	// number of ForceFields added.
+	public int addGroup(String grp)
+	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		int added = 0;
+		
+		// Iterate through list backwards, since add() removes from it.
+		for(int i = list.size()-1; i >= 0; i--)
+		{
+			ForceField field = list.get(i);
+			
+			if(field != this && field.getGroup().equals(grp) && add(field))
+				added++;
+		}
+		
+		return added;
+	}
+	
+	// Removes a ForceField from the BarnesHutField and puts it back into ForceField.list. Returns
+	// false if it was not part of the BarnesHutField.
+	public boolean remove(ForceField field)
+	{
+		if(!sources.remove(field))
+			return false;
+		
+		GameContext.current().forceFields.add(field);
+		builtFrame = -1;
+		
+		return true;
+	}
+	
+	// Removes a ForceField from the BarnesHutField without putting it back into ForceField.list.
+	public boolean discard(ForceField field)
+	{
+		builtFrame = -1;
+		
+		return sources.remove(field);
+	}
+	
+	// Discards the source in the group grp with the ID id, if there is one. Called by
+	// ForceField.removeID(). Returns true if a source was discarded.
+	boolean discardID(String grp, int id)
+	{
+		for(int i = sources.size()-1; i >= 0; i--)
+		{
+			if(sources.get(i).getGroup().equals(grp) && sources.get(i).getID() == id)
+			{
+				sources.remove(i);
+				builtFrame = -1;
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Discards every source in the group grp. Called by ForceField.removeGroup().
+	void discardGroup(String grp)
+	{
+		for(int i = sources.size()-1; i >= 0; i--)
+		{
+			if(sources.get(i).getGroup().equals(grp))
+			{
+				sources.remove(i);
+				builtFrame = -1;
+			}
+		}
+	}
+	
+	// Returns the number of ForceFields in the BarnesHutField.
+	public int countSources()
+	{
+		return sources.size();
+	}
+	
+	// Must extend this class and override yourself if you want to make use of this method.
+	@Override
+	protected void onEnter(RBObject rb)
+	{
+		
+	}
+	
+	// Must extend this class and override yourself if you want to make use of this method.
+	@Override
+	protected void whileIn(RBObject rb)
+	{
+		
+	}
+	
+	// Every RBObject is affected as long as there are sources.
+	@Override
+	public boolean inField(RBObject rb)
+	{
+		return !sources.isEmpty();
+	}
+	
+	// Calculates the combined force of all sources.
+	@Override
+	protected Vec2D calcForce(RBObject rb)
+	{
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
+		
+		return force;
+	}
+	
+	// Calculates the combined force of all sources and copies it into out. Uses the same formula as
+	// GravityField and ElectricField, summed over the sources (or squares of sources).
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out)
+	{
+		// Build the tree the first time it is needed each frame. This may be called from several
+		// threads at once (see GameFrame.setParallelForces()), so only one of them builds it.
+		if(builtFrame != GameFrame.getCurrFrame())
+			build();
+		
+		out.setZero();
+		
+		if(nrNodes == 0)
+			return;
+		
+		double factor = type == CHARGE ? rb.getCharge() : rb.getMass();
+		double halfWidth = rb.getBBoxConst().width/2.0;
+		
+		addNodeForce(0, rb.x+halfWidth, rb.y+halfWidth, theta*theta, out);
+		
+		// Each source exerts -strength*factor/distance^2 in the direction of the source.
+		out.scaleMag(-factor);
+	}
+	
+	// Calculates the combined force of all sources on a point particle of a ParticleSystem and copies
+	// it into out. 
+	@Override
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		if(builtFrame != GameFrame.getCurrFrame())
+			build();
+		
+		out.setZero();
+		
+		if(nrNodes == 0)
+			return false;
+		
+		addNodeForce(0, x, y, theta*theta, out);
+		out.scaleMag(type == CHARGE ? -charge : -mass);
+		
+		return true;
+	}
+	
+	// Adds the sum of strength*direction/distance^2 for all sources in the given node to out, where
+	// direction is the unit vector from (x, y) to the source.
+	private void addNodeForce(int node, double x, double y, double theta2, Vec2D out)
+	{
+		if(posS[node] == 0.0 && negS[node] == 0.0)
+			return;
+		
+		if(child[node] < 0)
+		{
+			for(int s = firstSrc[node]; s >= 0; s = nextSrc[s])
+				addSourceForce(srcX[s], srcY[s], srcS[s], x, y, out);
+			
+			return;
+		}
+		
+		double dx = cenX[node] - x;
+		double dy = cenY[node] - y;
+		double size = nodeSize[node];
+		
+		// If the square is far enough away, treat its positive and negative sources as one each.
+		if(size*size < theta2*(dx*dx + dy*dy))
+		{
+			if(posS[node] != 0.0)
+				addSourceForce(posX[node], posY[node], posS[node], x, y, out);
+			if(negS[node] != 0.0)
+				addSourceForce(negX[node], negY[node], negS[node], x, y, out);
+			
+			return;
+		}
+		
+		for(int i = child[node]; i < child[node]+4; i++)
+			addNodeForce(i, x, y, theta2, out);
+	}
+	
+	// Adds strength*direction/distance^2 for a single source to out. A source at (x, y) itself
+	// (such as the one attached to the RBObject) exerts no force.
+	private static void addSourceForce(double sx, double sy, double strength, double x, double y,
+			Vec2D out)
+	{
+		double dx = sx - x;
+		double dy = sy - y;
+		double distance2 = dx*dx + dy*dy;
+		
+		if(distance2 == 0.0)
+			return;
+		
+		double scale = strength/(distance2*Math.sqrt(distance2));
+		
+		out.set(out.getXComp() + dx*scale, out.getYComp() + dy*scale);
+	}
+	
+	// Builds the quadtree from the current location and strength of the sources.
+	private synchronized void build()
+	{
+		long frame = GameFrame.getCurrFrame();
+		
+		if(builtFrame == frame) // Another thread built it while this one waited.
+			return;
+		
+		nrSrc = 0;
+		nrNodes = 0;
+		
+		int count = sources.size();
+		
+		if(srcX.length < count)
+		{
+			int length = Math.max(count, srcX.length*2);
+			srcX = new double[length];
+			srcY = new double[length];
+			srcS = new double[length];
+			nextSrc = new int[length];
+		}
+		
+		// Copy the sources in, and find the square that contains all of them.
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		
+		for(int i = 0; i < count; i++)
+		{
+			PointSource source = (PointSource)sources.get(i);
+			double x = source.getSourceX();
+			double y = source.getSourceY();
+			double s = source.getSourceStrength();
+			
+			if(s == 0.0 || Double.isNaN(x) || Double.isNaN(y) || Double.isInfinite(x)
+					|| Double.isInfinite(y))
+				continue;
+			
+			srcX[nrSrc] = x;
+			srcY[nrSrc] = y;
+			srcS[nrSrc] = s;
+			nrSrc++;
+			
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		
+		if(nrSrc > 0)
+		{
+			// Make the square a little larger so that sources on its far edges are inside it.
+			double size = Math.max(Math.max(maxX-minX, maxY-minY), 1.0) * 1.0001;
+			
+			newNodes(1);
+			initNode(0, minX, minY, size);
+			
+			for(int i = 0; i < nrSrc; i++)
+				insert(i);
+			
+			sumNode(0);
+		}
+		
+		builtFrame = frame;
+	}
+	
+	// Puts a source into the leaf of the tree that contains it, splitting that leaf if it already
+	// holds a source.
+	private void insert(int s)
+	{
+		int node = 0;
+		int depth = 0;
+		
+		while(true)
+		{
+			if(child[node] >= 0)
+			{
+				node = child[node] + quadrant(node, srcX[s], srcY[s]);
+				depth++;
+			}
+			else if(firstSrc[node] < 0 || depth == MAX_DEPTH)
+			{
+				nextSrc[s] = firstSrc[node];
+				firstSrc[node] = s;
+				return;
+			}
+			else
+			{
+				// Split the leaf and move its source into one of the new children. The loop then
+				// goes on into the child for s.
+				int other = firstSrc[node];
+				double half = nodeSize[node]/2.0;
+				int first = newNodes(4);
+				
+				initNode(first, nodeX[node], nodeY[node], half);
+				initNode(first+1, nodeX[node]+half, nodeY[node], half);
+				initNode(first+2, nodeX[node], nodeY[node]+half, half);
+				initNode(first+3, nodeX[node]+half, nodeY[node]+half, half);
+				
+				child[node] = first;
+				firstSrc[node] = -1;
+				
+				int otherNode = first + quadrant(node, srcX[other], srcY[other]);
+				nextSrc[other] = -1;
+				firstSrc[otherNode] = other;
+			}
+		}
+	}
+	
+	// Returns which of the four children of node contains (x, y): 0 top left, 1 top right,
+	// 2 bottom left, 3 bottom right.
+	private int quadrant(int node, double x, double y)
+	{
+		double half = nodeSize[node]/2.0;
+		
+		return (x >= nodeX[node]+half ? 1 : 0) + (y >= nodeY[node]+half ? 2 : 0);
+	}
+	
+	// Works out the total strength and centres of a node from its children or sources.
+	private void sumNode(int node)
+	{
+		double pS = 0.0, pX = 0.0, pY = 0.0;
+		double nS = 0.0, nX = 0.0, nY = 0.0;
+		
+		if(child[node] >= 0)
+		{
+			for(int i = child[node]; i < child[node]+4; i++)
+			{
+				sumNode(i);
+				
+				pS += posS[i];
+				pX += posS[i]*posX[i];
+				pY += posS[i]*posY[i];
+				nS += negS[i];
+				nX += negS[i]*negX[i];
+				nY += negS[i]*negY[i];
+			}
+		}
+		else
+		{
+			for(int s = firstSrc[node]; s >= 0; s = nextSrc[s])
+			{
+				if(srcS[s] > 0.0)
+				{
+					pS += srcS[s];
+					pX += srcS[s]*srcX[s];
+					pY += srcS[s]*srcY[s];
+				}
+				else
+				{
+					nS += srcS[s];
+					nX += srcS[s]*srcX[s];
+					nY += srcS[s]*srcY[s];
+				}
+			}
+		}
+		
+		posS[node] = pS;
+		negS[node] = nS;
+		
+		if(pS != 0.0)
+		{
+			posX[node] = pX/pS;
+			posY[node] = pY/pS;
+		}
+		
+		if(nS != 0.0)
+		{
+			negX[node] = nX/nS;
+			negY[node] = nY/nS;
+		}
+		
+		double total = pS - nS;
+		
+		if(total != 0.0)
+		{
+			cenX[node] = (pX - nX)/total;
+			cenY[node] = (pY - nY)/total;
+		}
+	}
+	
+	// Sets up a node as an empty leaf.
+	private void initNode(int node, double x, double y, double size)
+	{
+		child[node] = -1;
+		firstSrc[node] = -1;
+		nodeX[node] = x;
+		nodeY[node] = y;
+		nodeSize[node] = size;
+		posS[node] = 0.0;
+		negS[node] = 0.0;
+	}
+	
+	// Reserves the given number of nodes and returns the first one, growing the arrays if needed.
+	private int newNodes(int n)
+	{
+		if(nrNodes+n > child.length)
+		{
+			int length = child.length*2;
+			
+			child = grow(child, length);
+			firstSrc = grow(firstSrc, length);
+			nodeX = grow(nodeX, length);
+			nodeY = grow(nodeY, length);
+			nodeSize = grow(nodeSize, length);
+			posS = grow(posS, length);
+			posX = grow(posX, length);
+			posY = grow(posY, length);
+			negS = grow(negS, length);
+			negX = grow(negX, length);
+			negY = grow(negY, length);
+			cenX = grow(cenX, length);
+			cenY = grow(cenY, length);
+		}
+		
+		int first = nrNodes;
+		nrNodes += n;
+		
+		return first;
+	}
+	
+	private int[] grow(int[] array, int length)
+	{
+		int[] newArray = new int[length];
+		System.arraycopy(array, 0, newArray, 0, nrNodes);
+		
+		return newArray;
+	}
+	
+	private double[] grow(double[] array, int length)
+	{
+		double[] newArray = new double[length];
+		System.arraycopy(array, 0, newArray, 0, nrNodes);
+		
+		return newArray;
+	}
+}
@@ -2,11 +2,10 @@ package gameframe.forcefields;
 
 import jgame.JGRectangle;
 import gameframe.rbs.RBObject;
-import gameframe.vecmath.Coord;
 import gameframe.vecmath.GFUtil;
 import gameframe.vecmath.Vec2D;
 
-public class ElectricField extends ForceField 
+public class ElectricField extends ForceField implements PointSource
 {
 	protected double k; // Used to adjust strength of the electric field.
 	private boolean planar; // Determines whether electric field is a parallel planar field or is 
@@ -35,6 +34,7 @@ public class ElectricField extends ForceField
 		super(grp);
 		
 		k = strength;
+		this.range = range;
 		sourceX = x;
 		sourceY = y;
 		q = charge;
@@ -48,6 +48,7 @@ public class ElectricField extends ForceField
 		super(grp);
 		
 		k = strength;
+		this.range = range;
 		sourceX = x;
 		sourceY = y;
 		q = charge;
@@ -66,6 +67,59 @@ public class ElectricField extends ForceField
 		fieldVec = EVec;
 	}
 
+	// Returns true if the ElectricField is caused by a point charge and has an infinite range.
+	public boolean isPointSource()
+	{
+		return !planar && range == infinite;
+	}
+	
+	// Returns the x location of the point charge.
+	public double getSourceX()
+	{
+		return sourceX;
+	}
+	
+	// Returns the y location of the point charge.
+	public double getSourceY()
+	{
+		return sourceY;
+	}
+	
+	// Returns the charge of the point charge multiplied by k.
+	public double getSourceStrength()
+	{
+		return k*q;
+	}
+	
+	// Returns the area of effect of a planar ElectricField, or the square around the source that
+	// contains the range of a point one. 
+	@Override
+	public boolean getBounds(JGRectangle out)
+	{
+		if(planar)
+		{
+			if(areaOfEffect == null)
+				return false;
+			
+			out.copyFrom(areaOfEffect);
+			
+			return true;
+		}
+		else if(range != infinite)
+		{
+			out.x = (int)Math.floor(sourceX - range);
+			out.y = (int)Math.floor(sourceY - range);
+			out.width = (int)Math.ceil(2.0*range) + 1;
+			out.height = out.width;
+			
+			return true;
+		}
+		else
+		{
+			return false;
+		}
+	}
+	
 	// Must extend this class and override yourself if you want to make use of this method.
 	@Override
 	protected void onEnter(RBObject rb) 
@@ -86,10 +140,9 @@ public class ElectricField extends ForceField
 	{
 		if(planar)
 		{
-			JGRectangle rbSize = new JGRectangle((int)rb.x, (int)rb.y, 
-					rb.getBBox().width, rb.getBBox().height);
+			JGRectangle rbBBox = rb.getBBoxConst();
 			
-			if(GFUtil.rectOverlap(rbSize, areaOfEffect))
+			if(GFUtil.rectOverlap((int)rb.x, (int)rb.y, rbBBox.width, rbBBox.height, areaOfEffect))
 				return true;
 			else
 				return false;
@@ -99,9 +152,10 @@ public class ElectricField extends ForceField
 			if(range != infinite)
 			{
 				// First calculate the distance between the source and an RBObject.
-				double distance = 
-						Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - sourceX, 2.0) 
-								+ Math.pow((rb.y+rb.getBBox().width/2.0) - sourceY, 2.0));
+				double halfWidth = rb.getBBoxConst().width/2.0;
+				double dx = (rb.x+halfWidth) - sourceX;
+				double dy = (rb.y+halfWidth) - sourceY;
+				double distance = Math.sqrt(dx*dx + dy*dy);
 				
 				// If the distance is less than range, return true. 
 				if(distance <= range)
@@ -119,13 +173,20 @@ public class ElectricField extends ForceField
 	// Calculates the force the ElectricField should exert. 
 	@Override
 	protected Vec2D calcForce(RBObject rb) 
+	{
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
+		
+		return force;
+	}
+	
+	// Calculates the force the ElectricField should exert and copies it into out. 
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out) 
 	{
 		if(planar)
 		{
-			Vec2D force = fieldVec.copy();
-			force.scaleMag(rb.getCharge());
-			
-			return force;
+			out.scaleInto(fieldVec, rb.getCharge());
 		}
 		else
 		{
@@ -133,22 +194,58 @@ public class ElectricField extends ForceField
 			double comboCharge = rb.getCharge()*q;
 			
 			// Next, calculate the distance between the source and an RBObject.
-			double distance = 
-					Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - sourceX, 2.0) 
-							+ Math.pow((rb.y+rb.getBBox().width/2.0) - sourceY, 2.0));
+			double halfWidth = rb.getBBoxConst().width/2.0;
+			double dx = sourceX - (rb.x+halfWidth);
+			double dy = sourceY - (rb.y+halfWidth);
+			double distance = Math.sqrt(dx*dx + dy*dy);
 			
 			// Create a force in the direction from the RBObejct to the source object.
-			Vec2D force = new Vec2D(new Coord(rb.x+rb.getBBox().width/2.0, rb.y+rb.getBBox().width/2.0), 
-					new Coord(sourceX, sourceY));
-			force.changeMag(-k*comboCharge/Math.pow(distance, 2.0)); // Change the magnitude of the 
-																   	   // force to be the product of the
-																   	   // two charges of the involved
-																       // objects divided by the square
-																       // of the distance between those
-																       // two objects (and then scaled
-																       // by -k). 
-			return force; // Return the force. 
+			out.set(dx, dy);
+			out.changeMag(-k*comboCharge/(distance*distance)); // Change the magnitude of the 
+																   // force to be the product of the
+																   // two charges of the involved
+																   // objects divided by the square
+																   // of the distance between those
+																   // two objects (and then scaled
+																   // by -k). 
 		}
 	}
 	
+	// Copies the force the ElectricField exerts on a point particle of a ParticleSystem into out. Works
+	// the same as inField() and calcForce(), with the particle taken to be a single pixel. 
+	@Override
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		if(planar)
+		{
+			if(!pointIn(x, y, areaOfEffect))
+			{
+				out.setZero();
+				
+				return false;
+			}
+			
+			out.scaleInto(fieldVec, charge);
+			
+			return true;
+		}
+		
+		double dx = sourceX - x;
+		double dy = sourceY - y;
+		double distance = Math.sqrt(dx*dx + dy*dy);
+		
+		if(range != infinite && distance > range)
+		{
+			out.setZero();
+			
+			return false;
+		}
+		
+		out.set(dx, dy);
+		out.changeMag(-k*charge*q/(distance*distance)); // As in calcForce().
+		
+		return true;
+	}
+	
 }
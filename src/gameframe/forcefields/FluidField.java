@@ -22,6 +22,34 @@ public class FluidField extends ForceField
 		fluidArea = areas;
 	}
 
+	// Returns the smallest rectangle that contains all areas of the FluidField.
+	@Override
+	public boolean getBounds(JGRectangle out)
+	{
+		if(fluidArea.isEmpty())
+			return false;
+		
+		int x1 = Integer.MAX_VALUE, y1 = Integer.MAX_VALUE;
+		int x2 = Integer.MIN_VALUE, y2 = Integer.MIN_VALUE;
+		
+		for(int i = 0; i < fluidArea.size(); i++)
+		{
+			JGRectangle area = fluidArea.get(i);
+			
+			x1 = Math.min(x1, area.x);
+			y1 = Math.min(y1, area.y);
+			x2 = Math.max(x2, area.x + area.width);
+			y2 = Math.max(y2, area.y + area.height);
+		}
+		
+		out.x = x1;
+		out.y = y1;
+		out.width = x2 - x1;
+		out.height = y2 - y1;
+		
+		return true;
+	}
+	
 	// Must extend this class and override yourself if you want to make use of this method.
 	@Override
 	protected void onEnter(RBObject rb) 
@@ -40,12 +68,11 @@ public class FluidField extends ForceField
 	@Override
 	public boolean inField(RBObject rb) 
 	{
-		JGRectangle rbSize = new JGRectangle((int)rb.x, (int)rb.y, 
-				rb.getBBox().width, rb.getBBox().height);
+		JGRectangle rbBBox = rb.getBBoxConst();
 		
-		for(JGRectangle area : fluidArea)
+		for(int i = 0; i < fluidArea.size(); i++)
 		{
-			if(GFUtil.rectOverlap(rbSize, area))
+			if(GFUtil.rectOverlap((int)rb.x, (int)rb.y, rbBBox.width, rbBBox.height, fluidArea.get(i)))
 			{
 				return true;
 			}
@@ -58,16 +85,51 @@ public class FluidField extends ForceField
 	@Override
 	protected Vec2D calcForce(RBObject rb) 
 	{
-		double rbWidth = rb.getBBox().width;
-		double rbHeight = rb.getBBox().height;
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
+		
+		return force;
+	}
+	
+	// Calculates the force the FluidField should exert and copies it into out.
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out) 
+	{
+		JGRectangle rbBBox = rb.getBBoxConst();
+		double rbWidth = rbBBox.width;
+		double rbHeight = rbBBox.height;
 		double velAngle = rb.velocity.angleWithHor();
 		
 		double rbSurface = rbWidth*Math.sin(velAngle) + rbHeight*Math.cos(velAngle);
 		
-		Vec2D force = rb.velocity.getInverse();
-		force.scaleMag(Math.abs(rbSurface)*viscosity);
+		out.scaleInto(rb.velocity, -Math.abs(rbSurface)*viscosity);
+	}
+	
+	// Copies the force the FluidField exerts on a point particle of a ParticleSystem into out. The
+	// particle is taken to be a single pixel. 
+	@Override
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		for(int i = 0; i < fluidArea.size(); i++)
+		{
+			if(pointIn(x, y, fluidArea.get(i)))
+			{
+				// The surface facing the motion is sin + cos of the angle of the velocity with the
+				// horizontal, worked out here without the angle itself. 
+				double speed = Math.sqrt(vx*vx + vy*vy);
+				double surface = speed == 0.0 ? 0.0 : (Math.abs(vx) + Math.abs(vy))/speed;
+				
+				out.set(vx, vy);
+				out.scaleMag(-surface*viscosity);
+				
+				return true;
+			}
+		}
 		
-		return force;
+		out.setZero();
+		
+		return false;
 	}
-
+	
 }
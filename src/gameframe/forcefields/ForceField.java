@@ -1,11 +1,14 @@
 package gameframe.forcefields;
 
+import gameframe.GameContext;
 import gameframe.rbs.RBObject;
 import gameframe.vecmath.Coord;
 import gameframe.vecmath.Vec2D;
 
 import java.util.ArrayList;
 
+import jgame.JGRectangle;
+
 /*
  * The ForceField class is meant to be implemented in order to create forces that affect RBObjects
  * depending on their location and their current physical properties (ex: mass, charge, velocity, etc).
@@ -16,11 +19,10 @@ import java.util.ArrayList;
 public abstract class ForceField 
 {
 	/*
-	 * This ArrayList should store all objects derived from ForceField that are created.
-	 * Only ForceFields in this ArrayList will be able to affect RBObjects, as RBObjects access
-	 * ForceFields using this static ArrayList. 
+	 * The forceFields ArrayList of the current GameContext (called ForceField.list below) stores
+	 * all objects derived from ForceField that are created. Only ForceFields in this ArrayList will
+	 * be able to affect RBObjects, as RBObjects access ForceFields using this ArrayList. 
 	 */
-	public static ArrayList<ForceField> list = new ArrayList<ForceField>();
 	
 	private int fieldID; // A unique ID number for the ForceField created. Only unique among 
 						 // ForceFields in the same group.
@@ -30,6 +32,8 @@ public abstract class ForceField
 	// Static method for clearing all ForceField objects out of ForceField.list.
 	public static void removeAll()
 	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		
 		// Iterate through list backwards and remove all objects.
 		for(int i = list.size()-1; i >= 0; i--)
 		{
@@ -41,6 +45,8 @@ public abstract class ForceField
 	// through id and are a member of the group passed through grp.
 	public static void removeID(String grp, int id)
 	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		
 		// Iterate through list backwards.
 		for(int i = list.size()-1; i >= 0; i--)
 		{
@@ -48,18 +54,31 @@ public abstract class ForceField
 			if(list.get(i).getGroup().equals(grp) && list.get(i).getID() == id)
 			{
 				list.remove(i);
-				break; // IDs are unique for ForceFields, so it is not necessary to continue 
-					   // searching for more matches. 
+				return; // IDs are unique for ForceFields, so it is not necessary to continue 
+					    // searching for more matches. 
 			}
 		}
+		
+		// The ForceField may have been taken out of list by a BarnesHutField.
+		for(int i = 0; i < list.size(); i++)
+		{
+			if(list.get(i) instanceof BarnesHutField && ((BarnesHutField)list.get(i)).discardID(grp, id))
+				return;
+		}
 	}
 	
 	// Static method for removing all ForceField objects in the group passed through grp.
 	public static void removeGroup(String grp)
 	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		
 		// Iterate through list backwards.
 		for(int i = list.size()-1; i >= 0; i--)
 		{
+			// Also remove the ForceFields of the group that a BarnesHutField took out of list.
+			if(list.get(i) instanceof BarnesHutField)
+				((BarnesHutField)list.get(i)).discardGroup(grp);
+			
 			// Once ForceField with matching group is found, remove it.
 			if(list.get(i).getGroup().equals(grp))
 			{
@@ -71,6 +90,8 @@ public abstract class ForceField
 	// Static method for getting the number of ForceFields created in a given group.
 	public static int countGroup(String grp)
 	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		
 		int groupCount = 0; // Used to keep track of the number of ForceFields in group grp. 
 
 		// Finds ForceFields in list with matching group, adds one to groupCount when one is found. 
@@ -87,6 +108,8 @@ public abstract class ForceField
 	// ForceField to ForceField.list. 
 	public ForceField(String grp)
 	{
+		ArrayList<ForceField> list = GameContext.current().forceFields; // ForceField.list.
+		
 		group = grp; // Sets unique integer ID.
 		
 		int groupCount = 0; // Used to keep track of the number of ForceFields with the same group
@@ -139,6 +162,94 @@ public abstract class ForceField
 			return new Vec2D(new Coord(0.0, 0.0));
 	}
 	
+	// Same as getForce(rb), but copies the force into out instead of creating a new vector. Returns 
+	// true if the RBObject is under the influence of the ForceField, and false (with out set to a 
+	// zero vector) if it is not. Used by RBObject so that applying ForceFields does not create any
+	// objects each frame. 
+	public boolean getForce(RBObject rb, Vec2D out)
+	{
+		if(inField(rb)) // If the RBObject is under the influence of the ForceField.
+		{
+			// Same as in getForce(rb) above.
+			if(rb.matchField(fieldID)) 
+				whileIn(rb);
+			else
+				onEnter(rb);
+			
+			calcForce(rb, out); // Copy the force that should be exerted on the RBObject into out.
+			
+			return true;
+		}
+		else // The RBObject is not under the influence of the field, and no force should be applied. 
+		{
+			out.setZero();
+			
+			return false;
+		}
+	}
+	
+	// Same as getForce(rb, out), but does not call onEnter() or whileIn(). Used by the parallel force
+	// phase of GameFrame, which may call this from several threads at once and delivers the 
+	// callbacks afterwards on the game thread using fieldCallback(). For this to be safe, inField() 
+	// and calcForce() should only read the RBObject and the ForceField, and only write to out and
+	// local variables (as the ForceFields in this package do). 
+	public boolean getForceNoCallback(RBObject rb, Vec2D out)
+	{
+		if(inField(rb))
+		{
+			calcForce(rb, out);
+			
+			return true;
+		}
+		else
+		{
+			out.setZero();
+			
+			return false;
+		}
+	}
+	
+	// Calls whileIn() if wasIn is true and onEnter() otherwise. Used to deliver the callbacks that
+	// getForceNoCallback() skipped. 
+	public void fieldCallback(RBObject rb, boolean wasIn)
+	{
+		if(wasIn) 
+			whileIn(rb);
+		else
+			onEnter(rb);
+	}
+	
+	// Copies a rectangle into out that contains every RBObject for which inField() can return true,
+	// and returns true. Returns false if there is no such rectangle, which is the default. Used by
+	// ForceFieldIndex, which only calls inField() for RBObjects near the rectangle. The rectangle may
+	// be larger than needed, but not smaller. Override this for ForceFields that only affect part of
+	// the play field. 
+	public boolean getBounds(JGRectangle out)
+	{
+		return false;
+	}
+	
+	// Copies the force that the ForceField exerts on a point particle of a ParticleSystem into out and
+	// returns true, or returns false (with out set to a zero vector) if a particle at (x, y) is not
+	// under the influence of the ForceField. Such particles are not RBObjects, so they are described
+	// by their position, velocity, mass and charge, and onEnter() and whileIn() are not called for
+	// them. By default ForceFields do not affect ParticleSystems; override this method to change that,
+	// as the ForceFields in this package do. Only out and local variables should be written to. 
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		out.setZero();
+		
+		return false;
+	}
+	
+	// Returns true if the point (x, y) lies inside rect. Used by getPointForce().
+	protected static boolean pointIn(double x, double y, JGRectangle rect)
+	{
+		return rect != null && x >= rect.x && y >= rect.y && x < rect.x + rect.width 
+				&& y < rect.y + rect.height;
+	}
+	
 	// Implement this method to do something when an RBObject first comes under influence of the
 	// ForceField. Takes the RBObject that entered the field as a parameter. 
 	protected abstract void onEnter(RBObject rb);
@@ -154,4 +265,13 @@ public abstract class ForceField
 	// Implement this method to determine how to calculate the force that the ForceField exerts on
 	// an RBObject that is under its influence. 
 	protected abstract Vec2D calcForce(RBObject rb);
+	
+	// Same as calcForce(rb), but copies the force into out. By default this just copies the result of
+	// calcForce(rb). Override this method as well to calculate the force without creating a new 
+	// vector, as the ForceFields in this package do. Only out and local variables should be written 
+	// to, since this may be called for many RBObjects. 
+	protected void calcForce(RBObject rb, Vec2D out)
+	{
+		out.set(calcForce(rb));
+	}
 }
@@ -0,0 +1,283 @@
+package gameframe.forcefields;
+
+import gameframe.GameContext;
+import gameframe.rbs.RBObject;
+
+import java.util.Arrays;
+
+import jgame.JGRectangle;
+
+/*
+ * ForceFieldIndex is a spatial index of the ForceFields in ForceField.list. Without it, every
+ * RBObject calls inField() on every ForceField each frame, even when most of them are small zones
+ * (such as FluidFields or MagneticFields) far away from it. With it, each ForceField that reports
+ * its bounds (see ForceField.getBounds()) is put into the cells of a grid that its bounds cover, and
+ * an RBObject only looks at the ForceFields in the cells its own bounding box covers, plus those that
+ * have no bounds (such as planar fields without an area or fields with an infinite range).
+ *
+ * A ForceFieldIndex is used by setting the forceFieldIndex of the GameContext (for example in 
+ * initGame()), and indexes the ForceFields of the GameContext that was current when it was 
+ * created. It is built again the first time it is used each frame, or when the size of 
+ * ForceField.list changes, so ForceFields may move around. Call invalidate() if you change 
+ * ForceField.list in some other way in the middle of a frame. The candidates of an RBObject are
+ * given in the order of ForceField.list, so ForceFields are applied in the same order as without
+ * the index.
+ */
+
+public class ForceFieldIndex
+{
+	private static final int MAX_CELLS = 1024; // ForceFields whose bounds cover more cells than this
+											   // are treated as having no bounds.
+
+	// A list of ForceField.list indexes of ForceFields that may affect an RBObject. Each RBObject
+	// keeps its own, so that several threads may query the index at once.
+	public static class Candidates
+	{
+		private int[] fields = new int[16];
+		private int size = 0;
+
+		// Returns the number of candidates.
+		public int size()
+		{
+			return size;
+		}
+
+		// Returns the index in ForceField.list of candidate i.
+		public int get(int i)
+		{
+			return fields[i];
+		}
+
+		private void add(int field)
+		{
+			if(size == fields.length)
+				fields = Arrays.copyOf(fields, size*2);
+
+			fields[size++] = field;
+		}
+	}
+
+	private int cellWidth; // Size of the cells of the grid in pixels.
+	private int cellHeight;
+
+	// Cells are hashed into buckets, so that the grid has no edges. Different cells may share a
+	// bucket, which only gives extra candidates.
+	private int[] buckets = new int[256]; // Bucket -> first entry, or -1.
+	private int bucketMask = 255;
+	private int[] nextEntry = new int[256]; // Entry -> next entry in the same bucket, or -1.
+	private int[] entryField = new int[256]; // Entry -> index of the ForceField in ForceField.list.
+	private int nrEntries = 0;
+
+	private int[] unbounded = new int[16]; // ForceFields that are candidates everywhere.
+	private int nrUnbounded = 0;
+
+	private JGRectangle bounds = new JGRectangle(); // Used while building.
+
+	private volatile long builtFrame = -1; // The frame in which the index was last built.
+	private int builtSize = -1; // The size of ForceField.list when the index was last built.
+	
+	private final GameContext context = GameContext.current(); // Holds the ForceFields indexed.
+
+	// Creates a ForceFieldIndex whose grid has cells of the given size in pixels. The cells should
+	// be about the size of the smaller ForceFields.
+	public ForceFieldIndex(int cellWidth, int cellHeight)
+	{
+		this.cellWidth = Math.max(cellWidth, 1);
+		this.cellHeight = Math.max(cellHeight, 1);
+	}
+
+	// Creates a ForceFieldIndex with cells of 64 by 64 pixels.
+	public ForceFieldIndex()
+	{
+		this(64, 64);
+	}
+
+	// Makes the index be built again the next time it is used.
+	public void invalidate()
+	{
+		builtFrame = -1;
+	}
+
+	// Fills out with the indexes in ForceField.list of the ForceFields that may affect the given
+	// RBObject, in ascending order. ForceFields that are not in out do not affect it (their inField()
+	// returns false). May be called from several threads at once.
+	public void query(RBObject rb, Candidates out)
+	{
+		if(builtFrame != context.currentFrame || builtSize != context.forceFields.size())
+			build();
+
+		out.size = 0;
+
+		JGRectangle rbBBox = rb.getBBoxConst();
+
+		if(rbBBox == null) // Without a bounding box, let every ForceField decide for itself.
+		{
+			for(int i = 0; i < builtSize; i++)
+				out.add(i);
+
+			return;
+		}
+
+		for(int i = 0; i < nrUnbounded; i++)
+			out.add(unbounded[i]);
+
+		// The ForceFields in this package test either the rectangle at (x, y) with the size of the
+		// bounding box, or the point (x + width/2, y + width/2), so look at the cells covering all
+		// of these (and the bounding box itself). One pixel is added for rounding.
+		int x1 = (int)Math.floor(Math.min(rb.x, rbBBox.x)) - 1;
+		int y1 = (int)Math.floor(Math.min(rb.y, rbBBox.y)) - 1;
+		int x2 = (int)Math.ceil(Math.max(rb.x + rbBBox.width, rbBBox.x + rbBBox.width)) + 1;
+		int y2 = (int)Math.ceil(Math.max(rb.y + Math.max(rbBBox.width, rbBBox.height),
+				rbBBox.y + rbBBox.height)) + 1;
+
+		addCells(x1, y1, x2, y2, out);
+	}
+
+	// Fills out with the indexes in ForceField.list of the ForceFields that may affect a point
+	// anywhere inside area, in ascending order. Used by ParticleSystem, which queries the index once
+	// for all of its particles. May be called from several threads at once.
+	public void query(JGRectangle area, Candidates out)
+	{
+		if(builtFrame != context.currentFrame || builtSize != context.forceFields.size())
+			build();
+
+		out.size = 0;
+
+		// For a large area, looking at every cell takes longer than taking every ForceField.
+		if((long)(cellX(area.x + area.width + 1) - cellX(area.x - 1) + 1)
+				*(cellY(area.y + area.height + 1) - cellY(area.y - 1) + 1) > MAX_CELLS)
+		{
+			for(int i = 0; i < builtSize; i++)
+				out.add(i);
+
+			return;
+		}
+
+		for(int i = 0; i < nrUnbounded; i++)
+			out.add(unbounded[i]);
+
+		addCells(area.x - 1, area.y - 1, area.x + area.width + 1, area.y + area.height + 1, out);
+	}
+
+	// Adds the ForceFields in the cells covering the rectangle from (x1, y1) to (x2, y2) to out, and
+	// sorts the candidates.
+	private void addCells(int x1, int y1, int x2, int y2, Candidates out)
+	{
+		int cx1 = cellX(x1), cx2 = cellX(x2);
+		int cy1 = cellY(y1), cy2 = cellY(y2);
+
+		for(int cy = cy1; cy <= cy2; cy++)
+		{
+			for(int cx = cx1; cx <= cx2; cx++)
+			{
+				for(int e = buckets[hash(cx, cy)]; e >= 0; e = nextEntry[e])
+					out.add(entryField[e]);
+			}
+		}
+
+		// Sort the candidates into the order of ForceField.list and remove duplicates (a ForceField
+		// is found once for each cell it shares with the RBObject).
+		if(out.size > 1)
+		{
+			Arrays.sort(out.fields, 0, out.size);
+
+			int size = 1;
+
+			for(int i = 1; i < out.size; i++)
+			{
+				if(out.fields[i] != out.fields[size-1])
+					out.fields[size++] = out.fields[i];
+			}
+
+			out.size = size;
+		}
+	}
+
+	// Puts every ForceField in ForceField.list into the cells covered by its bounds.
+	private synchronized void build()
+	{
+		long frame = context.currentFrame;
+		int size = context.forceFields.size();
+
+		if(builtFrame == frame && builtSize == size) // Another thread built it while this one waited.
+			return;
+
+		// Aim for about one entry per bucket.
+		int nrBuckets = buckets.length;
+		while(nrBuckets < size*2)
+			nrBuckets *= 2;
+		if(nrBuckets != buckets.length)
+			buckets = new int[nrBuckets];
+		bucketMask = nrBuckets-1;
+		Arrays.fill(buckets, -1);
+
+		nrEntries = 0;
+		nrUnbounded = 0;
+
+		for(int i = 0; i < size; i++)
+		{
+			ForceField field = context.forceFields.get(i);
+
+			boolean bounded = field.getBounds(bounds);
+
+			int cx1 = 0, cx2 = 0, cy1 = 0, cy2 = 0;
+
+			if(bounded)
+			{
+				cx1 = cellX(bounds.x - 1);
+				cx2 = cellX(bounds.x + bounds.width + 1);
+				cy1 = cellY(bounds.y - 1);
+				cy2 = cellY(bounds.y + bounds.height + 1);
+
+				if((long)(cx2-cx1+1)*(cy2-cy1+1) > MAX_CELLS)
+					bounded = false;
+			}
+
+			if(!bounded)
+			{
+				if(nrUnbounded == unbounded.length)
+					unbounded = Arrays.copyOf(unbounded, nrUnbounded*2);
+
+				unbounded[nrUnbounded++] = i;
+				continue;
+			}
+
+			for(int cy = cy1; cy <= cy2; cy++)
+			{
+				for(int cx = cx1; cx <= cx2; cx++)
+				{
+					if(nrEntries == nextEntry.length)
+					{
+						nextEntry = Arrays.copyOf(nextEntry, nrEntries*2);
+						entryField = Arrays.copyOf(entryField, nrEntries*2);
+					}
+
+					int b = hash(cx, cy);
+					entryField[nrEntries] = i;
+					nextEntry[nrEntries] = buckets[b];
+					buckets[b] = nrEntries++;
+				}
+			}
+		}
+
+		builtSize = size;
+		builtFrame = frame;
+	}
+
+	private int hash(int cx, int cy)
+	{
+		return (cx*73856093 ^ cy*19349663) & bucketMask;
+	}
+
+	// Returns the column of the cell containing x (also for negative x).
+	private int cellX(int x)
+	{
+		return x >= 0 ? x/cellWidth : (x-cellWidth+1)/cellWidth;
+	}
+
+	// Returns the row of the cell containing y.
+	private int cellY(int y)
+	{
+		return y >= 0 ? y/cellHeight : (y-cellHeight+1)/cellHeight;
+	}
+}
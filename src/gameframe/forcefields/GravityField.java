@@ -2,11 +2,10 @@ package gameframe.forcefields;
 
 import jgame.JGRectangle;
 import gameframe.rbs.RBObject;
-import gameframe.vecmath.Coord;
 import gameframe.vecmath.GFUtil;
 import gameframe.vecmath.Vec2D;
 
-public class GravityField extends ForceField 
+public class GravityField extends ForceField implements PointSource
 {
 	protected double G; // Used to adjust strength of the gravitational field.
 	private boolean planar; // Determines whether gravitational field is a parallel planar field or is 
@@ -35,6 +34,7 @@ public class GravityField extends ForceField
 		super(grp);
 		
 		G = strength;
+		this.range = range;
 		sourceX = x;
 		sourceY = y;
 		m = mass;
@@ -48,6 +48,7 @@ public class GravityField extends ForceField
 		super(grp);
 		
 		G = strength;
+		this.range = range;
 		sourceX = x;
 		sourceY = y;
 		m = mass;
@@ -66,6 +67,59 @@ public class GravityField extends ForceField
 		fieldVec = GVec;
 	}
 
+	// Returns true if the GravityField is caused by a point mass and has an infinite range.
+	public boolean isPointSource()
+	{
+		return !planar && range == infinite;
+	}
+	
+	// Returns the x location of the point mass.
+	public double getSourceX()
+	{
+		return sourceX;
+	}
+	
+	// Returns the y location of the point mass.
+	public double getSourceY()
+	{
+		return sourceY;
+	}
+	
+	// Returns the mass of the point mass multiplied by G.
+	public double getSourceStrength()
+	{
+		return G*m;
+	}
+	
+	// Returns the area of effect of a planar GravityField, or the square around the source that
+	// contains the range of a point one. 
+	@Override
+	public boolean getBounds(JGRectangle out)
+	{
+		if(planar)
+		{
+			if(areaOfEffect == null)
+				return false;
+			
+			out.copyFrom(areaOfEffect);
+			
+			return true;
+		}
+		else if(range != infinite)
+		{
+			out.x = (int)Math.floor(sourceX - range);
+			out.y = (int)Math.floor(sourceY - range);
+			out.width = (int)Math.ceil(2.0*range) + 1;
+			out.height = out.width;
+			
+			return true;
+		}
+		else
+		{
+			return false;
+		}
+	}
+	
 	// Must extend this class and override yourself if you want to make use of this method.
 	@Override
 	protected void onEnter(RBObject rb) 
@@ -86,10 +140,9 @@ public class GravityField extends ForceField
 	{
 		if(planar)
 		{
-			JGRectangle rbSize = new JGRectangle((int)rb.x, (int)rb.y, 
-					rb.getBBox().width, rb.getBBox().height);
+			JGRectangle rbBBox = rb.getBBoxConst();
 			
-			if(GFUtil.rectOverlap(rbSize, areaOfEffect))
+			if(GFUtil.rectOverlap((int)rb.x, (int)rb.y, rbBBox.width, rbBBox.height, areaOfEffect))
 				return true;
 			else
 				return false;
@@ -99,9 +152,10 @@ public class GravityField extends ForceField
 			if(range != infinite)
 			{
 				// First calculate the distance between the source and an RBObject.
-				double distance = 
-						Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - sourceX, 2.0) 
-								+ Math.pow((rb.y+rb.getBBox().width/2.0) - sourceY, 2.0));
+				double halfWidth = rb.getBBoxConst().width/2.0;
+				double dx = (rb.x+halfWidth) - sourceX;
+				double dy = (rb.y+halfWidth) - sourceY;
+				double distance = Math.sqrt(dx*dx + dy*dy);
 				
 				// If the distance is less than range, return true. 
 				if(distance <= range)
@@ -119,13 +173,20 @@ public class GravityField extends ForceField
 	// Calculates the force the GravityField should exert. 
 	@Override
 	protected Vec2D calcForce(RBObject rb) 
+	{
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
+		
+		return force;
+	}
+	
+	// Calculates the force the GravityField should exert and copies it into out. 
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out) 
 	{
 		if(planar)
 		{
-			Vec2D force = fieldVec.copy();
-			force.scaleMag(rb.getMass());
-			
-			return force;
+			out.scaleInto(fieldVec, rb.getMass());
 		}
 		else
 		{
@@ -133,22 +194,58 @@ public class GravityField extends ForceField
 			double comboCharge = rb.getMass()*m;
 			
 			// Next, calculate the distance between the source and an RBObject.
-			double distance = 
-					Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - sourceX, 2.0) 
-							+ Math.pow((rb.y+rb.getBBox().width/2.0) - sourceY, 2.0));
+			double halfWidth = rb.getBBoxConst().width/2.0;
+			double dx = sourceX - (rb.x+halfWidth);
+			double dy = sourceY - (rb.y+halfWidth);
+			double distance = Math.sqrt(dx*dx + dy*dy);
 			
 			// Create a force in the direction from the RBObejct to the source object.
-			Vec2D force = new Vec2D(new Coord(rb.x+rb.getBBox().width/2.0, rb.y+rb.getBBox().width/2.0), 
-					new Coord(sourceX, sourceY));
-			force.changeMag(-G*comboCharge/Math.pow(distance, 2.0)); // Change the magnitude of the 
-																   	   // force to be the product of the
-																   	   // two masses of the involved
-																       // objects divided by the square
-																       // of the distance between those
-																       // two objects (and then scaled
-																       // by -G). 
-			return force; // Return the force. 
+			out.set(dx, dy);
+			out.changeMag(-G*comboCharge/(distance*distance)); // Change the magnitude of the 
+																   // force to be the product of the
+																   // two masses of the involved
+																   // objects divided by the square
+																   // of the distance between those
+																   // two objects (and then scaled
+																   // by -G). 
 		}
 	}
 	
+	// Copies the force the GravityField exerts on a point particle of a ParticleSystem into out. Works
+	// the same as inField() and calcForce(), with the particle taken to be a single pixel. 
+	@Override
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		if(planar)
+		{
+			if(!pointIn(x, y, areaOfEffect))
+			{
+				out.setZero();
+				
+				return false;
+			}
+			
+			out.scaleInto(fieldVec, mass);
+			
+			return true;
+		}
+		
+		double dx = sourceX - x;
+		double dy = sourceY - y;
+		double distance = Math.sqrt(dx*dx + dy*dy);
+		
+		if(range != infinite && distance > range)
+		{
+			out.setZero();
+			
+			return false;
+		}
+		
+		out.set(dx, dy);
+		out.changeMag(-G*mass*m/(distance*distance)); // As in calcForce().
+		
+		return true;
+	}
+	
 }
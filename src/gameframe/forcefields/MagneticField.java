@@ -23,6 +23,18 @@ public class MagneticField extends ForceField
 		areaOfEffect = aoe;
 	}
 	
+	// Returns the area of effect of the MagneticField.
+	@Override
+	public boolean getBounds(JGRectangle out)
+	{
+		if(areaOfEffect == null)
+			return false;
+		
+		out.copyFrom(areaOfEffect);
+		
+		return true;
+	}
+	
 	// Must extend this class and override yourself if you want to make use of this method.
 	@Override
 	protected void onEnter(RBObject rb) 
@@ -41,10 +53,9 @@ public class MagneticField extends ForceField
 	@Override
 	public boolean inField(RBObject rb) 
 	{
-		JGRectangle rbSize = new JGRectangle((int)rb.x, (int)rb.y, 
-				rb.getBBox().width, rb.getBBox().height);
+		JGRectangle rbBBox = rb.getBBoxConst();
 		
-		if(GFUtil.rectOverlap(rbSize, areaOfEffect))
+		if(GFUtil.rectOverlap((int)rb.x, (int)rb.y, rbBBox.width, rbBBox.height, areaOfEffect))
 			return true;
 		else
 			return false;
@@ -54,19 +65,46 @@ public class MagneticField extends ForceField
 	@Override
 	protected Vec2D calcForce(RBObject rb) 
 	{
-		Vec2D force = rb.velocity.copy();
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
 		
-		if(Vec2D.useRadians)
-			force.addDir(Math.PI/2);
+		return force;
+	}
+	
+	// Calculates the force the MagneticField should exert and copies it into out. 
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out) 
+	{
+		out.set(rb.velocity);
+		out.rotate(0.0, 1.0); // Turn 90 degrees. 
+		
+		if(dirOut)
+			out.scaleMag(T*rb.getCharge());
 		else
-			force.addDir(90);
+			out.scaleMag(-T*rb.getCharge());
+	}
+	
+	// Copies the force the MagneticField exerts on a point particle of a ParticleSystem into out.
+	@Override
+	public boolean getPointForce(double x, double y, double vx, double vy, double mass, double charge,
+			Vec2D out)
+	{
+		if(!pointIn(x, y, areaOfEffect))
+		{
+			out.setZero();
+			
+			return false;
+		}
 		
-		force.scaleMag(T*rb.getCharge());
+		out.set(vx, vy);
+		out.rotate(0.0, 1.0); // Turn 90 degrees. 
 		
 		if(dirOut)
-			return force;
+			out.scaleMag(T*charge);
 		else
-			return force.getInverse();
+			out.scaleMag(-T*charge);
+		
+		return true;
 	}
-
+	
 }
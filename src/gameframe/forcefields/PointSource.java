@@ -0,0 +1,25 @@
+package gameframe.forcefields;
+
+/*
+ * PointSource is implemented by ForceFields that can be caused by a point source whose force falls
+ * off with the square of the distance, like GravityField and ElectricField. Such ForceFields can be
+ * added to a BarnesHutField, which approximates the combined force of many of them at once. 
+ */
+
+public interface PointSource 
+{
+	// Returns true if the ForceField is currently a point source that affects every RBObject no 
+	// matter how far away it is (not planar and with an infinite range). Only then can it be added
+	// to a BarnesHutField. 
+	public boolean isPointSource();
+	
+	// Returns the x location of the source.
+	public double getSourceX();
+	
+	// Returns the y location of the source.
+	public double getSourceY();
+	
+	// Returns the strength of the source, which is the mass or charge of the source multiplied by
+	// the strength constant of the ForceField (G or k). May be negative. 
+	public double getSourceStrength();
+}
@@ -1,5 +1,6 @@
 package gameframe.rbs;
 
+import gameframe.GameContext;
 import gameframe.GameFrame;
 import gameframe.vecmath.Vec2D;
 import jgame.JGObject;
@@ -22,9 +23,8 @@ import jgame.JGObject;
 
 public class Actor extends RBObject 
 {
-	public static int maxActors; // Maximum number of Actors that may be created in game. 
-								 // Check if actorCount is below this before creating Particles.
-	protected static int actorCount;// The current number of Actors in game. 
+	// The maximum number of Actors that may be created in game is the maxActors of the GameContext.
+	// Check if getCount() is below it before creating Actors. 
 	
 	protected String managerID; // The String (not necessarily unique) ID of the ActorManager that
 								// created this Actor. May be set to null if no ActorManager created
@@ -51,7 +51,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -68,7 +68,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -82,7 +82,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -95,7 +95,7 @@ public class Actor extends RBObject
 			int tilebbox_width, int tilebbox_height, int expiry, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -111,7 +111,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField,
 				byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -127,7 +127,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -141,7 +141,7 @@ public class Actor extends RBObject
 			double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -154,7 +154,7 @@ public class Actor extends RBObject
 			int tilebbox_width, int tilebbox_height, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -170,7 +170,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -187,7 +187,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -201,7 +201,7 @@ public class Actor extends RBObject
 			long start, double m, double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -215,7 +215,7 @@ public class Actor extends RBObject
 			long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -231,7 +231,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -248,7 +248,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -262,7 +262,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -275,7 +275,7 @@ public class Actor extends RBObject
 			int tilebbox_width, int tilebbox_height, Vec2D vel, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -289,7 +289,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -303,7 +303,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -315,7 +315,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -326,7 +326,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -340,7 +340,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -355,7 +355,7 @@ public class Actor extends RBObject
 			boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -368,7 +368,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -379,7 +379,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -393,7 +393,7 @@ public class Actor extends RBObject
 			boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -407,7 +407,7 @@ public class Actor extends RBObject
 			boolean byField, boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -419,7 +419,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -430,7 +430,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -444,7 +444,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -459,7 +459,7 @@ public class Actor extends RBObject
 			boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -472,7 +472,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -483,7 +483,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -497,7 +497,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -511,7 +511,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -523,7 +523,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -534,7 +534,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start, String mID) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		state = 0;
 		changeFrame = start;
@@ -553,7 +553,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -570,7 +570,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -584,7 +584,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -598,7 +598,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -614,7 +614,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField,
 				byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -631,7 +631,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -645,7 +645,7 @@ public class Actor extends RBObject
 			double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -658,7 +658,7 @@ public class Actor extends RBObject
 			int tilebbox_width, int tilebbox_height, long start, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -674,7 +674,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -691,7 +691,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -705,7 +705,7 @@ public class Actor extends RBObject
 			long start, double m, double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -719,7 +719,7 @@ public class Actor extends RBObject
 			long start, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -735,7 +735,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -752,7 +752,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -766,7 +766,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -780,7 +780,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -794,7 +794,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -808,7 +808,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -820,7 +820,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -831,7 +831,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -845,7 +845,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -860,7 +860,7 @@ public class Actor extends RBObject
 			boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -873,7 +873,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -885,7 +885,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, String mID,
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -899,7 +899,7 @@ public class Actor extends RBObject
 			boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -913,7 +913,7 @@ public class Actor extends RBObject
 			boolean byField, boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -925,7 +925,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -936,7 +936,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -950,7 +950,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -965,7 +965,7 @@ public class Actor extends RBObject
 			boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -978,7 +978,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -990,7 +990,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, String mID, 
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -1004,7 +1004,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -1018,7 +1018,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -1030,7 +1030,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -1041,7 +1041,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start, String mID, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		actorCount++;
+		context.actorCount++;
 		state = 0;
 		changeFrame = start;
 		
@@ -1060,7 +1060,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1077,7 +1077,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1091,7 +1091,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1105,7 +1105,7 @@ public class Actor extends RBObject
 			int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1121,7 +1121,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField,
 				byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1137,7 +1137,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1151,7 +1151,7 @@ public class Actor extends RBObject
 			double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1164,7 +1164,7 @@ public class Actor extends RBObject
 			int tilebbox_width, int tilebbox_height, long start, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1180,7 +1180,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1197,7 +1197,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1211,7 +1211,7 @@ public class Actor extends RBObject
 			long start, double m, double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1225,7 +1225,7 @@ public class Actor extends RBObject
 			long start, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1241,7 +1241,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1258,7 +1258,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1272,7 +1272,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1286,7 +1286,7 @@ public class Actor extends RBObject
 			int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1300,7 +1300,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1314,7 +1314,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1326,7 +1326,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1337,7 +1337,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1351,7 +1351,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1366,7 +1366,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1379,7 +1379,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1391,7 +1391,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, String mID, 
 			int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1405,7 +1405,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1419,7 +1419,7 @@ public class Actor extends RBObject
 			boolean byField, boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1431,7 +1431,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1442,7 +1442,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1456,7 +1456,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1471,7 +1471,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1484,7 +1484,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1496,7 +1496,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, String mID, 
 			int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1510,7 +1510,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1524,7 +1524,7 @@ public class Actor extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1536,7 +1536,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1547,7 +1547,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start, String mID, int initState) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		actorCount++;
+		context.actorCount++;
 		maxSpeed = 0.0;
 		changeFrame = start;
 		
@@ -1565,7 +1565,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1582,7 +1582,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1596,7 +1596,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1610,7 +1610,7 @@ public class Actor extends RBObject
 			int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1626,7 +1626,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField,
 				byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1643,7 +1643,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1657,7 +1657,7 @@ public class Actor extends RBObject
 			double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1671,7 +1671,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1688,7 +1688,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1705,7 +1705,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1720,7 +1720,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1734,7 +1734,7 @@ public class Actor extends RBObject
 			long start, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1750,7 +1750,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1767,7 +1767,7 @@ public class Actor extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1781,7 +1781,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1795,7 +1795,7 @@ public class Actor extends RBObject
 			int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1809,7 +1809,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1824,7 +1824,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1836,7 +1836,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1848,7 +1848,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, long start, String mID, int initState, 
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1862,7 +1862,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1877,7 +1877,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1890,7 +1890,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1902,7 +1902,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, String mID, 
 			int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1916,7 +1916,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1931,7 +1931,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1943,7 +1943,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1954,7 +1954,7 @@ public class Actor extends RBObject
 	public Actor(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1968,7 +1968,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1983,7 +1983,7 @@ public class Actor extends RBObject
 			boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -1996,7 +1996,7 @@ public class Actor extends RBObject
 			double m, double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2008,7 +2008,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, String mID, 
 			int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2022,7 +2022,7 @@ public class Actor extends RBObject
 			boolean byTile, boolean move, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2037,7 +2037,7 @@ public class Actor extends RBObject
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2049,7 +2049,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, String mID, int initState, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2061,7 +2061,7 @@ public class Actor extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, String mID, int initState, 
 			double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		actorCount++;
+		context.actorCount++;
 		changeFrame = start;
 		
 		managerID = mID;
@@ -2072,7 +2072,7 @@ public class Actor extends RBObject
 	// Returns the number of Actors currently in game.
 	public static int getCount()
 	{
-		return actorCount;
+		return GameContext.current().actorCount;
 	}
 	
 	// Override this method to implement how your Actor should behave and interact with other Actors
@@ -2165,7 +2165,7 @@ public class Actor extends RBObject
 			// If the component will still be less than maxSpeed, then go ahead and add selfAccel to
 			// the acceleration of the Actor for this frame. 
 			if(nextComp.getMag() < maxSpeed)
-				accel.addVec(selfAccel);
+				addAccel(selfAccel);
 			
 			// Otherwise, the selfAccel vector we want to add is too big, and we instead should add the
 			// acceleration vector that will let the Actor obtain it's maximum self induced velocity. 
@@ -2176,7 +2176,7 @@ public class Actor extends RBObject
 				Vec2D maxDiff = new Vec2D(accelComp.getAngle(), maxSpeed);
 				maxDiff.subtractVec(accelComp);
 				
-				accel.addVec(maxDiff); // Add the difference as an acceleration. 
+				addAccel(maxDiff); // Add the difference as an acceleration. 
 			}
 		}	
 	}
@@ -2196,8 +2196,8 @@ public class Actor extends RBObject
 	// of Actor objects and RBObjects in game.
 	public void destroy()
 	{
-		rbCount--;
-		actorCount--;
+		context.rbCount--;
+		context.actorCount--;
 	}
 	
 	/*
@@ -0,0 +1,586 @@
+package gameframe.rbs;
+
+import gameframe.vecmath.Vec2D;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jgame.JGRectangle;
+
+/*
+ * ContactSolver works out how colliding RBObjects push each other apart for all contacts of a frame
+ * at once, instead of RBObject resolving each colliding pair on its own. Resolving pairs one by one
+ * works for two objects, but in a pile the pairs fight each other: the impulse that pushes the top
+ * object out of the one below pushes that one into the next, and objects are moved back to where
+ * they were each time they collide, so piles jitter and take long to settle.
+ *
+ * A ContactSolver is used by setting the contactSolver of the GameContext (for example in 
+ * initGame()). RBObjects that hit each other then only add a contact to it (charge is still shared
+ * as before), and GameFrame calls solve() once the object and tile collisions have been checked.
+ * solve() does this:
+ *
+ * - Each contact gets a normal along the axis in which the bounding boxes overlap least, and a
+ *   penetration depth.
+ * - The contacts are split into islands: groups of RBObjects that touch each other, directly or
+ *   through other RBObjects. RBObjects that cannot move or are asleep are fixed, and do not join
+ *   islands together, so a floor of them does not turn everything on it into one island.
+ * - The velocity each RBObject would have at the end of the frame (its velocity plus its
+ *   acceleration so far, including the impulses of Surfaces) is changed by impulses along the
+ *   normal and tangent of each contact, one contact after the other, and this is repeated until
+ *   the impulses no longer change (by less than tolerance), or for at most iterations passes. Each
+ *   island stops on its own, so a quiet island does not do the passes of a busy one. The total
+ *   impulse of a contact may only push, and friction may not be larger than the normal impulse
+ *   times the friction of the pair.
+ * - The contact impulses of the last frame are kept, and applied at the start (warm starting), so
+ *   that a resting pile starts where it ended last frame and only needs a pass or two.
+ * - The change in velocity is added to the acceleration of each RBObject, which is then integrated
+ *   as usual.
+ *
+ * Instead of moving RBObjects back when they collide, overlapping RBObjects are pushed apart by a
+ * small extra speed (a fraction baumgarte of the overlap beyond slop pixels each frame).
+ * The elasticity of a contact is the product of the elasticity of the two RBObjects, as in
+ * RBObject, and its friction is the product of their coeff. The work done each frame is at most
+ * iterations times the number of contacts.
+ */
+
+public class ContactSolver
+{
+	public int iterations = 10; // The maximum number of passes over the contacts of an island.
+	public double tolerance = 0.0001; // An island is done when no impulse changes more than this.
+	public double baumgarte = 0.2; // The fraction of the overlap that is corrected each frame.
+	public double slop = 1.0; // The overlap in pixels that is allowed without pushing apart. Bounding
+							  // boxes are in whole pixels, so resting RBObjects need to overlap by
+							  // one to keep touching.
+	public double bounceSpeed = 1.0; // Contacts approaching slower than this do not bounce.
+	public boolean warmStarting = true; // Start with the impulses of last frame.
+
+	// Numbers the calls to solve() of all ContactSolvers, which may be in several game worlds.
+	private static final AtomicInteger nextPass = new AtomicInteger();
+
+	// The bodies (RBObjects that can move) of this frame, indexed by RBObject.solverBody.
+	private RBObject[] bodies = new RBObject[64];
+	private double[] vx = new double[64]; // Velocity while solving.
+	private double[] vy = new double[64];
+	private double[] invMass = new double[64];
+	private int[] island = new int[64]; // Union-find parent, then the island of the body.
+	private int nrBodies = 0;
+
+	// The contacts of this frame. A contact is between RBObjects a and b, and its normal points from
+	// a to b.
+	private RBObject[] contactA = new RBObject[64];
+	private RBObject[] contactB = new RBObject[64];
+	private long[] key = new long[64]; // The handles of a and b, see key().
+	private double[] nx = new double[64]; // Normal.
+	private double[] ny = new double[64];
+	private double[] depth = new double[64]; // Penetration depth.
+	private double[] target = new double[64]; // Normal velocity the contact should end up with.
+	private double[] friction = new double[64];
+	private double[] jn = new double[64]; // Total normal impulse.
+	private double[] jt = new double[64]; // Total tangent (friction) impulse.
+	private int[] order = new int[64]; // The contacts sorted by island.
+	private int nrContacts = 0;
+	private int[] table = new int[128]; // Hash table of the contacts by key, index + 1, 0 if empty.
+
+	// The contacts of last frame, used for warm starting.
+	private long[] lastKey = new long[64];
+	private double[] lastNX = new double[64];
+	private double[] lastNY = new double[64];
+	private double[] lastJN = new double[64];
+	private double[] lastJT = new double[64];
+	private int nrLast = 0;
+	private int[] lastTable = new int[128];
+
+	private int[] islandStart = new int[65]; // Used to sort the contacts by island.
+	private int nrIslands = 0;
+	private int lastPasses = 0; // The most passes any island needed in the last call to solve().
+
+	private JGRectangle boxA = new JGRectangle();
+	private Vec2D change = new Vec2D();
+
+	// Returns the number of contacts solved in the last frame.
+	public int getNrContacts()
+	{
+		return nrLast;
+	}
+
+	// Returns the number of islands in the last frame.
+	public int getNrIslands()
+	{
+		return nrIslands;
+	}
+
+	// Returns the most passes that any island needed in the last frame.
+	public int getLastPasses()
+	{
+		return lastPasses;
+	}
+
+	// Adds a contact between two RBObjects whose bounding boxes overlap. Called by RBObject when it
+	// is hit. A contact that was already added this frame (for example by the other RBObject) is
+	// ignored.
+	public void addContact(RBObject a, RBObject b)
+	{
+		int ha = a.getHandle(), hb = b.getHandle();
+
+		if(ha < 0 || hb < 0 || a == b)
+			return;
+
+		if(ha > hb) // Always store a pair the same way round.
+		{
+			RBObject swap = a;
+			a = b;
+			b = swap;
+		}
+
+		long k = key(a.getHandle(), b.getHandle());
+
+		if(find(table, this.key, k) >= 0)
+			return;
+
+		// Work out the normal from the overlap of the bounding boxes.
+		JGRectangle bbox = a.getBBoxConst();
+
+		if(bbox == null)
+			return;
+
+		boxA.copyFrom(bbox);
+		bbox = b.getBBoxConst();
+
+		if(bbox == null)
+			return;
+
+		double overlapX = Math.min(boxA.x + boxA.width, bbox.x + bbox.width) - Math.max(boxA.x, bbox.x);
+		double overlapY = Math.min(boxA.y + boxA.height, bbox.y + bbox.height)
+				- Math.max(boxA.y, bbox.y);
+
+		if(overlapX <= 0 || overlapY <= 0)
+			return;
+
+		double dx = (bbox.x + bbox.width/2.0) - (boxA.x + boxA.width/2.0);
+		double dy = (bbox.y + bbox.height/2.0) - (boxA.y + boxA.height/2.0);
+
+		if(nrContacts == contactA.length)
+			growContacts();
+
+		int c = nrContacts++;
+
+		contactA[c] = a;
+		contactB[c] = b;
+		key[c] = k;
+
+		if(overlapX < overlapY)
+		{
+			nx[c] = dx < 0 ? -1.0 : 1.0;
+			ny[c] = 0.0;
+			depth[c] = overlapX;
+		}
+		else
+		{
+			nx[c] = 0.0;
+			ny[c] = dy < 0 ? -1.0 : 1.0;
+			depth[c] = overlapY;
+		}
+
+		friction[c] = a.getCoeff()*b.getCoeff();
+		jn[c] = 0.0;
+		jt[c] = 0.0;
+
+		if(nrContacts*2 > table.length)
+			table = rehash(key, nrContacts, table.length*2);
+		else
+			insert(table, k, c);
+	}
+
+	// Solves all contacts added this frame and adds the resulting changes in velocity to the
+	// accelerations of the RBObjects. Called by GameFrame after collisions have been checked.
+	public void solve()
+	{
+		int pass = nextPass.getAndIncrement();
+
+		nrBodies = 0;
+		lastPasses = 0;
+		nrIslands = 0;
+
+		// Give each RBObject that can move an index, and join the bodies that touch into islands.
+		for(int c = 0; c < nrContacts; c++)
+		{
+			int a = body(contactA[c], pass);
+			int b = body(contactB[c], pass);
+
+			if(a >= 0 && b >= 0)
+				union(a, b);
+		}
+
+		// Number the islands, and sort the contacts by island (contacts between two fixed RBObjects
+		// are left out).
+		for(int i = 0; i < nrBodies; i++)
+		{
+			if(island[i] == i)
+				island[i] = -(++nrIslands); // Roots get negative numbers for now.
+		}
+
+		for(int i = 0; i < nrBodies; i++) // Point each body straight at its root,
+		{
+			if(island[i] >= 0)
+				island[i] = root(i);
+		}
+
+		for(int i = 0; i < nrBodies; i++) // then give it the number of its root,
+		{
+			if(island[i] >= 0)
+				island[i] = -island[island[i]] - 1;
+		}
+
+		for(int i = 0; i < nrBodies; i++) // and last number the roots themselves.
+		{
+			if(island[i] < 0)
+				island[i] = -island[i] - 1;
+		}
+
+		if(islandStart.length < nrIslands + 1)
+			islandStart = new int[nrIslands*2 + 1];
+
+		for(int i = 0; i <= nrIslands; i++)
+			islandStart[i] = 0;
+
+		for(int c = 0; c < nrContacts; c++)
+		{
+			int i = contactIsland(c);
+
+			if(i >= 0)
+				islandStart[i+1]++;
+		}
+
+		for(int i = 0; i < nrIslands; i++)
+			islandStart[i+1] += islandStart[i];
+
+		for(int c = 0; c < nrContacts; c++)
+		{
+			int i = contactIsland(c);
+
+			if(i >= 0)
+				order[islandStart[i]++] = c;
+		}
+
+		for(int i = nrIslands; i > 0; i--) // Filling in moved each start to the next island.
+			islandStart[i] = islandStart[i-1];
+		islandStart[0] = 0;
+
+		// Set up the contacts, applying last frame's impulses if the contact was there.
+		for(int c = 0; c < nrContacts; c++)
+		{
+			int a = contactA[c].solverBody;
+			int b = contactB[c].solverBody;
+
+			double vn = (velX(b) - velX(a))*nx[c] + (velY(b) - velY(a))*ny[c];
+
+			// Bounce if approaching fast enough, and push apart if overlapping too much.
+			double e = contactA[c].getElastic()*contactB[c].getElastic();
+			double t = vn < -bounceSpeed ? -e*vn : 0.0;
+
+			target[c] = Math.max(t, baumgarte*Math.max(depth[c] - slop, 0.0));
+
+			if(warmStarting)
+			{
+				int last = find(lastTable, lastKey, key[c]);
+
+				if(last >= 0 && lastNX[last] == nx[c] && lastNY[last] == ny[c])
+				{
+					jn[c] = lastJN[last];
+					jt[c] = lastJT[last];
+
+					applyImpulse(c, a, b, jn[c], jt[c]);
+				}
+			}
+		}
+
+		// Solve each island until its impulses settle.
+		for(int i = 0; i < nrIslands; i++)
+		{
+			int first = islandStart[i], end = islandStart[i+1];
+			int passes = 0;
+
+			while(passes < iterations)
+			{
+				passes++;
+
+				double largest = 0.0;
+
+				for(int o = first; o < end; o++)
+					largest = Math.max(largest, solveContact(order[o]));
+
+				if(largest < tolerance)
+					break;
+			}
+
+			lastPasses = Math.max(lastPasses, passes);
+		}
+
+		// Add the changes in velocity to the RBObjects.
+		for(int i = 0; i < nrBodies; i++)
+		{
+			RBObject rb = bodies[i];
+
+			double dvx = vx[i] - (rb.velocity.getXComp() + rb.accel.getXComp());
+			double dvy = vy[i] - (rb.velocity.getYComp() + rb.accel.getYComp());
+
+			if(dvx != 0.0 || dvy != 0.0)
+			{
+				change.set(dvx, dvy);
+				rb.addAccel(change);
+			}
+
+			bodies[i] = null;
+		}
+
+		keepContacts();
+	}
+
+	// Applies one pass to contact c and returns the largest change in its impulses.
+	private double solveContact(int c)
+	{
+		int a = contactA[c].solverBody;
+		int b = contactB[c].solverBody;
+		double invSum = invMass(a) + invMass(b);
+
+		if(invSum == 0.0)
+			return 0.0;
+
+		double n_x = nx[c], n_y = ny[c];
+
+		// Normal impulse, kept at zero or above so that it only pushes.
+		double vn = (velX(b) - velX(a))*n_x + (velY(b) - velY(a))*n_y;
+		double total = Math.max(jn[c] + (target[c] - vn)/invSum, 0.0);
+		double dn = total - jn[c];
+
+		jn[c] = total;
+
+		// Friction along the tangent (-ny, nx), limited by the normal impulse.
+		double vt = (velX(b) - velX(a))*(-n_y) + (velY(b) - velY(a))*n_x;
+		double limit = friction[c]*jn[c];
+		double totalT = Math.max(-limit, Math.min(limit, jt[c] - vt/invSum));
+		double dt = totalT - jt[c];
+
+		jt[c] = totalT;
+
+		applyImpulse(c, a, b, dn, dt);
+
+		return Math.max(Math.abs(dn), Math.abs(dt));
+	}
+
+	// Applies a normal impulse n and tangent impulse t to the bodies a and b of contact c.
+	private void applyImpulse(int c, int a, int b, double n, double t)
+	{
+		double px = n*nx[c] - t*ny[c];
+		double py = n*ny[c] + t*nx[c];
+
+		if(a >= 0)
+		{
+			vx[a] -= px*invMass[a];
+			vy[a] -= py*invMass[a];
+		}
+
+		if(b >= 0)
+		{
+			vx[b] += px*invMass[b];
+			vy[b] += py*invMass[b];
+		}
+	}
+
+	// Returns the body index of rb for this pass, adding it if it can move, or -1 if it is fixed.
+	private int body(RBObject rb, int pass)
+	{
+		if(rb.solverPass == pass)
+			return rb.solverBody;
+
+		rb.solverPass = pass;
+		rb.solverBody = -1;
+
+		if(!rb.canMove || rb.is_asleep || rb.getMass() <= 0.0)
+			return -1;
+
+		if(nrBodies == bodies.length)
+			growBodies();
+
+		int i = nrBodies++;
+
+		bodies[i] = rb;
+		vx[i] = rb.velocity.getXComp() + rb.accel.getXComp();
+		vy[i] = rb.velocity.getYComp() + rb.accel.getYComp();
+		invMass[i] = 1.0/rb.getMass();
+		island[i] = i;
+		rb.solverBody = i;
+
+		return i;
+	}
+
+	private double velX(int body)
+	{
+		return body >= 0 ? vx[body] : 0.0;
+	}
+
+	private double velY(int body)
+	{
+		return body >= 0 ? vy[body] : 0.0;
+	}
+
+	private double invMass(int body)
+	{
+		return body >= 0 ? invMass[body] : 0.0;
+	}
+
+	// Returns the island of contact c, or -1 if both its RBObjects are fixed.
+	private int contactIsland(int c)
+	{
+		int a = contactA[c].solverBody;
+
+		if(a < 0)
+			a = contactB[c].solverBody;
+
+		return a >= 0 ? island[a] : -1;
+	}
+
+	private int root(int i)
+	{
+		while(island[i] >= 0 && island[i] != i)
+		{
+			if(island[island[i]] >= 0)
+				island[i] = island[island[i]]; // Halve the path on the way.
+			i = island[i];
+		}
+
+		return i;
+	}
+
+	private void union(int a, int b)
+	{
+		int ra = root(a), rb = root(b);
+
+		if(ra != rb)
+			island[ra] = rb;
+	}
+
+	// Keeps the impulses of this frame's contacts for the next frame, and clears the contacts.
+	private void keepContacts()
+	{
+		if(lastKey.length < nrContacts)
+		{
+			int length = key.length;
+			lastKey = new long[length];
+			lastNX = new double[length];
+			lastNY = new double[length];
+			lastJN = new double[length];
+			lastJT = new double[length];
+		}
+
+		System.arraycopy(key, 0, lastKey, 0, nrContacts);
+		System.arraycopy(nx, 0, lastNX, 0, nrContacts);
+		System.arraycopy(ny, 0, lastNY, 0, nrContacts);
+		System.arraycopy(jn, 0, lastJN, 0, nrContacts);
+		System.arraycopy(jt, 0, lastJT, 0, nrContacts);
+		nrLast = nrContacts;
+
+		// Both tables are kept at least twice as large as the number of contacts.
+		if(lastTable.length != table.length)
+			lastTable = new int[table.length];
+
+		int[] swap = lastTable;
+		lastTable = table;
+		table = swap;
+
+		for(int i = 0; i < table.length; i++)
+			table[i] = 0;
+
+		for(int c = 0; c < nrContacts; c++)
+		{
+			contactA[c] = null;
+			contactB[c] = null;
+		}
+
+		nrContacts = 0;
+	}
+
+	// Returns the key of the pair of RBObjects with the given handles (ha < hb).
+	private static long key(int ha, int hb)
+	{
+		return ((long)ha << 32) | (hb & 0xffffffffL);
+	}
+
+	private static int hash(long k, int mask)
+	{
+		long h = k*0x9E3779B97F4A7C15L;
+
+		return (int)(h ^ (h >>> 32)) & mask;
+	}
+
+	// Returns the index stored in table for k, or -1.
+	private static int find(int[] table, long[] keys, long k)
+	{
+		int mask = table.length-1;
+
+		for(int i = hash(k, mask); table[i] != 0; i = (i+1) & mask)
+		{
+			if(keys[table[i]-1] == k)
+				return table[i]-1;
+		}
+
+		return -1;
+	}
+
+	private static void insert(int[] table, long k, int index)
+	{
+		int mask = table.length-1;
+		int i = hash(k, mask);
+
+		while(table[i] != 0)
+			i = (i+1) & mask;
+
+		table[i] = index+1;
+	}
+
+	// Returns a new table of the given length holding the first count keys.
+	private static int[] rehash(long[] keys, int count, int length)
+	{
+		int[] newTable = new int[length];
+
+		for(int c = 0; c < count; c++)
+			insert(newTable, keys[c], c);
+
+		return newTable;
+	}
+
+	private void growContacts()
+	{
+		int length = contactA.length*2;
+
+		contactA = copyOf(contactA, length);
+		contactB = copyOf(contactB, length);
+		key = java.util.Arrays.copyOf(key, length);
+		nx = java.util.Arrays.copyOf(nx, length);
+		ny = java.util.Arrays.copyOf(ny, length);
+		depth = java.util.Arrays.copyOf(depth, length);
+		target = java.util.Arrays.copyOf(target, length);
+		friction = java.util.Arrays.copyOf(friction, length);
+		jn = java.util.Arrays.copyOf(jn, length);
+		jt = java.util.Arrays.copyOf(jt, length);
+		order = java.util.Arrays.copyOf(order, length);
+	}
+
+	private void growBodies()
+	{
+		int length = bodies.length*2;
+
+		bodies = copyOf(bodies, length);
+		vx = java.util.Arrays.copyOf(vx, length);
+		vy = java.util.Arrays.copyOf(vy, length);
+		invMass = java.util.Arrays.copyOf(invMass, length);
+		island = java.util.Arrays.copyOf(island, length);
+	}
+
+	private static RBObject[] copyOf(RBObject[] array, int length)
+	{
+		RBObject[] newArray = new RBObject[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+
+		return newArray;
+	}
+}
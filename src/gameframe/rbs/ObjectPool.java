@@ -0,0 +1,95 @@
+package gameframe.rbs;
+
+/*
+ * An ObjectPool holds RBObjects that have been removed from the game so that they can be used again
+ * instead of creating new ones. Creating an RBObject takes a long chain of constructors and creates
+ * several objects of its own (Vec2Ds, ArrayLists, a name), which all become garbage when the
+ * RBObject is removed. For temporary objects that are created in large numbers, such as Particles
+ * for explosions and sparks or Projectiles, it is faster to keep the removed ones and reset them.
+ *
+ * An RBObject goes into its pool when the engine releases it (in destroy()), if its pool was set
+ * with setPool(). A class usually keeps one static ObjectPool and a static method that takes an
+ * RBObject from it with obtain() and gets it ready with reuse(), or creates a new one if the pool
+ * is empty (see the Debris class of the techdemo for an example):
+ *
+ *	public static Debris obtain(double x, double y, Vec2D vel)
+ *	{
+ *		Debris debris = pool.obtain();
+ *
+ *		if(debris == null)
+ *		{
+ *			debris = new Debris(x, y, vel);
+ *			debris.setPool(pool);
+ *		}
+ *		else
+ *			debris.reuse(x, y, 4, "debris", vel, expire_off_view, GF_Tech_Demo.getCurrFrame(), 180);
+ *
+ *		return debris;
+ *	}
+ *
+ * Like the engine itself, an ObjectPool should only be used from the game thread.
+ */
+
+public class ObjectPool<T extends RBObject>
+{
+	private RBObject[] objects; // The RBObjects in the pool, from 0 to size.
+	private int size = 0;
+	private int maxSize; // RBObjects released when the pool is full are left to the garbage collector.
+
+	// Creates an empty ObjectPool that holds at most maxSize RBObjects.
+	public ObjectPool(int maxSize)
+	{
+		this.maxSize = maxSize;
+		objects = new RBObject[Math.min(Math.max(maxSize, 1), 64)];
+	}
+
+	// Takes an RBObject out of the pool, or returns null if the pool is empty. The RBObject must be
+	// made ready with its reuse() method before it is used.
+	@SuppressWarnings("unchecked")
+	public T obtain()
+	{
+		if(size == 0)
+			return null;
+
+		RBObject obj = objects[--size];
+		objects[size] = null;
+		obj.pooled = false;
+
+		return (T)obj;
+	}
+
+	// Returns the number of RBObjects in the pool.
+	public int getSize()
+	{
+		return size;
+	}
+
+	// Empties the pool.
+	public void clear()
+	{
+		for(int i = 0; i < size; i++)
+		{
+			objects[i].pooled = false;
+			objects[i] = null;
+		}
+
+		size = 0;
+	}
+
+	// Puts a removed RBObject into the pool. Called by RBObject.recycle().
+	void release(RBObject obj)
+	{
+		if(obj.pooled || size >= maxSize)
+			return;
+
+		if(size == objects.length)
+		{
+			RBObject[] newObjects = new RBObject[Math.min(size*2, maxSize)];
+			System.arraycopy(objects, 0, newObjects, 0, size);
+			objects = newObjects;
+		}
+
+		objects[size++] = obj;
+		obj.pooled = true;
+	}
+}
@@ -1,5 +1,6 @@
 package gameframe.rbs;
 
+import gameframe.GameContext;
 import gameframe.vecmath.Vec2D;
 
 /*
@@ -14,9 +15,8 @@ import gameframe.vecmath.Vec2D;
 
 public class Particle extends RBObject 
 {
-	public static int maxParticles; // Maximum number of Particles that may be created in game. 
-									// Check if particleCount is below this before creating Particles.
-	protected static int particleCount; // The current number of Particles in game. 
+	// The maximum number of Particles that may be created in game is the maxParticles of the 
+	// GameContext. Check if getCount() is below it before creating Particles. 
 	
 	protected int lifetime; // Used to determine the maximum number of frames that the object will  
 						    // stay in game before it expires. Using this variable to determine when a 
@@ -38,7 +38,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -50,7 +50,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -60,7 +60,7 @@ public class Particle extends RBObject
 			double m, double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -69,7 +69,7 @@ public class Particle extends RBObject
 			int tilebbox_width, int tilebbox_height, int expiry, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -80,7 +80,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField, byTile,
 				move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -92,7 +92,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -102,7 +102,7 @@ public class Particle extends RBObject
 			double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -111,7 +111,7 @@ public class Particle extends RBObject
 			int tilebbox_width, int tilebbox_height, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -123,7 +123,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -135,7 +135,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -145,7 +145,7 @@ public class Particle extends RBObject
 			long start, double m, double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -155,7 +155,7 @@ public class Particle extends RBObject
 			long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -167,7 +167,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -179,7 +179,7 @@ public class Particle extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -189,7 +189,7 @@ public class Particle extends RBObject
 			double m, double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -198,7 +198,7 @@ public class Particle extends RBObject
 			int tilebbox_width, int tilebbox_height, Vec2D vel, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -208,7 +208,7 @@ public class Particle extends RBObject
 			boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -218,7 +218,7 @@ public class Particle extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -226,14 +226,14 @@ public class Particle extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	public Particle(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -243,7 +243,7 @@ public class Particle extends RBObject
 			boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -253,7 +253,7 @@ public class Particle extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -262,14 +262,14 @@ public class Particle extends RBObject
 			double m, double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	public Particle(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -278,7 +278,7 @@ public class Particle extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -288,7 +288,7 @@ public class Particle extends RBObject
 			boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -296,14 +296,14 @@ public class Particle extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	public Particle(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -313,7 +313,7 @@ public class Particle extends RBObject
 			boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -323,7 +323,7 @@ public class Particle extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -332,14 +332,14 @@ public class Particle extends RBObject
 			double m, double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	public Particle(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -349,7 +349,7 @@ public class Particle extends RBObject
 			boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -359,7 +359,7 @@ public class Particle extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
@@ -367,21 +367,21 @@ public class Particle extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	public Particle(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start, int life) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		particleCount++;
+		context.particleCount++;
 		lifetime = life;
 	}
 
 	// Returns the total number of Particle objects currently created. 
 	public static int getCount()
 	{
-		return particleCount;
+		return GameContext.current().particleCount;
 	}
 	
 	// Override to write code for actions that the Particle should take before expiring, such as
@@ -392,6 +392,14 @@ public class Particle extends RBObject
 		remove();
 	}
 	
+	// A Particle with a lifetime is never put to sleep, since it would then not expire (see 
+	// RBObject.maySleep()). 
+	@Override
+	protected boolean maySleep()
+	{
+		return lifetime < 0 && super.maySleep();
+	}
+	
 	// move() method is overridden in order to allow Particle to expire when it has been in game for
 	// as many frames as dictated by lifetime. Note: If lifetime is negative, Particle will never
 	// expire. 
@@ -400,7 +408,7 @@ public class Particle extends RBObject
 	{
 		if(beforeCollisions()) // Make sure that this code is run once when move is called before
 		{       			   // collision methods are called. 
-			if(elapsed() == lifetime)
+			if(lifetime >= 0 && elapsed() >= lifetime)
 				expire();
 		}
 		
@@ -408,12 +416,33 @@ public class Particle extends RBObject
 					  // capabilities. 
 	}
 	
+	// Gets a Particle taken from an ObjectPool ready to be used again with the given lifetime (see
+	// RBObject.reuse()).
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start, int life)
+	{
+		super.reuse(x, y, collisionid, gfxname, vel, expiry, start);
+		
+		context.particleCount++;
+		lifetime = life;
+	}
+	
+	// Same as above, keeping the current lifetime.
+	@Override
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start)
+	{
+		reuse(x, y, collisionid, gfxname, vel, expiry, start, lifetime);
+	}
+	
 	// destroy() is called when the engine releases a JGObject. Used to decrement the current number
-	// of Particle objects and RBObjects in game. 
+	// of Particle objects and RBObjects in game, and to put the Particle into its ObjectPool if it has
+	// one. 
 	@Override
 	public void destroy()
 	{
-		particleCount--;
-		rbCount--;
+		context.particleCount--;
+		context.rbCount--;
+		recycle();
 	}
 }
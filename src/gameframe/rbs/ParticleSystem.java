@@ -0,0 +1,451 @@
+package gameframe.rbs;
+
+import gameframe.GameContext;
+import gameframe.forcefields.ForceField;
+import gameframe.forcefields.ForceFieldIndex;
+import gameframe.vecmath.Vec2D;
+
+import java.util.ArrayList;
+
+import jgame.JGColor;
+import jgame.JGPoint;
+import jgame.JGRectangle;
+import jgame.impl.JGEngineInterface;
+
+/*
+ * A ParticleSystem draws large numbers of small particles (sparks, smoke, dust and so on) without
+ * creating a JGObject for each of them. A Particle is a full game object: it gets a name, is moved
+ * and drawn by the engine one by one, and takes part in collisions. For effects that only need to
+ * fly around and look nice, that is far more than needed. The particles of a ParticleSystem are kept
+ * in plain arrays (position, velocity, age and lifetime), moved together in one loop by update() and
+ * drawn together in one loop by paint(), so tens of thousands of them can be shown at once.
+ *
+ * The particles are moved the same way as RBObjects: each frame, the acceleration due to gravity
+ * (if gravitate is set) and the forces of ForceFields (if byField is set, see
+ * ForceField.getPointForce()) are added to the velocity, and the velocity is added to the position.
+ * All particles of a ParticleSystem share the same mass and charge. They do not collide with tiles
+ * or objects, and ForceField callbacks are not made for them. Particles that should collide can be
+ * promoted to real objects: set a Promoter, and pass true for collide to emit() (or call promote()
+ * for a particle that is already in the system). The Promoter then creates the RBObject (for
+ * example a Particle taken from an ObjectPool) in place of the particle.
+ *
+ * Like ForceFields, a ParticleSystem adds itself to the list of the current GameContext when it is
+ * created.
+ * GameFrame calls updateAll() at the end of each frame and paintAll() in paintFrame(), so a
+ * ParticleSystem only has to be created (for example in initGame()) and given particles with
+ * emit(). Call remove() when it is no longer needed. Like the engine itself, a ParticleSystem
+ * should only be used from the game thread.
+ */
+
+public class ParticleSystem
+{
+	// Every ParticleSystem that is created is added to the particleSystems list of the current 
+	// GameContext (called list below). GameFrame updates and paints the ParticleSystems in this list
+	// each frame.
+
+	// Implemented to create the RBObject a particle becomes when it is promoted.
+	public interface Promoter
+	{
+		// Creates an RBObject at (x, y) with velocity vel (which is reused, so it should be copied)
+		// and the given number of frames left to live (negative if it does not expire). May return
+		// null if no RBObject should be created, in which case the particle is simply removed.
+		public RBObject promote(double x, double y, Vec2D vel, int life);
+	}
+
+	// The state of each particle, from 0 to size. The order of the particles is the order in which
+	// they are drawn. Read only; use emit() and promote() to change which particles there are.
+	public double[] x; // Position.
+	public double[] y;
+	public double[] vx; // Velocity.
+	public double[] vy;
+	public int[] age; // Number of frames since the particle was emitted.
+	public int[] life; // Number of frames the particle lives, or negative if it does not expire.
+	private int size = 0;
+	private int capacity; // The maximum number of particles. emit() fails when the system is full.
+
+	private JGEngineInterface eng;
+	private final GameContext context = GameContext.current(); // The game world it is in.
+
+	// Particles are drawn as the image gfxname, or as a filled rectangle of width by height pixels in
+	// color if gfxname is null.
+	private String gfxname;
+	private JGColor color;
+	private double width;
+	private double height;
+
+	public double mass = 1.0; // Mass of each particle, used for forces.
+	public double charge = 0.0; // Charge of each particle, used for forces.
+	public boolean gravitate = true; // Particles are affected by gravity.
+	public boolean byField = false; // Particles are affected by the ForceFields in ForceField.list.
+	public boolean expireOffView = false; // Particles are removed when they leave the view.
+
+	private Promoter promoter = null;
+
+	// Used each frame, kept so that update() does not create any objects.
+	private ForceFieldIndex.Candidates candidates = new ForceFieldIndex.Candidates();
+	private JGRectangle area = new JGRectangle();
+	private Vec2D force = new Vec2D();
+	private Vec2D vel = new Vec2D();
+
+	// Creates a ParticleSystem for at most capacity particles that are drawn as the image gfxname.
+	public ParticleSystem(JGEngineInterface eng, int capacity, String gfxname)
+	{
+		this(eng, capacity, gfxname, null, 0.0, 0.0);
+	}
+
+	// Creates a ParticleSystem for at most capacity particles that are drawn as rectangles of the
+	// given color and size.
+	public ParticleSystem(JGEngineInterface eng, int capacity, JGColor color, double width,
+			double height)
+	{
+		this(eng, capacity, null, color, width, height);
+	}
+
+	private ParticleSystem(JGEngineInterface eng, int capacity, String gfxname, JGColor color,
+			double width, double height)
+	{
+		this.eng = eng;
+		this.capacity = capacity;
+		this.gfxname = gfxname;
+		this.color = color;
+		this.width = width;
+		this.height = height;
+
+		// The arrays start small and grow up to capacity as particles are emitted.
+		int length = Math.max(Math.min(capacity, 256), 1);
+		x = new double[length];
+		y = new double[length];
+		vx = new double[length];
+		vy = new double[length];
+		age = new int[length];
+		life = new int[length];
+
+		context.particleSystems.add(this);
+	}
+
+	// Updates every ParticleSystem in list. Called by GameFrame at the end of each frame.
+	public static void updateAll()
+	{
+		ArrayList<ParticleSystem> list = GameContext.current().particleSystems;
+		
+		for(int i = 0; i < list.size(); i++)
+			list.get(i).update();
+	}
+
+	// Paints every ParticleSystem in list. Called by GameFrame in paintFrame().
+	public static void paintAll()
+	{
+		ArrayList<ParticleSystem> list = GameContext.current().particleSystems;
+		
+		for(int i = 0; i < list.size(); i++)
+			list.get(i).paint();
+	}
+
+	// Removes the ParticleSystem from list, so that it is no longer updated or painted.
+	public void remove()
+	{
+		context.particleSystems.remove(this);
+	}
+
+	// Sets the Promoter used to turn particles into RBObjects, or null for none.
+	public void setPromoter(Promoter promoter)
+	{
+		this.promoter = promoter;
+	}
+
+	// Returns the number of particles in the system.
+	public int getSize()
+	{
+		return size;
+	}
+
+	// Returns the maximum number of particles in the system.
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	// Removes all particles.
+	public void clear()
+	{
+		size = 0;
+	}
+
+	// Adds a particle at (x, y) with velocity (vx, vy) that lives for the given number of frames
+	// (or forever if life is negative). Returns false if the system is full.
+	public boolean emit(double x, double y, double vx, double vy, int life)
+	{
+		if(size == capacity)
+			return false;
+
+		if(size == this.x.length)
+			grow();
+
+		this.x[size] = x;
+		this.y[size] = y;
+		this.vx[size] = vx;
+		this.vy[size] = vy;
+		this.age[size] = 0;
+		this.life[size] = life;
+		size++;
+
+		return true;
+	}
+
+	// Same as above, but if collide is true and a Promoter is set, an RBObject is created through
+	// the Promoter instead, so that it can collide. Returns false if nothing was added.
+	public boolean emit(double x, double y, double vx, double vy, int life, boolean collide)
+	{
+		if(collide && promoter != null)
+		{
+			vel.set(vx, vy);
+
+			return promoter.promote(x, y, vel, life) != null;
+		}
+		else
+			return emit(x, y, vx, vy, life);
+	}
+
+	// Same as emit(x, y, vx, vy, life), taking the velocity as a Vec2D.
+	public boolean emit(double x, double y, Vec2D vel, int life)
+	{
+		return emit(x, y, vel.getXComp(), vel.getYComp(), life);
+	}
+
+	// Emits count particles at (x, y) flying in random directions with a random speed between
+	// minSpeed and maxSpeed. Returns the number of particles that were added.
+	public int burst(double x, double y, int count, double minSpeed, double maxSpeed, int life)
+	{
+		int added = 0;
+
+		for(int i = 0; i < count && size < capacity; i++)
+		{
+			double angle = eng.random(0.0, 2.0*Math.PI);
+			double speed = eng.random(minSpeed, maxSpeed);
+
+			if(emit(x, y, Math.cos(angle)*speed, Math.sin(angle)*speed, life))
+				added++;
+		}
+
+		return added;
+	}
+
+	// Turns particle i into an RBObject using the Promoter, and removes it from the system. The last
+	// particle takes the place of particle i. Returns the RBObject, or null if there is no Promoter
+	// or it did not create one.
+	public RBObject promote(int i)
+	{
+		if(promoter == null || i < 0 || i >= size)
+			return null;
+
+		vel.set(vx[i], vy[i]);
+
+		RBObject rb = promoter.promote(x[i], y[i], vel, life[i] < 0 ? life[i] : life[i] - age[i]);
+
+		size--;
+		copy(size, i);
+
+		return rb;
+	}
+
+	// Moves the particles one frame and removes those that have expired. The particles that are left
+	// keep their order.
+	public void update()
+	{
+		double gx = 0.0, gy = 0.0;
+
+		if(gravitate && context.gravOn)
+		{
+			gx = context.g.getXComp();
+			gy = context.g.getYComp();
+		}
+
+		// Find the ForceFields that may affect the particles once for the whole system, using the
+		// area that the particles cover.
+		ArrayList<ForceField> fields = context.forceFields;
+		ForceFieldIndex index = context.forceFieldIndex;
+		int nrFields = 0;
+
+		if(byField && size > 0 && !fields.isEmpty())
+		{
+
+			if(index != null)
+			{
+				getBounds(area);
+				index.query(area, candidates);
+				nrFields = candidates.size();
+			}
+			else
+				nrFields = fields.size();
+		}
+
+		boolean useIndex = index != null;
+		double speed = eng.getGameSpeed();
+
+		int viewX1 = 0, viewY1 = 0, viewX2 = 0, viewY2 = 0;
+
+		if(expireOffView)
+		{
+			viewX1 = eng.viewXOfs();
+			viewY1 = eng.viewYOfs();
+			viewX2 = viewX1 + eng.viewWidth();
+			viewY2 = viewY1 + eng.viewHeight();
+		}
+
+		int n = 0; // The number of particles kept so far.
+
+		for(int i = 0; i < size; i++)
+		{
+			int a = ++age[i];
+
+			if(a > life[i] && life[i] >= 0)
+				continue;
+
+			double ax = gx, ay = gy;
+
+			for(int f = 0; f < nrFields; f++)
+			{
+				ForceField field = fields.get(useIndex ? candidates.get(f) : f);
+
+				if(field.getPointForce(x[i], y[i], vx[i], vy[i], mass, charge, force))
+				{
+					ax += force.getXComp()/mass;
+					ay += force.getYComp()/mass;
+				}
+			}
+
+			double pvx = vx[i] + ax;
+			double pvy = vy[i] + ay;
+			double px = x[i] + pvx*speed;
+			double py = y[i] + pvy*speed;
+
+			if(expireOffView && (px < viewX1 || py < viewY1 || px >= viewX2 || py >= viewY2))
+				continue;
+
+			x[n] = px;
+			y[n] = py;
+			vx[n] = pvx;
+			vy[n] = pvy;
+			age[n] = a;
+			life[n] = life[i];
+			n++;
+		}
+
+		size = n;
+	}
+
+	// Draws the particles that are in view, in one pass. Called from paintFrame().
+	public void paint()
+	{
+		if(size == 0)
+			return;
+
+		double w = width, h = height;
+
+		if(gfxname != null)
+		{
+			JGPoint imageSize = eng.getImageSize(gfxname);
+
+			if(imageSize == null)
+				return;
+
+			w = imageSize.x;
+			h = imageSize.y;
+		}
+		else
+			eng.setColor(color);
+
+		double viewX1 = eng.viewXOfs() - w;
+		double viewY1 = eng.viewYOfs() - h;
+		double viewX2 = eng.viewXOfs() + eng.viewWidth();
+		double viewY2 = eng.viewYOfs() + eng.viewHeight();
+
+		// With a fixed timestep, particles are drawn between their last and current position. A
+		// particle moved by its velocity times the game speed last frame, unless it was just emitted.
+		double back = (1.0 - eng.getFrameAlpha())*eng.getGameSpeed();
+
+		for(int i = 0; i < size; i++)
+		{
+			double px = x[i], py = y[i];
+
+			if(back > 0.0 && age[i] > 0)
+			{
+				px -= vx[i]*back;
+				py -= vy[i]*back;
+			}
+
+			if(px <= viewX1 || py <= viewY1 || px >= viewX2 || py >= viewY2)
+				continue;
+
+			if(gfxname != null)
+				eng.drawImage(px, py, gfxname, true);
+			else
+				eng.drawRect(px, py, w, h, true, false, true);
+		}
+	}
+
+	// Copies a rectangle that contains every particle into out.
+	public void getBounds(JGRectangle out)
+	{
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+
+		for(int i = 0; i < size; i++)
+		{
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+
+		if(size == 0)
+		{
+			out.x = out.y = out.width = out.height = 0;
+
+			return;
+		}
+
+		out.x = (int)Math.floor(minX);
+		out.y = (int)Math.floor(minY);
+		out.width = (int)Math.ceil(maxX) - out.x + 1;
+		out.height = (int)Math.ceil(maxY) - out.y + 1;
+	}
+
+	// Copies particle from into index to.
+	private void copy(int from, int to)
+	{
+		x[to] = x[from];
+		y[to] = y[from];
+		vx[to] = vx[from];
+		vy[to] = vy[from];
+		age[to] = age[from];
+		life[to] = life[from];
+	}
+
+	// Doubles the size of the arrays, up to capacity.
+	private void grow()
+	{
+		int length = Math.min(x.length*2, capacity);
+
+		double[] newX = new double[length];
+		double[] newY = new double[length];
+		double[] newVX = new double[length];
+		double[] newVY = new double[length];
+		int[] newAge = new int[length];
+		int[] newLife = new int[length];
+
+		System.arraycopy(x, 0, newX, 0, size);
+		System.arraycopy(y, 0, newY, 0, size);
+		System.arraycopy(vx, 0, newVX, 0, size);
+		System.arraycopy(vy, 0, newVY, 0, size);
+		System.arraycopy(age, 0, newAge, 0, size);
+		System.arraycopy(life, 0, newLife, 0, size);
+
+		x = newX;
+		y = newY;
+		vx = newVX;
+		vy = newVY;
+		age = newAge;
+		life = newLife;
+	}
+}
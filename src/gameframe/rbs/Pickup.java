@@ -1,5 +1,6 @@
 package gameframe.rbs;
 
+import gameframe.GameContext;
 import gameframe.vecmath.Vec2D;
 
 /*
@@ -18,9 +19,8 @@ import gameframe.vecmath.Vec2D;
 
 public class Pickup extends RBObject 
 {
-	public static int maxPickups; // Maximum number of Pickups that may be created in game. 
-	 							  // Check if pickupCount is below this before creating Pickups.
-	protected static int pickupCount; // The current number of Pickups in game. 
+	// The maximum number of Pickups that may be created in game is the maxPickups of the 
+	// GameContext. Check if getCount() is below it before creating Pickups. 
 	
 	protected int lifetime; // Used to determine the maximum number of frames that the object will  
     					  // stay in game before it expires. Using this variable to determine when a 
@@ -56,7 +56,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 					byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -69,7 +69,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 					insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -80,7 +80,7 @@ public class Pickup extends RBObject
 				double m, double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -95,7 +95,7 @@ public class Pickup extends RBObject
 				int tilebbox_width, int tilebbox_height, int expiry, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, expiry, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -112,7 +112,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField, byTile,
 					move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -125,7 +125,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 					byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -136,7 +136,7 @@ public class Pickup extends RBObject
 				double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -151,7 +151,7 @@ public class Pickup extends RBObject
 				int tilebbox_width, int tilebbox_height, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -169,7 +169,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 					byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -182,7 +182,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 					grav, insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -193,7 +193,7 @@ public class Pickup extends RBObject
 				long start, double m, double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -209,7 +209,7 @@ public class Pickup extends RBObject
 				long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, expiry, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -227,7 +227,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 					byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -240,7 +240,7 @@ public class Pickup extends RBObject
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 					byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -251,7 +251,7 @@ public class Pickup extends RBObject
 				double m, double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -266,7 +266,7 @@ public class Pickup extends RBObject
 				int tilebbox_width, int tilebbox_height, Vec2D vel, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 					tilebbox_width, tilebbox_height, vel, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -282,7 +282,7 @@ public class Pickup extends RBObject
 				boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 					byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -293,7 +293,7 @@ public class Pickup extends RBObject
 				boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 					grav, insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -302,7 +302,7 @@ public class Pickup extends RBObject
 				int collisionid, String gfxname, int expiry, long start, double m,
 				double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -315,7 +315,7 @@ public class Pickup extends RBObject
 		public Pickup(String name, boolean unique_id, double x, double y,
 				int collisionid, String gfxname, int expiry, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -331,7 +331,7 @@ public class Pickup extends RBObject
 				boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 					insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -342,7 +342,7 @@ public class Pickup extends RBObject
 				boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 					co, e, grav, insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -352,7 +352,7 @@ public class Pickup extends RBObject
 				double m, double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 					co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -365,7 +365,7 @@ public class Pickup extends RBObject
 		public Pickup(String name, boolean unique_id, double x, double y,
 				int collisionid, String gfxname, int expiry, Vec2D vel, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -380,7 +380,7 @@ public class Pickup extends RBObject
 				boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 					byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -391,7 +391,7 @@ public class Pickup extends RBObject
 				boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 					insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -400,7 +400,7 @@ public class Pickup extends RBObject
 				int collisionid, String gfxname, long start, double m, double ch,
 				double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -413,7 +413,7 @@ public class Pickup extends RBObject
 		public Pickup(String name, boolean unique_id, double x, double y,
 				int collisionid, String gfxname, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -429,7 +429,7 @@ public class Pickup extends RBObject
 				boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 					insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -440,7 +440,7 @@ public class Pickup extends RBObject
 				boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 					co, e, grav, insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -450,7 +450,7 @@ public class Pickup extends RBObject
 				double m, double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 					co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -463,7 +463,7 @@ public class Pickup extends RBObject
 		public Pickup(String name, boolean unique_id, double x, double y,
 				int collisionid, String gfxname, Vec2D vel, int expiry, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -479,7 +479,7 @@ public class Pickup extends RBObject
 				boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 					byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -490,7 +490,7 @@ public class Pickup extends RBObject
 				boolean byRB, boolean byField, boolean byTile, boolean move, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 					grav, insul, byRB, byField, byTile, move);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 		}
@@ -499,7 +499,7 @@ public class Pickup extends RBObject
 				int collisionid, String gfxname, Vec2D vel, long start, double m,
 				double ch, double co, double e, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -512,7 +512,7 @@ public class Pickup extends RBObject
 		public Pickup(String name, boolean unique_id, double x, double y,
 				int collisionid, String gfxname, Vec2D vel, long start, int life) {
 			super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-			pickupCount++;
+			context.pickupCount++;
 			lifetime = life;
 			lifeStage = 1;
 			
@@ -525,7 +525,7 @@ public class Pickup extends RBObject
 	// Returns the number of Pickups currently in game.
 	public static int getCount()
 	{
-		return pickupCount;
+		return GameContext.current().pickupCount;
 	}
 	
 	// Override this method to control how the Pickup changes as time passes (ex: fades away, 
@@ -543,6 +543,14 @@ public class Pickup extends RBObject
 		remove();
 	}
 	
+	// A Pickup with a lifetime is never put to sleep, since it would then not expire (see 
+	// RBObject.maySleep()). 
+	@Override
+	protected boolean maySleep()
+	{
+		return lifetime < 0 && super.maySleep();
+	}
+	
 	// move() method is overridden in order to allow Pickup to expire when it has been in game for
 	// as many frames as dictated by lifetime. Note: If lifetime is negative, Pickup will never
 	// expire.
@@ -551,7 +559,7 @@ public class Pickup extends RBObject
 	{
 		if(beforeCollisions()) // Make sure that this code is run once when move is called before
 		{       			   // collision methods are called. 
-			if(elapsed() == lifetime)
+			if(lifetime >= 0 && elapsed() >= lifetime)
 				expire();
 			
 			updateStage();
@@ -561,12 +569,34 @@ public class Pickup extends RBObject
 					  // capabilities. 
 	}
 	
+	// Gets a Pickup taken from an ObjectPool ready to be used again with the given lifetime, back in
+	// its first lifeStage (see RBObject.reuse()).
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start, int life)
+	{
+		super.reuse(x, y, collisionid, gfxname, vel, expiry, start);
+		
+		context.pickupCount++;
+		lifetime = life;
+		lifeStage = 1;
+	}
+	
+	// Same as above, keeping the current lifetime.
+	@Override
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start)
+	{
+		reuse(x, y, collisionid, gfxname, vel, expiry, start, lifetime);
+	}
+	
 	// destroy() is called when the engine releases a JGObject. Used to decrement the current number
-	// of Pickup objects and RBObjects in game. 
+	// of Pickup objects and RBObjects in game, and to put the Pickup into its ObjectPool if it has
+	// one. 
 	@Override
 	public void destroy()
 	{
-		pickupCount--;
-		rbCount--;
+		context.pickupCount--;
+		context.rbCount--;
+		recycle();
 	}
 }
@@ -1,6 +1,11 @@
 package gameframe.rbs;
 
+import gameframe.GameContext;
 import gameframe.vecmath.Vec2D;
+import jgame.JGObject;
+import jgame.JGRectangle;
+
+import java.util.Vector;
 
 /*
  * Projectile is a class used to create objects that are created by Projectiles (typically) as a method of
@@ -18,16 +23,23 @@ import gameframe.vecmath.Vec2D;
 
 public class Projectile extends RBObject 
 {
-	public static int maxProjectiles; // Maximum number of Projectiles that may be created in game. 
-	  								  // Check if projectileCount is below this before creating 
-	                                  // Projectiles.
-	protected static int projectileCount; // The current number of Projectiles in game. 
+	// The maximum number of Projectiles that may be created in game is the maxProjectiles of the
+	// GameContext. Check if getCount() is below it before creating Projectiles. 
 	
 	protected double maxSpeed; // The maximum speed a Projectile may induce on itself (physical
 							   // interactions may give it a greater speed). Must implement use of
 							   // this variable yourself if coding a Projectile that accelerates 
 							   // itself. 
 	
+	protected boolean sweepOn = false; // Set to true (with setSweep()) to turn on continuous collision
+									   // detection for this Projectile. Off by default.
+	protected int sweepTileCid = 0; // The OR of the collision IDs of tiles to sweep against.
+	protected int sweepObjCid = 0; // The OR of the collision IDs of objects to sweep against.
+	
+	private JGRectangle sweepBBox = new JGRectangle(); // Reused rectangles used by sweep().
+	private JGRectangle sweepArea = new JGRectangle();
+	private JGRectangle sweepOther = new JGRectangle();
+	
 	// Below are the constructors from RBObject modified to set up Projectiles that do not plan to 
 	// use the maxSpeed variable.
 	
@@ -39,7 +51,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -51,7 +63,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -61,7 +73,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -73,7 +85,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, int expiry, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -87,7 +99,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField, byTile,
 				move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -99,7 +111,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -109,7 +121,7 @@ public class Projectile extends RBObject
 			double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -121,7 +133,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -136,7 +148,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -148,7 +160,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -158,7 +170,7 @@ public class Projectile extends RBObject
 			long start, double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -171,7 +183,7 @@ public class Projectile extends RBObject
 			long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -186,7 +198,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -198,7 +210,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -208,7 +220,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -220,7 +232,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, Vec2D vel, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -233,7 +245,7 @@ public class Projectile extends RBObject
 			boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -243,7 +255,7 @@ public class Projectile extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -251,7 +263,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -261,7 +273,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -274,7 +286,7 @@ public class Projectile extends RBObject
 			boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -284,7 +296,7 @@ public class Projectile extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -293,7 +305,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -303,7 +315,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -315,7 +327,7 @@ public class Projectile extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -325,7 +337,7 @@ public class Projectile extends RBObject
 			boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -333,7 +345,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -343,7 +355,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -356,7 +368,7 @@ public class Projectile extends RBObject
 			boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -366,7 +378,7 @@ public class Projectile extends RBObject
 			boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -375,7 +387,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -385,7 +397,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -398,7 +410,7 @@ public class Projectile extends RBObject
 			boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -408,7 +420,7 @@ public class Projectile extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 	}
 
@@ -416,7 +428,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -426,7 +438,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = 0.0;
 		
 		gravitate = false;
@@ -444,7 +456,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -457,7 +469,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -467,7 +479,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -479,7 +491,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, int expiry, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -494,7 +506,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, grav, insul, byRB, byField, byTile,
 				move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -506,7 +518,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -516,7 +528,7 @@ public class Projectile extends RBObject
 			double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -528,7 +540,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -543,7 +555,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -556,7 +568,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -566,7 +578,7 @@ public class Projectile extends RBObject
 			long start, double m, double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -579,7 +591,7 @@ public class Projectile extends RBObject
 			long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -594,7 +606,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -607,7 +619,7 @@ public class Projectile extends RBObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -617,7 +629,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -629,7 +641,7 @@ public class Projectile extends RBObject
 			int tilebbox_width, int tilebbox_height, Vec2D vel, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x, tilebbox_y,
 				tilebbox_width, tilebbox_height, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -642,7 +654,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -652,7 +664,7 @@ public class Projectile extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -660,7 +672,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, int expiry, long start, double m,
 			double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -670,7 +682,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -683,7 +695,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -694,7 +706,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -703,7 +715,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start, m, ch,
 				co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -713,7 +725,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, int expiry, Vec2D vel, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -726,7 +738,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, grav, insul, byRB,
 				byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -736,7 +748,7 @@ public class Projectile extends RBObject
 			boolean byField, boolean byTile, boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -744,7 +756,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, long start, double m, double ch,
 			double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -754,7 +766,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -767,7 +779,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, grav,
 				insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -778,7 +790,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e, grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -787,7 +799,7 @@ public class Projectile extends RBObject
 			double m, double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start, m, ch,
 				co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -797,7 +809,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, int expiry, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, expiry, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -810,7 +822,7 @@ public class Projectile extends RBObject
 			boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, grav, insul,
 				byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -820,7 +832,7 @@ public class Projectile extends RBObject
 			boolean byRB, boolean byField, boolean byTile, boolean move, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e,
 				grav, insul, byRB, byField, byTile, move);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 	}
 
@@ -828,7 +840,7 @@ public class Projectile extends RBObject
 			int collisionid, String gfxname, Vec2D vel, long start, double m,
 			double ch, double co, double e, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start, m, ch, co, e);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -838,7 +850,7 @@ public class Projectile extends RBObject
 	public Projectile(String name, boolean unique_id, double x, double y,
 			int collisionid, String gfxname, Vec2D vel, long start, double mspeed) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel, start);
-		projectileCount++;
+		context.projectileCount++;
 		maxSpeed = mspeed;
 		
 		gravitate = false;
@@ -848,7 +860,7 @@ public class Projectile extends RBObject
 	// Returns the number of Projectiles currently in game.
 	public static int getCount()
 	{
-		return projectileCount;
+		return GameContext.current().projectileCount;
 	}
 	
 	// A method used to make an Projectile accelerate itself. Use this method instead of adding to 
@@ -911,7 +923,7 @@ public class Projectile extends RBObject
 				// If the component will still be less than maxSpeed, then go ahead and add selfAccel to
 				// the acceleration of the Projectile for this frame. 
 				if(nextComp.getMag() < maxSpeed)
-					accel.addVec(selfAccel);
+					addAccel(selfAccel);
 				
 				// Otherwise, the selfAccel vector we want to add is too big, and we instead should add the
 				// acceleration vector that will let the Projectile obtain it's maximum self induced velocity. 
@@ -922,11 +934,219 @@ public class Projectile extends RBObject
 					Vec2D maxDiff = new Vec2D(accelComp.getAngle(), maxSpeed);
 					maxDiff.subtractVec(accelComp);
 					
-					accel.addVec(maxDiff); // Add the difference as an acceleration. 
+					addAccel(maxDiff); // Add the difference as an acceleration. 
 				}
 			}	
 		}
 	
+	// Turns continuous collision detection (CCD) on or off. Normally, collisions are only found if a
+	// Projectile overlaps a tile or object at the moment collisions are checked, so a Projectile that 
+	// moves further than its own size in one frame may pass right through thin tiles and other objects. 
+	// With CCD on, the bounding box of the Projectile is swept along the path it is about to move this 
+	// frame, and checked against the tiles matching tileCid and the objects matching objCid. If it 
+	// hits something on the way, the Projectile is stopped at the point of contact and either 
+	// hit(obj, toi) or hit_bg(tilecid, tx, ty, toi) is called, where toi (time of impact) is the 
+	// fraction of this frame's movement that was done before the contact (0 to 1). Only the first 
+	// contact on the path is reported. CCD is only carried out on frames where the Projectile moves
+	// further than its own size, otherwise the regular collision checks are good enough.
+	public void setSweep(boolean on, int tileCid, int objCid)
+	{
+		sweepOn = on;
+		sweepTileCid = tileCid;
+		sweepObjCid = objCid;
+	}
+	
+	// Overridden so that if CCD is turned on, the path of the Projectile is swept after the velocity
+	// is updated for this frame (after collisions), but before the engine actually moves the object.
+	@Override
+	public void move()
+	{
+		boolean afterCollisions = !beforeCollisions();
+		
+		super.move();
+		
+		if(afterCollisions && sweepOn)
+			sweep();
+	}
+	
+	// Called when CCD finds that this Projectile would hit the object obj this frame. toi is the 
+	// fraction of this frame's movement that was done before contact. Calls hit(obj) by default, 
+	// override to make use of toi.
+	public void hit(JGObject obj, double toi)
+	{
+		hit(obj);
+	}
+	
+	// Called when CCD finds that this Projectile would hit the tile at tile index (tx, ty) with the
+	// collision ID tilecid this frame. toi is the fraction of this frame's movement that was done 
+	// before contact. Calls the regular hit_bg() methods by default, in the same order as the engine
+	// does, override to make use of toi.
+	public void hit_bg(int tilecid, int tx, int ty, double toi)
+	{
+		hit_bg(tilecid);
+		hit_bg(tilecid, tx, ty, 1, 1);
+		hit_bg(tilecid, tx, ty);
+	}
+	
+	// Sweeps the bounding box of the Projectile along the movement for this frame, and finds the 
+	// first tile or object it runs into. 
+	private void sweep()
+	{
+		double gamespeed = eng.getGameSpeed(); // The game speed of this Projectile's own engine.
+		double dx = xdir*xspeed*gamespeed; // The movement that the engine is about to do.
+		double dy = ydir*yspeed*gamespeed;
+		
+		if(!getBBox(sweepBBox))
+			return;
+		
+		// If the Projectile moves less than its own size, then it can't skip past anything and the
+		// regular collision checks will find everything.
+		if(Math.abs(dx) < sweepBBox.width && Math.abs(dy) < sweepBBox.height)
+			return;
+		
+		// The area covered by the bounding box along the way.
+		sweepArea.x = (int)Math.floor(Math.min(sweepBBox.x, sweepBBox.x + dx));
+		sweepArea.y = (int)Math.floor(Math.min(sweepBBox.y, sweepBBox.y + dy));
+		sweepArea.width = (int)Math.ceil(Math.max(sweepBBox.x, sweepBBox.x + dx)) 
+				+ sweepBBox.width - sweepArea.x;
+		sweepArea.height = (int)Math.ceil(Math.max(sweepBBox.y, sweepBBox.y + dy)) 
+				+ sweepBBox.height - sweepArea.y;
+		
+		double firstToi = 2.0; // Time of impact of the first contact found so far, > 1 means none.
+		JGObject firstObj = null; // The object of the first contact, if it was an object.
+		int firstCid = 0, firstTx = 0, firstTy = 0; // The tile of the first contact, if it was a tile.
+		
+		// Check every tile in the swept area that matches sweepTileCid.
+		if(sweepTileCid != 0)
+		{
+			int tw = eng.tileWidth();
+			int th = eng.tileHeight();
+			int tx1 = (int)Math.floor(sweepArea.x/(double)tw);
+			int ty1 = (int)Math.floor(sweepArea.y/(double)th);
+			int tx2 = (int)Math.floor((sweepArea.x + sweepArea.width - 1)/(double)tw);
+			int ty2 = (int)Math.floor((sweepArea.y + sweepArea.height - 1)/(double)th);
+			
+			for(int ty = ty1; ty <= ty2; ty++)
+			{
+				for(int tx = tx1; tx <= tx2; tx++)
+				{
+					int cid = eng.getTileCid(tx, ty);
+					
+					if((cid & sweepTileCid) == 0)
+						continue;
+					
+					sweepOther.x = tx*tw;
+					sweepOther.y = ty*th;
+					sweepOther.width = tw;
+					sweepOther.height = th;
+					
+					double toi = timeOfImpact(sweepBBox, dx, dy, sweepOther);
+					
+					if(toi < firstToi)
+					{
+						firstToi = toi;
+						firstObj = null;
+						firstCid = cid;
+						firstTx = tx;
+						firstTy = ty;
+					}
+				}
+			}
+		}
+		
+		// Check every object in the swept area that matches sweepObjCid.
+		if(sweepObjCid != 0)
+		{
+			Vector objects = eng.getObjects(null, sweepObjCid, false, sweepArea);
+			
+			for(int i = 0; i < objects.size(); i++)
+			{
+				JGObject obj = (JGObject)objects.elementAt(i);
+				
+				if(obj == this || !obj.getBBox(sweepOther))
+					continue;
+				
+				double toi = timeOfImpact(sweepBBox, dx, dy, sweepOther);
+				
+				if(toi < firstToi)
+				{
+					firstToi = toi;
+					firstObj = obj;
+				}
+			}
+		}
+		
+		// If nothing was hit, let the engine move the Projectile as usual.
+		if(firstToi > 1.0)
+			return;
+		
+		// Otherwise, only move the Projectile up to the point of contact this frame and report the 
+		// contact. 
+		xspeed *= firstToi;
+		yspeed *= firstToi;
+		
+		if(firstObj != null)
+			hit(firstObj, firstToi);
+		else
+			hit_bg(firstCid, firstTx, firstTy, firstToi);
+	}
+	
+	// Returns the fraction (0 to 1) of the movement (dx, dy) after which the moving rectangle box 
+	// starts to overlap the rectangle other, or a value greater than 1 if it doesn't within the 
+	// movement. Rectangles that already overlap at the start are left to the regular collision checks, 
+	// and also return a value greater than 1.
+	private static double timeOfImpact(JGRectangle box, double dx, double dy, JGRectangle other)
+	{
+		double enterX, exitX, enterY, exitY;
+		
+		// Find the interval of time during which the rectangles overlap along the x axis.
+		if(dx > 0)
+		{
+			enterX = (other.x - (box.x + box.width))/dx;
+			exitX = (other.x + other.width - box.x)/dx;
+		}
+		else if(dx < 0)
+		{
+			enterX = (other.x + other.width - box.x)/dx;
+			exitX = (other.x - (box.x + box.width))/dx;
+		}
+		else if(box.x < other.x + other.width && box.x + box.width > other.x)
+		{
+			enterX = Double.NEGATIVE_INFINITY;
+			exitX = Double.POSITIVE_INFINITY;
+		}
+		else
+			return 2.0;
+		
+		// Same for the y axis.
+		if(dy > 0)
+		{
+			enterY = (other.y - (box.y + box.height))/dy;
+			exitY = (other.y + other.height - box.y)/dy;
+		}
+		else if(dy < 0)
+		{
+			enterY = (other.y + other.height - box.y)/dy;
+			exitY = (other.y - (box.y + box.height))/dy;
+		}
+		else if(box.y < other.y + other.height && box.y + box.height > other.y)
+		{
+			enterY = Double.NEGATIVE_INFINITY;
+			exitY = Double.POSITIVE_INFINITY;
+		}
+		else
+			return 2.0;
+		
+		// The rectangles overlap when they overlap along both axes.
+		double enter = Math.max(enterX, enterY);
+		double exit = Math.min(exitX, exitY);
+		
+		if(enter >= exit || enter < 0.0 || enter > 1.0)
+			return 2.0;
+		
+		return enter;
+	}
+	
 	// Override to write code for actions that the Projectile should take before being destroyed, such 
 	// as cleanup, spawning new objects, etc. Call the super method to make sure that your Projectile
 	// will remove itself when it is destroyed. When the object should then remove itself from
@@ -937,12 +1157,24 @@ public class Projectile extends RBObject
 		remove();
 	}
 	
+	// Gets a Projectile taken from an ObjectPool ready to be used again (see RBObject.reuse()).
+	@Override
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start)
+	{
+		super.reuse(x, y, collisionid, gfxname, vel, expiry, start);
+		
+		context.projectileCount++;
+	}
+	
 	// destroy() is called when the engine releases a JGObject. Used to decrement the current number
-	// of Projectile objects and RBObjects in game.
+	// of Projectile objects and RBObjects in game, and to put the Projectile into its ObjectPool if
+	// it has one.
 	@Override
 	public void destroy()
 	{
-		projectileCount--;
-		rbCount--;
+		context.projectileCount--;
+		context.rbCount--;
+		recycle();
 	}
 }
@@ -2,9 +2,9 @@ package gameframe.rbs;
 
 // Fix constructors to set bypassTile.
 
-import gameframe.GameFrame;
-import gameframe.Gravity;
+import gameframe.GameContext;
 import gameframe.forcefields.ForceField;
+import gameframe.forcefields.ForceFieldIndex;
 import gameframe.surface.Surface;
 import gameframe.vecmath.Coord;
 import gameframe.vecmath.Vec2D;
@@ -12,6 +12,7 @@ import gameframe.vecmath.Vec2D;
 import java.util.ArrayList;
 
 import jgame.JGObject;
+import jgame.JGRectangle;
 
 /*
  * RB stands for rigid body. An RBObject is an JGObject with instance variables and methods that 
@@ -39,9 +40,23 @@ public class RBObject extends JGObject
 									   // whether or not an RBObject will move back to its previous
 									   // position due to a collision.
 	
-	public static int maxRB; // Maximum number of RBObjects that may be created in game. 
-							 // Check if rbCount is below this before creating RBObjects.
-	protected static int rbCount; // The current number of RBObjects in game. 
+	// The maximum number of RBObjects that may be created in game is the maxRB of the GameContext.
+	// Check if getCount() is below it before creating RBObjects. 
+	
+	protected final GameContext context = GameContext.current(); // The GameContext of the game
+																	// world this RBObject is in.
+	
+	// RBObjects that have been at rest for a while are put to sleep (see JGObject.sleep()), so that
+	// the engine no longer moves them or checks them against tiles, and they no longer add up the
+	// forces of gravity and ForceFields every frame. An RBObject is at rest when both its speed and
+	// the change in its velocity in a frame stay below sleepSpeed for sleepFrames frames in a row.
+	// A sleeping RBObject wakes up when it is hit by an RBObject that is awake (unless they are
+	// resting against each other), when addForce(), addImpulse() or addAccel() is called, when the
+	// number of ForceFields changes, or when the acceleration due to gravity and ForceFields on it
+	// has changed, which is checked every sleepCheckFrames frames by checkSleeping(). Call wake()
+	// yourself if you change its velocity directly. The onEnter() and whileIn() methods of 
+	// ForceFields are not called for sleeping RBObjects. The settings sleepFrames (0, the default,
+	// turns sleeping off), sleepSpeed and sleepCheckFrames are those of the GameContext. 
 	
 	private long startFrame; // The frame which this RBObject was created. 
 	protected double mass; // The mass of the RBObject, may be used in calculating forces and in 
@@ -81,6 +96,41 @@ public class RBObject extends JGObject
 	protected boolean bypassField; // Set to true for RBObject not to be affected by ForceFields.
 	protected boolean canMove; // Set to true to enable the move() method and false to disable it.
 							   // Disabling stops most physical interactions with other objects. 
+	protected boolean canSleep = true; // Set to false for RBObject never to be put to sleep (for
+									   // example if its velocity is set directly each frame).
+	
+	// Scratch objects reused every frame by the physics code below, so that a frame does not have to
+	// create any new objects. 
+	private ArrayList<Integer> nextFields = new ArrayList<Integer>(); // Swapped with lastFields.
+	private Vec2D fieldForce = new Vec2D(); // Force exerted by a single ForceField.
+	// The ForceFields near this RBObject, filled in by the ForceFieldIndex of the GameContext.
+	private ForceFieldIndex.Candidates fieldCandidates = new ForceFieldIndex.Candidates();
+	private Vec2D contactVec = new Vec2D(); // Impulse or force exerted by a single Surface.
+	private Vec2D relVel = new Vec2D(); // Used by hitRB().
+	private Vec2D deltaVel = new Vec2D();
+	private Vec2D vel1 = new Vec2D();
+	private Vec2D vel2 = new Vec2D();
+	private JGRectangle bboxConst = new JGRectangle(); // Returned by getBBoxConst(). 
+	
+	private long forcesFrame = -1; // The frame for which precomputeForces() already added gravity and
+								   // ForceField forces, or -1.
+	private int[] fieldCallbacks = new int[8]; // Callbacks skipped by precomputeForces(), as the
+											   // index of the ForceField times two, plus one if the
+											   // RBObject was already in the field.
+	private int nrFieldCallbacks = 0;
+	
+	private int restFrames = 0; // The number of frames in a row this RBObject has been at rest.
+	private long restFrame = -1; // The frame in which restFrames was last updated.
+	private double lastVX, lastVY; // The velocity at the end of last frame.
+	private int sleepIndex = -1; // Index in sleeping, or -1 if not asleep.
+	private int sleepFields; // The size of ForceField.list when this RBObject went to sleep.
+	private double sleepAX, sleepAY; // The acceleration due to gravity and ForceFields at that time.
+	
+	private ObjectPool<?> pool = null; // The ObjectPool this RBObject goes into when it is released.
+	boolean pooled = false; // True while this RBObject is in its ObjectPool.
+	
+	int solverPass = -1; // The ContactSolver pass in which solverBody was set.
+	int solverBody = -1; // The index of this RBObject among the bodies of that pass, or -1 if fixed.
 	
 	// Below are the constructors from JGObject modified to create RBObjects with default settings. 
 	// Also modified to set the speed using a Vec2D vector instead of two doubles for the x and y
@@ -90,7 +140,7 @@ public class RBObject extends JGObject
 			int collisionid, String gfxname, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -119,7 +169,7 @@ public class RBObject extends JGObject
 			int collisionid, String gfxname, int expiry, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -150,7 +200,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -181,7 +231,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -210,7 +260,7 @@ public class RBObject extends JGObject
 			int collisionid, String gfxname, Vec2D vel, long start) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -241,7 +291,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -272,7 +322,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -304,7 +354,7 @@ public class RBObject extends JGObject
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -335,7 +385,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel.getXComp(),
 				vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -367,7 +417,7 @@ public class RBObject extends JGObject
 			int collisionid, String gfxname, long start, double m, double ch, double co, double e) {
 		super(name, unique_id, x, y, collisionid, gfxname);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -397,7 +447,7 @@ public class RBObject extends JGObject
 			double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -429,7 +479,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -461,7 +511,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -491,7 +541,7 @@ public class RBObject extends JGObject
 			double e) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -522,7 +572,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -554,7 +604,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -587,7 +637,7 @@ public class RBObject extends JGObject
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -618,7 +668,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel.getXComp(),
 				vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -651,7 +701,7 @@ public class RBObject extends JGObject
 			boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -681,7 +731,7 @@ public class RBObject extends JGObject
 			boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -713,7 +763,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -745,7 +795,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -775,7 +825,7 @@ public class RBObject extends JGObject
 			boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -806,7 +856,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -838,7 +888,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -871,7 +921,7 @@ public class RBObject extends JGObject
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -903,7 +953,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel.getXComp(),
 				vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = 10.0;
@@ -936,7 +986,7 @@ public class RBObject extends JGObject
 			boolean grav, boolean insul, boolean byRB, boolean byField, boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -967,7 +1017,7 @@ public class RBObject extends JGObject
 			boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1000,7 +1050,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1033,7 +1083,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1064,7 +1114,7 @@ public class RBObject extends JGObject
 			boolean byTile, boolean move) {
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1096,7 +1146,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1129,7 +1179,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, tilebbox_x,
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1163,7 +1213,7 @@ public class RBObject extends JGObject
 				tilebbox_y, tilebbox_width, tilebbox_height, vel.getXComp(), vel.getYComp(),
 				expiry);
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1195,7 +1245,7 @@ public class RBObject extends JGObject
 		super(name, unique_id, x, y, collisionid, gfxname, expiry, vel.getXComp(),
 				vel.getYComp());
 		
-		rbCount++;
+		context.rbCount++;
 		startFrame = start;
 		
 		mass = m;
@@ -1223,13 +1273,13 @@ public class RBObject extends JGObject
 	// Returns the number of RBObjects currently in game. 
 	public static int getCount()
 	{
-		return rbCount;
+		return GameContext.current().rbCount;
 	}
 	
 	// Returns the number of frames that this RBObject has been in game.
 	public long elapsed()
 	{
-		return GameFrame.getCurrFrame() - startFrame;
+		return context.currentFrame - startFrame;
 	}
 	
 	// Returns the mass of this RBObject.
@@ -1277,26 +1327,43 @@ public class RBObject extends JGObject
 		return and(id, lastSurfaces);
 	}
 	
-	// Takes a force and determines the acceleration vector that should be added to accel.
+	// Takes a force and determines the acceleration vector that should be added to accel. The force
+	// passed in is left unchanged.
 	public void addForce(Vec2D force)
 	{
-		force.scaleMag(1.0/mass);
-		accel.addVec(force);
+		if(is_asleep)
+			wake();
+		
+		accel.addScaled(force, 1.0/mass);
 	}
 	
-	// Takes an impulse (change in momentum), finds the current momentum of the RBObject, adds the 
-	// impulse vector, then changes the new momentum into the new velocity vector of the RBObject.
+	// Takes an impulse (change in momentum) and adds the resulting change in velocity to accel. 
+	// Adding the impulse to the momentum of the RBObject and turning that back into a velocity
+	// changes the velocity by impulse/mass, so that is added directly.
 	public void addImpulse(Vec2D impulse)
 	{
-		// First, find momentum of RBObject, then add the impulse to it.
-		Vec2D momentum = getMomentum();
-		momentum.addVec(impulse);
+		addForce(impulse); // An impulse changes velocity the same way a force changes acceleration.
+	}
+	
+	// Adds acceleration (a change in velocity) directly to accel. Use this instead of changing accel
+	// yourself, so that the RBObject is woken if it is asleep. 
+	public void addAccel(Vec2D acceleration)
+	{
+		if(is_asleep)
+			wake();
 		
-		// Now use the new momentum of the RBObject to determine the change in velocity.
-		momentum.scaleMag(1.0/mass);
-		momentum.subtractVec(velocity);
+		accel.addVec(acceleration);
+	}
+	
+	// Returns the bounding box of the RBObject, like getBBox(), but copies it into a rectangle kept by
+	// the RBObject instead of creating a new one. The returned rectangle may not be changed, and is 
+	// overwritten by the next call, so don't hold on to it. Returns null if there is no bounding box.
+	public JGRectangle getBBoxConst()
+	{
+		if(!getBBox(bboxConst))
+			return null;
 		
-		accel.addVec(momentum); // Add the change in velocity to acceleration. 
+		return bboxConst;
 	}
 	
 	// Returns true if RBObject is an insulator, false if it is a conductor.
@@ -1315,9 +1382,9 @@ public class RBObject extends JGObject
 	// under the influence of last frame and false if it does not.
 	public boolean matchField(int id)
 	{
-		for(int lf : lastFields)
+		for(int i = 0; i < lastFields.size(); i++)
 		{
-			if(lf == id)
+			if(lastFields.get(i) == id)
 				return true;
 		}
 		return false;
@@ -1336,6 +1403,31 @@ public class RBObject extends JGObject
 	// Determines the outcome of a collision between this RBObject and another.
 	private void hitRB(RBObject rbArg)
 	{
+		ContactSolver solver = context.contactSolver;
+		
+		// A sleeping RBObject that is only resting against another one stays asleep (a ContactSolver
+		// treats it as fixed). Otherwise it is woken by addImpulse() below, and a sleeping RBObject
+		// that hits this one is woken too.
+		if(is_asleep || rbArg.is_asleep)
+		{
+			double dvx = velocity.getXComp() - rbArg.velocity.getXComp();
+			double dvy = velocity.getYComp() - rbArg.velocity.getYComp();
+			boolean resting = dvx*dvx + dvy*dvy < context.sleepSpeed*context.sleepSpeed;
+			
+			if(is_asleep && resting)
+			{
+				if(solver != null)
+					solver.addContact(this, rbArg);
+				
+				return;
+			}
+			
+			if(is_asleep)
+				wake();
+			if(rbArg.is_asleep && !resting)
+				rbArg.wake();
+		}
+		
 		// If this RBObject is not an insulator (a conductor) and the other RBObject is not an
 		// insulator, then share charge between the two objects.
 		if(!insulate && !rbArg.insulate())
@@ -1343,6 +1435,15 @@ public class RBObject extends JGObject
 			nextCharge = (nextCharge + rbArg.getNextCharge())/2.0;
 		}
 		
+		// With a ContactSolver, the change in velocity is worked out for all contacts together once
+		// the collisions have been checked, instead of for each pair on its own below.
+		if(solver != null)
+		{
+			solver.addContact(this, rbArg);
+			
+			return;
+		}
+		
 		// The rest of this method determines how the velocity of the object will change due to a
 		// collision. Unless physics is pretty fresh in your head, it may be hard to figure out
 		// how this determines the change in velocity or what some of the terms I will be mentioning
@@ -1360,25 +1461,23 @@ public class RBObject extends JGObject
 		
 		// Find the initial relative velocity of approach of the two RBObjects. (The difference 
 		// between their velocities).
-		Vec2D v_reli = velocity.copy();
-		v_reli.subtractVec(rbArg.velocity);
+		// (The vectors used here are scratch vectors kept by the RBObject, so no new objects are
+		// created.)
+		relVel.sub(velocity, rbArg.velocity);
 		
 		// Multiply the elasticity of the collision by the initial relative velocity of approach to
 		// solve for the final relative velocity of approach.
-		Vec2D v_relf = v_reli.copy();
-		v_relf.scaleMag(e);
+		deltaVel.scaleInto(relVel, e);
 		
 		// Find the difference between the final and initial relative velocity of approach. The 
 		// difference is the velocity vector that needs to be broken up and added to both RBObjects
 		// in order to find their new speed.
-		v_relf.subtractVec(v_reli);
-		Vec2D deltaVel = v_relf;
+		deltaVel.subtractVec(relVel);
 		
 		// Split the change in relative velocity into two vectors pointing in opposite directions.
 		// These are not necessarily the right magnitude, but they add up to the original deltaVel.
-		Vec2D vel1 = deltaVel.copy();
-		vel1.scaleMag(2.0);
-		Vec2D vel2 = deltaVel.getInverse();
+		vel1.scaleInto(deltaVel, 2.0);
+		vel2.scaleInto(deltaVel, -1.0);
 		
 		// The impulses on both RBObjects, determined in the next step.
 		// Impulse is the change in momentum.
@@ -1389,8 +1488,8 @@ public class RBObject extends JGObject
 		// velocity. Because we are working with doubles and there is a degree of error, we must
 		// see whether vel1 is closer to matching the direction of this RBObject's velocity or the 
 		// other RBObject's velocity in order to figure this out.
-		if(Math.abs((vel1.getAngle() - velocity.getAngle())) < 
-				Math.abs((vel1.getAngle() - rbArg.velocity.getAngle())))
+		// The angles are compared using their cosines, so no angles have to be worked out.
+		if(vel1.cosWithVec(velocity) > vel1.cosWithVec(rbArg.velocity))
 		{
 			// If vel2 is in the opposite direction of this RBObject's velocity, then scale it
 			// by this RBObject's mass in order to create the impulse to be added to this RBObject.
@@ -1416,13 +1515,13 @@ public class RBObject extends JGObject
 		// impulses on each other. The differences between the magnitudes of the two impulses must
 		// be found so that half of that difference can be used to adjust the impulse on this object
 		// to be equal to the impulse on the other.
-		Vec2D difference = myImpulse.copy();
-		difference.subtractVec(argImpulse);
+		// (deltaVel is no longer needed, so it is reused to hold the difference.)
+		Vec2D difference = deltaVel;
+		difference.sub(myImpulse, argImpulse);
 		
 		// Adjust the impulse on this RBObject using half of difference, then add the impulse to
 		// this RBObject's momentum (momentum actually changes when move() is called). 
-		difference.scaleMag(0.5);
-		myImpulse.subtractVec(difference);
+		myImpulse.addScaled(difference, -0.5);
 		addImpulse(myImpulse);
 	}
 	
@@ -1437,17 +1536,25 @@ public class RBObject extends JGObject
 		{
 			// For every surface object in Surface.list, check to see if the surface should be used
 			// if this RBObject collides with a tile whose collision ID is found in the OR of tilecid.
-			for(Surface surface : Surface.list)
+			// SurfaceRegistry already knows which Surfaces can match tilecid, so only those are
+			// checked.
+			Surface[] surfaces = context.surfaceRegistry.get(tilecid);
+			
+			for(int i = 0; i < surfaces.length; i++)
 			{
+				Surface surface = surfaces[i];
+				
 				// If a surface that should be used is found:
 				if(surface.checkTileID(tilecid, this))
 				{	
 					// Add the impulse that should result from the RBObject colliding with the 
 					// tile using the surface.
-					addImpulse(surface.hit(this, tilecid, tx, ty, txsize, tysize));
+					surface.hit(this, tilecid, tx, ty, txsize, tysize, contactVec);
+					addImpulse(contactVec);
 					// Add the force that should result from the RBObject sliding against the tile 
 					// using the surface.
-					addForce(surface.slide(this, tilecid, tx, ty, txsize, tysize));
+					surface.slide(this, tilecid, tx, ty, txsize, tysize, contactVec);
+					addForce(contactVec);
 					
 					lastSurfaces = tilecid; // Set lastSurfaces equal to the OR of the tiles collided
 											// with this frame. 
@@ -1468,6 +1575,9 @@ public class RBObject extends JGObject
 	@Override
 	public void move()
 	{
+		if(is_asleep) // Sleeping RBObjects are not moved (the engine does not even call this).
+			return;
+		
 		// If move is called before collisions are checked, add the accelerations due to Gravity and
 		// ForceFields.
 		if(beforeCollisions)
@@ -1476,35 +1586,12 @@ public class RBObject extends JGObject
 			xspeed = 0;
 			yspeed = 0;
 			
-			// If this RBObject should be affected by gravity, then add the gravity acceleration
-			// vector.
-			if(gravitate)
-				accel.addVec(Gravity.get_g());
-			
-			// If this RBObject should be affected by ForceFields, then add the forces caused by any
-			// ForceFields. 
-			if(!bypassField)
-			{
-				ArrayList<Integer> fieldIDs = new ArrayList<Integer>(); // Holds the IDs of the
-																		// ForceFields that affected
-																		// this RBObject this frame.
-				
-				// For every ForceField in ForceField.list, check if it exerts a force on this 
-				// RBObject and then add the force and record the ForceField's ID if it does.
-				for(ForceField field : ForceField.list)
-				{
-					Vec2D force = field.getForce(this);
-					
-					if(!(force.equals(new Vec2D(0.0, 0.0))))
-					{
-						fieldIDs.add(field.getID());
-						addForce(force);
-					}
-				}
-				
-				lastFields = fieldIDs; // Update which ForceFields affected this RBObject for next
-									   // frame.
-			}
+			// Add gravity and the forces of ForceFields, unless GameFrame's parallel force phase 
+			// already did this frame.
+			if(forcesFrame == context.currentFrame)
+				forcesFrame = -1;
+			else
+				applyForces(false);
 			
 			beforeCollisions = false; // Next time this method is called, it should carry out code
 									  // that should be executed after collision detection is done.
@@ -1533,23 +1620,346 @@ public class RBObject extends JGObject
 				xspeed = velocity.getXComp();
 				yspeed = velocity.getYComp();
 			}
-		
-			accel = new Vec2D(0.0, 0.0); // Reset the acceleration vector to zero so that it does not
-										 // compound each frame.
+			
+			accel.setZero(); // Reset the acceleration vector to zero so that it does not compound
+							 // each frame.
 			
 			charge = nextCharge; // Update the resulting charge of the RBObject after this frame. 
 			
+			if(context.sleepFrames > 0 && maySleep())
+				checkRest();
+			
 			beforeCollisions = true; // Next time this method is called, it should carry out code
 			  						 // that should be executed before collision detection is done.
 		}
 	}
 	
+	// Adds the acceleration due to gravity and the forces of all ForceFields in ForceField.list to
+	// accel, and updates lastFields. If deferCallbacks is true, the onEnter() and whileIn() callbacks
+	// of the ForceFields are not called but recorded, so that deliverFieldCallbacks() can call them 
+	// later. 
+	private void applyForces(boolean deferCallbacks)
+	{
+		// If this RBObject should be affected by gravity, then add the gravity acceleration
+		// vector.
+		if(gravitate && context.gravOn)
+			accel.addVec(context.g);
+		
+		nrFieldCallbacks = 0;
+		
+		// If this RBObject should be affected by ForceFields, then add the forces caused by any
+		// ForceFields. 
+		if(!bypassField)
+		{
+			ArrayList<Integer> fieldIDs = nextFields; // Holds the IDs of the ForceFields that
+													  // affected this RBObject this frame.
+			fieldIDs.clear();
+			
+			// If there is a ForceFieldIndex, only the ForceFields near this RBObject have to be
+			// checked.
+			ForceFieldIndex index = context.forceFieldIndex;
+			int nrFields = context.forceFields.size();
+			
+			if(index != null)
+			{
+				index.query(this, fieldCandidates);
+				nrFields = fieldCandidates.size();
+			}
+			
+			// For every ForceField in ForceField.list, check if this RBObject is under its
+			// influence and then add the force and record the ForceField's ID if it is.
+			for(int k = 0; k < nrFields; k++)
+			{
+				int i = index != null ? fieldCandidates.get(k) : k; // Index in ForceField.list.
+				ForceField field = context.forceFields.get(i);
+				
+				boolean inField;
+				
+				if(deferCallbacks)
+				{
+					inField = field.getForceNoCallback(this, fieldForce);
+					
+					// Record the index of the ForceField and whether the RBObject was already in it
+					// (in the lowest bit), before lastFields is updated below.
+					if(inField)
+					{
+						if(nrFieldCallbacks == fieldCallbacks.length)
+						{
+							int[] newCallbacks = new int[fieldCallbacks.length*2];
+							System.arraycopy(fieldCallbacks, 0, newCallbacks, 0, nrFieldCallbacks);
+							fieldCallbacks = newCallbacks;
+						}
+						
+						fieldCallbacks[nrFieldCallbacks++] = i*2 + (matchField(field.getID()) ? 1 : 0);
+					}
+				}
+				else
+				{
+					inField = field.getForce(this, fieldForce);
+				}
+				
+				if(inField)
+				{
+					fieldIDs.add(field.getID());
+					addForce(fieldForce);
+				}
+			}
+			
+			// Update which ForceFields affected this RBObject for next frame. The list from 
+			// last frame is kept to be filled in again next frame.
+			nextFields = lastFields;
+			lastFields = fieldIDs;
+		}
+	}
+	
+	// Returns whether this RBObject may be put to sleep, which is canSleep by default. Override it
+	// for RBObjects that have to keep being moved even when at rest (such as Particles and Pickups
+	// with a lifetime, which expire in move()). 
+	protected boolean maySleep()
+	{
+		return canSleep;
+	}
+	
+	// Counts the frames in a row this RBObject has been at rest, and puts it to sleep after
+	// sleepFrames. Called at the end of move().
+	private void checkRest()
+	{
+		// move() may be called more than once a frame, but each frame only counts once.
+		long frame = context.currentFrame;
+		
+		if(is_asleep || frame == restFrame)
+			return;
+		
+		restFrame = frame;
+		
+		double vx = velocity.getXComp();
+		double vy = velocity.getYComp();
+		double dvx = vx - lastVX;
+		double dvy = vy - lastVY;
+		double limit = context.sleepSpeed*context.sleepSpeed;
+		
+		lastVX = vx;
+		lastVY = vy;
+		
+		if(vx*vx + vy*vy < limit && dvx*dvx + dvy*dvy < limit)
+			restFrames++;
+		else
+			restFrames = 0;
+		
+		if(restFrames < context.sleepFrames)
+			return;
+		
+		// Stop completely and remember the forces, so that checkSleeping() can tell if they change.
+		velocity.setZero();
+		accel.setZero();
+		xspeed = 0;
+		yspeed = 0;
+		lastVX = 0;
+		lastVY = 0;
+		
+		restingAccel(fieldForce);
+		sleepAX = fieldForce.getXComp();
+		sleepAY = fieldForce.getYComp();
+		sleepFields = context.forceFields.size();
+		
+		sleepIndex = context.sleeping.size();
+		context.sleeping.add(this);
+		
+		sleep();
+	}
+	
+	// Copies the acceleration that gravity and the ForceFields exert on this RBObject into out,
+	// without calling any ForceField callbacks.
+	private void restingAccel(Vec2D out)
+	{
+		double ax = 0.0, ay = 0.0;
+		
+		if(gravitate && context.gravOn)
+		{
+			ax = context.g.getXComp();
+			ay = context.g.getYComp();
+		}
+		
+		if(!bypassField)
+		{
+			ForceFieldIndex index = context.forceFieldIndex;
+			int nrFields = context.forceFields.size();
+			
+			if(index != null)
+			{
+				index.query(this, fieldCandidates);
+				nrFields = fieldCandidates.size();
+			}
+			
+			for(int k = 0; k < nrFields; k++)
+			{
+				ForceField field = context.forceFields.get(index != null ? fieldCandidates.get(k) : k);
+				
+				if(field.getForceNoCallback(this, out))
+				{
+					ax += out.getXComp()/mass;
+					ay += out.getYComp()/mass;
+				}
+			}
+		}
+		
+		out.set(ax, ay);
+	}
+	
+	// Wakes the RBObject if it is asleep (see sleepFrames). It then moves again from the next call
+	// to move() on.
+	@Override
+	public void wake()
+	{
+		if(sleepIndex >= 0)
+		{
+			// Move the last sleeping RBObject into the place of this one.
+			RBObject last = context.sleeping.remove(context.sleeping.size()-1);
+			
+			if(last != this)
+			{
+				context.sleeping.set(sleepIndex, last);
+				last.sleepIndex = sleepIndex;
+			}
+			
+			sleepIndex = -1;
+		}
+		
+		restFrames = 0;
+		
+		super.wake();
+	}
+	
+	// Wakes the sleeping RBObjects whose surroundings have changed, and forgets those that have been
+	// removed. Each sleeping RBObject checks the forces on it once every sleepCheckFrames frames
+	// (spread out over the frames, so that about the same number check each frame). Called by 
+	// GameFrame at the start of each frame, before the RBObjects are moved. 
+	public static void checkSleeping()
+	{
+		GameContext context = GameContext.current();
+		ArrayList<RBObject> sleeping = context.sleeping;
+		int sleepCheckFrames = context.sleepCheckFrames;
+		long frame = context.currentFrame;
+		int nrFields = context.forceFields.size();
+		double limit = context.sleepSpeed*context.sleepSpeed;
+		
+		for(int i = sleeping.size()-1; i >= 0; i--)
+		{
+			RBObject rb = sleeping.get(i);
+			
+			if(!rb.isAlive() || !rb.is_asleep || rb.sleepFields != nrFields || !rb.maySleep())
+			{
+				rb.wake();
+				continue;
+			}
+			
+			if(sleepCheckFrames > 1 && (frame + i) % sleepCheckFrames != 0)
+				continue;
+			
+			rb.restingAccel(rb.fieldForce);
+			
+			double dax = rb.fieldForce.getXComp() - rb.sleepAX;
+			double day = rb.fieldForce.getYComp() - rb.sleepAY;
+			
+			if(dax*dax + day*day >= limit)
+				rb.wake();
+		}
+	}
+	
+	// Returns the number of sleeping RBObjects.
+	public static int getSleepingCount()
+	{
+		return GameContext.current().sleeping.size();
+	}
+	
+	// Used by the parallel force phase of GameFrame, which may call this from a thread other than
+	// the game thread. Adds gravity and the forces of ForceFields for this frame ahead of move(), 
+	// which then skips doing so itself this frame. The onEnter() and whileIn() callbacks are not
+	// called, GameFrame calls deliverFieldCallbacks() for them on the game thread afterwards.
+	public void precomputeForces()
+	{
+		applyForces(true);
+		
+		forcesFrame = context.currentFrame;
+	}
+	
+	// Calls the onEnter() and whileIn() callbacks that were skipped by precomputeForces(), in the
+	// order of ForceField.list. 
+	public void deliverFieldCallbacks()
+	{
+		for(int i = 0; i < nrFieldCallbacks; i++)
+		{
+			int callback = fieldCallbacks[i];
+			
+			if(callback/2 < context.forceFields.size())
+				context.forceFields.get(callback/2).fieldCallback(this, (callback & 1) != 0);
+		}
+		
+		nrFieldCallbacks = 0;
+	}
+	
+	// Sets the ObjectPool that this RBObject is put into when the engine releases it, so that it can
+	// be used again (see ObjectPool). Pass null to let it be garbage collected as usual.
+	public void setPool(ObjectPool<?> pool)
+	{
+		this.pool = pool;
+	}
+	
+	// Puts this RBObject into its ObjectPool, if it has one and the RBObject has been removed. Called
+	// by destroy(), so there is normally no need to call it yourself. If you override destroy()
+	// without calling the super method, call this at the end of it instead.
+	public void recycle()
+	{
+		if(pool != null && !isAlive())
+			pool.release(this);
+	}
+	
+	// Gets an RBObject that was taken from an ObjectPool ready to be used again, as if it had just
+	// been created with the given position, collision ID, graphic, velocity, expiry and start frame
+	// (vel is copied, and may be null for no velocity). The motion and collision state is reset, and
+	// the RBObject is added to the engine again under its old name. The physics settings (mass,
+	// charge, coeff, elastic, gravitate, insulate, bypass settings and canMove) are kept as they
+	// were; set them again if they may have changed. Classes that extend RBObject override this to
+	// reset their own state, calling the super method first.
+	protected void reuse(double x, double y, int collisionid, String gfxname, Vec2D vel, int expiry,
+			long start)
+	{
+		revive(x, y, collisionid, gfxname, expiry);
+		
+		context.rbCount++;
+		startFrame = start;
+		nextCharge = charge;
+		
+		if(vel != null)
+			velocity.set(vel);
+		else
+			velocity.setZero();
+		accel.setZero();
+		
+		xspeed = velocity.getXComp();
+		yspeed = velocity.getYComp();
+		
+		beforeCollisions = true;
+		bounceHit = false;
+		lastSurfaces = 0;
+		lastFields.clear();
+		nextFields.clear();
+		forcesFrame = -1;
+		nrFieldCallbacks = 0;
+		
+		if(sleepIndex >= 0) // revive() cleared is_asleep, but it may still be in sleeping.
+			wake();
+		lastVX = velocity.getXComp();
+		lastVY = velocity.getYComp();
+	}
+	
 	// destroy() is called when the engine releases a JGObject. Used to decrement the current number
-	// of and RBObjects in game.
+	// of and RBObjects in game, and to put the RBObject into its ObjectPool if it has one.
 	@Override
 	public void destroy()
 	{
-		rbCount--;
+		context.rbCount--;
+		recycle();
 	}
 	
 	// beforeCollisions is a private instance variable that should not be changed by methods of
@@ -1,15 +1,12 @@
 package gameframe.surface;
 
-import gameframe.Gravity;
+import gameframe.GameContext;
 import gameframe.rbs.RBObject;
-import gameframe.vecmath.Coord;
 import gameframe.vecmath.Vec2D;
 
 import java.util.ArrayList;
 
 import jgame.JGObject;
-import jgame.JGPoint;
-import jgame.JGRectangle;
 
 /*
  * The Surface class is a class used to give tiles in your game the properties of a physical surface
@@ -32,30 +29,38 @@ import jgame.JGRectangle;
 public class Surface 
 {
 	/*
-	 * This ArrayList should store all Surface objects that are created. Surface objects need to be
-	 * in this ArrayList in order for GameFrame to use them in tile collisions. The constructor for
-	 * a Surface object automatically adds the Surface object to list, so it is not necessary to
-	 * add the Surface to list yourself or hold onto the reference for the Surface object at all
-	 * (unless you plan to remove the Surface from list later without removing any other Surfaces,
-	 * then a reference to the Surface object should be kept somewhere where it will be persistent).
+	 * The surfaces ArrayList of the current GameContext (called Surface.list below) should store
+	 * all Surface objects that are created. Surface objects need to be in this ArrayList in order
+	 * for GameFrame to use them in tile collisions. The constructor for a Surface object 
+	 * automatically adds the Surface object to list, so it is not necessary to add the Surface to
+	 * list yourself or hold onto the reference for the Surface object at all (unless you plan to
+	 * remove the Surface from list later without removing any other Surfaces, then a reference to
+	 * the Surface object should be kept somewhere where it will be persistent).
 	 */
-	public static ArrayList<Surface> list = new ArrayList<Surface>(); 
 	
 	// Static method for clearing all Surface objects out of Surface.list.
 	public static void removeAll()
 	{
+		GameContext context = GameContext.current();
+		ArrayList<Surface> list = context.surfaces; // Surface.list.
+		
 		// Iterate through list backwards and remove all objects.
 		for(int i = list.size()-1; i >= 0; i--)
 		{
 			list.remove(i);
 		}
+		
+		context.surfaceRegistry.invalidate();
 	}
 	
 	// Static method for clearing a specific Surface object from Surface.list. Must pass a reference
 	// to the Surface which you want to be removed. 
 	public static void removeThis(Surface surface)
 	{
-		list.remove(surface);
+		GameContext context = GameContext.current();
+		
+		context.surfaces.remove(surface);
+		context.surfaceRegistry.invalidate();
 	}
 	
 	// Constants used for representing what side of an associated tile an RBObject is colliding with.
@@ -73,6 +78,11 @@ public class Surface
 	 						 // stationary and in contact with a tile associated with this Surface.
 	protected double elastic; // Partial elasticity of a collision between an RBObject and a tile
 							  // associated with the Surface. Used in calculating collisions. 
+	private Vec2D rbVel_i = new Vec2D(); // Scratch vectors reused by hit() and slide(), so that they 
+	private Vec2D rbVel_f = new Vec2D(); // do not have to create new vectors for every collision. 
+	private TileContact contact = new TileContact(); // Reused by findSide(). 
+	boolean customCheck; // True if checkTileID() is overridden. Set by SurfaceRegistry. 
+	
 	protected boolean background; // Setting used to control whether the tile is considered to be in
 								  // the background (behind the RBObjects) or in the foreground 
 								  // (alongside the RBObjects). If background is set to true, then
@@ -93,7 +103,10 @@ public class Surface
 		elastic = elast;
 		background = back;
 		
-		list.add(this); // Add the Surface to list. 
+		GameContext context = GameContext.current();
+		
+		context.surfaces.add(this); // Add the Surface to list. 
+		context.surfaceRegistry.invalidate();
 	}
 	
 	// Method that checks if the collision between a given tile and an RBObject should result in a
@@ -115,8 +128,9 @@ public class Surface
 	
 	// Method that takes an RBObject and information about a tile and then returns either TOP, RIGHT,
 	// LEFT, BOTTOM depending upon whether the RBObject is making contact above, to the right of, 
-	// to the left of, or below the tile.
-	@SuppressWarnings("unused")
+	// to the left of, or below the tile. Returns TileContact.NONE if none of the tiles has one of the
+	// collision IDs in tileIDs. The work is done by a TileContact kept by the Surface, which also 
+	// records the tile, normal and penetration depth of the contact (see getContact()). 
 	protected int findSide(RBObject rb, int tx, int ty, int txsize, int tysize)
 	{
 		// This code assumes that the origin is in the top left of the screen. It should also be noted that 
@@ -129,193 +143,21 @@ public class Surface
 		// algorithm is to have bigger tiles, so that objects are not as likely to phase too far into them or 
 		// onto the other side. 
 		
-		JGPoint[][] tiles = new JGPoint[txsize][tysize]; // Array that will contain the indicies of 
-														 // all the tiles that the RBObject is 
-														 // overlapping. 
-		ArrayList<JGPoint> choices = new ArrayList<JGPoint>(); // Will hold all the coordinates of 
-															   // the tiles that ended up being 
-															   // associated with this Surface.
-		
-		// The following process determines the coordinates of the indicies of the tiles that the RBObject 
-		// might be colliding with.
-		
-		// First, find all the indicies of the tiles that the RBObject is currently overlapping
-		// using  the top left tile's indicies passed through tx and ty and the number of tiles 
-		// overlapped in the x and y directions passed through txsize and tysize.
-		for(int i = 0; i < txsize; i++)
-		{
-			for(int j = 0; j < tysize; j++)
-			{
-				tiles[i][j] = new JGPoint(tx+i, ty+j);
-			}
-		}
-		
-		// Next, for each tile that the RBObject is overlapping, check if the collision ID of that
-		// tile matches a collision ID of a tile that this Surface is associated with. 
-		for(int i = 0; i < txsize; i++)
-		{
-			for(int j = 0; j < tysize; j++)
-			{
-				for(int k = 0; k < tileIDs.length; k++)
-				{
-					// If it's a match...
-					if(rb.eng.getTileCid(tiles[i][j].x, tiles[i][j].y) == tileIDs[k])
-					{
-						// Get the coordinate of the top left of that tile and add it to the possible choices.
-						choices.add(rb.eng.getTileCoord(tiles[i][j]));
-					}
-				}
-			}
-		}
-		
-		// Next, for each possible choice of tile to collide with, we will record the area of the intersection
-		// between the RBObject's bounding box and the tile and the side of the tile that the RBObject would
-		// be colliding with. 
-		
-		ArrayList<Double> intersectArea = new ArrayList<Double>(choices.size()); // Will hold areas of intersection.
-		ArrayList<Integer> choiceSide = new ArrayList<Integer>(choices.size()); // Will hold side of tiles
-																				// collided with. 
-		
-		for(JGPoint choice : choices)
-		{
-		
-			// It's easy to boil the choice of which side the RBObject is colliding with the tile down to
-			// two choices depending on the relative positions of the two. These variables keep track of
-			// which two choices are the possible correct choices.
-		
-			boolean t_left = false; // Is either colliding with top or left side.
-			boolean t_right = false; // Is either colliding with top or right side.
-			boolean b_left = false; // Is either colliding with bottom or left side.
-			boolean b_right = false; // Is either colliding with bottom or right side. 
-			
-			// The following procedure looks at where the RBObject was last frame instead of where it is now in case
-			// the RBObject had moved too far through the tile for accurate collision detection.
-			
-			// Find which combination of sides is possible:
-			if(rb.getLastY() < (double)choice.y && rb.getLastX() < (double)choice.x) // If RBObject is above to the left.
-				t_left = true;
-			else if(rb.getLastY() < (double)choice.y && rb.getLastX() >= (double)choice.x) // If RBObject is above to the right. 
-				t_right = true;
-			else if(rb.getLastY() >= (double)choice.y && rb.getLastX() < (double)choice.x) // If RBObject is below to the left.
-				b_left = true;
-			else // If no other cases were true, then RBObject must be below to the right. 
-				b_right = true;
-			
-			// After boiling down to two choices, one of them must be picked. To figure out which side
-			// the RBObject is really colliding with, I take advantage of the fact that in a collision 
-			// there is an overlap between the bounding boxes of the tile and the RBObject. By seeing 
-			// which is longer, the height or width, of the overlap between the two bounding boxes, I can
-			// determine which of the two possible choices is correct. 
-			// Like the operation above however, the accuracy of this kind of calculation is not reliable if the
-			// RBObject is moving too fast (it might have moved too far into the tile). Instead of calculating
-			// the actual area of intersection, we will calculate a pseudo area using the same method that we 
-			// would use to find the real one, but subbing in the coordinates of the RBObject the last frame 
-			// instead of this frame. This will find an area that is really the space between the tile and the
-			// RBObject before they collided, but analyzing this area will be more accurate than analyzing the
-			// real area. I will refer to this pseudo area as the area of intersection from now on to simplify 
-			// things. 
-			
-			// Get the default bounding box of the RBObject with the same dimensions as its sprite.
-			JGRectangle rbDimensions = rb.getBBox();
-			
-			// These coordinates will hold one of the top and one of the bottom corners of the rectangle
-			// that is the intersection between the bounding box of the RBObject and of the tile. 
-			Coord topIntersect;
-			Coord bottomIntersect;
-			
-			if(t_left) // If the two possible choices were top and left:
-			{
-				// Find coordinates of a top and a bottom corner of bounding box intersection.
-				topIntersect = new Coord((double)choice.x, (double)choice.y);
-				bottomIntersect = new Coord(rb.getLastX() + (double)rbDimensions.width, 
-					rb.getLastY() + (double)rbDimensions.height);
-				
-				// Calculate the height and width of the intersection.
-				double intHeight = Math.abs(topIntersect.y - bottomIntersect.y);
-				double intWidth = Math.abs(topIntersect.x - bottomIntersect.x);
-				
-				intersectArea.add(intHeight*intWidth);
-				
-				if(intHeight > intWidth) // If the height is greater, then the RBObject must be to the
-					choiceSide.add(LEFT);         // left. Return LEFT.
-				else // Otherwise it's above. Return TOP.
-					choiceSide.add(TOP);
-			}
-			else if(t_right) // If the two possible choices were top and right:
-			{
-				// Find coordinates of a top and a bottom corner of bounding box intersection.
-				topIntersect = new Coord((double)choice.x + (double)(JGObject.tilewidth-1), 
-					(double)choice.y);
-				bottomIntersect = new Coord(rb.getLastX(), rb.getLastY() + (double)rbDimensions.height);
-				
-				// Calculate the height and width of the intersection.
-				double intHeight = Math.abs(topIntersect.y - bottomIntersect.y);
-				double intWidth = Math.abs(topIntersect.x - bottomIntersect.x);
-				
-				intersectArea.add(intHeight*intWidth);
-
-				if(intHeight > intWidth) // If the height is greater, then the RBObject must be to the
-					choiceSide.add(RIGHT);		 // right. Return RIGHT.
-				else // Otherwise it's above. Return TOP.
-					choiceSide.add(TOP);
-			}
-			else if(b_left) // If the two possible choices were bottom and left:
-			{
-				// Find coordinates of a top and a bottom corner of bounding box intersection.
-				topIntersect = new Coord(rb.getLastX() + (double)rbDimensions.width, rb.getLastY());
-				bottomIntersect = new Coord((double)choice.x, 
-					(double)choice.y + (double)(JGObject.tileheight-1));
-			
-				// Calculate the height and width of the intersection.
-				double intHeight = Math.abs(topIntersect.y - bottomIntersect.y);
-				double intWidth = Math.abs(topIntersect.x - bottomIntersect.x);
-				
-				intersectArea.add(intHeight*intWidth);
-				
-				if(intHeight > intWidth) // If the height is greater, then the RBObject must be to the
-					choiceSide.add(LEFT);         // left. Return LEFT.
-				else // Otherwise it's below. Return BOTTOM.
-					choiceSide.add(BOTTOM);
-			}
-			else // If the two possible choices were bottom and right:
-			{
-				// Find coordinates of a top and a bottom corner of bounding box intersection.
-				topIntersect = new Coord(rb.getLastX(), rb.getLastY());
-				bottomIntersect = new Coord((double)choice.x + (double)(JGObject.tilewidth-1),
-					(double)choice.y + (double)(JGObject.tileheight-1));
-				
-				// Calculate the height and width of the intersection.
-				double intHeight = Math.abs(topIntersect.y - bottomIntersect.y);
-				double intWidth = Math.abs(topIntersect.x - bottomIntersect.x);
-				
-				intersectArea.add(intHeight*intWidth);
-			
-				if(intHeight > intWidth) // If the height is greater, then the RBObject must be to the
-					choiceSide.add(RIGHT);        // right. Return RIGHT.
-				else // Otherwise it's below. Return BOTTOM.
-					choiceSide.add(BOTTOM);
-			}
-		}
-		
-		// Lastly, to figure out which side of a tile the RBObject realistically collided with, we find the 
-		// choice which had the most area of intersection with the bounding box of the RBObject. 
-		
-		double biggestArea = 0; // Keeps track of the biggest area of intersection found
-		int index = 0; // Keeps track of the index of the value biggestArea in intersectArea. Index will 
-					   // correspond to the index of the side in choiceSide that was determined for the tile
-					   // that had the area of intersection biggestArea.
+		// For each tile the RBObject overlaps whose collision ID matches one of tileIDs, the position of 
+		// the RBObject last frame narrows the side down to two choices. The shape of the space between
+		// the RBObject last frame and the tile picks one of them (if it is taller than it is wide, 
+		// the RBObject is to the side), and the tile with the largest such space is the one the RBObject 
+		// realistically collided with. 
+		contact.find(rb, tileIDs, tx, ty, txsize, tysize);
 		
-		for(double area : intersectArea)
-		{
-			if(area > biggestArea) // If this area is bigger than the last biggest area found.
-			{
-				biggestArea = area; // This is the new biggest area.
-				index = intersectArea.indexOf(area); // Record its index. 
-			}
-		}
-		
-		return choiceSide.get(index); // Return the side that the RBObject collided with of the tile which it
-									  // had the most intersection with. 
+		return contact.side;
+	}
+	
+	// Returns the contact found by the last call to findSide(). Overwritten by the next call, so 
+	// don't hold on to it. 
+	protected TileContact getContact()
+	{
+		return contact;
 	}
 	
 	// Returns true if this is the first frame the RBObject has made contact with a tile associated
@@ -334,6 +176,16 @@ public class Surface
 	// The hit() method returns the impulse exerted on an RBObject that collides with a tile 
 	// associated with this Surface. 
 	public Vec2D hit(RBObject rb, int tilecid, int tx, int ty, int txsize, int tysize)
+	{
+		Vec2D impulse = new Vec2D();
+		hit(rb, tilecid, tx, ty, txsize, tysize, impulse);
+		
+		return impulse;
+	}
+	
+	// Same as hit() above, but copies the impulse into the vector impulse instead of returning a new
+	// vector. This is the method RBObjects use, so override this one when extending Surface. 
+	public void hit(RBObject rb, int tilecid, int tx, int ty, int txsize, int tysize, Vec2D impulse)
 	{	
 		// No need to calculate an impulse if the Surface is in the background. 
 		if(!background)
@@ -350,6 +202,13 @@ public class Surface
 			// direction of the resulting impulse.
 			int side = findSide(rb, tx, ty, txsize, tysize);
 			
+			// If none of the tiles belong to this Surface after all, there is nothing to bounce off. 
+			if(side == TileContact.NONE)
+			{
+				impulse.setZero();
+				return;
+			}
+			
 			// Next push RBObject so that it is no longer overlapping with the tile.
 			if(rb.getLastX() != 0.0 && rb.getLastY() != 0.0)
 			{
@@ -362,13 +221,12 @@ public class Surface
 			// A copy of the RBObject's initial velocity, updated by adding acceleration of the RBObject 
 			// to take into account any collisions the RBObject has had with other RBObjects and any 
 			// forces exerted by ForceFields before calculating impulse. 
-			Vec2D rbVel_i = rb.velocity.copy();
+			rbVel_i.set(rb.velocity);
 			rbVel_i.addVec(rb.accel);
 		
 			// The final velocity of the RBObject after the collision with the tile, calculated using the
 			// elasticity of the collision.
-			Vec2D rbVel_f = rbVel_i.copy();
-			rbVel_f.scaleMag(e);
+			rbVel_f.scaleInto(rbVel_i, e);
 		
 			// The direction of the final velocity must be changed depending upon which side of the
 			// tile the RBObject collided with. The direction must be changed so that the RBObject 
@@ -376,13 +234,15 @@ public class Surface
 		
 			if(side == TOP) // If it struck the top side of the tile.
 			{	
-				if(rbVel_i.getYComp() <= 0.0)   // If the RBObject is already moving away from the tile,
-					return new Vec2D(0.0, 0.0); // then the collision already happened and an impulse of
-												// zero should be returned.
+				if(rbVel_i.getYComp() <= 0.0) // If the RBObject is already moving away from the tile,
+				{							  // then the collision already happened and an impulse of
+					impulse.setZero();		  // zero should be returned.
+					return;
+				}
 			
 				// If the RBObject was moving toward the tile, then change the final velocity to bounce
 				// away.
-				rbVel_f.setVec(new Coord(rbVel_f.getXComp(), -1.0*rbVel_f.getYComp()));
+				rbVel_f.set(rbVel_f.getXComp(), -1.0*rbVel_f.getYComp());
 			}
 			
 			// Same as the code above, except edited to work if the RBObject is colliding with the right
@@ -390,9 +250,12 @@ public class Surface
 			if(side == RIGHT)
 			{
 				if(rbVel_i.getXComp() >= 0.0)
-					return new Vec2D(0.0, 0.0);
+				{
+					impulse.setZero();
+					return;
+				}
 				
-				rbVel_f.setVec(new Coord(-1.0*rbVel_f.getXComp(), rbVel_f.getYComp()));
+				rbVel_f.set(-1.0*rbVel_f.getXComp(), rbVel_f.getYComp());
 			}
 			
 			// Same as the code above, except edited to work if the RBObject is colliding with the left
@@ -400,9 +263,12 @@ public class Surface
 			if(side == LEFT)
 			{
 				if(rbVel_i.getXComp() <= 0.0)
-					return new Vec2D(0.0, 0.0);
+				{
+					impulse.setZero();
+					return;
+				}
 				
-				rbVel_f.setVec(new Coord(-1.0*rbVel_f.getXComp(), rbVel_f.getYComp()));
+				rbVel_f.set(-1.0*rbVel_f.getXComp(), rbVel_f.getYComp());
 			}
 		
 			// Same as the code above, except edited to work if the RBObject is colliding with the bottom
@@ -410,21 +276,21 @@ public class Surface
 			if(side == BOTTOM)
 			{
 				if(rbVel_i.getYComp() >= 0.0)
-					return new Vec2D(0.0, 0.0);
+				{
+					impulse.setZero();
+					return;
+				}
 				
-				rbVel_f.setVec(new Coord(rbVel_f.getXComp(), -1.0*rbVel_f.getYComp()));
+				rbVel_f.set(rbVel_f.getXComp(), -1.0*rbVel_f.getYComp());
 			}
 		
 			// Use the difference between the initial and final velocity of the RBObject to calculate the
 			// impulse on the RBObject resulting from the collision
-			rbVel_f.subtractVec(rbVel_i);
-			Vec2D impulse = rbVel_f;
+			impulse.sub(rbVel_f, rbVel_i);
 			impulse.scaleMag(rb.getMass());
-			
-			return impulse; // Return the impulse. 
 		}
 		else
-			return new Vec2D(0.0, 0.0); // Return zero vector if Surface is in the background. 
+			impulse.setZero(); // Return zero vector if Surface is in the background. 
 	}
 	
 	// The slide() method returns the frictional force exerted on an RBObject that makes contact with
@@ -434,6 +300,17 @@ public class Surface
 	// first frame the RBObject made contact with the associated tile. Frictional forces are only 
 	// exerted by background tiles.
 	public Vec2D slide(RBObject rb, int tilecid, int tx, int ty, int txsize, int tysize)
+	{
+		Vec2D force = new Vec2D();
+		slide(rb, tilecid, tx, ty, txsize, tysize, force);
+		
+		return force;
+	}
+	
+	// Same as slide() above, but copies the frictional force into the vector force instead of 
+	// returning a new vector. This is the method RBObjects use, so override this one when extending
+	// Surface. 
+	public void slide(RBObject rb, int tilecid, int tx, int ty, int txsize, int tysize, Vec2D force)
 	{
 		// If this is the first frame the RBObject has mad contact with the tile, then a fricitonal 
 		// force need not be exerted and the firstContact method should be called. 
@@ -441,7 +318,8 @@ public class Surface
 		{
 			firstContact(rb, tx, ty, txsize, tysize); // Perform actions upon first making contact
 													  // with the tile.
-			return new Vec2D(0.0, 0.0); // Return a frictional force of zero. 
+			force.setZero(); // Return a frictional force of zero. 
+			return;
 		}
 		
 		// If this is not the first frame the RBObject has made contact with the tile, then find a
@@ -485,7 +363,8 @@ public class Surface
 				
 				// Use the magnitude of the weight force (mass * g) as a normal force. 
 				// (Note: This is only realistic if the tile represents the floor.)
-				double weight = rb.getMass()*Gravity.get_g().getMag();
+				GameContext context = GameContext.current();
+				double weight = context.gravOn ? rb.getMass()*context.g.getMag() : 0.0;
 				
 				// Finding either the kinetic friction or the static friction in this case is very
 				// similar to before, except the magnitude of the normal force is always the weight 
@@ -493,53 +372,35 @@ public class Surface
 				// limited to up or down, but is in whatever direction is opposite motion.
 				
 				// Finding a kinetic frictional force if RBObject is moving.
+				Vec2D rbVel = rbVel_i;
+				rbVel.set(rb.velocity);
+				rbVel.addVec(rb.accel);
+				
+				// The frictional force points opposite the velocity, with a magnitude of the normal
+				// force times the coefficient of friction.
+				force.set(rbVel);
+				force.changeMag(-weight*fricCoeff);
+				
+				// The acceleration that this frictional force would cause.
+				double fricAccelMag = Math.abs(force.getMag()/rb.getMass());
+				
+				// Finding a kinetic frictional force if RBObject is moving. If the friction would
+				// do more than stop the RBObject, then only exert the force needed to stop it.
 				if(moving)
 				{
-					Vec2D rbVel = rb.velocity.copy();
-					rbVel.addVec(rb.accel);
-					
-					Vec2D friction = new Vec2D(rbVel.getAngle(), weight*fricCoeff);
-					friction = friction.getInverse();
-					
-					Vec2D fricAccel = friction.copy();
-					fricAccel.scaleMag(1.0/rb.getMass());
-					
-					if(Math.abs(rbVel.getMag()) < Math.abs(fricAccel.getMag()))
-					{
-						Vec2D stopFric = rbVel.getInverse();
-						stopFric.scaleMag(rb.getMass());
-						
-						return stopFric;
-					}
-					
-					return friction;
+					if(Math.abs(rbVel.getMag()) < fricAccelMag)
+						force.scaleInto(rbVel, -rb.getMass());
 				}
-				// Finding a static frictional force if RBObject is still.
+				// Finding a static frictional force if RBObject is still. Same as above, static 
+				// friction exerts up to the force needed to keep the RBObject still.
 				else
 				{
-					Vec2D rbVel = rb.velocity.copy();
-					rbVel.addVec(rb.accel);
-					
-					Vec2D maxFricAccel = new Vec2D(rbVel.getAngle(), weight*fricCoeff);
-					maxFricAccel = maxFricAccel.getInverse();
-					maxFricAccel.scaleMag(1.0/rb.getMass());
-					
-					if(rbVel.getMag() < maxFricAccel.getMag())
-					{
-						Vec2D friction = rbVel.getInverse();
-						friction.scaleMag(rb.getMass());
-						
-						return friction;
-					}
-				
-					Vec2D friction = maxFricAccel;
-					friction.scaleMag(rb.getMass());
-					
-					return friction;
+					if(rbVel.getMag() < fricAccelMag)
+						force.scaleInto(rbVel, -rb.getMass());
 				}
 			}
 			else // Return a zero force if tile is not in the background.
-				return new Vec2D(0.0, 0.0);
+				force.setZero();
 	}
 	
 	// This is a reserved method for creating a class which extends Surface. Override this method to
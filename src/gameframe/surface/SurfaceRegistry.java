@@ -0,0 +1,179 @@
+package gameframe.surface;
+
+import gameframe.rbs.RBObject;
+
+import java.util.ArrayList;
+
+/*
+ * SurfaceRegistry maps the collision ID of a tile to the Surfaces in Surface.list that are
+ * associated with it, so that an RBObject hitting a tile does not have to check every Surface (and
+ * every collision ID of every Surface) to find them. The Surfaces for a collision ID are worked out
+ * the first time that collision ID is looked up and then kept in a hash table, so later look ups
+ * only take a couple of array reads.
+ *
+ * Each GameContext has a SurfaceRegistry for its Surface.list (see GameContext.surfaceRegistry). The
+ * table is cleared whenever a Surface is created or removed with removeThis() or removeAll().
+ * If you change Surface.list yourself or change the tileIDs of a Surface, call invalidate(). Like
+ * Surface.list itself, a SurfaceRegistry should only be used from the game thread.
+ */
+
+public class SurfaceRegistry
+{
+	private static final Surface[] NONE = new Surface[0]; // Returned for tiles without Surfaces.
+	
+	// Hash table from collision ID to Surfaces, using open addressing. A slot is empty when its
+	// value is null.
+	private int[] keys = new int[64];
+	private Surface[][] values = new Surface[64][];
+	private int nrKeys = 0;
+	
+	private boolean valid = false; // False if the table has to be cleared before it is used.
+	private int builtSize = 0; // The size of Surface.list when the table was last cleared.
+	
+	private ArrayList<Surface> list; // The Surface.list of the GameContext.
+	
+	// Creates a SurfaceRegistry for the Surfaces in list. Called by GameContext.
+	public SurfaceRegistry(ArrayList<Surface> list)
+	{
+		this.list = list;
+	}
+	
+	// Empties the table so that the Surfaces of each collision ID are worked out again. Called by
+	// Surface when Surface.list changes.
+	public void invalidate()
+	{
+		valid = false;
+	}
+	
+	// Returns the Surfaces in Surface.list whose tileIDs share a bit with tilecid, in the order of
+	// Surface.list. Surfaces that override checkTileID() are always included, since they may decide
+	// differently. The returned array is shared and may not be changed.
+	public Surface[] get(int tilecid)
+	{
+		if(!valid || builtSize != list.size())
+			clear();
+		
+		int mask = keys.length-1;
+		
+		for(int slot = hash(tilecid) & mask; ; slot = (slot+1) & mask)
+		{
+			Surface[] surfaces = values[slot];
+			
+			if(surfaces == null) // Not looked up before, so work it out now.
+			{
+				surfaces = collect(tilecid);
+				put(tilecid, surfaces);
+				
+				return surfaces;
+			}
+			
+			if(keys[slot] == tilecid)
+				return surfaces;
+		}
+	}
+	
+	// Finds the Surfaces for a collision ID by going through Surface.list.
+	private Surface[] collect(int tilecid)
+	{
+		int count = 0;
+		
+		for(int i = 0; i < list.size(); i++)
+		{
+			if(matches(list.get(i), tilecid))
+				count++;
+		}
+		
+		if(count == 0)
+			return NONE;
+		
+		Surface[] surfaces = new Surface[count];
+		count = 0;
+		
+		for(int i = 0; i < list.size(); i++)
+		{
+			if(matches(list.get(i), tilecid))
+				surfaces[count++] = list.get(i);
+		}
+		
+		return surfaces;
+	}
+	
+	// Returns true if the Surface should be returned for the collision ID.
+	private static boolean matches(Surface surface, int tilecid)
+	{
+		if(surface.customCheck)
+			return true;
+		
+		for(int i = 0; i < surface.tileIDs.length; i++)
+		{
+			if((surface.tileIDs[i] & tilecid) != 0)
+				return true;
+		}
+		
+		return false;
+	}
+	
+	private void put(int tilecid, Surface[] surfaces)
+	{
+		// Keep the table at most half full.
+		if((nrKeys+1)*2 > keys.length)
+		{
+			int[] oldKeys = keys;
+			Surface[][] oldValues = values;
+			
+			keys = new int[oldKeys.length*2];
+			values = new Surface[oldKeys.length*2][];
+			nrKeys = 0;
+			
+			for(int i = 0; i < oldKeys.length; i++)
+			{
+				if(oldValues[i] != null)
+					put(oldKeys[i], oldValues[i]);
+			}
+		}
+		
+		int mask = keys.length-1;
+		int slot = hash(tilecid) & mask;
+		
+		while(values[slot] != null)
+			slot = (slot+1) & mask;
+		
+		keys[slot] = tilecid;
+		values[slot] = surfaces;
+		nrKeys++;
+	}
+	
+	private static int hash(int tilecid)
+	{
+		int h = tilecid*0x9E3779B9;
+		
+		return h ^ (h >>> 16);
+	}
+	
+	// Empties the table and finds out which Surfaces override checkTileID().
+	private void clear()
+	{
+		for(int i = 0; i < values.length; i++)
+			values[i] = null;
+		
+		nrKeys = 0;
+		
+		for(int i = 0; i < list.size(); i++)
+		{
+			Surface surface = list.get(i);
+			
+			try
+			{
+				surface.customCheck = surface.getClass().getMethod("checkTileID", Integer.TYPE,
+						RBObject.class).getDeclaringClass() != Surface.class;
+			}
+			catch(NoSuchMethodException ex)
+			{
+				surface.customCheck = true;
+			}
+		}
+		
+		builtSize = list.size();
+		valid = true;
+	}
+}
@@ -0,0 +1,160 @@
+package gameframe.surface;
+
+import gameframe.rbs.RBObject;
+
+import jgame.JGRectangle;
+
+/*
+ * TileContact works out how an RBObject is making contact with the tiles of a Surface: which side of
+ * which tile it hit (TOP, RIGHT, LEFT or BOTTOM, as returned by Surface.findSide()), the normal of
+ * that side, and how far the RBObject's bounding box has moved into the tile along that normal. It
+ * works directly on tile indices and the position of the RBObject and keeps its results in its own
+ * fields, so finding a contact does not create any objects. Each Surface keeps one TileContact that
+ * it reuses for every contact.
+ *
+ * The side is chosen the same way Surface.findSide() always has (see the comments there): for each
+ * tile whose collision ID equals one of the Surface's tileIDs, the position of the RBObject last
+ * frame narrows the side down to two choices, the shape of the space between the RBObject and the
+ * tile picks one of them, and the tile with the largest such space wins.
+ */
+
+public class TileContact
+{
+	public static final int NONE = 0; // Returned as side when no tile of the Surface was found.
+
+	public int side = NONE; // TOP, RIGHT, LEFT, BOTTOM or NONE.
+	public int tileX; // Index of the tile that was hit.
+	public int tileY;
+	public double normalX; // Unit vector pointing out of the side of the tile that was hit.
+	public double normalY;
+	public double depth; // How far the bounding box of the RBObject is inside the tile along the
+						 // normal, in pixels. Zero if it is only touching.
+
+	private JGRectangle bbox = new JGRectangle(); // Scratch rectangle for the bounding box.
+
+	// Finds the contact between rb and the tiles in the txsize by tysize block of tiles with top
+	// left tile (tx, ty) whose collision ID is one of tileIDs. Returns false (and sets side to NONE)
+	// if none of the tiles has such a collision ID.
+	public boolean find(RBObject rb, int[] tileIDs, int tx, int ty, int txsize, int tysize)
+	{
+		int tileWidth = rb.eng.tileWidth();
+		int tileHeight = rb.eng.tileHeight();
+
+		int width = 0, height = 0;
+
+		if(rb.getBBox(bbox))
+		{
+			width = bbox.width;
+			height = bbox.height;
+		}
+
+		double lastX = rb.getLastX();
+		double lastY = rb.getLastY();
+
+		double biggestArea = 0.0;
+		side = NONE;
+
+		for(int i = 0; i < txsize; i++)
+		{
+			for(int j = 0; j < tysize; j++)
+			{
+				int cid = rb.eng.getTileCid(tx+i, ty+j);
+
+				// A tile is a choice once for each of the tileIDs it equals.
+				for(int k = 0; k < tileIDs.length; k++)
+				{
+					if(cid != tileIDs[k])
+						continue;
+
+					double choiceX = (tx+i)*tileWidth;
+					double choiceY = (ty+j)*tileHeight;
+
+					// The width and height of the space between where the RBObject was last frame
+					// and the tile, and the side it points to.
+					double intWidth, intHeight;
+					int choiceSide;
+
+					if(lastY < choiceY && lastX < choiceX) // Above to the left.
+					{
+						intHeight = Math.abs(choiceY - (lastY + height));
+						intWidth = Math.abs(choiceX - (lastX + width));
+						choiceSide = intHeight > intWidth ? Surface.LEFT : Surface.TOP;
+					}
+					else if(lastY < choiceY) // Above to the right.
+					{
+						intHeight = Math.abs(choiceY - (lastY + height));
+						intWidth = Math.abs(choiceX + (tileWidth-1) - lastX);
+						choiceSide = intHeight > intWidth ? Surface.RIGHT : Surface.TOP;
+					}
+					else if(lastX < choiceX) // Below to the left.
+					{
+						intHeight = Math.abs(lastY - (choiceY + (tileHeight-1)));
+						intWidth = Math.abs(lastX + width - choiceX);
+						choiceSide = intHeight > intWidth ? Surface.LEFT : Surface.BOTTOM;
+					}
+					else // Below to the right.
+					{
+						intHeight = Math.abs(lastY - (choiceY + (tileHeight-1)));
+						intWidth = Math.abs(lastX - (choiceX + (tileWidth-1)));
+						choiceSide = intHeight > intWidth ? Surface.RIGHT : Surface.BOTTOM;
+					}
+
+					double area = intHeight*intWidth;
+
+					// The first choice is kept unless a later one has a strictly larger area.
+					if(side == NONE || area > biggestArea)
+					{
+						if(area > biggestArea)
+							biggestArea = area;
+
+						side = choiceSide;
+						tileX = tx+i;
+						tileY = ty+j;
+					}
+				}
+			}
+		}
+
+		if(side == NONE)
+		{
+			normalX = 0.0;
+			normalY = 0.0;
+			depth = 0.0;
+
+			return false;
+		}
+
+		// Work out the normal and how far the current bounding box is inside the tile along it.
+		double left = tileX*tileWidth;
+		double top = tileY*tileHeight;
+
+		switch(side)
+		{
+		case Surface.TOP:
+			normalX = 0.0;
+			normalY = -1.0;
+			depth = rb.y + height - top;
+			break;
+		case Surface.BOTTOM:
+			normalX = 0.0;
+			normalY = 1.0;
+			depth = top + tileHeight - rb.y;
+			break;
+		case Surface.LEFT:
+			normalX = -1.0;
+			normalY = 0.0;
+			depth = rb.x + width - left;
+			break;
+		default: // RIGHT
+			normalX = 1.0;
+			normalY = 0.0;
+			depth = left + tileWidth - rb.x;
+			break;
+		}
+
+		if(depth < 0.0)
+			depth = 0.0;
+
+		return true;
+	}
+}
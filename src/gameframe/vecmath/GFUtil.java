@@ -6,10 +6,17 @@ public class GFUtil
 {
 	public static boolean rectOverlap(JGRectangle rect1, JGRectangle rect2)
 	{
-		int xl1 = rect1.x;
-		int xr1 = rect1.x + rect1.width-1;
-		int yt1 = rect1.y;
-		int yb1 = rect1.y + rect1.height-1;
+		return rectOverlap(rect1.x, rect1.y, rect1.width, rect1.height, rect2);
+	}
+	
+	// Same as rectOverlap(JGRectangle, JGRectangle), but takes the first rectangle as its position
+	// and size, so that no JGRectangle has to be created for it.
+	public static boolean rectOverlap(int x1, int y1, int width1, int height1, JGRectangle rect2)
+	{
+		int xl1 = x1;
+		int xr1 = x1 + width1-1;
+		int yt1 = y1;
+		int yb1 = y1 + height1-1;
 		
 		int xl2 = rect2.x;
 		int xr2 = rect2.x + rect2.width-1;
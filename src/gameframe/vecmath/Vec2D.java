@@ -25,6 +25,14 @@ public class Vec2D
 	private double x_component; // Magnitude of the x-component of the vector.
 	private double y_component; // Magnitude of the y-component of the vector.
 	
+	// Constructor that takes no arguments. Creates a zero vector. Useful for creating vectors that
+	// will be reused with the in-place methods below (set(), addScaled(), sub(), scaleInto()).
+	public Vec2D()
+	{
+		x_component = 0.0;
+		y_component = 0.0;
+	}
+	
 	// Constructor that takes a single Coord. Creates a vector pointing from the origin to the point
 	// represented by the Coord. The distance from the origin to point is the magnitude. 
 	public Vec2D(Coord point)
@@ -63,6 +71,33 @@ public class Vec2D
 		y_component = end.y - start.y;
 	}
 	
+	// Sets the x and y components of the vector. Unlike setVec(Coord), no Coord object is needed.
+	public void set(double x, double y)
+	{
+		x_component = x;
+		y_component = y;
+	}
+	
+	// Sets the vector to be equal to vec. 
+	public void set(Vec2D vec)
+	{
+		x_component = vec.x_component;
+		y_component = vec.y_component;
+	}
+	
+	// Sets the vector to a zero vector.
+	public void setZero()
+	{
+		x_component = 0.0;
+		y_component = 0.0;
+	}
+	
+	// Returns true if the vector is a zero vector.
+	public boolean isZero()
+	{
+		return x_component == 0.0 && y_component == 0.0;
+	}
+	
 	// Sets the vector to be pointing in the direction represented by the angle (angle) and with 
 	// magnitude mag. 
 	public void setVec(double angle, double mag)
@@ -98,18 +133,33 @@ public class Vec2D
 	// Keeps the same magnitude.
 	public void changeDir(Coord point)
 	{
-		Vec2D temp = new Vec2D(point);
-		
-		changeDir(temp.getAngle());
+		changeDir(point.x, point.y);
 	}
 	
 	// Changes the vector to point in the direction from the point represented by start to the point
 	// represented by end. Keeps the same magnitude. 
 	public void changeDir(Coord loc, Coord target)
 	{
-		Vec2D temp = new Vec2D(loc, target);
+		changeDir(target.x - loc.x, target.y - loc.y);
+	}
+	
+	// Changes the vector to point in the direction of the vector (dx, dy). Keeps the same magnitude.
+	// Works without any angles, by scaling (dx, dy) to the current magnitude. 
+	private void changeDir(double dx, double dy)
+	{
+		double mag = getMag();
+		double dirMag = Math.sqrt(dx*dx + dy*dy);
 		
-		changeDir(temp.getAngle());
+		if(dirMag == 0.0) // A zero vector points down, as in getAngle().
+		{
+			x_component = 0.0;
+			y_component = mag;
+		}
+		else
+		{
+			x_component = dx*(mag/dirMag);
+			y_component = dy*(mag/dirMag);
+		}
 	}
 	
 	// Multiply the current magnitude by scalar. 
@@ -122,7 +172,22 @@ public class Vec2D
 	// Add angle (argument) to the current angle of the vector's direction. 
 	public void addDir(double angle)
 	{
-		changeDir(getAngle() + angle);
+		if(!useRadians) // If using degrees:
+			angle = Math.toRadians(angle);
+		
+		rotate(Math.cos(angle), Math.sin(angle));
+	}
+	
+	// Rotates the vector by the angle whose cosine is cos and sine is sin. Does the same as addDir(), 
+	// but lets the caller work out (or store) the cosine and sine once and reuse them, so that no 
+	// trigonometry is needed at all. For example, rotate(0.0, 1.0) turns the vector 90 degrees. 
+	public void rotate(double cos, double sin)
+	{
+		double x = x_component;
+		double y = y_component;
+		
+		x_component = x*cos - y*sin;
+		y_component = x*sin + y*cos;
 	}
 	
 	// Performs vector addition. Adds vec to this vector. 
@@ -139,16 +204,50 @@ public class Vec2D
 		y_component -= vec.getYComp();
 	}
 	
-	// Sets the magnitude of the vector to one. Keeps same direction.
+	// Adds vec scaled by scalar to this vector. Same as adding a scaled copy of vec, but without
+	// creating the copy.
+	public void addScaled(Vec2D vec, double scalar)
+	{
+		x_component += vec.x_component*scalar;
+		y_component += vec.y_component*scalar;
+	}
+	
+	// Sets this vector to a minus b. Either argument may be this vector itself. 
+	public void sub(Vec2D a, Vec2D b)
+	{
+		x_component = a.x_component - b.x_component;
+		y_component = a.y_component - b.y_component;
+	}
+	
+	// Sets this vector to vec scaled by scalar. vec may be this vector itself. 
+	public void scaleInto(Vec2D vec, double scalar)
+	{
+		x_component = vec.x_component*scalar;
+		y_component = vec.y_component*scalar;
+	}
+	
+	// Sets the magnitude of the vector to one. Keeps same direction. Divides by the magnitude, so no
+	// angles are needed. 
 	public void normalize()
 	{
-		setVec(getAngle(), 1.0);
+		double mag = getMag();
+		
+		if(mag == 0.0) // A zero vector points down, as in getAngle().
+		{
+			x_component = 0.0;
+			y_component = 1.0;
+		}
+		else
+		{
+			x_component /= mag;
+			y_component /= mag;
+		}
 	}
 	
 	// Returns a Vec2D vector pointing in the same direction as the vector with magnitude one. 
 	public Vec2D getNormal()
 	{
-		Vec2D temp = new Vec2D(new Coord(x_component, y_component));
+		Vec2D temp = copy();
 		temp.normalize();
 		
 		return temp;
@@ -157,25 +256,34 @@ public class Vec2D
 	// Returns a Vec2D vector pointing in the opposite direction as the vector with the same magnitude.
 	public Vec2D getInverse()
 	{
-		return new Vec2D(new Coord(-1.0*x_component, -1.0*y_component));
+		Vec2D temp = new Vec2D();
+		temp.set(-1.0*x_component, -1.0*y_component);
+		
+		return temp;
 	}
 	
 	// Returns a Vec2D vector with the same magnitude and direction as the x_component of the vector.
 	public Vec2D getXVec()
 	{
-		return new Vec2D(new Coord(x_component, 0.0));
+		Vec2D temp = new Vec2D();
+		temp.set(x_component, 0.0);
+		
+		return temp;
 	}
 	
 	// Returns a Vec2D vector with the same magnitude and direction as the y_component of the vector.
 	public Vec2D getYVec()
 	{
-		return new Vec2D(new Coord(0.0, y_component));
+		Vec2D temp = new Vec2D();
+		temp.set(0.0, y_component);
+		
+		return temp;
 	}
 	
 	// Returns the magnitude of the vector.
 	public double getMag()
 	{
-		return Math.sqrt(Math.pow(x_component, 2.0) + Math.pow(y_component, 2.0));
+		return Math.sqrt(x_component*x_component + y_component*y_component);
 	}
 	
 	// Returns the x-component of the vector.
@@ -261,6 +369,27 @@ public class Vec2D
 			return Math.toDegrees(Math.acos(dot(vec)/(getMag()*vec.getMag())));
 	}
 	
+	// Returns the cosine of the angle between the vector and vec. Can be used to compare angles
+	// between vectors without working out the angles themselves: the smaller the angle, the bigger
+	// its cosine. As in angleWithVec(), the angle with a zero vector is said to be zero (cosine 1).
+	public double cosWithVec(Vec2D vec)
+	{
+		double mags = getMag()*vec.getMag();
+		
+		if(mags == 0.0)
+			return 1.0;
+		
+		return dot(vec)/mags;
+	}
+	
+	// Returns true if turning from the direction of this vector to the direction of vec is a turn to
+	// the left (counterclockwise on the screen, where the y-axis points down). Uses the sign of the 
+	// cross product, so no angles are needed.
+	public boolean turnsLeft(Vec2D vec)
+	{
+		return crossMag(vec) < 0.0;
+	}
+	
 	// Returns the size of the acute angle between the vector and a horizontal line passing through
 	// its tail.
 	public double angleWithHor()
@@ -325,6 +454,9 @@ public class Vec2D
 	// Returns a vector that is an exact copy of this vector. 
 	public Vec2D copy()
 	{
-		return new Vec2D(new Coord(x_component, y_component));
+		Vec2D temp = new Vec2D();
+		temp.set(this);
+		
+		return temp;
 	}
 }
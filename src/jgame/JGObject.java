@@ -52,6 +52,9 @@ public class JGObject {
 	static int next_id = 0; 
 	/** global which might be accessed concurrently */
 	static JGEngineInterface default_engine=null;
+	/** engines set with setThreadEngine, overriding default_engine for
+	* the threads they were set for */
+	private static ThreadLocal thread_engine = new ThreadLocal();
 
 	/** The engine's viewWidth and viewHeight, stored in a local variable
 	* for extra speed.*/
@@ -91,10 +94,42 @@ public class JGObject {
 		updateEngineSettings();
 		return true;
 	}
+	/** Set the engine to connect to when a new object is created on the
+	* current thread, instead of the one set with setEngine.  This makes it
+	* possible to run several engines in one VM, each on its own threads (see
+	* JGHeadlessEngine).  The settings stored in the JGObject static
+	* variables remain those of the engine set with setEngine; objects
+	* themselves get the settings from their own engine.
+	* @param engine  pass null to use the engine set with setEngine again. */
+	public static void setThreadEngine(JGEngineInterface engine) {
+		if (engine==null) {
+			thread_engine.remove();
+		} else {
+			thread_engine.set(engine);
+		}
+	}
+
+	/** Get the engine that objects created on the current thread connect
+	* to: the one set with setThreadEngine, or else the one set with
+	* setEngine. */
+	static JGEngineInterface getDefaultEngine() {
+		JGEngineInterface engine = (JGEngineInterface)thread_engine.get();
+		if (engine!=null) return engine;
+		return default_engine;
+	}
+
+	/** Get a new unique ID. Synchronized, because objects may be created
+	* by several engines at once. */
+	private static synchronized int nextId() {
+		return next_id++;
+	}
+
 	/** Called automatically by the engine to signal changes to pfWrap,
 	* gameSpeed, pfWidth/Height, viewX/YOfs.  The current values of these
 	* settings are stored in the JGObject local variables. */
 	public static void updateEngineSettings() {
+		// engines set with setThreadEngine do not set the variables
+		if (default_engine==null) return;
 		pfwrapx = default_engine.pfWrapX();
 		pfwrapy = default_engine.pfWrapY();
 		gamespeed = default_engine.getGameSpeed();
@@ -145,10 +180,23 @@ public class JGObject {
 	private boolean is_alive=true;
 	/** Indicates if object is suspended. */
 	public boolean is_suspended=false;
+	/** Indicates if object is asleep, see sleep(). */
+	public boolean is_asleep=false;
 
 	/** Get object's ID */
 	public String getName() { return name; }
 
+	/* handle in the engine's object registry */
+	int handle=-1;
+
+	/** Get object's handle, -1 if the object has not been added to the
+	 * engine yet or has been removed. */
+	public int getHandle() { return handle; }
+
+	/** Set object's handle, don't call directly.  This is used by the
+	 * engine's object registry. */
+	public final void setHandle(int handle) { this.handle=handle; }
+
 	/** Get name of current image. */
 	public String getImageName() { return imgname; }
 
@@ -171,6 +219,9 @@ public class JGObject {
 
 	/* dimensions of last time drawn  */
 	double lastx=0, lasty=0;
+	/* position at the start of the last frame, used for interpolation */
+	double prevx=0, prevy=0;
+	boolean prev_valid=false;
 	/* bbox/tilebbox is copied into these variables each time */
 	JGRectangle lastbbox_copy=new JGRectangle();
 	JGRectangle lasttilebbox_copy=new JGRectangle();
@@ -386,8 +437,8 @@ public class JGObject {
 	* @param gfxname  id of animation or image, null = no image */
 	public JGObject (String name, boolean unique_id,
 	double x,double y,int collisionid,String gfxname) {
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setPos(x,y);
 		setGraphic(gfxname);
 	}
@@ -397,8 +448,8 @@ public class JGObject {
 	* @param gfxname  id of animation or image, null = no image */
 	public JGObject (String name, boolean unique_id,
 	double x,double y,int collisionid,String gfxname,int expiry) {
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setPos(x,y);
 		setGraphic(gfxname);
 		this.expiry=expiry;
@@ -412,8 +463,8 @@ public class JGObject {
 	double x,double y,int collisionid,String gfxname,
 	int tilebbox_x,int tilebbox_y, int tilebbox_width,int tilebbox_height) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox_x,tilebbox_y,tilebbox_width,tilebbox_height);
 	}
@@ -428,8 +479,8 @@ public class JGObject {
 	int tilebbox_x,int tilebbox_y, int tilebbox_width,int tilebbox_height,
 	int expiry) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox_x,tilebbox_y,tilebbox_width,tilebbox_height);
 		this.expiry=expiry;
@@ -444,8 +495,8 @@ public class JGObject {
 	double x,double y,int collisionid,String gfxname,
 	double xspeed, double yspeed) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setSpeedAbs(xspeed,yspeed);
 	}
@@ -459,8 +510,8 @@ public class JGObject {
 	double x,double y,int collisionid,String gfxname,
 	double xspeed, double yspeed, int expiry) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setSpeedAbs(xspeed,yspeed);
 		this.expiry = expiry;
@@ -476,8 +527,8 @@ public class JGObject {
 	int tilebbox_x,int tilebbox_y, int tilebbox_width,int tilebbox_height,
 	double xspeed, double yspeed) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox_x,tilebbox_y,tilebbox_width,tilebbox_height);
 		setSpeedAbs(xspeed,yspeed);
@@ -493,8 +544,8 @@ public class JGObject {
 	int tilebbox_x,int tilebbox_y, int tilebbox_width,int tilebbox_height,
 	double xspeed, double yspeed, int expiry) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox_x,tilebbox_y,tilebbox_width,tilebbox_height);
 		setSpeedAbs(xspeed,yspeed);
@@ -510,8 +561,8 @@ public class JGObject {
 	double x,double y,int collisionid,String gfxname,
 	int xdir, int ydir, double xspeed, double yspeed, int expiry) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setDirSpeed(xdir,ydir,xspeed,yspeed);
 		this.expiry = expiry;
@@ -528,8 +579,8 @@ public class JGObject {
 	int tilebbox_x,int tilebbox_y, int tilebbox_width,int tilebbox_height,
 	int xdir, int ydir, double xspeed, double yspeed, int expiry) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox_x,tilebbox_y,tilebbox_width,tilebbox_height);
 		setDirSpeed(xdir,ydir,xspeed,yspeed);
@@ -548,8 +599,8 @@ public class JGObject {
 	int expiry,
 	double xspeed,double yspeed) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox.x,tilebbox.y,tilebbox.width,tilebbox.height);
 		setSpeedAbs(xspeed,yspeed);
@@ -566,8 +617,8 @@ public class JGObject {
 	double xspeed,double yspeed,
 	int xdir,int ydir) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setDirSpeed(xdir,ydir,xspeed,yspeed);
 		this.expiry = expiry;
@@ -584,8 +635,8 @@ public class JGObject {
 	int xdir,int ydir,
 	JGRectangle tilebbox) {
 		setPos(x,y);
-		initObject(default_engine,
-				name + (unique_id ? ""+(next_id++) : "" ), collisionid );
+		initObject(getDefaultEngine(),
+				name + (unique_id ? ""+nextId() : "" ), collisionid );
 		setGraphic(gfxname);
 		setTileBBox(tilebbox.x,tilebbox.y,tilebbox.width,tilebbox.height);
 		setDirSpeed(xdir,ydir,xspeed,yspeed);
@@ -740,6 +791,23 @@ public class JGObject {
 	/** Get y position of previous frame. Returns 0 if first frame. */
 	public double getLastY() { return lasty; }
 
+	/** Get x position to draw the object at when drawing a fraction alpha
+	* of the way from the last frame to the next one (see
+	* JGEngineInterface.getFrameAlpha).  Returns x if the object has not
+	* finished a frame yet or jumped more than half a view since the last.
+	*/
+	public double getInterpolatedX(double alpha) {
+		double dx = x-prevx;
+		if (!prev_valid || Math.abs(dx) > eng.viewWidth()/2) return x;
+		return prevx + dx*alpha;
+	}
+	/** Get y position to draw the object at, see getInterpolatedX. */
+	public double getInterpolatedY(double alpha) {
+		double dy = y-prevy;
+		if (!prev_valid || Math.abs(dy) > eng.viewHeight()/2) return y;
+		return prevy + dy*alpha;
+	}
+
 
 	/* snap functions */
 
@@ -747,6 +815,7 @@ public class JGObject {
 	 * (xspeed*gamespeed-epsilon, yspeed*gamespeed-epsilon),
 	 * corresponding to the default is...Aligned margin. */
 	public void snapToGrid() {
+		double gamespeed = eng.getGameSpeed();
 		x = eng.snapToGridX(x,Math.abs(xspeed*gamespeed-0.001));
 		y = eng.snapToGridY(y,Math.abs(yspeed*gamespeed-0.001));
 	}
@@ -832,6 +901,7 @@ public class JGObject {
 		// XXX create a getTileIndexX and Y?
 		//JGPoint p =
 		//	eng.getTileIndex(bbox.x+(bbox.width/2),bbox.y+(bbox.height/2) );
+		int tilewidth=eng.tileWidth(), tileheight=eng.tileHeight();
 		int px,py;
 		if (bbox.x >= 0) {
 			px=((bbox.x+(bbox.width/2))
@@ -927,7 +997,7 @@ public class JGObject {
 	* return false when the object is snapped to grid, and then
 	* moves xspeed*gamespeed away from its aligned position. */
 	public boolean isXAligned() {
-		return eng.isXAligned(x,Math.abs(xspeed*gamespeed-0.001));
+		return eng.isXAligned(x,Math.abs(xspeed*eng.getGameSpeed()-0.001));
 	}
 
 	/** Returns true if y is distance yspeed-epsilon away from being grid
@@ -936,7 +1006,7 @@ public class JGObject {
 	* return false when the object is snapped to grid, and then
 	* moves yspeed*gamespeed away from its aligned position. */
 	public boolean isYAligned() {
-		return eng.isYAligned(y,Math.abs(yspeed*gamespeed-0.001));
+		return eng.isYAligned(y,Math.abs(yspeed*eng.getGameSpeed()-0.001));
 	}
 
 	/** Returns true if x is within margin of being tile grid aligned. Epsilon
@@ -1068,13 +1138,14 @@ public class JGObject {
 			temp_bbox_copy.width = 0;
 			temp_bbox_copy.height = 0;
 		}
+		int viewxofs=eng.viewXOfs(), viewyofs=eng.viewYOfs();
 		if (temp_bbox_copy.x + temp_bbox_copy.width  < viewxofs-marginx)
 			return false;
 		if (temp_bbox_copy.y + temp_bbox_copy.height < viewyofs-marginy)
 			return false;
-		if (temp_bbox_copy.x > viewxofs+viewwidth + marginx)
+		if (temp_bbox_copy.x > viewxofs+eng.viewWidth() + marginx)
 			return false;
-		if (temp_bbox_copy.y > viewyofs+viewheight + marginy)
+		if (temp_bbox_copy.y > viewyofs+eng.viewHeight() + marginy)
 			return false;
 		return true;
 	}
@@ -1093,13 +1164,13 @@ public class JGObject {
 			temp_bbox_copy.width = 0;
 			temp_bbox_copy.height = 0;
 		}
-		if (!pfwrapx) {
+		if (!eng.pfWrapX()) {
 			if (temp_bbox_copy.x+temp_bbox_copy.width  < -marginx) return false;
-			if (temp_bbox_copy.x >pfwidth + marginx) return false;
+			if (temp_bbox_copy.x >eng.pfWidth() + marginx) return false;
 		}
-		if (!pfwrapy) {
+		if (!eng.pfWrapY()) {
 			if (temp_bbox_copy.y+temp_bbox_copy.height < -marginy) return false;
-			if (temp_bbox_copy.y > pfheight + marginy) return false;
+			if (temp_bbox_copy.y > eng.pfHeight() + marginy) return false;
 		}
 		return true;
 	}
@@ -1139,6 +1210,9 @@ public class JGObject {
 	* snapshot of object state.  Should only be called by the JGEngine
 	* implementation. */
 	public void frameFinished() {
+		prevx = prev_valid ? lastx : x;
+		prevy = prev_valid ? lasty : y;
+		prev_valid=true;
 		lastx=x;
 		lasty=y;
 //		if (getBBox(lastbbox_copy)) {
@@ -1159,8 +1233,8 @@ public class JGObject {
 	* it may be in special cases.  */
 	public void moduloPos() {
 		// note: there is an inlined version of this code in EngineLogic
-		if (pfwrapx) x = eng.moduloXPos(x);
-		if (pfwrapy) y = eng.moduloYPos(y);
+		if (eng.pfWrapX()) x = eng.moduloXPos(x);
+		if (eng.pfWrapY()) y = eng.moduloYPos(y);
 	}
 
 	/** Suspend object until either resume is called or, if
@@ -1173,6 +1247,19 @@ public class JGObject {
 	/** Check if object is suspended. */
 	public boolean isSuspended() { return is_suspended; }
 
+	/** Put object to sleep until wake is called.  Unlike a suspended object,
+	 * a sleeping object is still painted, but it is not moved, it is not
+	 * checked against the background, and in checkCollision it is only
+	 * checked against objects that are awake.  Use this for objects that are
+	 * at rest; the object should wake itself when it is hit.  Expiry still
+	 * applies. */
+	public void sleep() { is_asleep=true; }
+	/** Wake object from sleep, if asleep. */
+	public void wake() { is_asleep=false; }
+
+	/** Check if object is asleep. */
+	public boolean isAsleep() { return is_asleep; }
+
 	/** Set resume condition.
 	* @param resume_in_view resume when in view */
 	public void setResumeMode(boolean resume_in_view) {
@@ -1186,8 +1273,9 @@ public class JGObject {
 	/** Signal to object that remove is done, don't call directly.  This is
 	 * used by the engine to signal that the object should be finalised. */
 	public final void removeDone() {
-		destroy();
+		// destroy() sees the object as removed
 		is_alive=false; 
+		destroy();
 	}
 
 	/** Mark object for removal, ignore if already removed. 
@@ -1200,8 +1288,42 @@ public class JGObject {
 		is_alive=false; 
 	}
 
+	/** Add an object that has been removed to the engine again, under the
+	 * same name, so that it can be reused instead of creating a new object.
+	 * Position, speed, direction, expiry, suspend and sleep state and graphic
+	 * are set as by the constructor.  If the graphic is the animation the object
+	 * already had, the animation is reset and started rather than copied
+	 * again.  The bbox and tile bbox are kept, and so are the fields of
+	 * subclasses.  Does nothing if the object is still alive. */
+	protected void revive(double x,double y,int collisionid,String gfxname,
+	int expiry) {
+		if (is_alive) return;
+		is_alive=true;
+		is_suspended=false;
+		is_asleep=false;
+		resume_in_view=true;
+		setPos(x,y);
+		lastx=0;
+		lasty=0;
+		prev_valid=false;
+		xspeed=0;
+		yspeed=0;
+		xdir=1;
+		ydir=1;
+		this.expiry=expiry;
+		if (gfxname!=null && anim!=null && gfxname.equals(animid)) {
+			anim.reset();
+			anim.start();
+			imgname = anim.getCurrentFrame();
+			imgbbox=null;
+		} else {
+			setGraphic(gfxname);
+		}
+		initObject(eng,name,collisionid);
+	}
+
 	/** Override to implement object disposal code.  This method is called at
-	 * the actual moment of removal. */
+	 * the actual moment of removal, when isAlive() already returns false. */
 	public void destroy() {}
 
 	/** Override to implement automatic move; default is do nothing.
@@ -30,7 +30,7 @@ public abstract class JGTimer {
 	*/
 	public JGTimer(int frames_to_alarm, boolean one_shot) {
 		set(frames_to_alarm,one_shot);
-		eng = JGObject.default_engine;
+		eng = JGObject.getDefaultEngine();
 		eng.registerTimer(this);
 	}
 
@@ -40,7 +40,7 @@ public abstract class JGTimer {
 	*/
 	public JGTimer(int frames_to_alarm, boolean one_shot, JGObject parent) {
 		set(frames_to_alarm,one_shot);
-		eng = JGObject.default_engine;
+		eng = JGObject.getDefaultEngine();
 		eng.registerTimer(this);
 		parent_obj = parent;
 	}
@@ -51,7 +51,7 @@ public abstract class JGTimer {
 	*/
 	public JGTimer(int frames_to_alarm, boolean one_shot, String parent) {
 		set(frames_to_alarm,one_shot);
-		eng = JGObject.default_engine;
+		eng = JGObject.getDefaultEngine();
 		eng.registerTimer(this);
 		parent_state = parent;
 	}
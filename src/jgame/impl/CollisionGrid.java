@@ -0,0 +1,114 @@
+package jgame.impl;
+import jgame.*;
+import java.util.Arrays;
+
+/** Spatial hash used as broadphase by EngineLogic.checkCollision.  Objects
+ * are bucketed by their bounding box into cells of a uniform grid, and only
+ * objects that share a cell are returned as candidates.  Cells are hashed
+ * into a fixed number of buckets, so that the grid is unbounded and may
+ * contain negative cell coordinates.  Different cells may share a bucket;
+ * this only produces extra candidates, which are rejected by the regular
+ * intersects() test.
+
+ * <P> The grid stores indexes into the caller's object array rather than the
+ * objects themselves.  Candidates are returned in ascending index order, so
+ * that the caller can dispatch hits in the same order as a brute force
+ * scan would.  All storage is reused between frames; the arrays only grow.
+ */
+class CollisionGrid {
+
+	int cellx=16,celly=16;
+
+	/* bucket -> first entry, -1 = empty */
+	int [] buckets = new int[256];
+	int bucketmask = 255;
+	/* entry -> next entry in same bucket, -1 = end */
+	int [] next = new int[256];
+	/* entry -> object index */
+	int [] objidx = new int[256];
+	int nrentries=0;
+
+	/* object index -> stamp of last query that returned it, used to weed out
+	 * duplicates when an object spans multiple cells */
+	int [] stamps = new int[64];
+	int stamp=0;
+
+	/** Candidates returned by the last query, sorted ascending. */
+	int [] candidates = new int[64];
+	int nrcandidates=0;
+
+	/** Clear the grid and set the cell size.  nrobjects is the size of the
+	 * index range that will be used by add(). */
+	void clear(int cellx,int celly,int nrobjects) {
+		this.cellx = cellx > 0 ? cellx : 1;
+		this.celly = celly > 0 ? celly : 1;
+		// aim for about one entry per bucket
+		int nrbuckets = buckets.length;
+		while (nrbuckets < nrobjects*2) nrbuckets *= 2;
+		if (nrbuckets != buckets.length) buckets = new int[nrbuckets];
+		bucketmask = nrbuckets-1;
+		for (int i=0; i<nrbuckets; i++) buckets[i] = -1;
+		nrentries=0;
+		if (stamps.length < nrobjects) {
+			stamps = new int[nrobjects+50];
+			candidates = new int[nrobjects+50];
+			stamp=0;
+		}
+	}
+
+	int hash(int cx,int cy) {
+		return (cx*73856093 ^ cy*19349663) & bucketmask;
+	}
+
+	int cellX(int x) { return x>=0 ? x/cellx : (x-cellx+1)/cellx; }
+
+	int cellY(int y) { return y>=0 ? y/celly : (y-celly+1)/celly; }
+
+	/** Add object with given index and bounding box to all cells it covers.*/
+	void add(int idx,JGRectangle r) {
+		int cx1 = cellX(r.x), cx2 = cellX(r.x+r.width-1);
+		int cy1 = cellY(r.y), cy2 = cellY(r.y+r.height-1);
+		for (int cy=cy1; cy<=cy2; cy++) {
+			for (int cx=cx1; cx<=cx2; cx++) {
+				if (nrentries >= next.length) grow();
+				int b = hash(cx,cy);
+				objidx[nrentries] = idx;
+				next[nrentries] = buckets[b];
+				buckets[b] = nrentries++;
+			}
+		}
+	}
+
+	void grow() {
+		int [] newnext = new int[next.length*2];
+		int [] newobjidx = new int[next.length*2];
+		System.arraycopy(next,0,newnext,0,nrentries);
+		System.arraycopy(objidx,0,newobjidx,0,nrentries);
+		next = newnext;
+		objidx = newobjidx;
+	}
+
+	/** Find all indexes stored in the cells covered by r.  Results are put in
+	 * candidates[0..nrcandidates-1] in ascending order. */
+	void query(JGRectangle r) {
+		if (++stamp == Integer.MAX_VALUE) {
+			for (int i=0; i<stamps.length; i++) stamps[i]=0;
+			stamp=1;
+		}
+		nrcandidates=0;
+		int cx1 = cellX(r.x), cx2 = cellX(r.x+r.width-1);
+		int cy1 = cellY(r.y), cy2 = cellY(r.y+r.height-1);
+		for (int cy=cy1; cy<=cy2; cy++) {
+			for (int cx=cx1; cx<=cx2; cx++) {
+				for (int e=buckets[hash(cx,cy)]; e>=0; e=next[e]) {
+					int idx = objidx[e];
+					if (stamps[idx]==stamp) continue;
+					stamps[idx]=stamp;
+					candidates[nrcandidates++] = idx;
+				}
+			}
+		}
+		if (nrcandidates > 1) Arrays.sort(candidates,0,nrcandidates);
+	}
+
+}
@@ -56,6 +56,15 @@ public class EngineLogic {
 
 	public double fps = 35;
 	public double maxframeskip = 4.0; /* max # of frames to skip  */
+	/** run frames at a fixed rate and draw in between, see setFixedTimestep*/
+	public boolean fixed_timestep = false;
+	/** fraction of a frame that has passed since the last frame was done */
+	public double frame_alpha = 1.0;
+	/** draw objects from a snapshot without the object lock, see
+	 * setRenderSnapshot */
+	public boolean render_snapshot = false;
+	private RenderSnapshot [] snapshots = null;
+	private RenderSnapshot front_snapshot = null;
 
 	public double gamespeed=1.00000000001;
 
@@ -74,6 +83,11 @@ public class EngineLogic {
 
 	boolean in_parallel_upd=false;
 
+	/** number of objects moved, object pairs tested for collision and
+	 * objects tested against the tiles since the engine started, see
+	 * getWorkCount */
+	public long work_count=0;
+
 
 	private Vector timers = new Vector(20,40);
 
@@ -122,10 +136,12 @@ public class EngineLogic {
 	/** Note: objects lock is used to synchronise object updating between
 	 * repaint thread and game thread.  The synchronize functions are found in
 	 * Engine.doFrameAll and Canvas.paint */
-	public SortedArray objects=new SortedArray(80);    /* String->JGObject */
-	SortedArray obj_to_remove = new SortedArray(40); /* String */
+	public ObjectRegistry objects=new ObjectRegistry(80);
+	JGObject [] obj_to_remove = new JGObject[40];
+	int obj_to_remove_size=0;
 	Vector obj_spec_to_remove = new Vector(20,40); /* (String,Int) */
-	SortedArray obj_to_add = new SortedArray(40); /* JGObject */
+	JGObject [] obj_to_add = new JGObject[40];
+	int obj_to_add_size=0;
 
 
 	/* shared playfield dimensions */
@@ -191,8 +207,10 @@ public class EngineLogic {
 
 	/* background */
 
-	public int [] [] tilemap=null;
-	public int [] [] tilecidmap=null;
+	/** Tile IDs and cids of the playfield. */
+	public TileStore tiles=null;
+	/** Incremented whenever a tile cid may have changed. */
+	public int tilecid_version=0;
 	//public boolean [] [] tilechangedmap=null;
 
 	/** Wrap-around playfield */
@@ -726,42 +744,62 @@ public class EngineLogic {
 	/*====== objects from canvas ======*/
 
 	public void markAddObject(JGObject obj) {
-		obj_to_add.put(obj.getName(),obj);
+		if (obj_to_add_size==obj_to_add.length) {
+			JGObject [] newarr = new JGObject[obj_to_add_size*2];
+			System.arraycopy(obj_to_add,0,newarr,0,obj_to_add_size);
+			obj_to_add = newarr;
+		}
+		obj_to_add[obj_to_add_size++] = obj;
 	}
 
 	/** Add new object now.  Old object with the same name is replaced
-	 * immediately, and its remove() method called.  Skips calling objects.put
-	 * when skip_actual_add=true.  This is useful if the caller optimises the
-	 * objects.add by adding an entire array at once */
-	void addObject(JGObject obj, boolean skip_actual_add) {
-		int idx = objects.get(obj.getName());
-		if (idx >= 0) {
-			JGObject old_obj = (JGObject)objects.values[idx];
+	 * immediately, and its remove() method called. */
+	void addObject(JGObject obj) {
+		JGObject old_obj = objects.get(obj.getName());
+		if (old_obj!=null) {
+			objects.remove(old_obj);
 			// disable object so it doesn't call engine on removal
 			old_obj.removeDone();
 			// ensure any dispose stuff in the object is called
 			old_obj.remove();
 		}
-		if (!skip_actual_add)
-			objects.put(obj.getName(),obj);
+		objects.add(obj);
 	}
 
 	/** Mark object for removal. */
 	void markRemoveObject(String index) {
-		int idx = objects.get(index);
-		if (idx<0) return;
-		obj_to_remove.put(index,(JGObject)objects.values[idx]);
+		JGObject obj = objects.get(index);
+		if (obj==null) return;
+		markRemoveObject(obj);
 	}
 
 	/** Mark object for removal. */
 	void markRemoveObject(JGObject obj) {
-		obj_to_remove.put(obj.getName(),obj);
+		if (obj_to_remove_size==obj_to_remove.length) {
+			JGObject [] newarr = new JGObject[obj_to_remove_size*2];
+			System.arraycopy(obj_to_remove,0,newarr,0,obj_to_remove_size);
+			obj_to_remove = newarr;
+		}
+		obj_to_remove[obj_to_remove_size++] = obj;
 	}
 
-	/** Actually remove object now */
+	/** Actually remove object now.  The object may still be in the add
+	 * list.  Does nothing if the object was removed already. */
 	void doRemoveObject(JGObject obj) {
+		if (!objects.remove(obj)) {
+			// not registered: remove it from the add list, if it's there
+			int i=obj_to_add_size-1;
+			while (i>=0 && obj_to_add[i]!=obj) i--;
+			if (i<0) return;
+			removeFromAddList(i);
+		}
 		obj.removeDone();
-		objects.remove(obj.getName());
+	}
+
+	void removeFromAddList(int i) {
+		obj_to_add_size--;
+		System.arraycopy(obj_to_add,i+1,obj_to_add,i,obj_to_add_size-i);
+		obj_to_add[obj_to_add_size]=null;
 	}
 
 	/** Mark all objects with given spec for removal. */
@@ -777,26 +815,27 @@ public class EngineLogic {
 	 * objects to remove are just added to obj_to_remove. */
 	void doRemoveObjects(String prefix,int cidmask,boolean suspended_obj,
 	boolean do_remove_list) {
+		JGObject [] objs = getObjectArray(prefix);
 		int firstidx=getFirstObjectIndex(prefix);
 		int lastidx=getLastObjectIndex(prefix);
 		for (int i=firstidx; i<lastidx; i++) {
-			JGObject o = (JGObject) objects.values[i];
+			JGObject o = objs[i];
 			if (cidmask==0 || (o.colid&cidmask)!=0) {
 				if (suspended_obj || !o.is_suspended) {
-					obj_to_remove.put(objects.keys[i],o);
+					markRemoveObject(o);
 				}
 			}
 		}
 		if (do_remove_list) doRemoveList();
 		// if we enumerate backwards, we can remove elements inline without
 		// consistency problems
-		for (int i=obj_to_add.size-1; i>=0; i--) {
-			JGObject o = (JGObject) obj_to_add.values[i];
-			if (prefix==null || obj_to_add.keys[i].startsWith(prefix)) {
+		for (int i=obj_to_add_size-1; i>=0; i--) {
+			JGObject o = obj_to_add[i];
+			if (prefix==null || o.getName().startsWith(prefix)) {
 				if (cidmask==0 || (o.colid&cidmask)!=0) {
 					if (suspended_obj || !o.is_suspended) {
 						// Note: remove element inside element enumeration
-						obj_to_add.remove(obj_to_add.keys[i]);
+						removeFromAddList(i);
 						o.removeDone();
 					}
 				}
@@ -832,24 +871,24 @@ public class EngineLogic {
 
 	/** Actually remove objects in obj_to_remove. */
 	void doRemoveList() {
-		for (int i=0; i<obj_to_remove.size; i++) {
-			((JGObject)obj_to_remove.values[i]).removeDone();
+		// objects marked more than once are only removed the first time
+		for (int i=0; i<obj_to_remove_size; i++) {
+			doRemoveObject(obj_to_remove[i]);
+			obj_to_remove[i]=null;
 		}
-		objects.remove(obj_to_remove);
-		obj_to_remove.clear();
+		obj_to_remove_size=0;
 	}
 
 	/** Add objects marked for addition. Protected.
 	*/
 	public void flushAddList() {
-		// XXX we have to add one by one because we have to call the dispose
-		// method of the objects that are replaced
-		for (int i=0; i<obj_to_add.size; i++) {
-			addObject((JGObject)obj_to_add.values[i],true);
+		// objects are added in the order they were created; of two objects
+		// with the same name, the last one replaces the first
+		for (int i=0; i<obj_to_add_size; i++) {
+			addObject(obj_to_add[i]);
+			obj_to_add[i]=null;
 		}
-		// actually add objects to array in one go for faster performance
-		objects.put(obj_to_add);
-		obj_to_add.clear();
+		obj_to_add_size=0;
 	}
 
 	///** Remove objects marked for addition before they can be added.
@@ -867,13 +906,15 @@ public class EngineLogic {
 	/* public */
 
 	public boolean existsObject(String index) {
-		return objects.get(index) >= 0;
+		return objects.get(index) != null;
 	}
 
 	public JGObject getObject(String index) {
-		int idx = objects.get(index);
-		if (idx<0) return null;
-		return (JGObject)objects.values[idx];
+		return objects.get(index);
+	}
+
+	public JGObject getObject(int handle) {
+		return objects.get(handle);
 	}
 
 	///** Remove all objects.  All objects are marked for removal, the add
@@ -889,10 +930,11 @@ public class EngineLogic {
 	public void moveObjects(JGEngineInterface eng,String prefix, int cidmask) {
 		if (in_parallel_upd) throw new JGameError("Recursive call",true);
 		in_parallel_upd=true;
+		JGObject [] objs = getObjectArray(prefix);
 		int firstidx=getFirstObjectIndex(prefix);
 		int lastidx=getLastObjectIndex(prefix);
 		for (int i=firstidx; i<lastidx; i++) {
-			JGObject o = (JGObject) objects.values[i];
+			JGObject o = objs[i];
 			if (cidmask!=0 && (o.colid&cidmask)==0) continue;
 			// first, update suspend mode
 			if (o.is_suspended) {
@@ -911,7 +953,8 @@ public class EngineLogic {
 			//o.moduloPos(); // is inlined below
 			if (pf_wrapx) o.x = moduloXPos(o.x);
 			if (pf_wrapy) o.y = moduloYPos(o.y);
-			if (!o.is_suspended) {
+			if (!o.is_suspended && !o.is_asleep) {
+				work_count++;
 				//o.moduloPos(); // is inlined below
 				if (pf_wrapx) o.x = moduloXPos(o.x);
 				if (pf_wrapy) o.y = moduloYPos(o.y);
@@ -963,6 +1006,23 @@ public class EngineLogic {
 
 	JGObject [] srcobj = new JGObject[50];
 	JGObject [] dstobj = new JGObject[50];
+
+	/** Broadphase used by checkCollision, one of the
+	 * JGEngineInterface.COLLISION_ constants. */
+	public int collision_strategy=JGEngineInterface.COLLISION_BRUTE_FORCE;
+
+	CollisionGrid collision_grid = new CollisionGrid();
+
+	SweepAndPrune sweep_and_prune = new SweepAndPrune();
+
+	public void setCollisionStrategy(int strategy) {
+		if (strategy!=JGEngineInterface.COLLISION_BRUTE_FORCE
+		&&  strategy!=JGEngineInterface.COLLISION_GRID
+		&&  strategy!=JGEngineInterface.COLLISION_SWEEP_AND_PRUNE)
+			throw new JGameError("Unknown collision strategy "+strategy,true);
+		collision_strategy=strategy;
+	}
+
 	public void checkCollision(JGEngineInterface eng,int srccid,int dstcid) {
 		if (in_parallel_upd) throw new JGameError("Recursive call",true);
 		in_parallel_upd=true;
@@ -975,9 +1035,8 @@ public class EngineLogic {
 		int dstsize = 0;
 		/* get all matching objects */
 		JGRectangle sr = tmprect1;
-		JGRectangle dr = tmprect2;
 		for (int i=0; i<objects.size; i++) {
-			JGObject o  = (JGObject)objects.values[i];
+			JGObject o  = objects.values[i];
 			if (o.is_suspended) continue;
 			if (!o.getBBox(sr)) continue;
 			if ((o.colid & srccid) != 0) {
@@ -988,35 +1047,200 @@ public class EngineLogic {
 			}
 		}
 		/* check collision */
-		for (int si=0; si<srcsize; si++) {
-			JGObject srco = srcobj[si];
-			if (!srco.getBBox(sr)) continue;
-			for (int di=0; di<dstsize; di++) {
-				JGObject dsto = dstobj[di];
-				if (dsto == srco) continue;
-				if (!dsto.getBBox(dr)) continue;
-				if (sr.intersects(dr)) {
-					try {
-						dsto.hit(srco);
-					} catch (JGameError ex) {
-						eng.exitEngine(eng.dbgExceptionToString(ex));
-					} catch (Exception ex) {
-						eng.dbgShowException(dsto.getName(),ex);
-					}
+		checkCollisionLists(eng,srcobj,srcsize,dstobj,dstsize);
+		flushRemoveList();
+		in_parallel_upd=false;
+	}
+
+	/* per-pair object lists of checkCollisions, reused between calls */
+	JGObject [] [] pairsrcobj = new JGObject[0][];
+	JGObject [] [] pairdstobj = new JGObject[0][];
+	int [] pairsrcsize = new int[0];
+	int [] pairdstsize = new int[0];
+
+	/** Batched version of checkCollision(eng,srccid,dstcid).  The object
+	 * list is scanned only once, and the matching objects of all pairs are
+	 * collected in that scan.  Then, the pairs are checked in the given order.
+	 * Before each pair is checked, objects that were removed, suspended, or
+	 * whose colid no longer matches the pair since the scan are dropped from
+	 * it, as would be the case when calling checkCollision once per pair.
+	 * It differs from calling checkCollision once per pair in that: objects
+	 * that are resumed or get a matching colid during the batch do not take
+	 * part in it; objects whose bbox was undefined at the scan are left
+	 * out even if a hit() defines it; and the remove list is flushed once at
+	 * the end, so removed objects are only actually removed (and destroy() is
+	 * only called) after all pairs have been checked.
+	 * @param pairs  array of {srccid,dstcid} pairs */
+	public void checkCollisions(JGEngineInterface eng,int [] [] pairs) {
+		if (in_parallel_upd) throw new JGameError("Recursive call",true);
+		in_parallel_upd=true;
+		int nrpairs = pairs.length;
+		if (pairsrcobj.length < nrpairs) {
+			pairsrcobj = new JGObject[nrpairs][];
+			pairdstobj = new JGObject[nrpairs][];
+			pairsrcsize = new int[nrpairs];
+			pairdstsize = new int[nrpairs];
+		}
+		for (int p=0; p<nrpairs; p++) {
+			if (pairsrcobj[p]==null || objects.size > pairsrcobj[p].length) {
+				// grow arrays to make objects fit
+				pairsrcobj[p] = new JGObject[objects.size+50];
+				pairdstobj[p] = new JGObject[objects.size+50];
+			}
+			pairsrcsize[p]=0;
+			pairdstsize[p]=0;
+		}
+		/* get all matching objects of all pairs in one go */
+		JGRectangle sr = tmprect1;
+		for (int i=0; i<objects.size; i++) {
+			JGObject o  = objects.values[i];
+			if (o.is_suspended) continue;
+			if (!o.getBBox(sr)) continue;
+			int colid = o.colid;
+			for (int p=0; p<nrpairs; p++) {
+				if ((colid & pairs[p][0]) != 0) {
+					pairsrcobj[p][pairsrcsize[p]++] = o;
+				}
+				if ((colid & pairs[p][1]) != 0) {
+					pairdstobj[p][pairdstsize[p]++] = o;
 				}
 			}
 		}
+		/* check collision */
+		for (int p=0; p<nrpairs; p++) {
+			int srcsize=pairsrcsize[p];
+			int dstsize=pairdstsize[p];
+			if (p>0) {
+				srcsize = removeStaleObjects(pairsrcobj[p],srcsize,pairs[p][0]);
+				dstsize = removeStaleObjects(pairdstobj[p],dstsize,pairs[p][1]);
+			}
+			checkCollisionLists(eng,pairsrcobj[p],srcsize,pairdstobj[p],dstsize);
+		}
+		// clear references so that removed objects can be collected
+		for (int p=0; p<nrpairs; p++) {
+			clearArray(pairsrcobj[p],pairsrcsize[p]);
+			clearArray(pairdstobj[p],pairdstsize[p]);
+		}
 		flushRemoveList();
 		in_parallel_upd=false;
 	}
 
+	/** Compact array by removing objects that are no longer alive, are
+	 * suspended, or no longer match cidmask, keeping the order.  Returns the
+	 * new size. */
+	int removeStaleObjects(JGObject [] objs,int size,int cidmask) {
+		int newsize=0;
+		for (int i=0; i<size; i++) {
+			JGObject o = objs[i];
+			if (o.isAlive() && !o.is_suspended && (o.colid&cidmask)!=0)
+				objs[newsize++] = o;
+		}
+		for (int i=newsize; i<size; i++) objs[i]=null;
+		return newsize;
+	}
+
+	void clearArray(JGObject [] objs,int size) {
+		for (int i=0; i<size; i++) objs[i]=null;
+	}
+
+	/** Call hit() for all overlapping src/dst pairs of the given lists,
+	 * using the current collision strategy. */
+	void checkCollisionLists(JGEngineInterface eng,
+	JGObject [] src,int srcsize, JGObject [] dst,int dstsize) {
+		if (collision_strategy==JGEngineInterface.COLLISION_GRID) {
+			checkCollisionGrid(eng,src,srcsize,dst,dstsize);
+		} else if (collision_strategy
+		==JGEngineInterface.COLLISION_SWEEP_AND_PRUNE) {
+			checkCollisionSweep(eng,src,srcsize,dst,dstsize);
+		} else {
+			JGRectangle sr = tmprect1;
+			for (int si=0; si<srcsize; si++) {
+				JGObject srco = src[si];
+				if (!srco.getBBox(sr)) continue;
+				for (int di=0; di<dstsize; di++) {
+					checkPair(eng,srco,sr,dst[di]);
+				}
+			}
+		}
+	}
+
+	/** Test one src/dst pair and call dst's hit if they overlap.  sr is the
+	 * bbox of srco. */
+	void checkPair(JGEngineInterface eng,JGObject srco,JGRectangle sr,
+	JGObject dsto) {
+		if (dsto == srco) return;
+		work_count++;
+		// objects at rest do not hit each other
+		if (dsto.is_asleep && srco.is_asleep) return;
+		JGRectangle dr = tmprect2;
+		if (!dsto.getBBox(dr)) return;
+		if (sr.intersects(dr)) {
+			try {
+				dsto.hit(srco);
+			} catch (JGameError ex) {
+				eng.exitEngine(eng.dbgExceptionToString(ex));
+			} catch (Exception ex) {
+				eng.dbgShowException(dsto.getName(),ex);
+			}
+		}
+	}
+
+	/** Grid broadphase version of the pair loop of checkCollision.  The dst
+	 * objects are bucketed by bbox, and each src object is only tested
+	 * against the dst objects in the cells it covers.  Candidates are
+	 * visited in dst order, so hit() is called in the same order as the
+	 * brute force loop.  The grid is built from the positions at the start
+	 * of the call; an object that is moved by a hit() is still tested at its
+	 * new position, but only against the candidates of its old cells. */
+	void checkCollisionGrid(JGEngineInterface eng,
+	JGObject [] src,int srcsize, JGObject [] dst,int dstsize) {
+		JGRectangle sr = tmprect1;
+		collision_grid.clear(tilex,tiley,dstsize);
+		for (int di=0; di<dstsize; di++) {
+			if (dst[di].getBBox(sr)) collision_grid.add(di,sr);
+		}
+		for (int si=0; si<srcsize; si++) {
+			JGObject srco = src[si];
+			if (!srco.getBBox(sr)) continue;
+			collision_grid.query(sr);
+			int [] cand = collision_grid.candidates;
+			int nrcand = collision_grid.nrcandidates;
+			for (int ci=0; ci<nrcand; ci++) {
+				checkPair(eng,srco,sr,dst[cand[ci]]);
+			}
+		}
+	}
+
+	/** Sweep and prune version of the pair loop of checkCollision.  Pairs
+	 * are found using the object positions at the start of the call, and are
+	 * dispatched in the same order as the brute force loop, see
+	 * checkCollisionGrid. */
+	void checkCollisionSweep(JGEngineInterface eng,
+	JGObject [] src,int srcsize, JGObject [] dst,int dstsize) {
+		JGRectangle sr = tmprect1;
+		sweep_and_prune.update(src,srcsize,dst,dstsize);
+		long [] pairs = sweep_and_prune.pairs;
+		int nrpairs = sweep_and_prune.nrpairs;
+		int cursrc=-1;
+		boolean srchasbbox=false;
+		for (int p=0; p<nrpairs; p++) {
+			int si = (int)(pairs[p]>>>32);
+			int di = (int)pairs[p];
+			if (si!=cursrc) {
+				cursrc=si;
+				srchasbbox = src[si].getBBox(sr);
+			}
+			if (srchasbbox) checkPair(eng,src[si],sr,dst[di]);
+		}
+	}
+
 	public int checkCollision(int cidmask, JGObject obj) {
 		JGRectangle bbox = obj.getBBox();
 		if (bbox==null) return 0;
 		int retcid=0;
 		JGRectangle obj_bbox = tmprect1;
 		for (int i=0; i<objects.size; i++) {
-			JGObject o  = (JGObject)objects.values[i];
+			JGObject o  = objects.values[i];
 			if (o==obj) continue;
 			if (!o.is_suspended) {
 				if (cidmask==0 || (o.colid&cidmask)!=0) {
@@ -1047,32 +1271,43 @@ public class EngineLogic {
 		JGRectangle r = tmprect1;
 		/* get all matching objects */
 		for (int i=0; i<objects.size; i++) {
-			JGObject o  = (JGObject)objects.values[i];
-			if (o.is_suspended) continue;
+			JGObject o  = objects.values[i];
+			if (o.is_suspended || o.is_asleep) continue;
 			if (!o.getTileBBox(r)) continue;
 			if ((o.colid & objcid) != 0) {
 				srcobj[srcsize++] = o;
 			}
 		}
+		work_count += srcsize;
 		/* check collision */
 		JGRectangle tiler = tmprect2;
 		for (int i=0; i<srcsize; i++) {
 			JGObject o = srcobj[i];
 			// tile bbox is always defined
 			o.getTileBBox(r);
-			// fast equivalent of cid=checkBGCollision(r)
 			getTiles(tiler,r);
-			int cid=getTileCid(tiler);
+			// read all covered tiles once; equivalent of cid=getTileCid(tiler)
+			int nrtiles = tiler.width*tiler.height;
+			if (nrtiles > tilecidbuf.length) tilecidbuf = new int[nrtiles+16];
+			int cid=getTileCidBlock(tiler,tilecidbuf);
 			if ((cid & tilecid) != 0) {
+				int mask = getHitBGMask(o);
+				int version = tilecid_version;
 				try {
-					o.hit_bg(cid);
-					o.hit_bg(cid,tiler.x,tiler.y,tiler.width,tiler.height);
-					// XXX this might be slow, check its performance
-					for (int y=0; y<tiler.height; y++) {
-						for (int x=0; x<tiler.width; x++) {
-							int thiscid = getTileCid(tiler.x+x, tiler.y+y);
-							if ( (thiscid&tilecid) != 0)
-								o.hit_bg(thiscid, tiler.x+x, tiler.y+y);
+					if ((mask&HIT_BG_CID)!=0) o.hit_bg(cid);
+					if ((mask&HIT_BG_AREA)!=0)
+						o.hit_bg(cid,tiler.x,tiler.y,tiler.width,tiler.height);
+					if ((mask&HIT_BG_TILE)!=0) {
+						for (int y=0; y<tiler.height; y++) {
+							int rowstart = y*tiler.width;
+							for (int x=0; x<tiler.width; x++) {
+								// if a hit_bg changed the tiles, read them again
+								int thiscid = version==tilecid_version
+									? tilecidbuf[rowstart+x]
+									: getTileCid(tiler.x+x, tiler.y+y);
+								if ( (thiscid&tilecid) != 0)
+									o.hit_bg(thiscid, tiler.x+x, tiler.y+y);
+							}
 						}
 					}
 				} catch (JGameError ex) {
@@ -1086,6 +1321,90 @@ public class EngineLogic {
 		in_parallel_upd=false;
 	}
 
+	/** Bits returned by getHitBGMask, one for each hit_bg overload. */
+	public static final int HIT_BG_CID=1;
+	public static final int HIT_BG_AREA=2;
+	public static final int HIT_BG_TILE=4;
+
+	/* Class -> Integer, hit_bg overloads implemented by the class */
+	Hashtable hit_bg_masks = new Hashtable();
+
+	/* tile cids read by checkBGCollision, row by row */
+	int [] tilecidbuf = new int[64];
+
+	/** Find out which hit_bg overloads the object's class overrides, as an
+	 * OR of HIT_BG_ bits.  checkBGCollision only calls these, and skips the
+	 * per-tile loop if hit_bg(int,int,int) is not overridden.  Each class is
+	 * scanned once.  If the class cannot be inspected, all overloads are
+	 * assumed to be used. */
+	public int getHitBGMask(JGObject o) {
+		Class cls = o.getClass();
+		Integer maskobj = (Integer)hit_bg_masks.get(cls);
+		if (maskobj!=null) return maskobj.intValue();
+		int mask=0;
+		try {
+			if (cls.getMethod("hit_bg",new Class[] {Integer.TYPE})
+			.getDeclaringClass()!=JGObject.class) mask |= HIT_BG_CID;
+			if (cls.getMethod("hit_bg",new Class[] {Integer.TYPE,Integer.TYPE,
+			Integer.TYPE,Integer.TYPE,Integer.TYPE})
+			.getDeclaringClass()!=JGObject.class) mask |= HIT_BG_AREA;
+			if (cls.getMethod("hit_bg",new Class[] {Integer.TYPE,Integer.TYPE,
+			Integer.TYPE}).getDeclaringClass()!=JGObject.class)
+				mask |= HIT_BG_TILE;
+		} catch (Exception e) {
+			mask = HIT_BG_CID|HIT_BG_AREA|HIT_BG_TILE;
+		}
+		hit_bg_masks.put(cls,new Integer(mask));
+		return mask;
+	}
+
+	/** Read the cids of all tiles in tiler into out, row by row
+	 * (out[y*tiler.width + x]), and return their OR.  Gives the same cids as
+	 * getTileCid(x,y), but wrapping and bounds are worked out once per row,
+	 * and the in-bounds part of each row is copied in runs from the tile
+	 * store's row-major chunks (see TileStore.getCidRow). */
+	public int getTileCidBlock(JGRectangle tiler,int [] out) {
+		int w = tiler.width, h = tiler.height;
+		if (w<=0 || h<=0) return 0;
+		int cid=0;
+		// first column and its index in the tile map
+		int xstart = tiler.x;
+		if (pf_wrapx) xstart = moduloFloor(xstart,nrtilesx);
+		for (int y=0; y<h; y++) {
+			int rowstart = y*w;
+			int rowend = rowstart+w;
+			int yidx = tiler.y+y;
+			if (pf_wrapy) {
+				yidx = moduloFloor(yidx,nrtilesy);
+			} else if (yidx<0 || yidx>=nrtilesy) {
+				// whole row is out of bounds
+				for (int i=rowstart; i<rowend; i++) out[i] = out_of_bounds_cid;
+				cid |= out_of_bounds_cid;
+				continue;
+			}
+			if (pf_wrapx) {
+				// copy up to the right edge of the map, then start again at 0
+				int xidx = xstart;
+				for (int i=rowstart; i<rowend; ) {
+					int len = Math.min(rowend-i, nrtilesx-xidx);
+					tiles.getCidRow(xidx,yidx,len,out,i);
+					i += len;
+					xidx = 0;
+				}
+			} else {
+				// out of bounds on the left, in bounds, out of bounds on the right
+				int left = Math.min(w, Math.max(0, -xstart));
+				int right = Math.min(w, Math.max(0, xstart+w-nrtilesx));
+				for (int i=rowstart; i<rowstart+left; i++) out[i] = out_of_bounds_cid;
+				if (left+right<w)
+					tiles.getCidRow(xstart+left,yidx,w-left-right,out,rowstart+left);
+				for (int i=rowend-right; i<rowend; i++) out[i] = out_of_bounds_cid;
+			}
+			for (int i=rowstart; i<rowend; i++) cid |= out[i];
+		}
+		return cid;
+	}
+
 
 	/* objects from engine */
 
@@ -1095,10 +1414,11 @@ public class EngineLogic {
 		Vector objects_v = new Vector(50,100);
 		int nr_obj=0;
 		JGRectangle obj_bbox = tmprect1;
+		JGObject [] objs = getObjectArray(prefix);
 		int firstidx=getFirstObjectIndex(prefix);
 		int lastidx=getLastObjectIndex(prefix);
 		for (int i=firstidx; i<lastidx; i++) {
-			JGObject obj  = (JGObject)objects.values[i];
+			JGObject obj  = objs[i];
 			if (cidmask==0 || (obj.colid&cidmask)!=0) {
 				if (suspended_obj || !obj.is_suspended) {
 					if (bbox!=null) {
@@ -1115,6 +1435,29 @@ public class EngineLogic {
 		return objects_v;
 	}
 
+	public int getObjects(String prefix,int cidmask,boolean suspended_obj,
+	JGRectangle bbox, JGObject [] dest) {
+		int nr_obj=0;
+		JGRectangle obj_bbox = tmprect1;
+		JGObject [] objs = getObjectArray(prefix);
+		int firstidx=getFirstObjectIndex(prefix);
+		int lastidx=getLastObjectIndex(prefix);
+		for (int i=firstidx; i<lastidx; i++) {
+			JGObject obj  = objs[i];
+			if (cidmask==0 || (obj.colid&cidmask)!=0) {
+				if (suspended_obj || !obj.is_suspended) {
+					if (bbox!=null) {
+						if (!obj.getBBox(obj_bbox)) continue;
+						if (!bbox.intersects(obj_bbox)) continue;
+					}
+					if (nr_obj < dest.length) dest[nr_obj] = obj;
+					nr_obj++;
+				}
+			}
+		}
+		return nr_obj;
+	}
+
 
 	public void removeObject(JGObject obj) {
 		if (in_parallel_upd) { // queue remove
@@ -1142,11 +1485,14 @@ public class EngineLogic {
 	}
 
 	public int countObjects(String prefix,int cidmask,boolean suspended_obj) {
+		// all objects match, no need to scan
+		if (prefix==null && cidmask==0 && suspended_obj) return objects.size;
 		int nr_obj=0;
+		JGObject [] objs = getObjectArray(prefix);
 		int firstidx=getFirstObjectIndex(prefix);
 		int lastidx=getLastObjectIndex(prefix);
 		for (int i=firstidx; i<lastidx; i++) {
-			JGObject obj = (JGObject) objects.values[i];
+			JGObject obj = objs[i];
 			if (cidmask==0 || (obj.colid&cidmask)!=0) {
 				if (suspended_obj || !obj.is_suspended) {
 					nr_obj++;
@@ -1157,18 +1503,24 @@ public class EngineLogic {
 	}
 
 
+	/** Array to enumerate for objects matching prefix, from
+	 * getFirstObjectIndex to getLastObjectIndex.  Only prefix queries use
+	 * the (lazily updated) name-sorted index. */
+	JGObject [] getObjectArray(String prefix) {
+		if (prefix==null) return objects.values;
+		return objects.getSorted();
+	}
+
 	int getFirstObjectIndex(String prefix) {
 		if (prefix==null) return 0;
-		int firstidx = objects.get(prefix);
-		if (firstidx<0) firstidx = -1-firstidx;
-		return firstidx;
+		return objects.findSorted(prefix);
 	}
 
 	int getLastObjectIndex(String prefix) {
 		if (prefix==null) return objects.size;
 		// XXX theoretically there may be strings with prefix
 		// lexicographically below this one
-		return -1-objects.get(prefix+'\uffff');
+		return objects.findSorted(prefix+'\uffff');
 	}
 
 
@@ -1177,7 +1529,7 @@ public class EngineLogic {
 	* Protected. */
 	public void frameFinished() {
 		for (int i=0; i<objects.size; i++) {
-			((JGObject)objects.values[i]).frameFinished();
+			objects.values[i].frameFinished();
 		}
 	}
 
@@ -1272,7 +1624,7 @@ public class EngineLogic {
 					if (nrtilesdrawn > maxpredrawtiles) continue;
 					//nrpredrawtilesdrawn++;
 				}
-				eng.drawTile(xi,yi,tilemap[xi_modpf][yi_modpf]);
+				eng.drawTile(xi,yi,tiles.getId(xi_modpf,yi_modpf));
 				nrtilesdrawn++;
 				bg_defined[xi_mod][yi_mod]=true;
 				//tilechangedmap[xi_modpf][yi_modpf]=false;
@@ -1310,8 +1662,8 @@ public class EngineLogic {
 		pfheight = nrtilesy*tiley;
 		pfwidth_half = pfwidth/2;
 		pfheight_half = pfheight/2;
-		tilemap = new int [nrtilesx][nrtilesy];
-		tilecidmap = new int [nrtilesx][nrtilesy];
+		tiles = new TileStore(nrtilesx,nrtilesy);
+		tilecid_version++;
 		//tilechangedmap = new boolean [nrtilesx][nrtilesy];
 		bg_defined = new boolean[viewnrtilesx+3][viewnrtilesy+3];
 		fillBG(filltile);
@@ -1334,15 +1686,17 @@ public class EngineLogic {
 		this.out_of_bounds_tile=out_of_bounds_tile;
 		this.out_of_bounds_cid=out_of_bounds_cid;
 		this.preserve_cids=preserve_cids;
+		tilecid_version++;
 	}
 
 
 	public void fillBG(String filltile) {
-		for (int y=0; y<nrtilesy; y++) {
-			for (int x=0; x<nrtilesx; x++) {
-				setTile(x,y,filltile);
-			}
-		}
+		// same as calling setTile for every tile, but lets the tile store
+		// drop chunks that become all fill
+		int tileid = tileStrToID(filltile);
+		tiles.fill(tileid,preserve_cids,tileintToCid(tileid));
+		tilecid_version++;
+		invalidateBGTiles();
 	}
 
 	public void setTileCid(int x,int y,int and_mask,int or_mask) {
@@ -1357,8 +1711,8 @@ public class EngineLogic {
 		} else {
 			if (y<0 || y>=nrtilesy) return;
 		}
-		tilecidmap[x][y] &= and_mask;
-		tilecidmap[x][y] |= or_mask;
+		tiles.setCid(x,y,and_mask,or_mask);
+		tilecid_version++;
 	}
 
 	public void setTile(int x,int y,String tilestr) {
@@ -1375,9 +1729,8 @@ public class EngineLogic {
 			if (y<0 || y>=nrtilesy) return;
 		}
 		int tileid = tileStrToID(tilestr);
-		tilemap[x_mod][y_mod] = tileid;
-		tilecidmap[x_mod][y_mod] &= preserve_cids;
-		tilecidmap[x_mod][y_mod] |= tileintToCid(tileid);
+		tiles.set(x_mod,y_mod,tileid,preserve_cids,tileintToCid(tileid));
+		tilecid_version++;
 		// invalidate tile, to be redrawn later
 		// new method of invalidating tile; the tilechanged flag is picked
 		// up by repaintBG.
@@ -1466,13 +1819,7 @@ public class EngineLogic {
 
 
 	public int countTiles(int tilecidmask) {
-		int count=0;
-		for (int x=0; x<nrtilesx; x++) {
-			for (int y=0; y<nrtilesy; y++) {
-				if ( (tilecidmap[x][y]&tilecidmask) != 0) count++;
-			}
-		}
-		return count;
+		return tiles.count(tilecidmask);
 	}
 
 	public int getTileCid(int xidx,int yidx) {
@@ -1486,7 +1833,7 @@ public class EngineLogic {
 		} else {
 			if (yidx<0 || yidx>=nrtilesy) return out_of_bounds_cid;
 		}
-		return tilecidmap[xidx][yidx];
+		return tiles.getCid(xidx,yidx);
 	}
 
 	public String getTileStr(int xidx,int yidx) {
@@ -1500,7 +1847,7 @@ public class EngineLogic {
 		} else {
 			if (yidx<0 || yidx>=nrtilesy) return out_of_bounds_tile;
 		}
-		return tileIDToStr(tilemap[xidx][yidx]);
+		return tileIDToStr(tiles.getId(xidx,yidx));
 	}
 
 	public int getTileCid(JGRectangle tiler) {
@@ -1931,6 +2278,51 @@ public class EngineLogic {
 		this.maxframeskip = maxframeskip;
 	}
 
+	public void setFixedTimestep(boolean value) {
+		fixed_timestep = value;
+		if (!value) frame_alpha = 1.0;
+	}
+
+	public void setRenderSnapshot(boolean value) {
+		render_snapshot = value;
+		if (!value) front_snapshot = null;
+	}
+
+	/** Make a render snapshot of the current frame.  Called by the update
+	 * thread at the end of each frame, with the object lock held.  The
+	 * snapshot is written into one that is neither the latest nor being
+	 * drawn, so this never waits for the paint thread.
+	 * @param paint_all  see RenderSnapshot.take */
+	public void takeRenderSnapshot(boolean paint_all) {
+		if (snapshots==null) {
+			snapshots = new RenderSnapshot[] {
+				new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()
+			};
+		}
+		RenderSnapshot snap=null;
+		for (int i=0; i<snapshots.length; i++) {
+			if (snapshots[i]!=front_snapshot && !snapshots[i].in_use) {
+				snap = snapshots[i];
+				break;
+			}
+		}
+		snap.take(this,paint_all);
+		front_snapshot = snap;
+	}
+
+	/** Get the latest render snapshot and mark it in use, or null if there
+	 * is none yet.  Called by the paint thread with the object lock held.
+	 * The snapshot must be given back with releaseRenderSnapshot. */
+	public RenderSnapshot acquireRenderSnapshot() {
+		RenderSnapshot snap = front_snapshot;
+		if (snap!=null) snap.in_use=true;
+		return snap;
+	}
+
+	public void releaseRenderSnapshot(RenderSnapshot snap) {
+		snap.in_use=false;
+	}
+
 	public void setRenderSettings(int alpha_thresh,JGColor render_bg_col) {
 		this.alpha_thresh=alpha_thresh;
 		this.render_bg_color=render_bg_col;
@@ -347,6 +347,11 @@ public interface JGEngineInterface {
 	*/
 	public JGObject getObject(String index);
 
+	/** Get object by its handle (see JGObject.getHandle), null if the
+	 * object has been removed.  This is faster than getting it by name.
+	*/
+	public JGObject getObject(int handle);
+
 	/** Call the move() methods of those objects matching the given name
 	 * prefix and collision id mask.
 	* @param cidmask collision id mask, 0 means ignore
@@ -363,6 +368,39 @@ public interface JGEngineInterface {
 	*/
 	public void checkCollision(int srccid,int dstcid);
 
+	/** Check a number of src/dst collision pairs in one go.  This is
+	* like calling checkCollision(srccid,dstcid) for each pair in turn, but
+	* the object list is scanned only once for all pairs.  Objects that are
+	* removed, suspended or change colid during the batch are dropped from the
+	* pairs after it, but objects that are resumed or start to match are not
+	* picked up, and removed objects are only actually removed at the end of
+	* the batch.
+	* @param pairs  array of {srccid,dstcid} pairs, checked in array order
+	*/
+	public void checkCollisions(int [] [] pairs);
+
+	/** Collision strategy: test every src object against every dst object.
+	 * This is the default. */
+	public static final int COLLISION_BRUTE_FORCE=0;
+	/** Collision strategy: bucket objects in a uniform grid with cells of one
+	 * tile in size, and only test pairs of objects that share a cell.  This is
+	 * much faster for large numbers of small objects. */
+	public static final int COLLISION_GRID=1;
+	/** Collision strategy: keep the objects sorted on the left edge of
+	 * their bounding boxes across frames, and sweep along x to find
+	 * overlapping pairs.  Works best when objects move only a little each
+	 * frame, and does not depend on object size. */
+	public static final int COLLISION_SWEEP_AND_PRUNE=2;
+
+	/** Select the broadphase used by checkCollision(int,int).  The hit()
+	 * calls made are the same for each strategy, and are made in the same
+	 * order.  Default is COLLISION_BRUTE_FORCE.
+	 * @param strategy  one of the COLLISION_ constants */
+	public void setCollisionStrategy(int strategy);
+
+	/** Get the broadphase used by checkCollision(int,int). */
+	public int getCollisionStrategy();
+
 	/** Checks collision of objects with given cid mask with given object. 
 	* Suspended objects are not counted (same as checkCollision(int,int)).
 	* This method should be a more efficient way to check for object overlap
@@ -397,6 +435,15 @@ public interface JGEngineInterface {
 	public Vector getObjects(String prefix,int cidmask,boolean suspended_obj,
 	JGRectangle bbox);
 
+	/** Same query as getObjects, but stores the objects in dest instead of
+	* creating a Vector, so it can be called every frame.  The objects are
+	* stored in the order moveObjects moves them.  Only as many as fit in
+	* dest are stored.
+	* @return the number of matching objects, which may be more than
+	* dest.length */
+	public int getObjects(String prefix,int cidmask,boolean suspended_obj,
+	JGRectangle bbox, JGObject [] dest);
+
 	/** Remove one particular object. The actual removal is done after the
 	* current moveObjects or check*Collision ends, or immediately if done
 	* from within the main doFrame loop.*/
@@ -442,6 +489,13 @@ public interface JGEngineInterface {
 	* @param suspended_obj  also count suspended objects */
 	public int countObjects(String prefix,int cidmask,boolean suspended_obj);
 
+	/** Get the number of objects moved by moveObjects, object pairs tested
+	* by checkCollision, and objects tested against the tiles by
+	* checkBGCollision since the engine started.  Meant for profiling: the
+	* difference between two calls is the work the engine did in between.
+	*/
+	public long getWorkCount();
+
 
 	/*====== tiles ======*/
 
@@ -913,6 +967,43 @@ public interface JGEngineInterface {
 	 * determined by the frameskip setting.  */
 	public void setVideoSyncedUpdate(boolean value);
 
+	/** Enable/disable fixed timestep update.  Default is disabled.  When
+	 * enabled, frames are timed with System.nanoTime and always run at the
+	 * frame rate set with setFrameRate, so that physics done in doFrame does
+	 * not depend on how fast the machine is.  Time left over is carried to
+	 * the next frame.  If the game falls behind, at most maxframeskip+1
+	 * frames are run before drawing again, and any time that is still left
+	 * is dropped.  In between frames, the screen is redrawn at the refresh
+	 * rate of the display, and objects are drawn at a position between the
+	 * last two frames, according to getFrameAlpha.  The view offset itself
+	 * is not interpolated. */
+	public void setFixedTimestep(boolean value);
+
+	/** Get fixed timestep setting, see setFixedTimestep. */
+	public boolean getFixedTimestep();
+
+	/** Get the fraction (0..1) of the next frame that has passed at the time
+	 * of drawing.  Can be used in paintFrame to draw things in between
+	 * frames, at prev + (cur-prev)*alpha.  Always 1 if fixed timestep is
+	 * disabled. */
+	public double getFrameAlpha();
+
+	/** Enable/disable drawing from render snapshots.  Default is disabled.
+	 * Normally, the update thread and the paint thread both lock the
+	 * objects for the whole of a frame, so that neither can run while the
+	 * other does.  When enabled, the engine copies the image and position of
+	 * each object into a snapshot at the end of each frame, and the paint
+	 * thread draws the object images from the latest snapshot without
+	 * holding the lock, while the next frame is updated.  The lock is still
+	 * held while drawing the background, and while calling paintFrame and
+	 * the paint() method of objects that override it.  These are called
+	 * after all object images are drawn, so anything an object paints is
+	 * drawn on top of all images. */
+	public void setRenderSnapshot(boolean value);
+
+	/** Get render snapshot setting, see setRenderSnapshot. */
+	public boolean getRenderSnapshot();
+
 	/** Set game speed variable, default is 1.0.  Game speed affects certain
 	 * parts of the game engine automatically to offload some of the work
 	 * involved of adapting a game to different speeds.  These are the
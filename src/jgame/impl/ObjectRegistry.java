@@ -0,0 +1,300 @@
+package jgame.impl;
+import jgame.*;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** Object store used by EngineLogic.  Every object that is added gets an
+ * int handle, which stays valid until the object is removed.  A handle
+ * consists of a slot index (the low SLOT_BITS bits) and the generation of
+ * that slot.  The generation is increased each time an object is removed
+ * from the slot, so that old handles of removed objects do not find the
+ * object that takes the slot next.  Free slots are reused in the order in
+ * which they were freed, so that a slot goes through its generations as
+ * slowly as possible.
+
+ * <P> Adding and removing an object takes constant time.  The objects are
+ * kept in the values array, from 0 to size, exclusive, which is what the
+ * engine enumerates when it moves and collides objects.  When an object is
+ * removed, the last object takes its place, so this order is not sorted.
+ * Objects can be found by name through a hash table.
+
+ * <P> The objects sorted by name are only needed for prefix queries and for
+ * drawing.  They are kept in a secondary index which is brought up to date
+ * the next time it is used: removed objects are dropped, and the objects
+ * added since are sorted and merged in.
+
+ */
+public class ObjectRegistry {
+
+	public static final int SLOT_BITS=20;
+	public static final int SLOT_MASK=(1<<SLOT_BITS)-1;
+	static final int GEN_MASK=(1<<(31-SLOT_BITS))-1;
+
+	/** Registered objects in enumeration order, from 0 to size, exclusive.
+	 * Do not change. */
+	public JGObject [] values;
+	public int size=0;
+
+	/* slot data */
+	JGObject [] slotobj;
+	int [] slotgen;
+	int [] slotidx; /* index in values */
+	int nrslots=0;
+	/* values index -> slot */
+	int [] valueslot;
+
+	/* queue of free slots */
+	int [] freeslots;
+	int freehead=0,nrfree=0;
+
+	/* name -> slot hash table, linear probing, null key = empty */
+	String [] namekeys = new String[128];
+	int [] nameslots = new int[128];
+
+	/* sorted index: handles and objects, sorted on name */
+	int [] sortedhandles;
+	JGObject [] sorted;
+	int sortedsize=0;
+	/* handles of objects added since the sorted index was last updated */
+	int [] addedhandles;
+	int nradded=0;
+	/* true when objects were removed since the sorted index was updated */
+	boolean sortedremoved=false;
+	JGObject [] mergebuf;
+
+	static final Comparator NAME_ORDER = new Comparator() {
+		public int compare(Object a,Object b) {
+			return ((JGObject)a).getName().compareTo(((JGObject)b).getName());
+		}
+	};
+
+	public ObjectRegistry(int initialcapacity) {
+		if (initialcapacity < 16) initialcapacity=16;
+		values = new JGObject[initialcapacity];
+		valueslot = new int[initialcapacity];
+		slotobj = new JGObject[initialcapacity];
+		slotgen = new int[initialcapacity];
+		slotidx = new int[initialcapacity];
+		freeslots = new int[initialcapacity];
+		sortedhandles = new int[initialcapacity];
+		sorted = new JGObject[initialcapacity];
+		addedhandles = new int[initialcapacity];
+	}
+
+	/** Add object and return its handle.  There should be no registered
+	 * object with the same name. */
+	public int add(JGObject obj) {
+		int slot;
+		if (nrfree > 0) {
+			slot = freeslots[freehead];
+			freehead = (freehead+1) % freeslots.length;
+			nrfree--;
+		} else {
+			if (nrslots==SLOT_MASK+1)
+				throw new JGameError("Too many objects",true);
+			if (nrslots==slotobj.length) growSlots();
+			slot = nrslots++;
+		}
+		if (size==values.length) {
+			values = (JGObject[])grow(values,new JGObject[size*2]);
+			valueslot = grow(valueslot,size*2);
+		}
+		int handle = (slotgen[slot]<<SLOT_BITS) | slot;
+		slotobj[slot] = obj;
+		slotidx[slot] = size;
+		values[size] = obj;
+		valueslot[size] = slot;
+		size++;
+		putName(obj.getName(),slot);
+		if (nradded==addedhandles.length) {
+			// drop objects that were removed again, in case the sorted
+			// index is not used for a long time
+			int n=0;
+			for (int i=0; i<nradded; i++) {
+				if (get(addedhandles[i])!=null) addedhandles[n++]=addedhandles[i];
+			}
+			nradded=n;
+			if (nradded*2 > addedhandles.length)
+				addedhandles = grow(addedhandles,addedhandles.length*2);
+		}
+		addedhandles[nradded++] = handle;
+		obj.setHandle(handle);
+		return handle;
+	}
+
+	/** Remove object.  Returns false if it was not registered. */
+	public boolean remove(JGObject obj) {
+		int handle = obj.getHandle();
+		if (get(handle)!=obj) return false;
+		int slot = handle&SLOT_MASK;
+		// move last object into the hole
+		int idx = slotidx[slot];
+		size--;
+		values[idx] = values[size];
+		valueslot[idx] = valueslot[size];
+		slotidx[valueslot[idx]] = idx;
+		values[size] = null;
+		removeName(obj.getName());
+		slotobj[slot] = null;
+		slotgen[slot] = (slotgen[slot]+1) & GEN_MASK;
+		freeslots[(freehead+nrfree) % freeslots.length] = slot;
+		nrfree++;
+		sortedremoved=true;
+		obj.setHandle(-1);
+		return true;
+	}
+
+	/** Get object with given handle, null if it was removed. */
+	public JGObject get(int handle) {
+		if (handle < 0) return null;
+		int slot = handle&SLOT_MASK;
+		if (slot >= nrslots || slotgen[slot] != handle>>>SLOT_BITS)
+			return null;
+		return slotobj[slot];
+	}
+
+	/** Get object with given name, null if not found. */
+	public JGObject get(String name) {
+		int mask = namekeys.length-1;
+		for (int i=hash(name)&mask; namekeys[i]!=null; i=(i+1)&mask) {
+			if (namekeys[i].equals(name)) return slotobj[nameslots[i]];
+		}
+		return null;
+	}
+
+	/** Get the objects sorted on name, from 0 to size, exclusive.  The
+	 * array is reused, do not change. */
+	public synchronized JGObject [] getSorted() {
+		if (nradded==0 && !sortedremoved) return sorted;
+		// drop removed objects, keep order
+		int n=0;
+		if (sortedremoved) {
+			for (int i=0; i<sortedsize; i++) {
+				if (get(sortedhandles[i])!=null) {
+					sortedhandles[n] = sortedhandles[i];
+					sorted[n++] = sorted[i];
+				}
+			}
+		} else {
+			n = sortedsize;
+		}
+		// collect added objects that are still there, and sort them
+		if (mergebuf==null || mergebuf.length < nradded) {
+			mergebuf = new JGObject[addedhandles.length];
+		}
+		int nrnew=0;
+		for (int i=0; i<nradded; i++) {
+			JGObject obj = get(addedhandles[i]);
+			if (obj!=null) mergebuf[nrnew++] = obj;
+		}
+		Arrays.sort(mergebuf,0,nrnew,NAME_ORDER);
+		// merge from the back so that it can be done in place
+		if (sorted.length < n+nrnew) {
+			int newlen = Math.max(n+nrnew,sorted.length*2);
+			sorted = (JGObject[])grow(sorted,new JGObject[newlen]);
+			sortedhandles = grow(sortedhandles,newlen);
+		}
+		int i=n-1, j=nrnew-1;
+		for (int k=n+nrnew-1; j>=0; k--) {
+			if (i>=0 && sorted[i].getName().compareTo(mergebuf[j].getName())>0){
+				sorted[k] = sorted[i];
+				sortedhandles[k] = sortedhandles[i];
+				i--;
+			} else {
+				sorted[k] = mergebuf[j];
+				sortedhandles[k] = mergebuf[j].getHandle();
+				j--;
+			}
+		}
+		for (int k=n+nrnew; k<sortedsize; k++) sorted[k]=null;
+		for (int k=0; k<nrnew; k++) mergebuf[k]=null;
+		sortedsize = n+nrnew;
+		nradded=0;
+		sortedremoved=false;
+		return sorted;
+	}
+
+	/** Index in getSorted() of the first object with a name that is equal
+	 * to or greater than key. */
+	public int findSorted(String key) {
+		JGObject [] arr = getSorted();
+		int low=0, high=sortedsize-1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (arr[mid].getName().compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	void putName(String name,int slot) {
+		// keep the table at most half full
+		if ((size+1)*2 > namekeys.length) {
+			String [] oldkeys = namekeys;
+			int [] oldslots = nameslots;
+			namekeys = new String[oldkeys.length*2];
+			nameslots = new int[oldkeys.length*2];
+			for (int i=0; i<oldkeys.length; i++) {
+				if (oldkeys[i]!=null) insertName(oldkeys[i],oldslots[i]);
+			}
+		}
+		insertName(name,slot);
+	}
+
+	void insertName(String name,int slot) {
+		int mask = namekeys.length-1;
+		int i=hash(name)&mask;
+		while (namekeys[i]!=null) i=(i+1)&mask;
+		namekeys[i] = name;
+		nameslots[i] = slot;
+	}
+
+	void removeName(String name) {
+		int mask = namekeys.length-1;
+		int i=hash(name)&mask;
+		while (!namekeys[i].equals(name)) i=(i+1)&mask;
+		// shift back the entries after it that would not be found otherwise
+		for (int j=(i+1)&mask; namekeys[j]!=null; j=(j+1)&mask) {
+			int home = hash(namekeys[j])&mask;
+			if (((j-home)&mask) >= ((j-i)&mask)) {
+				namekeys[i] = namekeys[j];
+				nameslots[i] = nameslots[j];
+				i = j;
+			}
+		}
+		namekeys[i] = null;
+	}
+
+	static int hash(String name) {
+		int h = name.hashCode()*0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	void growSlots() {
+		int len = slotobj.length*2;
+		slotobj = (JGObject[])grow(slotobj,new JGObject[len]);
+		slotgen = grow(slotgen,len);
+		slotidx = grow(slotidx,len);
+		// free queue may wrap around; unwrap it into the new array
+		int [] newfree = new int[len];
+		for (int i=0; i<nrfree; i++)
+			newfree[i] = freeslots[(freehead+i) % freeslots.length];
+		freeslots = newfree;
+		freehead = 0;
+	}
+
+	static int [] grow(int [] arr,int len) {
+		int [] newarr = new int[len];
+		System.arraycopy(arr,0,newarr,0,arr.length);
+		return newarr;
+	}
+
+	static Object [] grow(Object [] arr,Object [] newarr) {
+		System.arraycopy(arr,0,newarr,0,arr.length);
+		return newarr;
+	}
+
+}
@@ -0,0 +1,103 @@
+package jgame.impl;
+import jgame.*;
+import java.util.HashMap;
+
+/** Copy of what is needed to draw the objects of one frame: for each
+ * object its image and screen position.  It is made by the update thread
+ * at the end of each frame, while it holds the object lock, so that the
+ * paint thread can draw the objects without holding the lock, while the
+ * next frame is being updated.  See JGEngineInterface.setRenderSnapshot.
+
+ * <P> Objects whose class overrides paint() are also listed in painted, so
+ * that the paint thread can call their paint() afterwards, with the lock
+ * held.  EngineLogic keeps three snapshots, so that the update thread
+ * always has one that is not being drawn to write into.
+
+ */
+public class RenderSnapshot {
+
+	/** number of objects in the snapshot */
+	public int size=0;
+	/** screen position of the objects at the end of the previous frame, for
+	 * interpolation.  Equal to x1/y1 if there is nothing to interpolate. */
+	public int [] x0=new int[64], y0=new int[64];
+	/** screen position of the objects at the end of this frame */
+	public int [] x1=new int[64], y1=new int[64];
+	/** image of the objects, null if not drawn */
+	public JGImage [] image=new JGImage[64];
+
+	/** number of objects in painted */
+	public int nr_painted=0;
+	/** objects that need paint() called after the images are drawn */
+	public JGObject [] painted=new JGObject[16];
+
+	/** set by the paint thread while it draws this snapshot */
+	volatile boolean in_use=false;
+
+	/* whether a class overrides JGObject.paint() */
+	private static HashMap paint_classes=new HashMap();
+
+	/** Fill the snapshot with the objects of el, in drawing order.  Should
+	 * be called with the object lock held.
+	 * @param paint_all  list all objects in painted, not only those that
+	 *        override paint(), for example to draw debug bounding boxes */
+	public void take(EngineLogic el,boolean paint_all) {
+		JGObject [] sorted = el.objects.getSorted();
+		int n = el.objects.size;
+		if (x0.length < n) {
+			int len = Math.max(n,x0.length*2);
+			x0=new int[len]; y0=new int[len];
+			x1=new int[len]; y1=new int[len];
+			image=new JGImage[len];
+		}
+		double alpha = el.fixed_timestep ? 0.0 : 1.0;
+		int maxdx = el.width/2, maxdy = el.height/2;
+		size=0;
+		nr_painted=0;
+		for (int i=0; i<n; i++) {
+			JGObject o = sorted[i];
+			if (paint_all || overridesPaint(o.getClass())) {
+				if (nr_painted==painted.length) {
+					JGObject [] newpainted = new JGObject[nr_painted*2];
+					System.arraycopy(painted,0,newpainted,0,nr_painted);
+					painted = newpainted;
+				}
+				painted[nr_painted++] = o;
+			}
+			if (o.is_suspended) continue;
+			String imgname = o.getImageName();
+			if (imgname==null) continue;
+			int xi = el.scaleXPos((int)o.x,true);
+			int yi = el.scaleYPos((int)o.y,true);
+			int xp = el.scaleXPos((int)o.getInterpolatedX(alpha),true);
+			int yp = el.scaleYPos((int)o.getInterpolatedY(alpha),true);
+			// don't interpolate across playfield wraparound
+			if (Math.abs(xi-xp) > maxdx) xp = xi;
+			if (Math.abs(yi-yp) > maxdy) yp = yi;
+			x0[size]=xp; y0[size]=yp;
+			x1[size]=xi; y1[size]=yi;
+			image[size]=el.getImage(imgname);
+			size++;
+		}
+		// clear references to objects that are gone
+		for (int i=nr_painted; i<painted.length && painted[i]!=null; i++)
+			painted[i]=null;
+	}
+
+	private static synchronized boolean overridesPaint(Class cls) {
+		Boolean overrides = (Boolean)paint_classes.get(cls);
+		if (overrides==null) {
+			boolean found=false;
+			try {
+				found = cls.getMethod("paint",new Class[]{})
+					.getDeclaringClass() != JGObject.class;
+			} catch (NoSuchMethodException e) {
+				/* cannot happen, JGObject has paint() */
+			}
+			overrides = Boolean.valueOf(found);
+			paint_classes.put(cls,overrides);
+		}
+		return overrides.booleanValue();
+	}
+
+}
@@ -0,0 +1,244 @@
+package jgame.impl;
+import jgame.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/** Sort-and-sweep broadphase used by EngineLogic.checkCollision.  Every
+ * object that takes part in a collision check gets a slot, which holds its
+ * bounding box.  The slots are kept sorted on the left edge of the bounding
+ * box across calls and frames.  Since most objects only move a few pixels
+ * per frame, the order is nearly right at the start of each call, and the
+ * insertion sort that restores it takes about linear time.
+
+ * <P> A sweep over the sorted slots yields all src/dst pairs whose bounding
+ * boxes overlap.  Pairs are returned as indexes into the caller's src and
+ * dst arrays, sorted on src index first and dst index second, so that the
+ * caller can dispatch hits in the same order as a brute force scan would.
+ * Slots of objects that are no longer alive, or that have not taken part in
+ * a check for a while, are freed.  All storage is reused; the arrays only
+ * grow.
+ */
+class SweepAndPrune {
+
+	/** Slots not used for this many calls are freed. */
+	static final int EVICT_CALLS=256;
+
+	/* object -> slot (Integer) */
+	IdentityHashMap slotmap = new IdentityHashMap();
+
+	/* slot data */
+	JGObject [] obj = new JGObject[64];
+	int [] minx = new int[64];
+	int [] maxx = new int[64];
+	int [] miny = new int[64];
+	int [] maxy = new int[64];
+	/* index in src/dst array of current call, -1 = not a src/dst */
+	int [] srcidx = new int[64];
+	int [] dstidx = new int[64];
+	/* call in which the slot was last used */
+	int [] lastcall = new int[64];
+
+	/* free slots */
+	int [] free = new int[64];
+	int nrfree=0;
+	int nrslots=0;
+
+	/* slots sorted on minx */
+	int [] order = new int[64];
+	int nrorder=0;
+
+	int call=0;
+
+	JGRectangle tmprect = new JGRectangle();
+
+	/* active lists of sweep */
+	int [] activesrc = new int[64];
+	int [] activedst = new int[64];
+
+	/** Pairs found by the last update, as (srcidx&lt;&lt;32 | dstidx), sorted
+	 * ascending. */
+	long [] pairs = new long[64];
+	int nrpairs=0;
+
+	/** Update the endpoints of the given objects, restore the sort order,
+	 * and find all overlapping src/dst pairs.  Results are put in
+	 * pairs[0..nrpairs-1]. */
+	void update(JGObject [] src,int srcsize, JGObject [] dst,int dstsize) {
+		call++;
+		JGRectangle r = tmprect;
+		for (int i=0; i<srcsize; i++) {
+			int s = touch(src[i],r);
+			if (s>=0) srcidx[s]=i;
+		}
+		for (int i=0; i<dstsize; i++) {
+			int s = touch(dst[i],r);
+			if (s>=0) dstidx[s]=i;
+		}
+		evict();
+		sort();
+		sweep();
+		if (nrpairs > 1) Arrays.sort(pairs,0,nrpairs);
+	}
+
+	/** Get or allocate slot of object, and update its endpoints if this is
+	 * the first time it is seen in this call.  Returns -1 if the object has
+	 * no bounding box. */
+	int touch(JGObject o,JGRectangle r) {
+		Integer slotobj = (Integer)slotmap.get(o);
+		int s;
+		if (slotobj==null) {
+			if (!o.getBBox(r)) return -1;
+			s = allocSlot(o);
+			setBounds(s,r);
+			lastcall[s]=call;
+			srcidx[s]=-1;
+			dstidx[s]=-1;
+			return s;
+		}
+		s = slotobj.intValue();
+		if (lastcall[s]!=call) {
+			if (!o.getBBox(r)) return -1;
+			setBounds(s,r);
+			lastcall[s]=call;
+			srcidx[s]=-1;
+			dstidx[s]=-1;
+		}
+		return s;
+	}
+
+	void setBounds(int s,JGRectangle r) {
+		minx[s] = r.x;
+		maxx[s] = r.x+r.width;
+		miny[s] = r.y;
+		maxy[s] = r.y+r.height;
+	}
+
+	int allocSlot(JGObject o) {
+		int s;
+		if (nrfree > 0) {
+			s = free[--nrfree];
+		} else {
+			if (nrslots >= obj.length) growSlots();
+			s = nrslots++;
+		}
+		obj[s]=o;
+		slotmap.put(o,new Integer(s));
+		// new slots go at the end, the sort will move them into place
+		order[nrorder++]=s;
+		return s;
+	}
+
+	void growSlots() {
+		int len = obj.length*2;
+		JGObject [] newobj = new JGObject[len];
+		System.arraycopy(obj,0,newobj,0,nrslots);
+		obj = newobj;
+		minx = grow(minx,len);
+		maxx = grow(maxx,len);
+		miny = grow(miny,len);
+		maxy = grow(maxy,len);
+		srcidx = grow(srcidx,len);
+		dstidx = grow(dstidx,len);
+		lastcall = grow(lastcall,len);
+		free = grow(free,len);
+		order = grow(order,len);
+		activesrc = grow(activesrc,len);
+		activedst = grow(activedst,len);
+	}
+
+	static int [] grow(int [] arr,int len) {
+		int [] newarr = new int[len];
+		System.arraycopy(arr,0,newarr,0,arr.length);
+		return newarr;
+	}
+
+	/** Free slots of dead and unused objects, keeping the order of the rest.
+	 * Objects that are not part of the current call are marked as neither
+	 * src nor dst. */
+	void evict() {
+		int newnrorder=0;
+		for (int k=0; k<nrorder; k++) {
+			int s = order[k];
+			if (lastcall[s]!=call) {
+				if (!obj[s].isAlive() || call-lastcall[s] > EVICT_CALLS) {
+					slotmap.remove(obj[s]);
+					obj[s]=null;
+					free[nrfree++]=s;
+					continue;
+				}
+				srcidx[s]=-1;
+				dstidx[s]=-1;
+			}
+			order[newnrorder++]=s;
+		}
+		nrorder=newnrorder;
+	}
+
+	/** Insertion sort order on minx.  Slots of objects that are not part of
+	 * the current call keep their old endpoints, which is harmless. */
+	void sort() {
+		for (int k=1; k<nrorder; k++) {
+			int s = order[k];
+			int key = minx[s];
+			int j=k-1;
+			while (j>=0 && minx[order[j]] > key) {
+				order[j+1] = order[j];
+				j--;
+			}
+			order[j+1] = s;
+		}
+	}
+
+	/** Sweep along x, keeping lists of src and dst slots whose x interval
+	 * contains the current left edge. */
+	void sweep() {
+		nrpairs=0;
+		int nractivesrc=0, nractivedst=0;
+		for (int k=0; k<nrorder; k++) {
+			int s = order[k];
+			boolean issrc = srcidx[s]>=0;
+			boolean isdst = dstidx[s]>=0;
+			if (!issrc && !isdst) continue;
+			int x = minx[s];
+			// prune slots that end before the current one starts
+			int n=0;
+			for (int a=0; a<nractivesrc; a++) {
+				if (maxx[activesrc[a]] > x) activesrc[n++]=activesrc[a];
+			}
+			nractivesrc=n;
+			n=0;
+			for (int a=0; a<nractivedst; a++) {
+				if (maxx[activedst[a]] > x) activedst[n++]=activedst[a];
+			}
+			nractivedst=n;
+			if (issrc) {
+				for (int a=0; a<nractivedst; a++) {
+					int d = activedst[a];
+					if (overlapY(s,d)) addPair(srcidx[s],dstidx[d]);
+				}
+			}
+			if (isdst) {
+				for (int a=0; a<nractivesrc; a++) {
+					int sr = activesrc[a];
+					if (overlapY(sr,s)) addPair(srcidx[sr],dstidx[s]);
+				}
+			}
+			if (issrc) activesrc[nractivesrc++]=s;
+			if (isdst) activedst[nractivedst++]=s;
+		}
+	}
+
+	boolean overlapY(int s1,int s2) {
+		return miny[s1] < maxy[s2] && maxy[s1] > miny[s2];
+	}
+
+	void addPair(int si,int di) {
+		if (nrpairs >= pairs.length) {
+			long [] newpairs = new long[pairs.length*2];
+			System.arraycopy(pairs,0,newpairs,0,nrpairs);
+			pairs = newpairs;
+		}
+		pairs[nrpairs++] = ((long)si<<32) | di;
+	}
+
+}
@@ -0,0 +1,168 @@
+package jgame.impl;
+
+/** Tile map storage used by EngineLogic.  The map is divided into square
+ * chunks of CHUNK_SIZE x CHUNK_SIZE tiles.  Each chunk has two flat int
+ * planes: one with the tile IDs (see EngineLogic.tileStrToID) and one with
+ * the tile cids.  Tiles are stored row by row within a chunk, so looking up
+ * a tile is a shift, a mask and an array read.
+
+ * <P> A chunk is only allocated when one of its tiles is set to something
+ * other than the fill tile.  Until then all its tiles read as the fill tile
+ * and fill cid.  This keeps large, mostly empty maps small, and makes
+ * filling the whole map cheap.  Coordinates are not checked; the caller
+ * handles bounds and wrapping.
+ */
+public class TileStore {
+
+	public static final int CHUNK_SHIFT=5;
+	public static final int CHUNK_SIZE=1<<CHUNK_SHIFT;
+	public static final int CHUNK_MASK=CHUNK_SIZE-1;
+
+	/** Size of the map in tiles. */
+	public final int width,height;
+
+	/** Size of the map in chunks. */
+	final int chunksx,chunksy;
+
+	/* chunk (cy*chunksx+cx) -> tile plane, null = all tiles are fill */
+	int [] [] ids;
+	int [] [] cids;
+
+	/* value of tiles in unallocated chunks */
+	int fillid=0,fillcid=0;
+
+	public TileStore(int width,int height) {
+		this.width=width;
+		this.height=height;
+		chunksx = (width+CHUNK_MASK) >> CHUNK_SHIFT;
+		chunksy = (height+CHUNK_MASK) >> CHUNK_SHIFT;
+		ids = new int [chunksx*chunksy] [];
+		cids = new int [chunksx*chunksy] [];
+	}
+
+	/** Get tile ID of tile (x,y). */
+	public int getId(int x,int y) {
+		int [] chunk = ids[(y>>CHUNK_SHIFT)*chunksx + (x>>CHUNK_SHIFT)];
+		if (chunk==null) return fillid;
+		return chunk[((y&CHUNK_MASK)<<CHUNK_SHIFT) | (x&CHUNK_MASK)];
+	}
+
+	/** Get cid of tile (x,y). */
+	public int getCid(int x,int y) {
+		int [] chunk = cids[(y>>CHUNK_SHIFT)*chunksx + (x>>CHUNK_SHIFT)];
+		if (chunk==null) return fillcid;
+		return chunk[((y&CHUNK_MASK)<<CHUNK_SHIFT) | (x&CHUNK_MASK)];
+	}
+
+	/** Copy the cids of the len tiles (x,y) to (x+len-1,y) into out,
+	 * starting at off.  The tiles are copied a chunk row at a time, and
+	 * the tiles of unallocated chunks are filled with the fill cid. */
+	public void getCidRow(int x,int y,int len,int [] out,int off) {
+		int rowbase = (y>>CHUNK_SHIFT)*chunksx;
+		int rowstart = (y&CHUNK_MASK)<<CHUNK_SHIFT;
+		while (len>0) {
+			int n = Math.min(len, CHUNK_SIZE - (x&CHUNK_MASK));
+			int [] chunk = cids[rowbase + (x>>CHUNK_SHIFT)];
+			if (chunk==null) {
+				for (int i=off; i<off+n; i++) out[i]=fillcid;
+			} else {
+				System.arraycopy(chunk,rowstart|(x&CHUNK_MASK),out,off,n);
+			}
+			x += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/** Set tile ID of tile (x,y), and set its cid to (cid&amp;cid_and) |
+	 * cid_or. */
+	public void set(int x,int y,int id,int cid_and,int cid_or) {
+		int c = (y>>CHUNK_SHIFT)*chunksx + (x>>CHUNK_SHIFT);
+		int i = ((y&CHUNK_MASK)<<CHUNK_SHIFT) | (x&CHUNK_MASK);
+		if (ids[c]==null) {
+			// setting a fill tile to the fill tile leaves the chunk empty
+			if (id==fillid && ((fillcid&cid_and)|cid_or)==fillcid) return;
+			allocChunk(c);
+		}
+		ids[c][i] = id;
+		cids[c][i] = (cids[c][i]&cid_and) | cid_or;
+	}
+
+	/** Set cid of tile (x,y) to (cid&amp;and_mask) | or_mask. */
+	public void setCid(int x,int y,int and_mask,int or_mask) {
+		int c = (y>>CHUNK_SHIFT)*chunksx + (x>>CHUNK_SHIFT);
+		int i = ((y&CHUNK_MASK)<<CHUNK_SHIFT) | (x&CHUNK_MASK);
+		if (cids[c]==null) {
+			if (((fillcid&and_mask)|or_mask)==fillcid) return;
+			allocChunk(c);
+		}
+		cids[c][i] = (cids[c][i]&and_mask) | or_mask;
+	}
+
+	/** Set all tiles to the given ID, and set their cids to
+	 * (cid&amp;cid_and) | cid_or.  Chunks whose cids all become the same
+	 * are freed. */
+	public void fill(int id,int cid_and,int cid_or) {
+		int newfillcid = (fillcid&cid_and) | cid_or;
+		for (int c=0; c<ids.length; c++) {
+			int [] cidchunk = cids[c];
+			if (cidchunk==null) continue;
+			int first = (cidchunk[0]&cid_and) | cid_or;
+			boolean uniform = first==newfillcid;
+			for (int i=0; i<cidchunk.length; i++) {
+				int cid = (cidchunk[i]&cid_and) | cid_or;
+				cidchunk[i] = cid;
+				if (cid!=first) uniform=false;
+			}
+			if (uniform) {
+				ids[c]=null;
+				cids[c]=null;
+			} else {
+				int [] idchunk = ids[c];
+				for (int i=0; i<idchunk.length; i++) idchunk[i]=id;
+			}
+		}
+		fillid = id;
+		fillcid = newfillcid;
+	}
+
+	/** Count the tiles whose cid matches cidmask. */
+	public int count(int cidmask) {
+		int count=0;
+		for (int cy=0; cy<chunksy; cy++) {
+			int ymax = Math.min(CHUNK_SIZE, height - (cy<<CHUNK_SHIFT));
+			for (int cx=0; cx<chunksx; cx++) {
+				int xmax = Math.min(CHUNK_SIZE, width - (cx<<CHUNK_SHIFT));
+				int [] chunk = cids[cy*chunksx+cx];
+				if (chunk==null) {
+					if ((fillcid&cidmask)!=0) count += xmax*ymax;
+					continue;
+				}
+				for (int y=0; y<ymax; y++) {
+					int rowstart = y<<CHUNK_SHIFT;
+					for (int x=0; x<xmax; x++) {
+						if ((chunk[rowstart+x]&cidmask)!=0) count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/** Number of chunks that have been allocated. */
+	public int countChunks() {
+		int count=0;
+		for (int c=0; c<ids.length; c++) if (ids[c]!=null) count++;
+		return count;
+	}
+
+	void allocChunk(int c) {
+		int [] idchunk = new int[CHUNK_SIZE*CHUNK_SIZE];
+		int [] cidchunk = new int[CHUNK_SIZE*CHUNK_SIZE];
+		if (fillid!=0) for (int i=0; i<idchunk.length; i++) idchunk[i]=fillid;
+		if (fillcid!=0) for (int i=0; i<cidchunk.length; i++) cidchunk[i]=fillcid;
+		ids[c]=idchunk;
+		cids[c]=cidchunk;
+	}
+
+}
@@ -0,0 +1,98 @@
+package jgame.platform;
+import jgame.*;
+import jgame.impl.JGameError;
+
+import java.util.*;
+import java.net.*;
+import java.io.*;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+
+/** Image handle used by JGHeadlessEngine.  It only keeps the size of the
+ * image, which is all the engine logic needs for bounding boxes and image
+ * maps.  Images are read with ImageIO, which does not need a display. */
+class HeadlessImage implements JGImage {
+
+	static Hashtable loadedsizes = new Hashtable(); /* filenames => JGPoints */
+
+	int width=0, height=0;
+
+	/** Create handle to image functions. */
+	HeadlessImage () {}
+
+	HeadlessImage (int width,int height) {
+		this.width=width;
+		this.height=height;
+	}
+
+	/** Load image from resource path (using getResource), or else from file
+	 * or URL, like JREImage.  Sizes are cached.
+	* Throws JGError when there was an error. */
+	public JGImage loadImage(String imgfile) {
+		JGPoint size = (JGPoint)loadedsizes.get(imgfile);
+		if (size==null) {
+			URL imgurl = getClass().getResource(imgfile);
+			try {
+				if (imgurl==null) {
+					File imgf = new File(imgfile);
+					if (imgf.canRead()) {
+						imgurl = imgf.toURI().toURL();
+					} else {
+						imgurl = new URL(imgfile);
+					}
+				}
+			} catch (MalformedURLException e) {
+				throw new JGameError(
+					"File not found or malformed path or URL '"+imgfile+"'.",true);
+			}
+			BufferedImage img;
+			try {
+				img = ImageIO.read(imgurl);
+			} catch (IOException e) {
+				throw new JGameError("Error loading image "+imgfile );
+			}
+			if (img==null) throw new JGameError("Error loading image "+imgfile );
+			size = new JGPoint(img.getWidth(),img.getHeight());
+			loadedsizes.put(imgfile,size);
+		}
+		return new HeadlessImage(size.x,size.y);
+	}
+
+	public void purgeImage(String imgfile) {
+		if (loadedsizes.containsKey(imgfile)) loadedsizes.remove(imgfile);
+	}
+
+	public JGPoint getSize() { return new JGPoint(width,height); }
+
+	/** Pixels are not kept, so assume there may be transparent ones. */
+	public boolean isOpaque(int alpha_thresh) { return false; }
+
+	public JGImage rotate(int angle) {
+		if (((angle/90)&1)==1) return new HeadlessImage(height,width);
+		return new HeadlessImage(width,height);
+	}
+
+	/** Same size as JREImage.rotateAny. */
+	public JGImage rotateAny(double angle) {
+		int size = (int)Math.max(Math.max(width,height),0.75*(width+height));
+		return new HeadlessImage(size,size);
+	}
+
+	public JGImage flip(boolean horiz,boolean vert) {
+		return new HeadlessImage(width,height);
+	}
+
+	public JGImage scale(int width, int height) {
+		return new HeadlessImage(width,height);
+	}
+
+	public JGImage crop(int x,int y, int width,int height) {
+		return new HeadlessImage(width,height);
+	}
+
+	public JGImage toDisplayCompatible(int thresh,JGColor bg_col,
+	boolean fast, boolean bitmask) {
+		return this;
+	}
+
+}
@@ -289,6 +289,10 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		return el.getObject(index);
 	}
 
+	public JGObject getObject(int handle) {
+		return el.getObject(handle);
+	}
+
 	public void moveObjects(String prefix, int cidmask) {
 		el.moveObjects(this,prefix, cidmask);
 	}
@@ -301,6 +305,16 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		el.checkCollision(this,srccid,dstcid);
 	}
 
+	public void checkCollisions(int [] [] pairs) {
+		el.checkCollisions(this,pairs);
+	}
+
+	public void setCollisionStrategy(int strategy) {
+		el.setCollisionStrategy(strategy);
+	}
+
+	public int getCollisionStrategy() { return el.collision_strategy; }
+
 	public int checkCollision(int cidmask, JGObject obj) {
 		return el.checkCollision(cidmask,obj);
 	}
@@ -321,6 +335,11 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 			bbox);
 	}
 
+	public int getObjects(String prefix,int cidmask,boolean suspended_obj,
+	JGRectangle bbox, JGObject [] dest) {
+		return el.getObjects(prefix,cidmask,suspended_obj,bbox,dest);
+	}
+
 	public void removeObject(JGObject obj) {
 		el.removeObject(obj);
 	}
@@ -340,11 +359,38 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		return el.countObjects(prefix,cidmask,suspended_obj);
 	}
 
+	public long getWorkCount() {
+		return el.work_count;
+	}
+
 
 	void drawObject(Graphics g, JGObject o) {
+		drawObject(g,o,true);
+	}
+
+	/** Draw object, optionally without its image (when the image was drawn
+	 * from a render snapshot). */
+	void drawObject(Graphics g, JGObject o, boolean draw_image) {
+		// with fixed timestep, the object is drawn (and paints itself) in
+		// between frames.  The update thread is blocked while painting, so
+		// we can move it there temporarily.
+		double ox=o.x, oy=o.y;
+		if (el.fixed_timestep) {
+			o.x = o.getInterpolatedX(el.frame_alpha);
+			o.y = o.getInterpolatedY(el.frame_alpha);
+		}
+		try {
+			drawObjectAt(g,o,draw_image);
+		} finally {
+			o.x=ox;
+			o.y=oy;
+		}
+	}
+
+	private void drawObjectAt(Graphics g, JGObject o, boolean draw_image) {
 		if (!o.is_suspended) {
 			//o.prepareForFrame();
-			drawImage(g,(int)o.x,(int)o.y,o.getImageName(),true);
+			if (draw_image) drawImage(g,(int)o.x,(int)o.y,o.getImageName(),true);
 			try {
 				o.paint();
 			} catch (JGameError ex) {
@@ -395,6 +441,19 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		//o.frameFinished();
 	}
 
+	/** Draw the object images of a render snapshot, interpolated with the
+	 * current frame alpha. */
+	void drawSnapshot(Graphics g, RenderSnapshot snap) {
+		double alpha = el.frame_alpha;
+		for (int i=0; i<snap.size; i++) {
+			JREImage img = (JREImage)snap.image[i];
+			if (img==null) continue;
+			int x = snap.x0[i] + (int)Math.round((snap.x1[i]-snap.x0[i])*alpha);
+			int y = snap.y0[i] + (int)Math.round((snap.y1[i]-snap.y0[i])*alpha);
+			g.drawImage(img.img,x,y,this);
+		}
+	}
+
 
 
 	/*====== BG/tiles ======*/
@@ -683,12 +742,14 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 				buffer=JREImage.createScratchImage(el.width,el.height);
 			}
 			if (buffer!=null && background!=null) {
+				RenderSnapshot snap=null;
+				Graphics bufg;
 				// block update thread
 				synchronized (el.objects) {
 					// paint any part of bg which is not yet defined
 					el.repaintBG(JGEngine.this);
 					/* clear buffer */
-					Graphics bufg = buffer.getGraphics();
+					bufg = buffer.getGraphics();
 					buf_gfx = bufg; // enable objects to draw on buffer gfx.
 					//bufg.setColor(getBackground());
 					//draw background to buffer
@@ -726,16 +787,35 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 					//ArrayList sortedkeys = new ArrayList(el.objects.keySet());
 					//Collections.sort(sortedkeys);
 					//for (Iterator i=sortedkeys.iterator(); i.hasNext(); ) {
-					for (int i=0; i<el.objects.size; i++) {
-						drawObject(bufg, (JGObject)el.objects.values[i]);
+					// objects are drawn in order of name
+					if (el.render_snapshot) snap = el.acquireRenderSnapshot();
+					if (snap==null) {
+						JGObject [] sortedobj = el.objects.getSorted();
+						for (int i=0; i<el.objects.size; i++) {
+							drawObject(bufg, sortedobj[i]);
+						}
+						buf_gfx = null; // we're finished with the object drawing
+						/* draw status */
+						if (bufg!=null) paintFrame(bufg);
+						//}/*synchronized */
+						/* draw buffer */
+						g.drawImage(buffer,0,0,this);
+						//g.setColor(defaultcolour);
+					}
+				}
+				if (snap!=null) {
+					// draw the images without blocking the update thread
+					drawSnapshot(bufg,snap);
+					synchronized (el.objects) {
+						for (int i=0; i<snap.nr_painted; i++) {
+							JGObject o = snap.painted[i];
+							if (o.isAlive()) drawObject(bufg,o,false);
+						}
+						el.releaseRenderSnapshot(snap);
+						buf_gfx = null;
+						paintFrame(bufg);
 					}
-					buf_gfx = null; // we're finished with the object drawing
-					/* draw status */
-					if (bufg!=null) paintFrame(bufg);
-					//}/*synchronized */
-					/* draw buffer */
 					g.drawImage(buffer,0,0,this);
-					//g.setColor(defaultcolour);
 				}
 				// don't block the update thread while waiting for sync
 				Toolkit.getDefaultToolkit().sync();
@@ -1074,6 +1154,12 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 
 	public boolean getVideoSyncedUpdate() { return false; }
 
+	public boolean getFixedTimestep() { return el.fixed_timestep; }
+
+	public double getFrameAlpha() { return el.frame_alpha; }
+
+	public boolean getRenderSnapshot() { return el.render_snapshot; }
+
 	public int getOffscreenMarginX() { return el.offscreen_margin_x; }
 	public int getOffscreenMarginY() { return el.offscreen_margin_y; }
 
@@ -1286,6 +1372,14 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 
 	public void setVideoSyncedUpdate(boolean value) {}
 
+	public void setFixedTimestep(boolean value) {
+		el.setFixedTimestep(value);
+	}
+
+	public void setRenderSnapshot(boolean value) {
+		el.setRenderSnapshot(value);
+	}
+
 	public void setGameSpeed(double gamespeed) {
 		el.setGameSpeed(gamespeed);
 	}
@@ -1400,6 +1494,15 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		return el.inGameStateNextFrame(state);
 	}
 
+	/** Do a frame, update the view offset, and make a render snapshot if
+	 * enabled.  Should be called with the object lock held. */
+	private void updateFrame() {
+		doFrameAll();
+		el.updateViewOffset();
+		if (el.render_snapshot)
+			el.takeRenderSnapshot((debugflags&BBOX_DEBUG)!=0);
+	}
+
 	/** Do some administration, call doFrame. */
 	private void doFrameAll() {
 		jre.audioNewFrame();
@@ -2038,6 +2141,11 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 			canvas.setInitialised();
 			target_time = System.currentTimeMillis()+(long)(1000.0/el.fps);
 			while (!el.is_exited) {
+				if (el.fixed_timestep) {
+					runFixedTimestep();
+					target_time = System.currentTimeMillis()+(long)(1000.0/el.fps);
+					continue;
+				}
 				if ((debugflags&MSGSINPF_DEBUG)!=0) refreshDbgFrameLogs();
 				long cur_time = System.currentTimeMillis();
 				if (!running) {
@@ -2049,8 +2157,7 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 					// we lag behind less than 1/2 frame -> do full frame.
 					// This empirically produces the smoothest animation
 					synchronized (el.objects) {
-						doFrameAll();
-						el.updateViewOffset();
+						updateFrame();
 					}
 					canvas.repaint();
 					frames_skipped=0;
@@ -2079,8 +2186,7 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 				} else {
 					// we lag behind a little -> frame skip
 					synchronized (el.objects) {
-						doFrameAll();
-						el.updateViewOffset();
+						updateFrame();
 					}
 					// if we skip too many frames in succession, draw a frame
 					if ((++frames_skipped) > el.maxframeskip) {
@@ -2102,6 +2208,68 @@ public abstract class JGEngine extends Applet implements JGEngineInterface {
 		} catch (JGameError e) {
 			exitEngine("Error in main:\n"+dbgExceptionToString(e));
 		} }
+
+		/** Game loop used when fixed timestep is enabled.  Returns when it is
+		 * disabled again or the engine exits. */
+		private void runFixedTimestep() throws InterruptedException {
+			long render_interval = getRenderInterval();
+			long last_time = System.nanoTime();
+			long last_paint = last_time-render_interval;
+			long acc=0; /* time not yet simulated */
+			while (!el.is_exited && el.fixed_timestep) {
+				if ((debugflags&MSGSINPF_DEBUG)!=0) refreshDbgFrameLogs();
+				long cur_time = System.nanoTime();
+				if (!running) {
+					// wait in portions of 1/2 sec until running is set
+					Thread.sleep(500);
+					last_time = System.nanoTime();
+					acc=0;
+					continue;
+				}
+				long step = (long)(1000000000.0/el.fps);
+				acc += cur_time-last_time;
+				last_time = cur_time;
+				// catch up, but not more than maxframeskip frames at once
+				int steps=0;
+				while (acc >= step && steps <= el.maxframeskip) {
+					synchronized (el.objects) {
+						updateFrame();
+					}
+					acc -= step;
+					steps++;
+				}
+				// still behind: drop the time we cannot make up
+				if (acc >= step) acc %= step;
+				el.frame_alpha = acc/(double)step;
+				if (steps > 0 || cur_time-last_paint >= render_interval) {
+					canvas.repaint();
+					last_paint = cur_time;
+				}
+				// sleep until the next frame or redraw, whichever is first
+				long wait = Math.min(step-acc,
+						last_paint+render_interval-System.nanoTime());
+				if (wait > 1000000) {
+					Thread.sleep(wait/1000000, (int)(wait%1000000));
+				} else {
+					Thread.yield();
+				}
+			}
+			el.frame_alpha=1.0;
+		}
+
+		/** Time between redraws in ns, according to the display refresh rate.
+		 * Falls back to 60 Hz if it is not known. */
+		private long getRenderInterval() {
+			int rate=0;
+			try {
+				rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+			} catch (Exception e) {
+				/* headless or unsupported, use default */
+			}
+			if (rate<=0) rate=60;
+			return 1000000000L/rate;
+		}
 	}
 
 
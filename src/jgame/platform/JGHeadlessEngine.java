@@ -0,0 +1,1094 @@
+package jgame.platform;
+import jgame.impl.*;
+import jgame.*;
+import java.util.*;
+import java.io.*;
+
+/** Engine without a display, for running games as simulations, for example
+ * in tests or batch runs on machines without a screen.  It implements the
+ * same interface as JGEngine, with the same EngineLogic underneath, so
+ * objects, collisions, tiles, timers and game states behave the same.
+ * Nothing is drawn: there is no canvas, window, image scaling or repaint,
+ * and the drawing methods do nothing.  Images are only read to get their
+ * size, see HeadlessImage.  There is no audio, and the store is kept in
+ * memory only.
+
+ * <p>A headless game is set up like a JGEngine game, with initCanvas(),
+ * initGame(), doFrame() etc., but frames are run by calling runFrames()
+ * (or runFrame()), which runs them one after another as fast as possible
+ * on the calling thread.  initGame() is called before the first frame.
+ * The playfield is always the size of the view, so the display size passed
+ * to initEngine is ignored.  Keys and mouse buttons can be pressed with
+ * setKey() and setMouseButton().  Errors that would exit a JGEngine game
+ * end the run instead; see getExitMessage().
+
+ * <p>Several headless engines can run frames at the same time, each on its
+ * own thread.  Objects should then only be created while frames run (in
+ * initGame(), doFrame() etc.), since that is when new objects are connected
+ * to the engine that is running (see JGObject.setThreadEngine).
+
+ */
+public abstract class JGHeadlessEngine implements JGEngineInterface {
+
+	HeadlessImage imageutil = new HeadlessImage();
+
+	EngineLogic el = new EngineLogic(imageutil,true,true);
+
+	JREEngine jre = new JREEngine(el,this);
+
+	/** Should runFrames run or halt? Set by start() / stop()*/
+	boolean running=true;
+
+	/** true after initGame has been called */
+	boolean game_inited=false;
+
+	/** number of frames run so far */
+	long frames_run=0;
+
+	/** true if this engine was set with JGObject.setEngine */
+	boolean is_default_engine=false;
+
+	int debugflags = 0;
+	static final int BBOX_DEBUG = 1;
+	static final int GAMESTATE_DEBUG = 2;
+	static final int FULLSTACKTRACE_DEBUG = 4;
+	static final int MSGSINPF_DEBUG= 8;
+	private static int dbgframelog_expiry=80;
+	private JGFont debugmessage_font = new JGFont("Arial",0,12);
+	JGColor debug_auxcolor1 = JGColor.green;
+	JGColor debug_auxcolor2 = JGColor.magenta;
+
+	/** Construct engine, but do not initialise it yet.  Call initEngine to
+	* initialise the engine. */
+	public JGHeadlessEngine() {}
+
+	/** Initialise engine: calls initCanvas and sets up the playfield.  The
+	* width and height are ignored, see class description. */
+	public void initEngine(int width,int height) {
+		init();
+	}
+
+	/** Same as initEngine. */
+	public void initEngineComponent(int width,int height) {
+		init();
+	}
+
+	/** Same as initEngine. */
+	public void initEngineApplet() {
+		init();
+	}
+
+	/** Initialise engine; called by initEngine. */
+	public void init() {
+		if (el.is_inited) return;
+		initCanvas();
+		if (!el.view_initialised) {
+			exitEngine("Canvas settings not initialised, use setCanvasSettings().");
+			return;
+		}
+		// the display is the size of the view, so that nothing is scaled
+		el.winwidth = el.viewnrtilesx*el.tilex;
+		el.winheight = el.viewnrtilesy*el.tiley;
+		el.initPF();
+		el.msg_font = new JGFont("Helvetica",0,
+			(int)(16.0/(640.0/(el.tilex * el.nrtilesx))));
+		// Several headless engines may run at once.  Only the first one
+		// becomes the default engine, the objects of the others are connected
+		// to them by setThreadEngine in runFrames.
+		is_default_engine = JGObject.setEngine(this);
+		el.is_inited=true;
+	}
+
+	abstract public void initCanvas();
+
+	abstract public void initGame();
+
+	/** Run a number of frames as fast as possible, calling initGame first
+	 * if it has not been called yet.  Stops early when the engine exits or
+	 * is stopped.  Objects created while the frames run are connected to
+	 * this engine, so several engines can run frames at the same time, each
+	 * on its own thread.
+	 * @return number of frames actually run */
+	public long runFrames(long nr_frames) {
+		if (!el.is_inited || el.is_exited) return 0;
+		JGObject.setThreadEngine(this);
+		try {
+			return runFramesBound(nr_frames);
+		} finally {
+			JGObject.setThreadEngine(null);
+		}
+	}
+
+	private long runFramesBound(long nr_frames) {
+		if (!game_inited) {
+			game_inited=true;
+			try {
+				initGame();
+			} catch (JGameError e) {
+				exitEngine("Error in initGame():\n"+dbgExceptionToString(e));
+				return 0;
+			} catch (Exception e) {
+				exitEngine("Exception during initGame(): "+e);
+				return 0;
+			}
+		}
+		long n=0;
+		while (n < nr_frames && running && !el.is_exited) {
+			doFrameAll();
+			el.updateViewOffset();
+			n++;
+		}
+		frames_run += n;
+		return n;
+	}
+
+	/** Run one frame.
+	 * @return  false if the engine has exited or is stopped */
+	public boolean runFrame() { return runFrames(1)==1; }
+
+	/** Number of frames run so far. */
+	public long getFramesRun() { return frames_run; }
+
+	/** Message given when the engine exited, null if it has not exited. */
+	public String getExitMessage() {
+		return el.is_exited ? el.exit_message : null;
+	}
+
+	/** Do some administration, call doFrame. */
+	private void doFrameAll() {
+		// the first flush is needed to remove any objects that were created
+		// in the main routine after the last moveObjects or checkCollision
+		el.flushRemoveList();
+		el.flushAddList();
+		// tick timers before doing state transitions, because timers may
+		// initiate new transitions.
+		el.tickTimers();
+		el.flushRemoveList();
+		el.flushAddList();
+		// the game state transition starts here
+		el.gamestate = el.gamestate_nextframe;
+		el.gamestate_nextframe = new Vector(10,20);
+		el.gamestate_nextframe.addAll(el.gamestate);
+		// we assume that state transitions will not initiate new state
+		// transitions!
+		invokeGameStateMethods("start",el.gamestate_new);
+		el.gamestate_new.clear();
+		el.flushRemoveList();
+		el.flushAddList();
+		try {
+			doFrame();
+		} catch (JGameError ex) {
+			exitEngine(dbgExceptionToString(ex));
+		} catch (Exception ex) {
+			dbgShowException("MAIN",ex);
+		}
+		invokeGameStateMethods("doFrame",el.gamestate);
+		el.frameFinished();
+	}
+
+	private void invokeGameStateMethods(String prefix,Vector states) {
+		for (Enumeration e=states.elements(); e.hasMoreElements(); ) {
+			String state = (String) e.nextElement();
+			jre.tryMethod(this,prefix+state,new Object[]{});
+		}
+	}
+
+	public void doFrame() {}
+
+	public void exitEngine(String msg) {
+		if (msg!=null) {
+			System.err.println(msg);
+			el.exit_message=msg;
+		}
+		System.err.println("Exiting JGEngine.");
+		destroy();
+	}
+
+	public void destroy() {
+		el.is_exited=true;
+		if (el.is_inited && is_default_engine) {
+			JGObject.setEngine(null);
+			is_default_engine=false;
+		}
+	}
+
+	/** Prints the message to standard output; there is no playfield to
+	 * show it in. */
+	public void dbgPrint(String source,String msg) {
+		System.out.println(source+": "+msg);
+	}
+
+	public JGImage getImage(String imgname) {
+		return el.getImage(imgname);
+	}
+
+	public JGPoint getImageSize(String imgname) {
+		return el.getImageSize(imgname);
+	}
+
+	public void defineImage(String name, String tilename, int collisionid,
+	String imgfile, String img_op,
+	int top,int left, int width,int height) {
+		el.defineImage(this,name,tilename,collisionid,imgfile,img_op,
+			top,left, width,height);
+	}
+
+	public void defineImage(String imgname, String tilename, int collisionid,
+	String imgfile, String img_op) {
+		el.defineImage(this,imgname,tilename,collisionid,imgfile, img_op);
+	}
+
+	public void defineImage(String imgname, String tilename, int collisionid,
+	String imgmap, int mapidx, String img_op,
+	int top,int left, int width,int height) {
+		el.defineImage(imgname,tilename,collisionid,  imgmap, mapidx,
+			img_op, top,left,width,height );
+	}
+
+	public void defineImage(String imgname, String tilename, int collisionid,
+	String imgmap, int mapidx, String img_op) {
+		el.defineImage(imgname,tilename,collisionid, imgmap, mapidx, img_op);
+	}
+
+	public void defineImageRotated(String name, String tilename,
+	int collisionid, String srcname, double angle) {
+		el.defineImageRotated(this,name,tilename,collisionid, srcname, angle);
+	}
+
+	public void defineImageMap(String mapname, String imgfile,
+	int xofs,int yofs, int tilex,int tiley, int skipx,int skipy) {
+		el.defineImageMap(this,mapname,imgfile, xofs,yofs, tilex,tiley,
+			skipx,skipy);
+	}
+
+	public JGRectangle getImageBBox(String imgname) {
+		return el.getImageBBox(imgname);
+	}
+
+	public void defineMedia(String filename) {
+		el.defineMedia(this,filename);
+	}
+
+	public void markAddObject(JGObject obj) {
+		el.markAddObject(obj);
+	}
+
+	public boolean existsObject(String index) {
+		return el.existsObject(index);
+	}
+
+	public JGObject getObject(String index) {
+		return el.getObject(index);
+	}
+
+	public JGObject getObject(int handle) {
+		return el.getObject(handle);
+	}
+
+	public void moveObjects(String prefix, int cidmask) {
+		el.moveObjects(this,prefix, cidmask);
+	}
+
+	public void moveObjects() {
+		el.moveObjects(this);
+	}
+
+	public void checkCollision(int srccid,int dstcid) {
+		el.checkCollision(this,srccid,dstcid);
+	}
+
+	public void checkCollisions(int [] [] pairs) {
+		el.checkCollisions(this,pairs);
+	}
+
+	public void setCollisionStrategy(int strategy) {
+		el.setCollisionStrategy(strategy);
+	}
+
+	public int getCollisionStrategy() { return el.collision_strategy; }
+
+	public int checkCollision(int cidmask, JGObject obj) {
+		return el.checkCollision(cidmask,obj);
+	}
+
+	public int checkBGCollision(JGRectangle r) {
+		return el.checkBGCollision(r);
+	}
+
+	public void checkBGCollision(int tilecid,int objcid) {
+		el.checkBGCollision(this,tilecid,objcid);
+	}
+
+	public Vector getObjects(String prefix,int cidmask,boolean suspended_obj,
+	JGRectangle bbox) {
+		return el.getObjects(prefix,cidmask,suspended_obj,
+			bbox);
+	}
+
+	public int getObjects(String prefix,int cidmask,boolean suspended_obj,
+	JGRectangle bbox, JGObject [] dest) {
+		return el.getObjects(prefix,cidmask,suspended_obj,bbox,dest);
+	}
+
+	public void removeObject(JGObject obj) {
+		el.removeObject(obj);
+	}
+
+	public void removeObjects(String prefix,int cidmask) {
+		el.removeObjects(prefix,cidmask);
+	}
+
+	public void removeObjects(String prefix,int cidmask,boolean suspended_obj) {
+		el.removeObjects(prefix,cidmask,suspended_obj);
+	}
+
+	public int countObjects(String prefix,int cidmask) {
+		return el.countObjects(prefix,cidmask);
+	}
+
+	public int countObjects(String prefix,int cidmask,boolean suspended_obj) {
+		return el.countObjects(prefix,cidmask,suspended_obj);
+	}
+
+	public long getWorkCount() {
+		return el.work_count;
+	}
+
+	public void setBGImage(String bgimg) {
+		el.setBGImage(bgimg,0,true,true);
+	}
+
+	public void setBGImage(int depth, String bgimg,boolean wrapx,boolean wrapy){
+		el.setBGImage(bgimg,depth,wrapx,wrapy);
+	}
+
+	public void setTileSettings(String out_of_bounds_tile,
+	int out_of_bounds_cid,int preserve_cids) {
+		el.setTileSettings(out_of_bounds_tile,out_of_bounds_cid,preserve_cids);
+	}
+
+	public void fillBG(String filltile) {
+		el.fillBG(filltile);
+	}
+
+	public void setTileCid(int x,int y,int and_mask,int or_mask) {
+		el.setTileCid(x,y,and_mask,or_mask);
+	}
+
+	public void setTile(int x,int y,String tilestr) {
+		el.setTile(x,y,tilestr);
+	}
+
+	public void drawTile(int xi,int yi,int tileid) { }
+
+	public int countTiles(int tilecidmask) {
+		return el.countTiles(tilecidmask);
+	}
+
+	public int getTileCid(int xidx,int yidx) {
+		return el.getTileCid(xidx,yidx);
+	}
+
+	public String getTileStr(int xidx,int yidx) {
+		return el.getTileStr(xidx,yidx);
+	}
+
+	public int getTileCid(JGRectangle tiler) {
+		return el.getTileCid(tiler);
+	}
+
+	public JGRectangle getTiles(JGRectangle r) {
+		return el.getTiles(r);
+	}
+
+	public boolean getTiles(JGRectangle dest,JGRectangle r) {
+		return el.getTiles(dest,r);
+	}
+
+	public void setTileCid(int x,int y,int value) {
+		el.setTileCid(x,y,value);
+	}
+
+	public void orTileCid(int x,int y,int or_mask) {
+		el.orTileCid(x,y,or_mask);
+	}
+
+	public void andTileCid(int x,int y,int and_mask) {
+		el.andTileCid(x,y,and_mask);
+	}
+
+	public void setTile(JGPoint tileidx,String tilename) {
+		el.setTile(tileidx,tilename);
+	}
+
+	public void setTiles(int xofs,int yofs,String [] tilemap) {
+		el.setTiles(xofs,yofs,tilemap);
+	}
+
+	public void setTilesMulti(int xofs,int yofs,String [] tilemap) {
+		el.setTilesMulti(xofs,yofs,tilemap);
+	}
+
+	public int getTileCidAtCoord(double x,double y) {
+		return el.getTileCidAtCoord(x,y);
+	}
+
+	public int getTileCid(JGPoint center, int xofs, int yofs) {
+		return el.getTileCid(center, xofs, yofs);
+	}
+
+	public String getTileStrAtCoord(double x,double y) {
+		return el.getTileStrAtCoord(x,y);
+	}
+
+	public String getTileStr(JGPoint center, int xofs, int yofs) {
+		return el.getTileStr(center, xofs,yofs);
+	}
+
+	public int tileStrToID(String tilestr) {
+		return el.tileStrToID(tilestr);
+	}
+
+	public String tileIDToStr(int tileid) {
+		return el.tileIDToStr(tileid);
+	}
+
+	public double moduloXPos(double x) {
+		return el.moduloXPos(x);
+	}
+
+	public double moduloYPos(double y) {
+		return el.moduloYPos(y);
+	}
+
+	public void setProgressBar(double pos) { }
+
+	public void setProgressMessage(String msg) { }
+
+	public void setAuthorMessage(String msg) { }
+
+	public void dbgShowBoundingBox(boolean enabled) {
+		if (enabled) debugflags |=  BBOX_DEBUG;
+		else         debugflags &= ~BBOX_DEBUG;
+	}
+
+	public void dbgShowGameState(boolean enabled) {
+		if (enabled) debugflags |=  GAMESTATE_DEBUG;
+		else         debugflags &= ~GAMESTATE_DEBUG;
+	}
+
+	public void dbgShowFullStackTrace(boolean enabled) {
+		if (enabled) debugflags |=  FULLSTACKTRACE_DEBUG;
+		else         debugflags &= ~FULLSTACKTRACE_DEBUG;
+	}
+
+	public void dbgShowMessagesInPf(boolean enabled) {
+		if (enabled) debugflags |=  MSGSINPF_DEBUG;
+		else         debugflags &= ~MSGSINPF_DEBUG;
+	}
+
+	public void dbgSetMessageExpiry(int ticks) {dbgframelog_expiry = ticks;}
+
+	public void dbgSetMessageFont(JGFont font) { debugmessage_font=font; }
+
+	public void dbgSetDebugColor1(JGColor col) { debug_auxcolor1=col; }
+
+	public void dbgSetDebugColor2(JGColor col) { debug_auxcolor2=col; }
+
+	public void dbgPrint(String msg) { dbgPrint("MAIN",msg); }
+
+	public void dbgShowException(String source, Throwable e) {
+		ByteArrayOutputStream st = new ByteArrayOutputStream();
+		e.printStackTrace(new PrintStream(st));
+		if ((debugflags&FULLSTACKTRACE_DEBUG)!=0) {
+			dbgPrint(source,st.toString());
+		} else {
+			StringTokenizer toker = new StringTokenizer(st.toString(),"\n");
+			if (toker.hasMoreTokens())
+				dbgPrint(source,toker.nextToken());
+			if (toker.hasMoreTokens())
+				dbgPrint(source,toker.nextToken());
+			if (toker.hasMoreTokens())
+				dbgPrint(source,toker.nextToken());
+		}
+	}
+
+	public String dbgExceptionToString(Throwable e) {
+		ByteArrayOutputStream st = new ByteArrayOutputStream();
+		e.printStackTrace(new PrintStream(st));
+		if ((debugflags&FULLSTACKTRACE_DEBUG)!=0) {
+			return st.toString();
+		} else {
+			StringTokenizer toker = new StringTokenizer(st.toString(),"\n");
+			String ret = toker.nextToken()+"\n";
+			ret       += toker.nextToken()+"\n";
+			if (toker.hasMoreTokens())
+				ret   += toker.nextToken();
+			return ret;
+		}
+	}
+
+	public void setCanvasSettings(int nrtilesx,int nrtilesy,int tilex,int tiley,
+	JGColor fgcolor, JGColor bgcolor, JGFont msgfont) {
+		el.nrtilesx=nrtilesx;
+		el.nrtilesy=nrtilesy;
+		el.viewnrtilesx=nrtilesx;
+		el.viewnrtilesy=nrtilesy;
+		el.tilex=tilex;
+		el.tiley=tiley;
+		setColorsFont(fgcolor,bgcolor,msgfont);
+		el.view_initialised=true;
+	}
+
+	public void setScalingPreferences(double min_aspect_ratio, double
+	max_aspect_ratio,int crop_top,int crop_left,int crop_bottom,int crop_right){
+		el.min_aspect = min_aspect_ratio;
+		el.max_aspect = max_aspect_ratio;
+		el.crop_top = crop_top;
+		el.crop_left= crop_left;
+		el.crop_bottom = crop_bottom;
+		el.crop_right = crop_right;
+	}
+
+	public void setSmoothing(boolean smooth_magnify) {
+		el.smooth_magnify = smooth_magnify;
+	}
+
+	public void requestGameFocus() { }
+
+	public boolean isApplet() { return false; }
+
+	public boolean isMidlet() { return false; }
+
+	public boolean isOpenGL() { return false; }
+
+	public boolean isAndroid() { return false; }
+
+	public int viewWidth() { return el.viewnrtilesx*el.tilex; }
+
+	public int viewHeight() { return el.viewnrtilesy*el.tiley; }
+
+	public int viewTilesX() { return el.viewnrtilesx; }
+
+	public int viewTilesY() { return el.viewnrtilesy; }
+
+	public int viewXOfs() { return el.pendingxofs; }
+
+	public int viewYOfs() { return el.pendingyofs; }
+
+	public int pfWidth() { return el.nrtilesx*el.tilex; }
+
+	public int pfHeight() { return el.nrtilesy*el.tiley; }
+
+	public int pfTilesX() { return el.nrtilesx; }
+
+	public int pfTilesY() { return el.nrtilesy; }
+
+	public boolean pfWrapX() { return el.pf_wrapx; }
+
+	public boolean pfWrapY() { return el.pf_wrapy; }
+
+	public int tileWidth()  { return el.tilex; }
+
+	public int tileHeight() { return el.tiley; }
+
+	public int displayWidth() { return el.winwidth; }
+
+	public int displayHeight() { return el.winheight; }
+
+	public double getFrameRate() { return el.fps; }
+
+	public double getGameSpeed() { return el.gamespeed; }
+
+	public double getFrameSkip() { return el.maxframeskip; }
+
+	public boolean getVideoSyncedUpdate() { return false; }
+
+	public boolean getFixedTimestep() { return el.fixed_timestep; }
+
+	public double getFrameAlpha() { return el.frame_alpha; }
+
+	public boolean getRenderSnapshot() { return el.render_snapshot; }
+
+	public int getOffscreenMarginX() { return el.offscreen_margin_x; }
+
+	public int getOffscreenMarginY() { return el.offscreen_margin_y; }
+
+	public double getXScaleFactor() { return el.x_scale_fac; }
+
+	public double getYScaleFactor() { return el.y_scale_fac; }
+
+	public double getMinScaleFactor() { return el.min_scale_fac; }
+
+	public void start() { running=true; }
+
+	public void stop() { running=false; }
+
+	public void startApp() {
+		if (!el.is_inited) {
+			init();
+		} else {
+			start();
+		}
+	}
+
+	public void pauseApp() { stop(); }
+
+	public void destroyApp(boolean unconditional) { destroy(); }
+
+	public boolean isRunning() { return running; }
+
+	public void wakeUpOnKey(int key) { jre.wakeUpOnKey(key); }
+
+	public void setViewOffset(int xofs,int yofs,boolean centered) {
+		el.setViewOffset(xofs,yofs,centered);
+	}
+
+	public void setBGImgOffset(int depth, double xofs, double yofs,
+	boolean centered) { }
+
+	public void setViewZoomRotate(double zoom, double rotate) { }
+
+	public void setPFSize(int nrtilesx,int nrtilesy) {
+		el.setPFSize(nrtilesx,nrtilesy);
+	}
+
+	public void setPFWrap(boolean wrapx,boolean wrapy,int shiftx,int shifty) {
+		el.setPFWrap(wrapx,wrapy,shiftx,shifty);
+	}
+
+	public void setFrameRate(double fps, double maxframeskip) {
+		el.setFrameRate(fps, maxframeskip);
+	}
+
+	public void setVideoSyncedUpdate(boolean value) {}
+
+	public void setFixedTimestep(boolean value) {
+		el.setFixedTimestep(value);
+	}
+
+	public void setRenderSnapshot(boolean value) {
+		el.setRenderSnapshot(value);
+	}
+
+	public void setGameSpeed(double gamespeed) {
+		el.setGameSpeed(gamespeed);
+	}
+
+	public void setRenderSettings(int alpha_thresh,JGColor render_bg_col) {
+		el.setRenderSettings(alpha_thresh,render_bg_col);
+	}
+
+	public void setOffscreenMargin(int xmargin,int ymargin) {
+		el.setOffscreenMargin(xmargin,ymargin);
+	}
+
+	public void setBGColor(JGColor bgcolor) {
+		el.bg_color=bgcolor;
+	}
+
+	public void setFGColor(JGColor fgcolor) { el.fg_color=fgcolor;  }
+
+	public void setMsgFont(JGFont msgfont) { el.msg_font = msgfont; }
+
+	public void setColorsFont(JGColor fgcolor,JGColor bgcolor,JGFont msgfont) {
+		if (msgfont!=null) el.msg_font = msgfont;
+		if (fgcolor!=null) el.fg_color = fgcolor;
+		if (bgcolor!=null) setBGColor(bgcolor);
+	}
+
+	public void setTextOutline(int thickness,JGColor colour) {
+		// curiously, I've seen the init screen draw in-between these two
+		// statements.  Check of if that's what really happened
+		el.outline_colour=colour;
+		el.outline_thickness=thickness;
+	}
+
+	public void setMouseCursor(int cursor) { }
+
+	public void setMouseCursor(Object cursor) { }
+
+	public void removeAllTimers() {
+		el.removeAllTimers();
+	}
+
+	public void registerTimer(JGTimer timer) {
+		el.registerTimer(timer);
+	}
+
+	public void setGameState(String state) {
+		el.setGameState(state);
+	}
+
+	public void addGameState(String state) {
+		el.addGameState(state);
+	}
+
+	public void removeGameState(String state) {
+		el.removeGameState(state);
+	}
+
+	public void clearGameState() {
+		el.clearGameState();
+	}
+
+	public boolean inGameState(String state) {
+		return el.inGameState(state);
+	}
+
+	public boolean inGameStateNextFrame(String state) {
+		return el.inGameStateNextFrame(state);
+	}
+
+	public void paintFrame() {}
+
+	public void setColor(JGColor col) { }
+
+	public void setFont(JGFont font) { }
+
+	public void setStroke(double thickness) { }
+
+	public void setBlendMode(int src_func, int dst_func) { }
+
+	public double getFontHeight(JGFont jgfont) { return 0.0; }
+
+	public void drawLine(double x1,double y1,double x2,double y2,
+	double thickness, JGColor color) {
+		if (color!=null) setColor(color);
+		setStroke(thickness);
+		drawLine(x1,y1,x2,y2,true);
+	}
+
+	public void drawLine(double x1,double y1,double x2,double y2) {
+		drawLine(x1,y1,x2,y2,true);
+	}
+
+	public void drawLine(double x1,double y1,double x2,double y2,
+	boolean pf_relative) { }
+
+	public void drawPolygon(double [] x,double [] y, JGColor [] col,int len,
+	boolean filled, boolean pf_relative) { }
+
+	public void drawRect(double x,double y,double width,double height, boolean filled,
+	boolean centered, double thickness, JGColor color) {
+		if (color!=null) setColor(color);
+		setStroke(thickness);
+		drawRect(x,y,width,height,filled,centered,true);
+	}
+
+	public void drawRect(double x,double y,double width,double height, boolean filled,
+	boolean centered) {
+		drawRect(x,y,width,height,filled,centered,true);
+	}
+
+	public void drawRect(double x,double y,double width,double height, boolean filled,
+	boolean centered, boolean pf_relative) { }
+
+	public void drawRect(double x,double y,double width,double height,
+	boolean filled, boolean centered,boolean pf_relative,
+	JGColor [] shadecol) { }
+
+	public void drawRect(double x,double y,double width,double height,
+	boolean filled, boolean centered,boolean pf_relative,
+	JGColor [] shadecol,String tileimage) { }
+
+	public void drawOval(double x,double y,double width,double height, boolean filled,
+	boolean centered, double thickness, JGColor color) {
+		if (color!=null) setColor(color);
+		setStroke(thickness);
+		drawOval(x,y,width,height,filled,centered,true);
+	}
+
+	public void drawOval(double x,double y, double width,double height,boolean filled,
+	boolean centered) {
+		drawOval(x,y,width,height,filled,centered,true);
+	}
+
+	public void drawOval(double x,double y, double width,double height,boolean filled,
+	boolean centered, boolean pf_relative) { }
+
+	public void drawImage(double x,double y,String imgname) { }
+
+	public void drawImage(double x,double y,String imgname,boolean pf_relative) { }
+
+	public void drawImage(double x,double y,String imgname, JGColor blend_col,
+	double alpha, double rot, double scale, boolean pf_relative) { }
+
+	public void drawImage(String imgname,double x,double y) {
+		drawImage(x,y,imgname);
+	}
+
+	public void drawImage(String imgname,double x,double y,boolean pf_relative){
+		drawImage(x,y,imgname,pf_relative);
+	}
+
+	public void drawImage(String imgname, double x,double y,
+	boolean pf_relative,JGColor blend_col,
+	double alpha, double rot, double scale) {
+		drawImage(x,y,imgname,blend_col,alpha,rot,scale,pf_relative);
+	}
+
+	public void drawString(String str, double x, double y, int align,
+	JGFont font, JGColor color) { }
+
+	public void drawString(String str, double x, double y, int align) { }
+
+	public void drawString(String str, double x, double y, int align,
+	boolean pf_relative) { }
+
+	public void drawImageString(String string, double x, double y, int align,
+	String imgmap, int char_offset, int spacing) {
+		el.drawImageString(this,string,x,y,align,imgmap,char_offset,spacing,false);
+	}
+
+	public void drawImageString(String string, double x, double y, int align,
+	String imgmap, int char_offset, int spacing,boolean pf_relative) { }
+
+	public JGPoint getMousePos() { return new JGPoint(jre.mousepos.x,jre.mousepos.y); }
+
+	public int getMouseX() { return jre.mousepos.x; }
+
+	public int getMouseY() { return jre.mousepos.y; }
+
+	public boolean getMouseButton(int nr) { return jre.mousebutton[nr]; }
+
+	public void clearMouseButton(int nr) { jre.mousebutton[nr]=false; }
+
+	public void setMouseButton(int nr) { jre.mousebutton[nr]=true; }
+
+	public boolean getMouseInside() { return jre.mouseinside; }
+
+	public boolean getKey(int key) { return jre.keymap[key]; }
+
+	public void clearKey(int key) { jre.keymap[key]=false; }
+
+	public void setKey(int key) { jre.keymap[key]=true; }
+
+	public int getLastKey() { return jre.lastkey; }
+
+	public char getLastKeyChar() { return jre.lastkeychar; }
+
+	public void clearLastKey() { jre.clearLastKey(); }
+
+	public String getKeyDesc(int key) { return JREEngine.getKeyDescStatic(key); }
+
+	public int getKeyCode(String keydesc) { return JREEngine.getKeyCodeStatic(keydesc); }
+
+	public boolean hasAccelerometer() { return false; }
+
+	public double getAccelX() {
+		return 0;
+	}
+
+	public double getAccelY() {
+		return 0;
+	}
+
+	public double getAccelZ() {
+		return 1;
+	}
+
+	public double [] getAccelVec() {
+		return new double[] { 0,0,1 };
+	}
+
+	public void defineAnimation (String id,
+	String [] frames, double speed) {
+		el.defineAnimation(id,frames,speed);
+	}
+
+	public void defineAnimation (String id,
+	String [] frames, double speed, boolean pingpong) {
+		el.defineAnimation(id,frames, speed, pingpong);
+	}
+
+	public Animation getAnimation(String id) {
+		return el.getAnimation(id);
+	}
+
+	public String getConfigPath(String filename) {
+		if (isApplet()) return null;
+		File jgamedir;
+		try {
+			jgamedir = new File(System.getProperty("user.home"), ".jgame");
+		} catch (Exception e) {
+			// probably AccessControlException of unsigned webstart
+			return null;
+		}
+		if (!jgamedir.exists()) {
+			// try to create ".jgame"
+			if (!jgamedir.mkdir()) {
+				// fail
+				return null;
+			}
+		}
+		if (!jgamedir.isDirectory()) return null;
+		File file = new File(jgamedir,filename);
+		// try to create file if it didn't exist
+		try {
+			file.createNewFile();
+		} catch (IOException e) {
+			return null;
+		}
+		if (!file.canRead()) return null;
+		if (!file.canWrite()) return null;
+		try {
+			return file.getCanonicalPath();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	public int invokeUrl(String url,String target) { return 0; }
+
+	public boolean and(int value, int mask) {
+		return el.and(value, mask);
+	}
+
+	public double random(double min, double max) {
+		return el.random(min, max);
+	}
+
+	public double random(double min, double max, double interval) {
+		return el.random(min, max, interval);
+	}
+
+	public int random(int min, int max, int interval) {
+		return el.random(min, max, interval);
+	}
+
+	public double atan2(double y,double x) {
+		return Math.atan2(y,x);
+	}
+
+	public JGPoint getTileIndex(double x, double y) {
+		return el.getTileIndex(x, y);
+	}
+
+	public JGPoint getTileCoord(int tilex, int tiley) {
+		return el.getTileCoord(tilex, tiley);
+	}
+
+	public JGPoint getTileCoord(JGPoint tileidx) {
+		return el.getTileCoord(tileidx);
+	}
+
+	public double snapToGridX(double x, double gridsnapx) {
+		return el.snapToGridX(x, gridsnapx);
+	}
+
+	public double snapToGridY(double y, double gridsnapy) {
+		return el.snapToGridY(y, gridsnapy);
+	}
+
+	public void snapToGrid(JGPoint p,int gridsnapx,int gridsnapy) {
+		el.snapToGrid(p,gridsnapx,gridsnapy);
+	}
+
+	public boolean isXAligned(double x,double margin) {
+		return el.isXAligned(x,margin);
+	}
+
+	public boolean isYAligned(double y,double margin) {
+		return el.isYAligned(y,margin);
+	}
+
+	public double getXAlignOfs(double x) {
+		return el.getXAlignOfs(x);
+	}
+
+	public double getYAlignOfs(double y) {
+		return el.getYAlignOfs(y);
+	}
+
+	public double getXDist(double x1, double x2) {
+		return el.getXDist(x1, x2);
+	}
+
+	public double getYDist(double y1, double y2) {
+		return el.getYDist(y1, y2);
+	}
+
+	public void enableAudio() { }
+
+	public void disableAudio() { jre.disableAudio(); }
+
+	public void defineAudioClip(String clipid,String filename) {
+		el.defineAudioClip(this,clipid,filename);
+	}
+
+	public String lastPlayedAudio(String channel) { return jre.lastPlayedAudio(channel); }
+
+	public void playAudio(String clipid) { }
+
+	public void playAudio(String channel,String clipid,boolean loop) { }
+
+	public void stopAudio(String channel) { jre.stopAudio(channel); }
+
+	public void stopAudio() { jre.stopAudio(); }
+
+	public void storeWriteInt(String id,int value) {
+		jre.storeWriteInt(id,value);
+	}
+
+	public void storeWriteDouble(String id,double value) {
+		jre.storeWriteDouble(id,value);
+	}
+
+	public void storeWriteString(String id,String value) {
+		jre.storeWriteString(id,value);
+	}
+
+	public void storeRemove(String id) {
+		jre.storeRemove(id);
+	}
+
+	public boolean storeExists(String id) {
+		return jre.storeExists(id);
+	}
+
+	public int storeReadInt(String id,int undef) {
+		return jre.storeReadInt(id,undef);
+	}
+
+	public double storeReadDouble(String id,double undef) {
+		return jre.storeReadDouble(id,undef);
+	}
+
+	public String storeReadString(String id,String undef) {
+		return jre.storeReadString(id,undef);
+	}
+
+	public void optsAddTitle(String title) {
+		jre.optsAddTitle(title);
+	}
+
+	public void optsAddNumber(String varname,String title,String desc,
+	int decimals, double lower,double upper,double step, double initial) {
+		jre.optsAddNumber(varname,title,desc,decimals,lower,upper,step,initial);
+	}
+
+	public void optsAddBoolean(String varname,String title,String desc,
+	boolean initial) {
+		jre.optsAddBoolean(varname,title,desc,initial);
+	}
+
+	public void optsAddEnum(String varname,String title,String desc,
+	String [] values, int initial) {
+		jre.optsAddEnum(varname,title,desc,values,initial);
+	}
+
+	public void optsAddKey(String varname,String title,String desc,int initial){
+		jre.optsAddKey(varname,title,desc,initial);
+	}
+
+	public void optsAddString(String varname,String title,String desc,
+	int maxlen, boolean isPassword, String initial) {
+		jre.optsAddString(varname,title,desc,maxlen,isPassword,initial);
+	}
+
+	public void optsClear() {
+		jre.optsClear();
+	}
+
+}
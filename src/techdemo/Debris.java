@@ -3,13 +3,18 @@ package techdemo;
 /* 
  * The Debris object is a good example of a Particle because it is a temporary object used for 
  * special effect. Object is spawned when things fall apart or walls are hit by fast objects. 
+ * Because a lot of Debris is created, Debris objects are kept in an ObjectPool when they are 
+ * removed and used again by obtain(), instead of creating new ones. 
  */
 
+import gameframe.rbs.ObjectPool;
 import gameframe.rbs.Particle;
 import gameframe.vecmath.Vec2D;
 
 public class Debris extends Particle 
 {
+	private static ObjectPool<Debris> pool = new ObjectPool<Debris>(128); // Removed Debris objects.
+	
 	// Constructor sets initial position and velocity. 
 	public Debris(double x, double y, Vec2D vel)
 	{
@@ -34,4 +39,23 @@ public class Debris extends Particle
 				180	  // Number of frames until particle must be removed from game. 
 				);
 	}
+	
+	// Creates Debris at the given position with a copy of the given velocity, using a removed 
+	// Debris object if there is one. 
+	public static Debris obtain(double x, double y, Vec2D vel)
+	{
+		Debris debris = pool.obtain();
+		
+		if(debris == null)
+		{
+			Vec2D copy = new Vec2D(); // The new Debris keeps the Vec2D it is given.
+			copy.set(vel);
+			debris = new Debris(x, y, copy);
+			debris.setPool(pool);
+		}
+		else
+			debris.reuse(x, y, 4, "debris", vel, expire_off_view, GF_Tech_Demo.getCurrFrame(), 180);
+		
+		return debris;
+	}
 }
@@ -11,6 +11,8 @@ import gameframe.vecmath.Vec2D;
 
 public class Diamond extends Actor 
 {
+	private static Vec2D debrisVel = new Vec2D(); // Velocity of new Debris (copied by Debris).
+	
 	// Constructor sets initial position, velocity, and requires a reference to the ActorManager that
 	// created it. 
 	public Diamond(double x, double y, Vec2D vel, DiamondManager manager)
@@ -66,7 +68,8 @@ public class Diamond extends Actor
 			setImage("diamond_dead"); // Change to wreckage sprite.
 			gravitate = true; // Become affected by gravity.e
 			mass = 3.0;		  // Lose mass.
-			new Explosion(x, y); // Create explosion particle effect. 
+			Explosion.obtain(x, y); // Create explosion particle effect. 
+			GF_Tech_Demo.sparks.burst(x + 8.0, y + 8.0, 48, 0.5, 2.0, 30); // And a shower of sparks.
 		}
 		
 		super.setState(newState); // Don't forget to call the super at the end, as is convention. 
@@ -78,8 +81,10 @@ public class Diamond extends Actor
 	public void destruction()
 	{
 		// Create two new debris obejcts.
-		new Debris(x + 7.0, y + 7.0, new Vec2D(0.0, 0.25));
-		new Debris(x + 7.0, y + 7.0, new Vec2D(180.0, 0.25));
+		debrisVel.setVec(0.0, 0.25);
+		Debris.obtain(x + 7.0, y + 7.0, debrisVel);
+		debrisVel.setVec(180.0, 0.25);
+		Debris.obtain(x + 7.0, y + 7.0, debrisVel);
 		
 		GF_Tech_Demo.score += 50; // Add to player's score. 
 		
@@ -34,7 +34,7 @@ public class DiamondManager extends ActorManager
 			// objects created is lower than the maximum population and the number of Actor objects
 			// is lower than max actors, then create a new Diamond object.
 			if(elapsed()%spawnInstruct[0] == 0 && list.size() < maxPop 
-				&& Actor.getCount() < Actor.maxActors)
+				&& Actor.getCount() < GameContext.current().maxActors)
 			{
 				// Create a new Diamond object with a random initial velocity somewhere between
 				// facing down and facing left. 
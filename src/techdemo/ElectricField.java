@@ -9,18 +9,33 @@ package techdemo;
 import gameframe.forcefields.ForceField;
 import gameframe.rbs.Actor;
 import gameframe.rbs.RBObject;
-import gameframe.vecmath.Coord;
 import gameframe.vecmath.Vec2D;
+import jgame.JGRectangle;
 
 public class ElectricField extends ForceField 
 {
 	private Actor source; // Actor that the field is associated with. 
+	private double sourceX, sourceY; // Centre of the source, set by updateSource(). 
 	
 	public ElectricField(Actor sourceActor) 
 	{
 		super("electrodeFF"); // Constructor uses the String "electrodeFF" as the group for all
 							  // electric fields. 
 		source = sourceActor;
+		updateSource();
+	}
+	
+	// Remembers where the centre of the source is. The source calls this in routine(), on the game
+	// thread and before the forces of the frame are calculated. inField() and calcForce() may then
+	// run on several threads at once (see GameFrame.setParallelForces()), so they only read 
+	// sourceX and sourceY instead of calling getBBoxConst() on the source, which writes to it. 
+	public void updateSource()
+	{
+		JGRectangle bbox = source.getBBoxConst();
+		double halfWidth = bbox != null ? bbox.width/2.0 : 0.0;
+		
+		sourceX = source.x+halfWidth;
+		sourceY = source.y+halfWidth;
 	}
 
 	// May override this method for special effects to be carried out when an object enters the 
@@ -39,15 +54,30 @@ public class ElectricField extends ForceField
 
 	}
 
+	// Overriding this method lets a ForceFieldIndex skip this field for RBObjects that are not near
+	// the source. The field reaches 40 pixels from the centre of the source (see inField() below).
+	@Override
+	public boolean getBounds(JGRectangle out)
+	{
+		out.x = (int)Math.floor(sourceX - 40.0);
+		out.y = (int)Math.floor(sourceY - 40.0);
+		out.width = 81;
+		out.height = 81;
+		
+		return true;
+	}
+	
 	// This method is overridden to develop an algorithm for determining whether or not an RBObject
 	// has entered the influence of the ForceField. 
 	@Override
 	public boolean inField(RBObject rb) 
 	{
-		// First calculate the distance between the source and an RBObject.
-		double distance = 
-				Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - (source.x+source.getBBox().width/2.0), 2.0) 
-						+ Math.pow((rb.y+rb.getBBox().width/2.0) - (source.y+source.getBBox().width/2.0), 2.0));
+		// First calculate the distance between the source and an RBObject. getBBoxConst() is used
+		// instead of getBBox() so that no new rectangles are created.
+		double halfWidth = rb.getBBoxConst().width/2.0;
+		double dx = (rb.x+halfWidth) - sourceX;
+		double dy = (rb.y+halfWidth) - sourceY;
+		double distance = Math.sqrt(dx*dx + dy*dy);
 		
 		// If the distance is less than 40, return true. 
 		if(distance < 40.0)
@@ -57,34 +87,46 @@ public class ElectricField extends ForceField
 	}
 
 	// Override this method to determine a formula for calculating the force a ForceField exerts on
-	// an RBObject.
+	// an RBObject. Here it just uses the method below.
 	@Override
 	protected Vec2D calcForce(RBObject rb) 
+	{
+		Vec2D force = new Vec2D();
+		calcForce(rb, force);
+		
+		return force; // Return the force. 
+	}
+	
+	// Overriding this method as well lets RBObjects get the force without a new vector being 
+	// created every frame. The force is copied into out. 
+	@Override
+	protected void calcForce(RBObject rb, Vec2D out) 
 	{
 		// If the object is an instance of Electrode, then return a zero vector. 
 		if(rb instanceof Electrode)
-			return new Vec2D(0.0, 0.0);
+		{
+			out.setZero();
+			return;
+		}
 		
 		// Determine the product of the source's charge and the RBObject's charge. 
 		double comboCharge = rb.getCharge()*source.getCharge();
 		
 		// Next, calculate the distance between the source and an RBObject.
-		double distance = 
-				Math.sqrt(Math.pow((rb.x+rb.getBBox().width/2.0) - (source.x+source.getBBox().width/2.0), 2.0) 
-						+ Math.pow((rb.y+rb.getBBox().width/2.0) - (source.y+source.getBBox().width/2.0), 2.0));
+		double halfWidth = rb.getBBoxConst().width/2.0;
+		double dx = sourceX - (rb.x+halfWidth);
+		double dy = sourceY - (rb.y+halfWidth);
+		double distance = Math.sqrt(dx*dx + dy*dy);
 		
 		// Create a force in the direction from the RBObejct to the source object.
-		Vec2D force = new Vec2D(new Coord(rb.x+rb.getBBox().width/2.0, rb.y+rb.getBBox().width/2.0), 
-				new Coord(source.x+source.getBBox().width/2.0, source.y+source.getBBox().width/2.0));
-		force.changeMag(-5.0*comboCharge/Math.pow(distance, 2.0)); // Change the magnitude of the 
-																   // force to be the product of the
-																   // two charges of the involved
-																   // objects divided by the square
-																   // of the distance between those
-																   // two objects (and then scaled
-																   // by -5.0). 
-		
-		return force; // Return the force. 
+		out.set(dx, dy);
+		out.changeMag(-5.0*comboCharge/(distance*distance)); // Change the magnitude of the 
+															 // force to be the product of the
+															 // two charges of the involved
+															 // objects divided by the square
+															 // of the distance between those
+															 // two objects (and then scaled
+															 // by -5.0). 
 	}
 
 }
@@ -25,6 +25,8 @@ public class Electrode extends Actor
 	@Override
 	public void routine()
 	{
+		eField.updateSource(); // Let the field know where the electrode is this frame. 
+		
 		if(GF_Tech_Demo.getCurrFrame()%450 == 0)
 		{
 			Vec2D randAccel = new Vec2D(random(0, 360), 1.0);
@@ -8,6 +8,7 @@ package techdemo;
 
 import jgame.JGPoint;
 import gameframe.ActorManager;
+import gameframe.GameContext;
 import gameframe.rbs.Actor;
 import gameframe.vecmath.Vec2D;
 
@@ -24,7 +25,7 @@ public class ElectrodeManager extends ActorManager
 		if(spawnMode == SET_INTERVAL)
 		{
 			if(elapsed()%spawnInstruct[0] == 0 && list.size() < maxPop 
-				&& Actor.getCount() < Actor.maxActors)
+				&& Actor.getCount() < GameContext.current().maxActors)
 			{
 				Vec2D randVel = new Vec2D(270.0 - Math.random()*90.0, 1.0);
 				list.add(new Electrode(spawnInstruct[1], spawnInstruct[2], randVel, this));
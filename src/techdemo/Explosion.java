@@ -3,16 +3,35 @@ package techdemo;
 /*
  * Particle used to create explosion effects when a ball object hits and destroys a Diamond.
  * Very similar to the Debris Particle. Look at the Debris Particle for information on Constructor
- * parameters.
+ * parameters and on obtain().
  */
 
+import gameframe.rbs.ObjectPool;
 import gameframe.rbs.Particle;
 
 public class Explosion extends Particle 
 {
+	private static ObjectPool<Explosion> pool = new ObjectPool<Explosion>(32);
+	
 	public Explosion(double x, double y)
 	{
 		super("explosion", true, x, y, 0, "explosion", expire_off_view, GF_Tech_Demo.getCurrFrame(),
 				1.0, 0.0, 0.0, 1.0, false, true, true, true, true, false, 8);
 	}
+	
+	public static Explosion obtain(double x, double y)
+	{
+		Explosion explosion = pool.obtain();
+		
+		if(explosion == null)
+		{
+			explosion = new Explosion(x, y);
+			explosion.setPool(pool);
+		}
+		else
+			explosion.reuse(x, y, 0, "explosion", null, expire_off_view, GF_Tech_Demo.getCurrFrame(),
+					8);
+		
+		return explosion;
+	}
 }
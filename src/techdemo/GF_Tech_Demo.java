@@ -11,9 +11,8 @@ package techdemo;
 import jgame.*;
 import gameframe.*;
 import gameframe.forcefields.ForceField;
-import gameframe.rbs.Actor;
-import gameframe.rbs.Particle;
-import gameframe.rbs.Projectile;
+import gameframe.rbs.ParticleSystem;
+import gameframe.rbs.RBObject;
 import gameframe.vecmath.Vec2D;
 
 // Extend the GameFrame class instead of JGEngine for your main class. 
@@ -37,7 +36,19 @@ public class GF_Tech_Demo extends GameFrame
 	ElectrodeManager eManager;
 	
 	Launcher player; // An Actor for the player object. Example of an Actor not managed by and ActorManager.
+	
+	// Sparks are only a visual effect, so they are particles of a ParticleSystem instead of game objects. 
+	public static ParticleSystem sparks;
 
+	// The {srccid, dstcid} pairs checked each frame, in the order they are checked. Passing all pairs to a
+	// single checkCollisions() call lets the engine scan the object list once instead of once per pair.
+	private static final int[][] collisionPairs = {
+		{8, 8}, {16, 16}, {32, 32},
+		{8, 16}, {16, 8},
+		{32, 8}, {8, 32},
+		{32, 16}, {16, 32}
+	};
+	
 	// Entry method for game, constructor creates a new instance of GF_Tech_Demo, which will create a JGEngine
 	// object that will start producing frames to a window with the given dimensions.
 	public static void main(String[] args) 
@@ -83,6 +94,10 @@ public class GF_Tech_Demo extends GameFrame
 		
 		setFrameRate(45, 2); // Set the game to produce frames at 45 frames per second. Allow engine to skip
 							 // rendering up to two frames.
+		setFixedTimestep(true); // Run frames at exactly 45 per second, and draw in between at the refresh
+								// rate of the display.
+		setRenderSnapshot(true); // Draw sprites from a copy made at the end of each frame, so that drawing
+								 // and the next frame can run at the same time.
 		
 		defineMedia("demo_images.tbl"); // Load media used for sprites and animations defined in the media table.
 		
@@ -117,13 +132,37 @@ public class GF_Tech_Demo extends GameFrame
 		Vec2D.useRadians = false; // When setting vector angles, they will be interpreted as degrees.
 		
 		// Turn gravity on and set the gravity vector.
-		Gravity.gravOn = true;
+		Gravity.setGravOn(true);
 		Gravity.set_g(new Vec2D(90.0, 0.01));
 		
-		// Set the max number of objects that may be created at once.
-		Particle.maxParticles = 100; // Max particles.
-		Projectile.maxProjectiles = 30; // Max projectiles.
-		Actor.maxActors = 20; // Max actors. 
+		// Set the max number of objects that may be created at once. These settings are kept in the GameContext,
+		// like the other settings of the framework.
+		GameContext context = GameContext.current();
+		context.maxParticles = 100; // Max particles.
+		context.maxProjectiles = 30; // Max projectiles.
+		context.maxActors = 20; // Max actors. 
+		
+		// Put RBObjects to sleep once they have been at rest for a second, such as Debris lying on a floor. They
+		// wake up again when something hits or pushes them. 
+		context.sleepFrames = 45;
+		
+		// Create the ParticleSystem for sparks (from the railing and from explosions), drawn with the "spark"
+		// image. Sparks have the same physical properties as the Spark Particle: they fall, are pushed around
+		// by the electric fields of Electrodes, and disappear after 30 frames or when they leave the view. 
+		sparks = new ParticleSystem(this, 4096, "spark");
+		sparks.mass = 0.1;
+		sparks.charge = 1.0;
+		sparks.byField = true;
+		sparks.expireOffView = true;
+		
+		// Sparks emitted with collide set become Spark Particles, which are real game objects. 
+		sparks.setPromoter(new ParticleSystem.Promoter() 
+		{
+			public RBObject promote(double x, double y, Vec2D vel, int life)
+			{
+				return Spark.obtain(x, y, vel);
+			}
+		});
 		
 		// Initialize the Surface objects. Pass the collision IDs of the tiles they should be associated with.
 		// These IDs are defined in the media table. 
@@ -163,20 +202,13 @@ public class GF_Tech_Demo extends GameFrame
 	}
 	
 	// Object-object collision is done by calling checkCollision() and passing the collision IDs of the objects
-	// for every desired pair whose collisions should be checked. Override this method to make these collision
-	// detection calls each frame. Do not use this method for anything else, not even object-tile collisions.
+	// for every desired pair whose collisions should be checked, or by passing all pairs at once to
+	// checkCollisions(). Override this method to make these collision detection calls each frame. Do not use
+	// this method for anything else, not even object-tile collisions.
 	@Override
 	public void collideObjects()
 	{
-		checkCollision(8, 8);
-		checkCollision(16, 16);
-		checkCollision(32, 32);
-		checkCollision(8, 16);
-		checkCollision(16, 8);
-		checkCollision(32, 8);
-		checkCollision(8, 32);
-		checkCollision(32, 16);
-		checkCollision(16, 32);
+		checkCollisions(collisionPairs);
 	}
 	
 	// Object-tile collision is done by calling checkBGCollision() and passing the AND of all the tile collision
@@ -335,7 +367,7 @@ public class GF_Tech_Demo extends GameFrame
 		score = 0; // Reset score.
 		time = 180; // Reset timer.
 		
-		// When reseting the game, ManagerList.list, ForceField.list, and Surface.list may require you to clear 
+		// When reseting the game, ManagerList, ForceField.list, and Surface.list may require you to clear 
 		// out all the objects contained by them unless you are sure the same exact objects can be used next time
 		// around and do not need to be reset. 
 		
@@ -6,13 +6,14 @@ package techdemo;
  * it. Look at the SteelSurface class for explanations to some of the constructor parameters. 
  */
 
-import gameframe.rbs.Particle;
 import gameframe.rbs.RBObject;
 import gameframe.surface.Surface;
 import gameframe.vecmath.Vec2D;
 
 public class RailingSurface extends Surface 
 {
+	private Vec2D pVel = new Vec2D(); // Velocity of new sparks, reused so that no garbage is created.
+	
 	public RailingSurface(int[] cids)
 	{
 		super(cids, 0.2, 0.1, 1.0, 
@@ -25,10 +26,9 @@ public class RailingSurface extends Surface
 	@Override
 	public void onContact(RBObject rb, int tx, int ty, int txsize, int tysize)
 	{
-		// Every three frames, if the RBObject is the launcher and the number of Particles created
-		// is less than maxParticles. 
-		if(rb instanceof Launcher && Particle.getCount() <= Particle.maxParticles 
-				&& GF_Tech_Demo.getCurrFrame()%3 == 0)
+		// Every three frames, if the RBObject is the launcher. The sparks are particles of the
+		// sparks ParticleSystem, which has its own limit on the number of particles. 
+		if(rb instanceof Launcher && GF_Tech_Demo.getCurrFrame()%3 == 0)
 		{
 			// If the speed of the launcher is greater than 0.3.
 			if(Math.abs(rb.yspeed) > 0.3)
@@ -40,27 +40,27 @@ public class RailingSurface extends Surface
 				if(Math.random() > 0.5)
 					angleAdjust *= -1.0;
 			
-				// Create a new Spark with an initial velocity away from the railing at the 
+				// Emit a new spark with an initial velocity away from the railing at the 
 				// randomly selected corner of the launcher.
 				if(corner == 1)
 				{
-					Vec2D pVel = new Vec2D(225 + angleAdjust, 0.5);
-					new Spark(rb.x + 2, rb.y, pVel);
+					pVel.setVec(225 + angleAdjust, 0.5);
+					GF_Tech_Demo.sparks.emit(rb.x + 2, rb.y, pVel, 30);
 				}
 				else if(corner == 2)
 				{
-					Vec2D pVel = new Vec2D(315 + angleAdjust, 0.5);
-					new Spark(rb.x + 13, rb.y, pVel);
+					pVel.setVec(315 + angleAdjust, 0.5);
+					GF_Tech_Demo.sparks.emit(rb.x + 13, rb.y, pVel, 30);
 				}
 				else if(corner == 3)
 				{
-					Vec2D pVel = new Vec2D(135 + angleAdjust, 0.5);
-					new Spark(rb.x + 2, rb.y + 15, pVel);
+					pVel.setVec(135 + angleAdjust, 0.5);
+					GF_Tech_Demo.sparks.emit(rb.x + 2, rb.y + 15, pVel, 30);
 				}
 				else
 				{
-					Vec2D pVel = new Vec2D(45 + angleAdjust, 0.5);
-					new Spark(rb.x + 13, rb.y + 15, pVel);
+					pVel.setVec(45 + angleAdjust, 0.5);
+					GF_Tech_Demo.sparks.emit(rb.x + 13, rb.y + 15, pVel, 30);
 				}
 			}
 		}
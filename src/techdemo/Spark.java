@@ -3,17 +3,37 @@ package techdemo;
 /*
  * Particle used to create spark effects when the launcher object slides too fast on the rails.
  * Very similar to the Debris Particle. Look at the Debris Particle for information on Constructor
- * parameters.
+ * parameters and on obtain().
  */
 
+import gameframe.rbs.ObjectPool;
 import gameframe.rbs.Particle;
 import gameframe.vecmath.Vec2D;
 
 public class Spark extends Particle 
 {
+	private static ObjectPool<Spark> pool = new ObjectPool<Spark>(128);
+	
 	public Spark(double x, double y, Vec2D vel)
 	{
 		super("spark", true, x, y, 2, "spark", vel, expire_off_view, GF_Tech_Demo.getCurrFrame(),
 				0.1, 1, 0.1, 0, true, true, true, false, true, true, 30);
 	}
+	
+	public static Spark obtain(double x, double y, Vec2D vel)
+	{
+		Spark spark = pool.obtain();
+		
+		if(spark == null)
+		{
+			Vec2D copy = new Vec2D(); // The new Spark keeps the Vec2D it is given.
+			copy.set(vel);
+			spark = new Spark(x, y, copy);
+			spark.setPool(pool);
+		}
+		else
+			spark.reuse(x, y, 2, "spark", vel, expire_off_view, GF_Tech_Demo.getCurrFrame(), 30);
+		
+		return spark;
+	}
 }
@@ -12,6 +12,9 @@ import gameframe.vecmath.Vec2D;
 
 public class SteelSurface extends Surface 
 {
+	private Vec2D pVel = new Vec2D(); // Velocity of new Debris, reused so that no garbage is created.
+	private JGRectangle rbSize = new JGRectangle(); // Bounding box of the RBObject, also reused.
+	
 	// Pass array of collision IDs associated with this Surface through the constructor.
 	public SteelSurface(int[] cids)
 	{
@@ -33,7 +36,7 @@ public class SteelSurface extends Surface
 		{
 			int side = findSide(rb, tx, ty, txsize, tysize); // Find the side of the tile that the
 														
-			JGRectangle rbSize = rb.getBBox(); // Get the dimensions of the RBObject.
+			rb.getBBox(rbSize); // Get the dimensions of the RBObject.
 			int angleAdjust = (int)(Math.random()*180); // Get a random angle to add to the intended
 														// direction that a Debris will be launched in.
 		
@@ -41,23 +44,23 @@ public class SteelSurface extends Surface
 			// the steel wall that has an initial velocity pointing away from the wall.
 			if(side == TOP)
 			{
-				Vec2D pVel = new Vec2D((180 + angleAdjust), 0.5);
-				new Debris(rb.x + (double)(rbSize.width/2), ty*16 + 11, pVel);
+				pVel.setVec((180 + angleAdjust), 0.5);
+				Debris.obtain(rb.x + (double)(rbSize.width/2), ty*16 + 11, pVel);
 			}
 			if(side == BOTTOM)
 			{
-				Vec2D pVel = new Vec2D((0 + angleAdjust), 0.5);
-				new Debris(rb.x + (double)(rbSize.width/2), ty*16 + 16, pVel);
+				pVel.setVec((0 + angleAdjust), 0.5);
+				Debris.obtain(rb.x + (double)(rbSize.width/2), ty*16 + 16, pVel);
 			}
 			if(side == RIGHT)
 			{
-				Vec2D pVel = new Vec2D((270 + angleAdjust), 0.5);
-				new Debris(tx*16 + 16, rb.y + (double)(rbSize.height/2), pVel);
+				pVel.setVec((270 + angleAdjust), 0.5);
+				Debris.obtain(tx*16 + 16, rb.y + (double)(rbSize.height/2), pVel);
 			}
 			if(side == LEFT)
 			{
-				Vec2D pVel = new Vec2D((0 + angleAdjust), 0.5);
-				new Debris(tx*16 + 11, rb.y + (double)(rbSize.height/2), pVel);
+				pVel.setVec((0 + angleAdjust), 0.5);
+				Debris.obtain(tx*16 + 11, rb.y + (double)(rbSize.height/2), pVel);
 			}
 		}
 	}